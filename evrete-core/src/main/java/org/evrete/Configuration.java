@@ -24,8 +24,20 @@ public class Configuration extends Properties implements Copyable<Configuration>
     public static final String INSERT_BUFFER_SIZE = "evrete.core.insert-buffer-size";
     public static final String WARN_UNKNOWN_TYPES = "evrete.core.warn-unknown-types";
     public static final boolean WARN_UNKNOWN_TYPES_DEFAULT = true;
+    public static final String BULK_INSERT_CHUNK_SIZE = "evrete.core.bulk-insert-chunk-size";
+    public static final int BULK_INSERT_CHUNK_SIZE_DEFAULT = 4096;
+    public static final String PARALLEL_RHS_CHUNK_SIZE = "evrete.core.parallel-rhs-chunk-size";
+    public static final int PARALLEL_RHS_CHUNK_SIZE_DEFAULT = 1024;
+    public static final String INLINE_FIRE_THRESHOLD = "evrete.core.inline-fire-threshold";
+    public static final int INLINE_FIRE_THRESHOLD_DEFAULT = 32;
+    public static final String THREAD_CONFINED = "evrete.core.thread-confined";
+    public static final boolean THREAD_CONFINED_DEFAULT = false;
     public static final String DAEMON_INNER_THREADS = "evrete.core.daemon-threads";
     public static final boolean DAEMON_INNER_THREADS_DEFAULT = true;
+    public static final String EXECUTOR_STRATEGY = "evrete.core.executor-strategy";
+    public static final String EXECUTOR_STRATEGY_FIXED = "fixed";
+    public static final String EXECUTOR_STRATEGY_FORK_JOIN = "fork-join";
+    public static final String EXECUTOR_STRATEGY_VIRTUAL = "virtual";
     public static final String IDENTITY_METHOD_EQUALS = "equals";
     public static final String IDENTITY_METHOD_IDENTITY = "identity";
     static final String SPI_MEMORY_FACTORY = "evrete.spi.memory-factory";
@@ -36,6 +48,15 @@ public class Configuration extends Properties implements Copyable<Configuration>
     public static final String RULE_BASE_CLASS = "evrete.impl.rule-base-class";
     public static final String SPI_LHS_STRIP_WHITESPACES = "evrete.spi.compiler.lhs-strip-whitespaces";
     public static final String DISABLE_LITERAL_DATA = "evrete.core.disable-literal-data";
+    public static final String COMPILER_CACHE_DIR = "evrete.core.compiler-cache-dir";
+    public static final String COMPILER_SHARD_SIZE = "evrete.core.compiler-shard-size";
+    public static final int COMPILER_SHARD_SIZE_DEFAULT = 64;
+    public static final String COMPILER_PACK_SIZE = "evrete.core.compiler-pack-size";
+    public static final int COMPILER_PACK_SIZE_DEFAULT = 16;
+    public static final String LITERAL_INTERPRETER = "evrete.core.literal-interpreter";
+    public static final boolean LITERAL_INTERPRETER_DEFAULT = true;
+    public static final String TIERED_COMPILATION = "evrete.core.tiered-compilation";
+    public static final boolean TIERED_COMPILATION_DEFAULT = false;
 
 
     private static final Set<String> OBSOLETE_PROPERTIES = new HashSet<>(Arrays.asList(
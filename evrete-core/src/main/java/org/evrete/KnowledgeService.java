@@ -19,6 +19,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.ServiceLoader;
 import java.util.concurrent.ExecutorService;
+import java.util.logging.Logger;
 
 /**
  * <p>
@@ -28,6 +29,7 @@ import java.util.concurrent.ExecutorService;
  * </p>
  */
 public class KnowledgeService extends AbstractKnowledgeService {
+    private static final Logger LOGGER = Logger.getLogger(KnowledgeService.class.getName());
     private final Configuration configuration;
     private final MemoryFactoryProvider collectionsServiceProvider;
     private final TypeResolverProvider typeResolverProvider;
@@ -51,11 +53,27 @@ public class KnowledgeService extends AbstractKnowledgeService {
         this(new Configuration());
     }
 
-    static ExecutorService executorFactory(Builder builder) {
+    static DelegatingExecutorService executorFactory(Builder builder) {
         if(builder.executor == null) {
             int parallelism = builder.conf.getAsInteger(Configuration.PARALLELISM,Runtime.getRuntime().availableProcessors());
             boolean daemonThreads = builder.conf.getAsBoolean(Configuration.DAEMON_INNER_THREADS, Configuration.DAEMON_INNER_THREADS_DEFAULT);
-            return new DelegatingExecutorService(parallelism, daemonThreads);
+            String strategy = builder.conf.getProperty(Configuration.EXECUTOR_STRATEGY, Configuration.EXECUTOR_STRATEGY_FIXED).trim();
+            switch (strategy) {
+                case Configuration.EXECUTOR_STRATEGY_FIXED:
+                    return DelegatingExecutorService.fixedThreadPool(parallelism, daemonThreads);
+                case Configuration.EXECUTOR_STRATEGY_FORK_JOIN:
+                    return DelegatingExecutorService.forkJoinPool(parallelism, daemonThreads);
+                case Configuration.EXECUTOR_STRATEGY_VIRTUAL:
+                    try {
+                        return DelegatingExecutorService.virtualThreads();
+                    } catch (UnsupportedOperationException e) {
+                        LOGGER.warning(() -> e.getMessage() + ", falling back to the '" + Configuration.EXECUTOR_STRATEGY_FIXED + "' executor strategy");
+                        return DelegatingExecutorService.fixedThreadPool(parallelism, daemonThreads);
+                    }
+                default:
+                    LOGGER.warning(() -> "Unknown executor strategy '" + strategy + "', falling back to '" + Configuration.EXECUTOR_STRATEGY_FIXED + "'");
+                    return DelegatingExecutorService.fixedThreadPool(parallelism, daemonThreads);
+            }
         } else {
             return new DelegatingExecutorService(builder.executor);
         }
@@ -78,6 +96,7 @@ public class KnowledgeService extends AbstractKnowledgeService {
      */
     public void shutdown() {
         super.shutdownInner();
+        this.sourceCompilerProvider.invalidateCaches();
     }
 
     @SuppressWarnings("unused")
@@ -99,6 +118,18 @@ public class KnowledgeService extends AbstractKnowledgeService {
         return new KnowledgeRuntime(this, name);
     }
 
+    /**
+     * Reads a knowledge instance from a snapshot written by {@link Knowledge#writeSnapshot(java.io.OutputStream)}.
+     * The rules are built again, but classes compiled from their literal sources are loaded from the snapshot.
+     *
+     * @param in the snapshot's input stream, it is not closed by this method
+     * @return a new {@link Knowledge} instance
+     * @throws IOException if an I/O error occurs or if the data is not a valid snapshot
+     */
+    public Knowledge readSnapshot(InputStream in) throws IOException {
+        return KnowledgeRuntime.readSnapshot(this, in);
+    }
+
     /**
      * @param typeResolver the type resolver to use in the newly created Knowledge instance
      * @return an empty {@link Knowledge} instance
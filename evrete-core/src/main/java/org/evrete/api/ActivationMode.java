@@ -19,5 +19,27 @@ public enum ActivationMode {
      * Facts that are marked for deletion or have a different version are excluded
      * from the action block.
      */
-    DEFAULT
+    DEFAULT,
+    /**
+     * With this mode, the engine places individual activations, i.e. combinations of a rule
+     * and its matching facts, in a priority queue ordered by the rules' salience and then
+     * by recency, so that activations caused by the latest changes come first.
+     * Just like in the {@link #DEFAULT} mode, the engine stops as soon as an activation
+     * creates new WMAs and resumes the queue once the memory is updated. Activations
+     * whose facts have been deleted or changed in the meantime are skipped.
+     * Unlike with the other modes, a rule's action block does not see the rule's whole delta
+     * at once: the WMAs of each activation are applied before the rule's next activation is executed,
+     * so the results of rules whose activations affect each other depend on the order of activations.
+     */
+    PRIORITY,
+    /**
+     * This mode is similar to {@link #CONTINUOUS}, but the action blocks of the agenda's rules
+     * are executed concurrently using the service's executor. A rule whose activations exceed
+     * the {@link org.evrete.Configuration#PARALLEL_RHS_CHUNK_SIZE} setting is additionally split
+     * into chunks of activations that are executed concurrently as well. Each rule, or chunk, collects its
+     * WMAs separately, and the results are merged in the agenda's and activations' order once all the
+     * rules are complete. Rules' actions must therefore be thread-safe, and a rule's action block
+     * may be called concurrently with itself.
+     */
+    PARALLEL
 }
@@ -1,5 +1,7 @@
 package org.evrete.api;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Collection;
 
 /**
@@ -57,4 +59,22 @@ public interface Knowledge extends RuleSetContext<Knowledge, RuleDescriptor> {
         setActivationManagerFactory(factory);
         return this;
     }
+
+    /**
+     * <p>
+     * Writes a binary snapshot of this knowledge, including the bytecode of the classes compiled from the rules'
+     * literal conditions and actions. The snapshot can be read with {@link org.evrete.KnowledgeService#readSnapshot(java.io.InputStream)}
+     * without invoking the Java compiler.
+     * </p>
+     * <p>
+     * Only rules that consist of literal conditions and literal actions can be written. Types are stored by
+     * their names and Java classes, fields declared with functions, custom rule comparators, and listeners
+     * are not part of a snapshot. Snapshots are meant to be read by the same version of the application.
+     * </p>
+     *
+     * @param out the output stream, it is not closed by this method
+     * @throws IOException           if an I/O error occurs
+     * @throws IllegalStateException if the knowledge contains rules or properties that can't be written
+     */
+    void writeSnapshot(OutputStream out) throws IOException;
 }
@@ -4,6 +4,7 @@ import org.evrete.api.annotations.NonNull;
 import org.evrete.api.annotations.Nullable;
 
 import java.util.Collection;
+import java.util.Collections;
 
 /**
  * <p>
@@ -44,4 +45,15 @@ public interface RuleLiteralData<R extends Rule, C extends LiteralPredicate> {
      */
     @Nullable
     String rhs();
+
+    /**
+     * Returns the rule's parameters that literal conditions and the RHS may refer to.
+     *
+     * @return the rule's parameters in the order of declaration, empty by default
+     * @see RuleParameter
+     */
+    @NonNull
+    default Collection<RuleParameter> parameters() {
+        return Collections.emptyList();
+    }
 }
@@ -0,0 +1,78 @@
+package org.evrete.api;
+
+import java.util.Objects;
+
+/**
+ * <p>
+ * A named constant of a rule. Literal conditions and the literal RHS of the rule refer to parameters
+ * as Java variables of the declared type. Rules that differ only in their parameter values share
+ * their compiled literal sources, see {@link org.evrete.api.builders.RuleBuilder#parameter(String, Class, Object)}.
+ * </p>
+ */
+public final class RuleParameter {
+    private final String name;
+    private final Class<?> type;
+    private final Object value;
+
+    /**
+     * @param name  parameter name, a valid Java identifier without the '$' character
+     * @param type  parameter type, primitive types are allowed
+     * @param value parameter value
+     * @throws IllegalArgumentException if the name is not valid or if the value does not match the type
+     */
+    public RuleParameter(String name, Class<?> type, Object value) {
+        this.name = Objects.requireNonNull(name);
+        this.type = Objects.requireNonNull(type);
+        this.value = value;
+        if (!isValidName(name)) {
+            throw new IllegalArgumentException("Invalid parameter name '" + name + "'");
+        }
+        if (type == void.class) {
+            throw new IllegalArgumentException("Invalid type of parameter '" + name + "'");
+        }
+        if (type.isPrimitive() ? !isWrapper(type, value) : value != null && !type.isInstance(value)) {
+            throw new IllegalArgumentException("Value of parameter '" + name + "' does not match its type " + type.getName());
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    private static boolean isValidName(String name) {
+        if (name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0))) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '$' || !Character.isJavaIdentifierPart(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWrapper(Class<?> primitive, Object value) {
+        if (primitive == int.class) return value instanceof Integer;
+        if (primitive == long.class) return value instanceof Long;
+        if (primitive == double.class) return value instanceof Double;
+        if (primitive == float.class) return value instanceof Float;
+        if (primitive == boolean.class) return value instanceof Boolean;
+        if (primitive == char.class) return value instanceof Character;
+        if (primitive == short.class) return value instanceof Short;
+        return primitive == byte.class && value instanceof Byte;
+    }
+
+    @Override
+    public String toString() {
+        return "{name='" + name + "', type=" + type.getName() + ", value=" + value + "}";
+    }
+}
@@ -1,6 +1,10 @@
 package org.evrete.api;
 
+import java.util.Collection;
+import java.util.Spliterator;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collector;
 
 /**
@@ -94,6 +98,90 @@ public interface RuleSession<S extends RuleSession<S>> extends RuleSetContext<S,
         return (S) this;
     }
 
+    /**
+     * <p>
+     * Bulk insert of facts that share the same Java type. Unlike {@link #insert(Iterable)}, the engine
+     * resolves the logical type only once, from the provided class, and reads the facts' field values
+     * in parallel chunks when the collection is large enough.
+     * </p>
+     *
+     * @param type  Java class of the facts
+     * @param facts facts to insert
+     * @param <T>   type parameter
+     * @return this instance
+     * @see TypeResolver#resolveByJavaType(Class)
+     */
+    <T> S insertAll(Class<T> type, Collection<? extends T> facts);
+
+    /**
+     * <p>
+     * Bulk insert of facts provided by a {@link Spliterator}. The source will be split into chunks
+     * that are processed in parallel. Logical types are derived from the facts' Java classes and resolved
+     * once per run of same-class facts.
+     * </p>
+     *
+     * @param facts source of facts to insert
+     * @return this instance
+     * @see #insert(Iterable)
+     */
+    S insertAll(Spliterator<?> facts);
+
+    /**
+     * <p>
+     * Bulk delete of facts that match the provided filter. Instead of deleting facts one by one, the engine
+     * scans the memories of the given Java type (and its subtypes) in parallel chunks and applies the resulting
+     * deletions as a single batch per memory.
+     * </p>
+     *
+     * @param type   Java class of the facts
+     * @param filter the condition that the facts to be deleted must satisfy
+     * @param <T>    type parameter
+     * @return this instance
+     * @see #delete(FactHandle)
+     */
+    <T> S deleteAll(Class<T> type, Predicate<? super T> filter);
+
+    /**
+     * <p>
+     * Bulk delete of facts of the given logical type that match the provided filter.
+     * </p>
+     *
+     * @param type   logical type of the facts
+     * @param filter the condition that the facts to be deleted must satisfy
+     * @param <T>    type parameter
+     * @return this instance
+     * @see #deleteAll(Class, Predicate)
+     */
+    <T> S deleteAll(String type, Predicate<T> filter);
+
+    /**
+     * <p>
+     * Bulk update of facts of the given Java type (and its subtypes). The function receives each fact
+     * and returns its updated version, which may be the same, modified, instance. Returning {@code null}
+     * leaves the fact as is. The function is applied in parallel chunks, so it must be thread-safe.
+     * </p>
+     *
+     * @param type    Java class of the facts
+     * @param updater the function that produces the updated versions of the facts
+     * @param <T>     type parameter
+     * @return this instance
+     * @see #update(FactHandle, Object)
+     */
+    <T> S updateAll(Class<T> type, Function<? super T, ?> updater);
+
+    /**
+     * <p>
+     * Bulk update of facts of the given logical type.
+     * </p>
+     *
+     * @param type    logical type of the facts
+     * @param updater the function that produces the updated versions of the facts
+     * @param <T>     type parameter
+     * @return this instance
+     * @see #updateAll(Class, Function)
+     */
+    <T> S updateAll(String type, Function<T, ?> updater);
+
     /**
      * Retrieves the activation manager associated with this session.
      *
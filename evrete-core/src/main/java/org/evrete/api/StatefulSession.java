@@ -1,5 +1,6 @@
 package org.evrete.api;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
@@ -23,23 +24,39 @@ public interface StatefulSession extends RuleSession<StatefulSession>,  AutoClos
      * @param result the result to return by the Future
      * @param <T> the result type parameter
      * @return a Future representing the pending completion of the {@link #fire()} command
-     * @deprecated Use external tools like {@link java.util.concurrent.ExecutorService#submit(Runnable, Object)}.
+     * @deprecated Use {@link #fireAsync()} and {@link CompletableFuture#thenApply(java.util.function.Function)} instead.
      */
     @Deprecated
     default <T> Future<T> fireAsync(T result) {
-        throw new UnsupportedOperationException("Deprecated");
+        return fireAsync().thenApply(session -> result);
     }
 
     /**
-     * Same as {@link #fireAsync(Object)}, but the Future's get method will return
-     * the session itself.
+     * <p>
+     * Fires the session without blocking the calling thread. The engine's fire cycle is executed
+     * by the service's executor, and the returned future completes with the session itself once
+     * there are no more memory actions to process.
+     * </p>
+     * <p>
+     * Subsequent calls are serialized: each fire starts after the previous one completes.
+     * Facts inserted while a fire is in progress are buffered and processed
+     * either by the current fire, or by the next one.
+     * </p>
+     * <p>
+     * Sessions created with the {@link org.evrete.Configuration#THREAD_CONFINED} option have no background
+     * threads, for them this method executes the fire cycle on the calling thread and returns a completed future.
+     * </p>
+     * <p>
+     * The default implementation returns a future that is completed exceptionally
+     * with an {@link UnsupportedOperationException}.
+     * </p>
      *
-     * @return a Future representing pending completion of the {@link #fire()} command.
-     * @deprecated Use external tools like {@link java.util.concurrent.ExecutorService#submit(Runnable, Object)}.
+     * @return a future representing pending completion of the {@link #fire()} command.
      */
-    @Deprecated
-    default Future<StatefulSession> fireAsync() {
-        throw new UnsupportedOperationException("Deprecated");
+    default CompletableFuture<StatefulSession> fireAsync() {
+        CompletableFuture<StatefulSession> future = new CompletableFuture<>();
+        future.completeExceptionally(new UnsupportedOperationException("Asynchronous fire is not supported by " + getClass().getName()));
+        return future;
     }
 
     /**
@@ -1,5 +1,6 @@
 package org.evrete.api;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -33,6 +34,21 @@ public interface StatelessSession extends RuleSession<StatelessSession> {
      */
     Void fire();
 
+    /**
+     * <p>
+     * Fires the session without blocking the calling thread and closes it once the
+     * fire cycle is complete.
+     * </p>
+     * <p>
+     * Facts can't be inserted, updated, or deleted once this method is called, because they
+     * would never be processed. Such attempts throw an {@link IllegalStateException}.
+     * </p>
+     *
+     * @return a future representing pending completion of the {@link #fire()} command.
+     * @see StatefulSession#fireAsync()
+     */
+    CompletableFuture<Void> fireAsync();
+
 
     /**
      * <p>
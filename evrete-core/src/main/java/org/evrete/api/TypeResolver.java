@@ -135,4 +135,24 @@ public interface TypeResolver extends Copyable<TypeResolver> {
      */
     <T> Type<T> resolve(Object o);
 
+    /**
+     * <p>
+     * Resolves the logical type for instances of the given Java class. Bulk operations use this method
+     * to resolve the type once for a whole batch of facts instead of calling {@link #resolve(Object)}
+     * for each of them.
+     * </p>
+     * <p>
+     * The default implementation only looks for direct, unambiguous matches.
+     * </p>
+     *
+     * @param javaType the Java class of the facts
+     * @param <T>      type parameter
+     * @return Type of the class's instances or null if the class is unknown
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    default <T> Type<T> resolveByJavaType(Class<?> javaType) {
+        Collection<Type<?>> associated = getKnownTypes(javaType);
+        return associated.size() == 1 ? (Type<T>) associated.iterator().next() : null;
+    }
 }
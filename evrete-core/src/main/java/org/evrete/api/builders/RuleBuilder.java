@@ -26,6 +26,34 @@ public interface RuleBuilder<C extends RuntimeContext<C>> extends Rule, LhsFactS
      */
     RuleBuilder<C> salience(int salience);
 
+    /**
+     * <p>
+     * Declares a rule parameter, a named constant that the literal conditions and the literal RHS
+     * of this rule can use as a Java variable of the given type:
+     * </p>
+     * <pre>{@code
+     * builder.newRule()
+     *         .parameter("minAge", int.class, 18)
+     *         .forEach("$c", Customer.class)
+     *         .where("$c.age >= minAge")
+     *         .execute("$c.setAdult(true);");
+     * }</pre>
+     * <p>
+     * Parameter values are bound as data rather than written into the generated sources, so rules
+     * that differ only in their parameter values, like rules generated from a spreadsheet, share
+     * a single compiled class. Such rules can be seen as instances of a rule template.
+     * </p>
+     *
+     * @param name  parameter name, a valid Java identifier without the '$' character
+     * @param type  parameter type, primitive types are allowed
+     * @param value parameter value
+     * @param <T>   parameter type
+     * @return this builder
+     * @throws IllegalArgumentException if the name is not valid or already declared
+     * @see RuleParameter
+     */
+    <T> RuleBuilder<C> parameter(String name, Class<T> type, T value);
+
 
     /**
      * Returns the runtime context of this rule builder.
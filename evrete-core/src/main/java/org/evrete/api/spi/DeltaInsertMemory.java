@@ -1,6 +1,7 @@
 package org.evrete.api.spi;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 
 /**
@@ -21,9 +22,27 @@ public interface DeltaInsertMemory {
     void clear();
 
 
-    default CompletableFuture<Void> commit(ExecutorService executor) {
+    /**
+     * Asynchronously commits the accumulated delta changes. The engine calls this method during fire
+     * cycles, implementations that commit in parallel should override it.
+     *
+     * @param executor the executor to run the commit on
+     * @return future completion of the commit
+     */
+    default CompletableFuture<Void> commit(Executor executor) {
         return CompletableFuture.runAsync(this::commit, executor);
     }
 
+    /**
+     * @param executor the executor to run the commit on
+     * @return future completion of the commit
+     * @deprecated the engine no longer calls this method, implementations should override
+     * {@link #commit(Executor)} instead
+     */
+    @Deprecated
+    default CompletableFuture<Void> commit(ExecutorService executor) {
+        return commit((Executor) executor);
+    }
+
 }
 
@@ -1,5 +1,6 @@
 package org.evrete.api.spi;
 
+import org.evrete.Configuration;
 import org.evrete.api.OrderedServiceProvider;
 
 /**
@@ -15,4 +16,24 @@ public interface SourceCompilerProvider extends OrderedServiceProvider {
      */
     SourceCompiler instance(ClassLoader classLoader);
 
+    /**
+     * Creates a new instance of {@link SourceCompiler} using the specified {@link ClassLoader} and
+     * configuration options. The default implementation ignores the configuration.
+     *
+     * @param classLoader   the class loader to be used by the {@link SourceCompiler}.
+     * @param configuration the configuration of the calling context.
+     * @return a new instance of {@link SourceCompiler}.
+     * @see Configuration#COMPILER_CACHE_DIR
+     */
+    default SourceCompiler instance(ClassLoader classLoader, Configuration configuration) {
+        return instance(classLoader);
+    }
+
+    /**
+     * Drops the state that this provider may keep between compilations, like indexes of class path
+     * packages. Call this method if the contents of the class path have changed. The default
+     * implementation does nothing.
+     */
+    default void invalidateCaches() {
+    }
 }
@@ -9,6 +9,12 @@ import java.util.Objects;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
+/**
+ * A hash map with primitive {@code long} keys. By default, modifications are synchronized and reads are not,
+ * an unsynchronized instance can be created for data that is confined to a single thread.
+ *
+ * @param <T> the type of the values
+ */
 public class LongKeyMap<T> implements Iterable<T> {
     private static final int INITIAL_CAPACITY = 16;
     private static final float LOAD_FACTOR = 0.75f;
@@ -29,10 +35,21 @@ public class LongKeyMap<T> implements Iterable<T> {
     private int size;
     private int threshold;
     private int shrinkThreshold;
-    private final Object lock = new Object();
+    /**
+     * The modification lock, {@code null} for unsynchronized instances
+     */
+    private final Object lock;
 
-    @SuppressWarnings("unchecked")
     public LongKeyMap() {
+        this(true);
+    }
+
+    /**
+     * @param threadSafe whether modifications must be synchronized
+     */
+    @SuppressWarnings("unchecked")
+    public LongKeyMap(boolean threadSafe) {
+        this.lock = threadSafe ? new Object() : null;
         table = (Entry<T>[]) new Entry[INITIAL_CAPACITY];
         threshold = (int) (INITIAL_CAPACITY * LOAD_FACTOR);
         shrinkThreshold = (int) (INITIAL_CAPACITY * SHRINK_FACTOR);
@@ -43,60 +60,85 @@ public class LongKeyMap<T> implements Iterable<T> {
      * @param other the source map
      */
     public LongKeyMap(final LongKeyMap<T> other) {
-        synchronized (other.lock) {
-            table = other.table.clone();
-            threshold = other.threshold;
-            shrinkThreshold = other.shrinkThreshold;
-            size = other.size;
+        this.lock = other.lock == null ? null : new Object();
+        if (other.lock == null) {
+            copyFrom(other);
+        } else {
+            synchronized (other.lock) {
+                copyFrom(other);
+            }
         }
     }
 
+    private void copyFrom(LongKeyMap<T> other) {
+        table = other.table.clone();
+        threshold = other.threshold;
+        shrinkThreshold = other.shrinkThreshold;
+        size = other.size;
+    }
+
 
     private int hash(long key) {
         return Integer.hashCode((int)key) & (table.length - 1);
     }
 
     public T put(long key, T value) {
-        synchronized (lock) {
-            int index = hash(key);
-            Entry<T> entry = table[index];
-            Entry<T> prev = null;
-
-            while (entry != null) {
-                if (entry.key == key) {
-                    T oldValue = entry.value;
-                    entry.value = value; // Update value if key exists
-                    return oldValue;
-                }
-                prev = entry;
-                entry = entry.next;
+        if (lock == null) {
+            return putInner(key, value);
+        } else {
+            synchronized (lock) {
+                return putInner(key, value);
             }
+        }
+    }
 
-            if (prev == null) {
-                table[index] = new Entry<>(key, value); // Add new entry if chain is empty
-            } else {
-                prev.next = new Entry<>(key, value); // Add new entry to the chain
-            }
+    private T putInner(long key, T value) {
+        int index = hash(key);
+        Entry<T> entry = table[index];
+        Entry<T> prev = null;
 
-            if (++size > threshold) {
-                resize(table.length * 2);
+        while (entry != null) {
+            if (entry.key == key) {
+                T oldValue = entry.value;
+                entry.value = value; // Update value if key exists
+                return oldValue;
             }
+            prev = entry;
+            entry = entry.next;
+        }
 
-            return null;
+        if (prev == null) {
+            table[index] = new Entry<>(key, value); // Add new entry if chain is empty
+        } else {
+            prev.next = new Entry<>(key, value); // Add new entry to the chain
         }
+
+        if (++size > threshold) {
+            resize(table.length * 2);
+        }
+
+        return null;
     }
 
     public void clear() {
-        synchronized (lock) {
-            @SuppressWarnings("unchecked")
-            Entry<T>[] newTable = (Entry<T>[]) new Entry[INITIAL_CAPACITY];
-            table = newTable;
-            size = 0;
-            threshold = (int) (INITIAL_CAPACITY * LOAD_FACTOR);
-            shrinkThreshold = (int) (INITIAL_CAPACITY * SHRINK_FACTOR);
+        if (lock == null) {
+            clearInner();
+        } else {
+            synchronized (lock) {
+                clearInner();
+            }
         }
     }
 
+    private void clearInner() {
+        @SuppressWarnings("unchecked")
+        Entry<T>[] newTable = (Entry<T>[]) new Entry[INITIAL_CAPACITY];
+        table = newTable;
+        size = 0;
+        threshold = (int) (INITIAL_CAPACITY * LOAD_FACTOR);
+        shrinkThreshold = (int) (INITIAL_CAPACITY * SHRINK_FACTOR);
+    }
+
     private Stream<Entry<T>> entries() {
         return Arrays.stream(table)
                 .filter(Objects::nonNull)
@@ -121,11 +163,16 @@ public class LongKeyMap<T> implements Iterable<T> {
     public T computeIfAbsent(long key, Supplier<T> supplier) {
         T result = get(key);
         if(result == null) {
-            synchronized (lock) {
-                result = get(key);
-                if(result == null) {
-                    result = supplier.get();
-                    put(key,result);
+            if (lock == null) {
+                result = supplier.get();
+                putInner(key, result);
+            } else {
+                synchronized (lock) {
+                    result = get(key);
+                    if(result == null) {
+                        result = supplier.get();
+                        putInner(key, result);
+                    }
                 }
             }
         }
@@ -146,33 +193,41 @@ public class LongKeyMap<T> implements Iterable<T> {
         return null;
     }
 
-    public synchronized T remove(long key) {
-        synchronized (lock) {
-            int index = hash(key);
-            Entry<T> entry = table[index];
-            Entry<T> prev = null;
+    public T remove(long key) {
+        if (lock == null) {
+            return removeInner(key);
+        } else {
+            synchronized (lock) {
+                return removeInner(key);
+            }
+        }
+    }
 
-            while (entry != null) {
-                if (entry.key == key) {
-                    if (prev == null) {
-                        table[index] = entry.next; // Remove first entry in chain
-                    } else {
-                        prev.next = entry.next; // Remove middle or last entry in chain
-                    }
-                    size--;
-                    T ret = entry.value;
-                    if (size < shrinkThreshold && table.length > INITIAL_CAPACITY) {
-                        resize(table.length / 2);
-                    }
+    private T removeInner(long key) {
+        int index = hash(key);
+        Entry<T> entry = table[index];
+        Entry<T> prev = null;
 
-                    return ret;
+        while (entry != null) {
+            if (entry.key == key) {
+                if (prev == null) {
+                    table[index] = entry.next; // Remove first entry in chain
+                } else {
+                    prev.next = entry.next; // Remove middle or last entry in chain
+                }
+                size--;
+                T ret = entry.value;
+                if (size < shrinkThreshold && table.length > INITIAL_CAPACITY) {
+                    resize(table.length / 2);
                 }
-                prev = entry;
-                entry = entry.next;
-            }
 
-            return null; // Key not found
+                return ret;
+            }
+            prev = entry;
+            entry = entry.next;
         }
+
+        return null; // Key not found
     }
 
     @Override
@@ -192,7 +247,7 @@ public class LongKeyMap<T> implements Iterable<T> {
 
         for (Entry<T> entry : oldTable) {
             while (entry != null) {
-                put(entry.key, entry.value);
+                putInner(entry.key, entry.value);
                 entry = entry.next;
             }
         }
@@ -3,8 +3,10 @@ package org.evrete.runtime;
 import org.evrete.api.events.ContextEvent;
 import org.evrete.api.events.EventBus;
 import org.evrete.api.events.Events;
+import org.evrete.util.DelegatingExecutorService;
+import org.evrete.util.ExecutorMetrics;
 
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.*;
 
 /**
  * Base class for {@link org.evrete.KnowledgeService} with runtime specific data
@@ -12,12 +14,36 @@ import java.util.concurrent.ExecutorService;
 public abstract class AbstractKnowledgeService implements EventBus {
     private final EventMessageBus messageBus;
     private final ExecutorService executor;
+    // The source of executor metrics
+    private final DelegatingExecutorService metricsSource;
     private final Events.Subscriptions serviceSubscriptions;
+    // Low-priority work like tiered compilation, kept apart so that it doesn't delay the main executor's tasks
+    private final ThreadPoolExecutor backgroundExecutor;
 
+    /**
+     * @param executor the service's executor, it is shut down together with the service. Executors
+     *                 other than {@link DelegatingExecutorService} report {@link #getExecutorMetrics() metrics}
+     *                 only if they are thread pools or fork/join pools.
+     */
     public AbstractKnowledgeService(ExecutorService executor) {
         this.serviceSubscriptions = new Events.Subscriptions();
         this.messageBus = new EventMessageBus(executor);
         this.executor = executor;
+        // Wrapping only to read the metrics, wrapped executors are not shut down by their wrappers
+        this.metricsSource = executor instanceof DelegatingExecutorService ? (DelegatingExecutorService) executor : new DelegatingExecutorService(executor);
+        this.backgroundExecutor = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "evrete-background");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.backgroundExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @param executor the service's executor, which also reports the {@link #getExecutorMetrics() metrics}
+     */
+    public AbstractKnowledgeService(DelegatingExecutorService executor) {
+        this((ExecutorService) executor);
     }
 
     protected EventMessageBus getMessageBus() {
@@ -47,6 +73,8 @@ public abstract class AbstractKnowledgeService implements EventBus {
      */
     protected void shutdownInner() {
         this.executor.shutdown();
+        // Pending background tasks are dropped, the running one is interrupted
+        this.backgroundExecutor.shutdownNow();
         this.serviceSubscriptions.cancel();
     }
 
@@ -54,4 +82,24 @@ public abstract class AbstractKnowledgeService implements EventBus {
         return executor;
     }
 
+    /**
+     * Returns the single-threaded executor of the service's background tasks. The executor
+     * rejects new tasks once the service is shut down.
+     *
+     * @return the executor of background tasks
+     */
+    public final Executor getBackgroundExecutor() {
+        return backgroundExecutor;
+    }
+
+    /**
+     * Returns the current load of the service's executor, including the number of queued tasks.
+     *
+     * @return executor metrics
+     * @see org.evrete.Configuration#EXECUTOR_STRATEGY
+     */
+    public final ExecutorMetrics getExecutorMetrics() {
+        return metricsSource.getMetrics();
+    }
+
 }
@@ -55,6 +55,10 @@ public abstract class AbstractRule extends AbstractEnvironment implements Rule {
         this.literalRhs = literalRhs;
     }
 
+    boolean hasRhs() {
+        return rhs != nullRhs;
+    }
+
     @Nullable
     public String getLiteralRhs() {
         return literalRhs;
@@ -5,10 +5,14 @@ import org.evrete.api.RuleSession;
 import org.evrete.api.events.SessionCreatedEvent;
 import org.evrete.api.events.SessionFireEvent;
 import org.evrete.runtime.events.SessionCreatedEventImpl;
+import org.evrete.util.CommonUtils;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.logging.Logger;
 
 /**
@@ -21,6 +25,10 @@ import java.util.logging.Logger;
 public abstract class AbstractRuleSession<S extends RuleSession<S>> extends AbstractRuleSessionDeployment<S> {
     private static final Logger LOGGER = Logger.getLogger(AbstractRuleSession.class.getName());
     private final SessionMemory memory;
+    /**
+     * The last scheduled fire. New fires are chained to it, so that fire cycles never overlap.
+     */
+    private CompletableFuture<Void> lastFire = CompletableFuture.completedFuture(null);
 
     AbstractRuleSession(KnowledgeRuntime knowledge) {
         super(knowledge);
@@ -45,8 +53,41 @@ public abstract class AbstractRuleSession<S extends RuleSession<S>> extends Abst
     }
 
     final void fireInner() {
+        fireAsyncInner(false).join();
+    }
+
+    final CompletableFuture<Void> fireAsyncInner() {
+        return fireAsyncInner(true);
+    }
+
+    /**
+     * Schedules a new fire right after the previous one. Actions buffered while a fire
+     * is in progress are picked up by either the current or the next fire.
+     *
+     * @param detached whether the fire must not start on the calling thread, even if the previous fire
+     *                 is complete and the fire cycle is small enough to be executed inline
+     * @return future completion of the fire cycle
+     */
+    private CompletableFuture<Void> fireAsyncInner(boolean detached) {
         _assertActive();
-        fireInnerAsync().join();
+        final CompletableFuture<Void> fire = new CompletableFuture<>();
+        final CompletableFuture<Void> previous;
+        synchronized (this) {
+            previous = this.lastFire;
+            this.lastFire = fire;
+        }
+
+        previous
+                .handle((unused, throwable) -> null) // Failures are reported by the previous fire's future
+                .thenComposeAsync(unused -> fireInnerAsync(), detached ? getSessionExecutor() : Runnable::run)
+                .whenComplete((unused, throwable) -> {
+                    if (throwable == null) {
+                        fire.complete(null);
+                    } else {
+                        fire.completeExceptionally(throwable);
+                    }
+                });
+        return fire;
     }
 
     private CompletableFuture<Void> fireInnerAsync() {
@@ -64,26 +105,57 @@ public abstract class AbstractRuleSession<S extends RuleSession<S>> extends Abst
 
 
     private CompletableFuture<Void> fireCycle(final ActivationContext ctx, final ActivationMode mode, final WorkMemoryActionBuffer actions) {
-        if (actions.hasData()) {
-            // 1. Given the buffered actions, generate the session's delta memories
-            CompletableFuture<ActivationContext.Status> memoryDeltaStatus = ctx.computeDelta(actions);
-
-            // 2. When the delta structures are computed, perform the RHS calls
-            return memoryDeltaStatus
-                    .thenCompose(deltaStatus -> {
-                        // 3. Collect actions generated by rules' RHS calls
-                        WorkMemoryActionBuffer newActions = doAgenda(ctx, deltaStatus.getAgenda(), mode);
-                        // 4. Commit the delta memories and repeat until there are no actions
-                        return ctx.commitMemories(deltaStatus)
-                                .thenCompose(unused -> fireCycle(ctx, mode, newActions));
-                    });
+        WorkMemoryActionBuffer current = actions;
+        while (current.hasData()) {
+            final WorkMemoryActionBuffer cycleActions = current;
+            if (cycleExecutor.isInlineWorkload(cycleActions.bufferedActionCount())) {
+                // A small cycle, executing it on the current thread
+                CompletableFuture<WorkMemoryActionBuffer> newActions = cycleExecutor.call(true, () -> fireSingleCycle(ctx, mode, cycleActions));
+                if (newActions.isDone() && !newActions.isCompletedExceptionally()) {
+                    current = newActions.join();
+                } else {
+                    // Some tasks were passed to other threads, continuing asynchronously
+                    return newActions.thenCompose(buffer -> fireCycle(ctx, mode, buffer));
+                }
+            } else {
+                return cycleExecutor
+                        .call(false, () -> fireSingleCycle(ctx, mode, cycleActions))
+                        .thenCompose(buffer -> fireCycle(ctx, mode, buffer));
+            }
+        }
+        // No actions, end of the fire cycle
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private CompletableFuture<WorkMemoryActionBuffer> fireSingleCycle(final ActivationContext ctx, final ActivationMode mode, final WorkMemoryActionBuffer actions) {
+        // 1. Given the buffered actions, generate the session's delta memories
+        CompletableFuture<ActivationContext.Status> memoryDeltaStatus = ctx.computeDelta(actions);
+
+        // 2. When the delta structures are computed, perform the RHS calls
+        return memoryDeltaStatus
+                .thenCompose(deltaStatus -> {
+                    // 3. Collect actions generated by rules' RHS calls
+                    CompletableFuture<WorkMemoryActionBuffer> newActions = doAgendaAsync(ctx, deltaStatus, mode);
+                    // 4. Commit the delta memories, the new actions will be processed by the next cycle
+                    return newActions.thenCompose(
+                            buffer -> ctx.commitMemories(deltaStatus).thenApply(unused -> buffer)
+                    );
+                });
+    }
+
+    private CompletableFuture<WorkMemoryActionBuffer> doAgendaAsync(ActivationContext context, ActivationContext.Status status, ActivationMode mode) {
+        if (mode == ActivationMode.PARALLEL) {
+            return doAgendaParallel(context, status);
         } else {
-            // No actions, end of the fire cycle
-            return CompletableFuture.completedFuture(null);
+            return CompletableFuture.completedFuture(doAgenda(context, status, mode));
         }
     }
 
-    private WorkMemoryActionBuffer doAgenda(ActivationContext context, List<SessionRule> agenda, ActivationMode mode) {
+    private WorkMemoryActionBuffer doAgenda(ActivationContext context, ActivationContext.Status status, ActivationMode mode) {
+        if (mode == ActivationMode.PRIORITY) {
+            return doAgendaPriority(context, status);
+        }
+        List<SessionRule> agenda = context.buildAgenda(status);
         if (agenda.isEmpty()) {
             return WorkMemoryActionBuffer.EMPTY;
         } else {
@@ -91,7 +163,7 @@ public abstract class AbstractRuleSession<S extends RuleSession<S>> extends Abst
             WorkMemoryActionBuffer destinationForRuleActions = new WorkMemoryActionBuffer();
             switch (mode) {
                 case DEFAULT:
-                    doAgendaDefault(agenda, destinationForRuleActions);
+                    doAgendaDefault(context, status, agenda, destinationForRuleActions);
                     break;
                 case CONTINUOUS:
                     doAgendaContinuous(agenda, destinationForRuleActions);
@@ -103,20 +175,126 @@ public abstract class AbstractRuleSession<S extends RuleSession<S>> extends Abst
         }
     }
 
-    private void doAgendaDefault(List<SessionRule> agenda, WorkMemoryActionBuffer destinationForRuleActions) {
-        for (SessionRule rule : agenda) {
+    private void doAgendaDefault(ActivationContext context, ActivationContext.Status status, List<SessionRule> agenda, WorkMemoryActionBuffer destinationForRuleActions) {
+        Iterator<SessionRule> iterator = agenda.iterator();
+        while (iterator.hasNext()) {
+            SessionRule rule = iterator.next();
+            List<DefaultFactHandle[][]> deferred = context.takeDeferredActivations(rule);
             if (activationManager.test(rule)) {
                 // The rule is allowed for activation
                 // Collect the RHS actions (inserts, updates, deletes called from inside the RHS)
-                long activationCount = rule.callRhs(destinationForRuleActions);
+                long activationCount = deferred.isEmpty() ? 0L : rule.callRhs(deferred, destinationForRuleActions);
+                if (context.hasDeltaActivations(rule, status)) {
+                    activationCount += rule.callRhs(destinationForRuleActions);
+                }
                 activationManager.onActivation(rule, activationCount);
                 if(destinationForRuleActions.hasData()) {
+                    // The remaining rules will be put on the next agenda, along with
+                    // the rules activated by the new actions
+                    iterator.forEachRemaining(remaining -> context.deferActivations(remaining, status));
                     return;
                 }
             }
         }
     }
 
+    private WorkMemoryActionBuffer doAgendaPriority(ActivationContext context, ActivationContext.Status status) {
+        ActivationQueue queue = context.enqueueActivations(status);
+        if (queue.isEmpty()) {
+            return WorkMemoryActionBuffer.EMPTY;
+        } else {
+            activationManager.onAgenda(context.incrementFireCount(), Collections.unmodifiableList(queue.queuedRules(context.getRules())));
+            WorkMemoryActionBuffer destinationForRuleActions = new WorkMemoryActionBuffer();
+            ActivationQueue.Activation activation;
+            while ((activation = queue.poll()) != null) {
+                SessionRule rule = activation.rule;
+                if (activationManager.test(rule)) {
+                    long activationCount = rule.callRhs(activation.handles, destinationForRuleActions);
+                    activationManager.onActivation(rule, activationCount);
+                    if (destinationForRuleActions.hasData()) {
+                        // The remaining activations stay in the queue along with the ones
+                        // created by the new actions
+                        break;
+                    }
+                }
+            }
+            return destinationForRuleActions;
+        }
+    }
+
+    private CompletableFuture<WorkMemoryActionBuffer> doAgendaParallel(ActivationContext context, ActivationContext.Status status) {
+        List<SessionRule> agenda = status.getAgenda();
+        if (agenda.isEmpty()) {
+            return CompletableFuture.completedFuture(WorkMemoryActionBuffer.EMPTY);
+        } else {
+            activationManager.onAgenda(context.incrementFireCount(), Collections.unmodifiableList(agenda));
+            Executor executor = getSessionExecutor();
+            List<CompletableFuture<RhsResult>> futures = new ArrayList<>(agenda.size());
+            for (SessionRule rule : agenda) {
+                if (activationManager.test(rule)) {
+                    // Each rule collects its activations, which are then processed in chunks
+                    futures.add(CompletableFuture
+                            .supplyAsync(rule::deltaActivations, executor)
+                            .thenCompose(activations -> callRhsChunks(rule, activations, executor))
+                    );
+                }
+            }
+
+            return CommonUtils.completeAll(futures).thenApply(unused -> {
+                // Merging the results in the agenda order
+                WorkMemoryActionBuffer destinationForRuleActions = new WorkMemoryActionBuffer();
+                for (CompletableFuture<RhsResult> future : futures) {
+                    RhsResult result = future.join();
+                    activationManager.onActivation(result.rule, result.activationCount);
+                    destinationForRuleActions.append(result.actions);
+                }
+                return destinationForRuleActions;
+            });
+        }
+    }
+
+    /**
+     * Executes the rule's RHS on its activations. If the number of activations exceeds the
+     * {@link org.evrete.Configuration#PARALLEL_RHS_CHUNK_SIZE} setting, the activations are split into
+     * chunks that are executed concurrently. Each chunk collects its actions into a dedicated buffer,
+     * and the buffers are merged in the activations' order.
+     *
+     * @param rule        the rule
+     * @param activations the rule's delta activations
+     * @param executor    the executor for the chunks
+     * @return the rule's actions and the number of RHS calls
+     */
+    private CompletableFuture<RhsResult> callRhsChunks(SessionRule rule, List<DefaultFactHandle[][]> activations, Executor executor) {
+        int size = activations.size();
+        if (size <= parallelRhsChunkSize) {
+            WorkMemoryActionBuffer ruleActions = new WorkMemoryActionBuffer();
+            long activationCount = rule.callRhsConcurrently(activations, ruleActions);
+            return CompletableFuture.completedFuture(new RhsResult(rule, ruleActions, activationCount));
+        } else {
+            List<CompletableFuture<RhsResult>> chunks = new ArrayList<>(size / parallelRhsChunkSize + 1);
+            for (int from = 0; from < size; from += parallelRhsChunkSize) {
+                List<DefaultFactHandle[][]> chunk = activations.subList(from, Math.min(size, from + parallelRhsChunkSize));
+                chunks.add(CompletableFuture.supplyAsync(() -> {
+                    WorkMemoryActionBuffer chunkActions = new WorkMemoryActionBuffer();
+                    long activationCount = rule.callRhsConcurrently(chunk, chunkActions);
+                    return new RhsResult(rule, chunkActions, activationCount);
+                }, executor));
+            }
+            LOGGER.fine(() -> "Activations of rule '" + rule.getName() + "' split into [" + chunks.size() + "] chunks");
+
+            return CommonUtils.completeAll(chunks).thenApply(unused -> {
+                WorkMemoryActionBuffer ruleActions = new WorkMemoryActionBuffer();
+                long activationCount = 0L;
+                for (CompletableFuture<RhsResult> future : chunks) {
+                    RhsResult result = future.join();
+                    activationCount += result.activationCount;
+                    ruleActions.append(result.actions);
+                }
+                return new RhsResult(rule, ruleActions, activationCount);
+            });
+        }
+    }
+
     private void doAgendaContinuous(List<SessionRule> agenda, WorkMemoryActionBuffer destinationForRuleActions) {
         for (SessionRule rule : agenda) {
             if (activationManager.test(rule)) {
@@ -127,4 +305,16 @@ public abstract class AbstractRuleSession<S extends RuleSession<S>> extends Abst
             }
         }
     }
+
+    private static class RhsResult {
+        final SessionRule rule;
+        final WorkMemoryActionBuffer actions;
+        final long activationCount;
+
+        RhsResult(SessionRule rule, WorkMemoryActionBuffer actions, long activationCount) {
+            this.rule = rule;
+            this.actions = actions;
+            this.activationCount = activationCount;
+        }
+    }
 }
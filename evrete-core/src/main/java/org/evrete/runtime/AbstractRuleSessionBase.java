@@ -10,6 +10,11 @@ import org.evrete.api.spi.ValueIndexer;
 import org.evrete.util.SessionCollector;
 
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
 import java.util.stream.Collector;
 import java.util.stream.Stream;
 
@@ -24,21 +29,53 @@ public abstract class AbstractRuleSessionBase<S extends RuleSession<S>> extends
     private final KnowledgeRuntime knowledge;
     ActivationManager activationManager;
     private volatile boolean active = true;
+    private volatile boolean acceptsActions = true;
+    private final ReadWriteLock actionsLock = new ReentrantReadWriteLock();
     protected final boolean warnUnknownTypes;
+    final int bulkInsertChunkSize;
+    final int parallelRhsChunkSize;
+    private final Executor sessionExecutor;
+    final FireCycleExecutor cycleExecutor;
     private final MemoryFactory<DefaultFactHandle> memoryFactory;
 
     AbstractRuleSessionBase(KnowledgeRuntime knowledge) {
         super(knowledge);
+        boolean threadConfined = getConfiguration().getAsBoolean(Configuration.THREAD_CONFINED, Configuration.THREAD_CONFINED_DEFAULT);
+        this.sessionExecutor = threadConfined ? Runnable::run : getService().getExecutor();
         this.memoryFactory = getService().getMemoryFactoryProvider().instance(this, DefaultFactHandle.class);
         this.knowledge = knowledge;
         this.activationManager = newActivationManager();
         this.warnUnknownTypes = getConfiguration().getAsBoolean(Configuration.WARN_UNKNOWN_TYPES, Configuration.WARN_UNKNOWN_TYPES_DEFAULT);
+        this.bulkInsertChunkSize = Math.max(1, getConfiguration().getAsInteger(Configuration.BULK_INSERT_CHUNK_SIZE, Configuration.BULK_INSERT_CHUNK_SIZE_DEFAULT));
+        this.parallelRhsChunkSize = Math.max(1, getConfiguration().getAsInteger(Configuration.PARALLEL_RHS_CHUNK_SIZE, Configuration.PARALLEL_RHS_CHUNK_SIZE_DEFAULT));
+        this.cycleExecutor = new FireCycleExecutor(sessionExecutor, getConfiguration().getAsInteger(Configuration.INLINE_FIRE_THRESHOLD, Configuration.INLINE_FIRE_THRESHOLD_DEFAULT));
     }
 
     protected abstract S thisInstance();
 
     public abstract SessionMemory getMemory();
 
+    /**
+     * Returns the executor for the fire cycle tasks. Depending on the size of a fire cycle, the tasks
+     * are either executed on the firing thread or passed to the service's executor.
+     *
+     * @return the fire cycle executor
+     */
+    public final Executor getFireCycleExecutor() {
+        return cycleExecutor;
+    }
+
+    /**
+     * Returns the executor for the session's background tasks. Thread-confined sessions (see
+     * {@link Configuration#THREAD_CONFINED}) execute all their tasks on the calling thread,
+     * other sessions use the service's executor.
+     *
+     * @return the session's executor
+     */
+    final Executor getSessionExecutor() {
+        return sessionExecutor;
+    }
+
     MemoryFactory<DefaultFactHandle> getMemoryFactory() {
         return memoryFactory;
     }
@@ -63,6 +100,59 @@ public abstract class AbstractRuleSessionBase<S extends RuleSession<S>> extends
         }
     }
 
+    /**
+     * Checks that the session is active and still accepts memory actions from outside the fire cycle.
+     */
+    final void _assertAcceptsActions() {
+        _assertActive();
+        if (!acceptsActions) {
+            throw new IllegalStateException("Session is being fired and will be closed, no more actions are accepted");
+        }
+    }
+
+    /**
+     * Executes a memory action that comes from outside the fire cycle. The check whether the session
+     * accepts actions and the buffering are done under a shared lock, so that {@link #rejectActions()}
+     * waits for the actions that have already passed the check.
+     *
+     * @param action the action to execute
+     * @param <T>    result type
+     * @return the action's result
+     */
+    final <T> T acceptAction(Supplier<T> action) {
+        Lock lock = actionsLock.readLock();
+        lock.lock();
+        try {
+            _assertAcceptsActions();
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    final void acceptAction(Runnable action) {
+        acceptAction(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Stops accepting memory actions from outside the fire cycle. Stateless sessions call this method
+     * before their final fire, so that facts can't be inserted after the fire has picked up the buffer.
+     * The method returns once the actions that were accepted before the call are buffered.
+     */
+    final void rejectActions() {
+        Lock lock = actionsLock.writeLock();
+        lock.lock();
+        try {
+            _assertAcceptsActions();
+            this.acceptsActions = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     @Override
     public final KnowledgeRuntime getParentContext() {
         return knowledge;
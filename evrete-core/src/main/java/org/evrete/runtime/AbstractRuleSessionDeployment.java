@@ -46,11 +46,12 @@ public abstract class AbstractRuleSessionDeployment<S extends RuleSession<S>> ex
 
     private CompletableFuture<List<SessionRule>> allocateBetaNodes(List<SessionRule> sessionRules, boolean hotDeployment) {
         if (hotDeployment) {
-            List<CompletableFuture<Void>> betaUpdateTasks = new ArrayList<>(sessionRules.size());
+            List<SessionFactGroup> groups = new ArrayList<>(sessionRules.size());
             for (SessionRule r : sessionRules) {
-                betaUpdateTasks.add(r.getLhs().buildDeltas(DeltaMemoryMode.HOT_DEPLOYMENT));
+                groups.addAll(Arrays.asList(r.getLhs().getFactGroups()));
             }
-            return CommonUtils.completeAll(betaUpdateTasks).thenApply(ignored -> sessionRules);
+            return SessionFactGroup.buildDeltas(groups, DeltaMemoryMode.HOT_DEPLOYMENT, getSessionExecutor())
+                    .thenApply(ignored -> sessionRules);
         } else {
             return CompletableFuture.completedFuture(sessionRules);
         }
@@ -74,7 +75,7 @@ public abstract class AbstractRuleSessionDeployment<S extends RuleSession<S>> ex
     private CompletableFuture<SessionRule> deploySingleRule(KnowledgeRule rule) {
         return CompletableFuture.supplyAsync(
                 () -> new SessionRule(rule, AbstractRuleSessionDeployment.this),
-                getService().getExecutor()
+                getSessionExecutor()
         );
     }
 
@@ -7,10 +7,12 @@ import org.evrete.api.spi.ValueIndexer;
 import org.evrete.runtime.evaluation.AlphaConditionHandle;
 import org.evrete.util.CommonUtils;
 
-import java.util.Collection;
-import java.util.Collections;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 /**
  * <p>
@@ -40,20 +42,76 @@ public abstract class AbstractRuleSessionOps<S extends RuleSession<S>> extends A
     @Override
     @Nullable
     public FactHandle insert0(Object fact, boolean resolveCollections) {
-        return bufferInsertMultiple(fact, true, resolveCollections, this.actionBuffer);
+        return acceptAction(() -> bufferInsertMultiple(fact, true, resolveCollections, this.actionBuffer));
     }
 
     @Override
     @Nullable
     public FactHandle insert0(String type, Object fact, boolean resolveCollections) {
-        return bufferInsertMultiple(type, fact, true, resolveCollections, this.actionBuffer);
+        return acceptAction(() -> bufferInsertMultiple(type, fact, true, resolveCollections, this.actionBuffer));
+    }
+
+    @Override
+    public final <T> S insertAll(Class<T> type, Collection<? extends T> facts) {
+        Type<T> factType = getTypeResolver().resolveByJavaType(Objects.requireNonNull(type, "Null fact type is not allowed"));
+        acceptAction(() -> {
+            if (factType == null) {
+                if (warnUnknownTypes) {
+                    LOGGER.warning(() -> "Can not map type for '" + type.getName() + "', bulk insert operation skipped.");
+                }
+            } else {
+                bufferInsertBulk(facts.spliterator(), factType, this.actionBuffer);
+            }
+        });
+        return thisInstance();
+    }
+
+    @Override
+    public final S insertAll(Spliterator<?> facts) {
+        acceptAction(() -> bufferInsertBulk(facts, null, this.actionBuffer));
+        return thisInstance();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final <T> S deleteAll(Class<T> type, Predicate<? super T> filter) {
+        Objects.requireNonNull(type, "Null fact type is not allowed");
+        Predicate<Object> predicate = (Predicate<Object>) Objects.requireNonNull(filter);
+        acceptAction(() -> bufferDeleteBulk(getMemory().memoryStream(type).collect(Collectors.toList()), predicate, this.actionBuffer));
+        return thisInstance();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final <T> S deleteAll(String type, Predicate<T> filter) {
+        Objects.requireNonNull(type, "Null fact type is not allowed");
+        Predicate<Object> predicate = (Predicate<Object>) Objects.requireNonNull(filter);
+        acceptAction(() -> bufferDeleteBulk(getMemory().memoryStream(type).collect(Collectors.toList()), predicate, this.actionBuffer));
+        return thisInstance();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final <T> S updateAll(Class<T> type, Function<? super T, ?> updater) {
+        Objects.requireNonNull(type, "Null fact type is not allowed");
+        Function<Object, ?> function = (Function<Object, ?>) Objects.requireNonNull(updater);
+        acceptAction(() -> bufferUpdateBulk(getMemory().memoryStream(type).collect(Collectors.toList()), function, this.actionBuffer));
+        return thisInstance();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final <T> S updateAll(String type, Function<T, ?> updater) {
+        Objects.requireNonNull(type, "Null fact type is not allowed");
+        Function<Object, ?> function = (Function<Object, ?>) Objects.requireNonNull(updater);
+        acceptAction(() -> bufferUpdateBulk(getMemory().memoryStream(type).collect(Collectors.toList()), function, this.actionBuffer));
+        return thisInstance();
     }
 
     @Override
     public final void update(FactHandle handle, Object newValue) {
-        _assertActive();
         DefaultFactHandle h = unwrapFactHandle(handle);
-        bufferUpdate(true, h, newValue, this.actionBuffer);
+        acceptAction(() -> bufferUpdate(true, h, newValue, this.actionBuffer));
     }
 
     DefaultFactHandle unwrapFactHandle(FactHandle handle) {
@@ -66,8 +124,7 @@ public abstract class AbstractRuleSessionOps<S extends RuleSession<S>> extends A
 
     @Override
     public final void delete(FactHandle handle) {
-        _assertActive();
-        bufferDelete(handle, true, this.actionBuffer);
+        acceptAction(() -> bufferDelete(handle, true, this.actionBuffer));
     }
 
 
@@ -133,10 +190,19 @@ public abstract class AbstractRuleSessionOps<S extends RuleSession<S>> extends A
             Class<?> expectedFactClass = activeType.getValue().getJavaClass();
             Class<?> argClass = newValue.getClass();
             if (expectedFactClass.isAssignableFrom(argClass)) {
-                // Buffer deletion (must be first!!!)
-                this.bufferDelete(handle, applyToStorage, existing, destination);
-                // Buffer new insert operation
-                this.bufferInsertSingle(handle, factType, activeType, applyToStorage,newValue, destination);
+                FactFieldValues fieldValues = activeType.readFactValue(factType, newValue);
+                long valuesId = typeMemory.getFieldValuesIndexer().getOrCreateId(fieldValues);
+                if (applyToStorage && valuesId == existing.getFieldValuesId()) {
+                    // None of the fields known to the engine has changed, so there's nothing
+                    // to propagate. Replacing the fact reference is enough.
+                    typeMemory.insert(new FactHolder(handle, valuesId, newValue));
+                    LOGGER.finer(() -> "Field values unchanged, fact reference replaced for handle " + handle);
+                } else {
+                    // Buffer deletion (must be first!!!)
+                    this.bufferDelete(handle, applyToStorage, existing, destination);
+                    // Buffer new insert operation
+                    destination.addInsert(newInsertAction(handle, activeType, typeMemory, applyToStorage, newValue, fieldValues, valuesId));
+                }
             } else {
                 throw new IllegalArgumentException("Argument type mismatch. Actual '" + argClass + "' vs expected '" + expectedFactClass + "'");
             }
@@ -209,15 +275,24 @@ public abstract class AbstractRuleSessionOps<S extends RuleSession<S>> extends A
         TypeResolver typeResolver = getTypeResolver();
         DefaultFactHandle last = null;
         int count = 0;
+        // Batches are typically homogeneous, so the type is resolved only when the Java class changes
+        Class<?> lastClass = null;
+        Type<?> factType = null;
+        ActiveType type = null;
         for (Object fact : facts) {
             if(fact != null) {
-                Type<?> factType = typeResolver.resolve(fact);
+                Class<?> factClass = fact.getClass();
+                if (factClass != lastClass) {
+                    lastClass = factClass;
+                    factType = typeResolver.resolve(fact);
+                    type = factType == null ? null : getCreateIndexedType(factType);
+                }
+
                 if (factType == null) {
                     if (warnUnknownTypes) {
                         LOGGER.warning(() -> "Can not map type for '" + fact.getClass().getName() + "', insert operation skipped.");
                     }
                 } else {
-                    ActiveType type = getCreateIndexedType(factType);
                     last = bufferInsertSingle(factType, type, applyToStorage, fact, destination);
                     count++;
                 }
@@ -249,23 +324,237 @@ public abstract class AbstractRuleSessionOps<S extends RuleSession<S>> extends A
      * @param destination    the buffer where the insert operation will be stored.
      */
     private void bufferInsertSingle(DefaultFactHandle factHandle, Type<?> type, ActiveType activeType, boolean applyToStorage, Object fact, WorkMemoryActionBuffer destination) {
+        TypeMemory memory = getMemory().getTypeMemory(activeType.getId());
+        destination.addInsert(newInsertAction(factHandle, type, activeType, memory, applyToStorage, fact));
+        LOGGER.finer(() -> "New insert action buffered for fact: " + fact);
+    }
 
+    private static DeltaMemoryAction.Insert newInsertAction(DefaultFactHandle factHandle, Type<?> type, ActiveType activeType, TypeMemory memory, boolean applyToStorage, Object fact) {
         // 1. Read field values
-        TypeMemory memory = getMemory().getTypeMemory(activeType.getId());
         ValueIndexer<FactFieldValues> valueIndexer = memory.getFieldValuesIndexer();
         FactFieldValues fieldValues = activeType.readFactValue(type, fact);
 
         // 2. Index field values
         long valuesId = valueIndexer.getOrCreateId(fieldValues);
+        return newInsertAction(factHandle, activeType, memory, applyToStorage, fact, fieldValues, valuesId);
+    }
+
+    private static DeltaMemoryAction.Insert newInsertAction(DefaultFactHandle factHandle, ActiveType activeType, TypeMemory memory, boolean applyToStorage, Object fact, FactFieldValues fieldValues, long valuesId) {
         FactHolder factHolder = new FactHolder(factHandle, valuesId, fact);
 
-        // 3. Save the fact in the type memory
+        // Save the fact in the type memory
         if (applyToStorage) {
             memory.insert(factHolder);
         }
 
-        destination.addInsert(new DeltaMemoryAction.Insert(activeType, factHolder, fieldValues, !applyToStorage));
-        LOGGER.finer(() -> "New insert action buffered for fact: " + fact);
+        return new DeltaMemoryAction.Insert(activeType, factHolder, fieldValues, !applyToStorage);
+    }
+
+    /**
+     * The inner implementation of the bulk insert methods. The source is split into chunks whose field values
+     * are read in parallel. Reading field values doesn't require any synchronization, unlike indexing them and
+     * saving the facts in the type memories. That second step is therefore done by the calling thread, which
+     * also assigns fact handles in the encounter order. The resulting operations are then stored
+     * in the buffer's per-type partitions.
+     *
+     * @param facts       the facts to insert
+     * @param type        the logical type of all facts or {@code null} if types should be resolved per fact
+     * @param destination the buffer where the insert operations will be stored.
+     */
+    private void bufferInsertBulk(Spliterator<?> facts, @Nullable Type<?> type, WorkMemoryActionBuffer destination) {
+        // 1. Split the source into chunks
+        List<Spliterator<?>> chunks = new ArrayList<>();
+        splitBulk(facts, bulkInsertChunkSize, chunks);
+
+        // 2. Read field values of each chunk. The first chunk is handled by the calling thread.
+        List<CompletableFuture<Map<ActiveType, List<BulkFact>>>> futures = new ArrayList<>(chunks.size());
+        for (int i = 1; i < chunks.size(); i++) {
+            Spliterator<?> chunk = chunks.get(i);
+            futures.add(CompletableFuture.supplyAsync(() -> readBulkChunk(chunk, type), getSessionExecutor()));
+        }
+        Map<ActiveType, List<BulkFact>> first = readBulkChunk(chunks.get(0), type);
+
+        // 3. Merge the chunks by type, keeping the encounter order
+        MapOfList<ActiveType, List<BulkFact>> byType = new MapOfList<>();
+        first.forEach(byType::add);
+        for (CompletableFuture<Map<ActiveType, List<BulkFact>>> future : futures) {
+            future.join().forEach(byType::add);
+        }
+
+        // 4. Index field values and save the facts
+        byType.forEach((activeType, typeChunks) -> {
+            TypeMemory memory = getMemory().getTypeMemory(activeType.getId());
+            ValueIndexer<FactFieldValues> valueIndexer = memory.getFieldValuesIndexer();
+            int total = 0;
+            for (List<BulkFact> chunk : typeChunks) {
+                total += chunk.size();
+            }
+            List<DeltaMemoryAction.Insert> inserts = new ArrayList<>(total);
+            for (List<BulkFact> chunk : typeChunks) {
+                for (BulkFact bulkFact : chunk) {
+                    DefaultFactHandle handle = new DefaultFactHandle(activeType.getId());
+                    long valuesId = valueIndexer.getOrCreateId(bulkFact.values);
+                    inserts.add(newInsertAction(handle, activeType, memory, true, bulkFact.fact, bulkFact.values, valuesId));
+                }
+            }
+            destination.addInserts(activeType, Collections.singletonList(inserts));
+        });
+        LOGGER.fine(() -> "Bulk insert of [" + chunks.size() + "] chunk(s) buffered for types: " + byType.keySet());
+    }
+
+    private Map<ActiveType, List<BulkFact>> readBulkChunk(Spliterator<?> chunk, @Nullable Type<?> type) {
+        Map<ActiveType, List<BulkFact>> result = new HashMap<>();
+        int sizeHint = (int) Math.min(chunk.estimateSize(), bulkInsertChunkSize);
+        TypeResolver typeResolver = getTypeResolver();
+
+        Class<?> lastClass = null;
+        Type<?> factType = type;
+        ActiveType activeType = type == null ? null : getCreateIndexedType(type);
+        List<BulkFact> facts = activeType == null ? null : result.computeIfAbsent(activeType, k -> new ArrayList<>(sizeHint));
+
+        Iterator<?> it = Spliterators.iterator(chunk);
+        while (it.hasNext()) {
+            Object fact = it.next();
+            if (fact != null) {
+                if (type == null && fact.getClass() != lastClass) {
+                    lastClass = fact.getClass();
+                    factType = typeResolver.resolve(fact);
+                    if (factType == null) {
+                        activeType = null;
+                    } else {
+                        activeType = getCreateIndexedType(factType);
+                        facts = result.computeIfAbsent(activeType, k -> new ArrayList<>(sizeHint));
+                    }
+                }
+
+                if (activeType == null) {
+                    if (warnUnknownTypes) {
+                        LOGGER.warning(() -> "Can not map type for '" + fact.getClass().getName() + "', insert operation skipped.");
+                    }
+                } else {
+                    facts.add(new BulkFact(fact, activeType.readFactValue(factType, fact)));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The inner implementation of the bulk delete methods. Facts of each type memory are split into chunks
+     * which are filtered and removed from the memory in parallel. The resulting delete operations are then stored
+     * in the buffer's per-type partitions.
+     *
+     * @param typeMemories the memories to scan
+     * @param filter       the condition of the facts to delete
+     * @param destination  the buffer where the delete operations will be stored.
+     */
+    private void bufferDeleteBulk(Collection<TypeMemory> typeMemories, Predicate<Object> filter, WorkMemoryActionBuffer destination) {
+        for (TypeMemory typeMemory : typeMemories) {
+            ActiveType type = typeMemory.getType();
+            List<List<DeltaMemoryAction.Delete>> chunks = processBulk(typeMemory, factHolder -> {
+                if (filter.test(factHolder.getFact())) {
+                    FactHolder deleteSubject = typeMemory.remove(factHolder.getHandle());
+                    return deleteSubject == null ? null : new DeltaMemoryAction.Delete(type, deleteSubject, false);
+                } else {
+                    return null;
+                }
+            });
+            destination.addDeletes(type, chunks);
+            LOGGER.fine(() -> "Bulk delete of [" + chunks.size() + "] chunk(s) buffered for type: " + type.getId());
+        }
+    }
+
+    /**
+     * The inner implementation of the bulk update methods. Facts of each type memory are split into chunks
+     * which are updated in parallel. Just like with the {@link #bufferUpdate(boolean, DefaultFactHandle, Object, WorkMemoryActionBuffer)}
+     * method, updates that don't change the facts' field values are applied directly to the type memory.
+     *
+     * @param typeMemories the memories to scan
+     * @param updater      the function that produces the updated facts
+     * @param destination  the buffer where the update operations will be stored.
+     */
+    private void bufferUpdateBulk(Collection<TypeMemory> typeMemories, Function<Object, ?> updater, WorkMemoryActionBuffer destination) {
+        for (TypeMemory typeMemory : typeMemories) {
+            ActiveType type = typeMemory.getType();
+            Type<?> factType = type.getValue();
+            Class<?> expectedFactClass = factType.getJavaClass();
+            ValueIndexer<FactFieldValues> valueIndexer = typeMemory.getFieldValuesIndexer();
+            List<List<WorkMemoryActionBuffer.Update>> chunks = processBulk(typeMemory, existing -> {
+                DefaultFactHandle handle = existing.getHandle();
+                Object newValue = updater.apply(existing.getFact());
+                if (newValue == null) {
+                    return null;
+                } else if (!expectedFactClass.isAssignableFrom(newValue.getClass())) {
+                    throw new IllegalArgumentException("Argument type mismatch. Actual '" + newValue.getClass() + "' vs expected '" + expectedFactClass + "'");
+                }
+
+                FactFieldValues fieldValues = type.readFactValue(factType, newValue);
+                long valuesId = valueIndexer.getOrCreateId(fieldValues);
+                if (valuesId == existing.getFieldValuesId()) {
+                    typeMemory.insert(new FactHolder(handle, valuesId, newValue));
+                    return null;
+                } else {
+                    FactHolder deleteSubject = typeMemory.remove(handle);
+                    if (deleteSubject == null) {
+                        return null;
+                    } else {
+                        DeltaMemoryAction.Delete delete = new DeltaMemoryAction.Delete(type, deleteSubject, false);
+                        DeltaMemoryAction.Insert insert = newInsertAction(handle, type, typeMemory, true, newValue, fieldValues, valuesId);
+                        return new WorkMemoryActionBuffer.Update(delete, insert);
+                    }
+                }
+            });
+            destination.addUpdates(type, chunks);
+            LOGGER.fine(() -> "Bulk update of [" + chunks.size() + "] chunk(s) buffered for type: " + type.getId());
+        }
+    }
+
+    /**
+     * Takes a snapshot of the memory's facts, splits it into chunks and applies the provided function
+     * to each chunk in parallel. The first chunk is handled by the calling thread.
+     *
+     * @param typeMemory the memory to process
+     * @param function   the function to apply, {@code null} results are skipped
+     * @param <R>        result type
+     * @return non-null results, in chunks
+     */
+    private <R> List<List<R>> processBulk(TypeMemory typeMemory, Function<FactHolder, R> function) {
+        List<FactHolder> snapshot = typeMemory.stream().map(Map.Entry::getValue).collect(Collectors.toList());
+        List<CompletableFuture<List<R>>> futures = new ArrayList<>();
+        for (int from = bulkInsertChunkSize; from < snapshot.size(); from += bulkInsertChunkSize) {
+            List<FactHolder> chunk = snapshot.subList(from, Math.min(snapshot.size(), from + bulkInsertChunkSize));
+            futures.add(CompletableFuture.supplyAsync(() -> processBulkChunk(chunk, function), getSessionExecutor()));
+        }
+
+        List<List<R>> result = new ArrayList<>(futures.size() + 1);
+        result.add(processBulkChunk(snapshot.subList(0, Math.min(snapshot.size(), bulkInsertChunkSize)), function));
+        for (CompletableFuture<List<R>> future : futures) {
+            result.add(future.join());
+        }
+        return result;
+    }
+
+    private static <R> List<R> processBulkChunk(List<FactHolder> chunk, Function<FactHolder, R> function) {
+        List<R> result = new ArrayList<>(chunk.size());
+        for (FactHolder factHolder : chunk) {
+            R r = function.apply(factHolder);
+            if (r != null) {
+                result.add(r);
+            }
+        }
+        return result;
+    }
+
+    private static void splitBulk(Spliterator<?> source, int chunkSize, List<Spliterator<?>> destination) {
+        if (source.estimateSize() > chunkSize) {
+            Spliterator<?> prefix = source.trySplit();
+            if (prefix != null) {
+                splitBulk(prefix, chunkSize, destination);
+                splitBulk(source, chunkSize, destination);
+                return;
+            }
+        }
+        destination.add(source);
     }
 
 
@@ -293,18 +582,79 @@ public abstract class AbstractRuleSessionOps<S extends RuleSession<S>> extends A
     }
 
 
+    /**
+     * Determines destination alpha-memories for the provided fact values among the given alpha-memories.
+     * Only the alpha conditions of the requested alpha-memories are evaluated.
+     *
+     * @param activeType the fact's type
+     * @param values     the fact's field values
+     * @param scope      the alpha-memories to test
+     * @return collection of alpha-locations
+     */
+    Collection<AlphaAddress> matchingAlphaLocations(ActiveType activeType, FactFieldValues values, Mask<AlphaAddress> scope) {
+        Set<AlphaAddress> locations = new HashSet<>();
+        Mask<AlphaConditionHandle> conditions = Mask.alphaConditionsMask();
+        activeType.forEachAlphaAddress(alphaAddress -> {
+            if (scope.get(alphaAddress)) {
+                locations.add(alphaAddress);
+                conditions.or(alphaAddress.getMask());
+            }
+        });
+
+        if (locations.isEmpty()) {
+            return Collections.emptyList();
+        } else {
+            Mask<AlphaConditionHandle> alphaConditionResults = alphaConditionResults(activeType, values, conditions);
+            return AlphaAddress.matchingLocations(alphaConditionResults, locations);
+        }
+    }
+
     Mask<AlphaConditionHandle> alphaConditionResults(ActiveType activeType, FactFieldValues values) {
+        return alphaConditionResults(activeType, values, null);
+    }
+
+    private Mask<AlphaConditionHandle> alphaConditionResults(ActiveType activeType, FactFieldValues values, @Nullable Mask<AlphaConditionHandle> scope) {
         Mask<AlphaConditionHandle> alphaConditionResults = Mask.alphaConditionsMask();
         ActiveEvaluatorGenerator context = getEvaluatorsContext();
         activeType.forEachAlphaCondition(indexedHandle -> {
-            StoredCondition evaluator = context.get(indexedHandle.getHandle(), false);
-            ActiveField activeField = evaluator.getDescriptor().get(0).field();
-            IntToValue args = index -> values.valueAt(activeField.valueIndex());
-            alphaConditionResults.set(indexedHandle, evaluator.test(this, args));
+            if (scope == null || scope.get(indexedHandle)) {
+                StoredCondition evaluator = context.get(indexedHandle.getHandle(), false);
+                ActiveField activeField = evaluator.getDescriptor().get(0).field();
+                IntToValue args = index -> values.valueAt(activeField.valueIndex());
+                alphaConditionResults.set(indexedHandle, evaluator.test(this, args));
+            }
         });
 
         return alphaConditionResults;
     }
 
+    /**
+     * Returns the fields read by the alpha conditions of the given alpha-memory.
+     *
+     * @param activeType   the memory's type
+     * @param alphaAddress the memory's address
+     * @return mask of the fields
+     */
+    Mask<ActiveField> alphaConditionFields(ActiveType activeType, AlphaAddress alphaAddress) {
+        Mask<ActiveField> fields = Mask.activeFieldMask();
+        Mask<AlphaConditionHandle> conditions = alphaAddress.getMask();
+        ActiveEvaluatorGenerator context = getEvaluatorsContext();
+        activeType.forEachAlphaCondition(indexedHandle -> {
+            if (conditions.get(indexedHandle)) {
+                StoredCondition evaluator = context.get(indexedHandle.getHandle(), false);
+                fields.set(evaluator.getDescriptor().get(0).field());
+            }
+        });
+        return fields;
+    }
 
+    private static final class BulkFact {
+        final Object fact;
+        final FactFieldValues values;
+
+        BulkFact(Object fact, FactFieldValues values) {
+            this.fact = fact;
+            this.values = values;
+        }
+    }
 }
@@ -4,6 +4,7 @@ import org.evrete.Configuration;
 import org.evrete.KnowledgeService;
 import org.evrete.api.*;
 import org.evrete.api.builders.RuleSetBuilder;
+import org.evrete.api.spi.SourceCompilerProvider;
 import org.evrete.runtime.compiler.DefaultLiteralSourceCompiler;
 import org.evrete.util.CompilationException;
 import org.evrete.util.DefaultActivationManager;
@@ -90,6 +91,14 @@ public abstract class AbstractRuntime<R extends Rule, C extends RuntimeContext<C
         return "rule_" + noNameRuleCounter.incrementAndGet();
     }
 
+    int unnamedRuleCount() {
+        return noNameRuleCounter.get();
+    }
+
+    void unnamedRuleCount(int count) {
+        noNameRuleCounter.set(count);
+    }
+
 
     @Override
     @SuppressWarnings("unchecked")
@@ -134,7 +143,11 @@ public abstract class AbstractRuntime<R extends Rule, C extends RuntimeContext<C
 
     <S extends RuleLiteralData<R1, C1>, R1 extends Rule, C1 extends LiteralPredicate> Collection<RuleCompiledSources<S, R1, C1>> compileRules(ClassLoader classLoader, Collection<S> sources) throws CompilationException {
         _assertActive();
-        return new DefaultLiteralSourceCompiler().compile(this, classLoader, sources);
+        return new DefaultLiteralSourceCompiler(sourceCompilerProvider()).compile(this, classLoader, sources);
+    }
+
+    SourceCompilerProvider sourceCompilerProvider() {
+        return getService().getSourceCompilerProvider();
     }
 
 
@@ -163,6 +176,10 @@ public abstract class AbstractRuntime<R extends Rule, C extends RuntimeContext<C
         return ruleComparator;
     }
 
+    boolean hasDefaultRuleComparator() {
+        return ruleComparator == SALIENCE_COMPARATOR;
+    }
+
     @Override
     public void setRuleComparator(Comparator<Rule> ruleComparator) {
         _assertActive();
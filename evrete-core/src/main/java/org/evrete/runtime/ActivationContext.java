@@ -1,11 +1,13 @@
 package org.evrete.runtime;
 
+import org.evrete.api.spi.MemoryScope;
+import org.evrete.runtime.rete.ValueIdSubstitution;
 import org.evrete.util.CommonUtils;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
 import java.util.logging.Logger;
 
 class ActivationContext {
@@ -13,13 +15,26 @@ class ActivationContext {
     private final AtomicInteger activationCount = new AtomicInteger();
     private final SessionMemory memory;
     private final List<SessionRule> rules;
-    private final ExecutorService executor;
+    private final FireCycleExecutor executor;
     private final AbstractRuleSession<?> session;
+    /**
+     * Fields read by each alpha-memory's conditions and by the inner conditions of the fact groups
+     * attached to it. Lazily computed on the first update.
+     */
+    private Map<AlphaAddress, Mask<ActiveField>> fieldsByAlphaAddress;
+    /**
+     * Activations of the rules that were put on the agenda but not executed, because a preceding rule
+     * has produced new actions (the {@link org.evrete.api.ActivationMode#DEFAULT} mode). They are retained
+     * across fire cycles unless the subsequent actions delete or change their facts.
+     */
+    private final Map<SessionRule, List<DefaultFactHandle[][]>> deferredActivations = new HashMap<>();
+    private final ActivationQueue activationQueue = new ActivationQueue();
+    private int cycle;
 
     public ActivationContext(AbstractRuleSession<?> session, List<SessionRule> rules) {
         this.session = session;
         this.memory = session.getMemory();
-        this.executor = session.getService().getExecutor();
+        this.executor = session.cycleExecutor;
         this.rules = Collections.unmodifiableList(rules);
     }
 
@@ -32,19 +47,210 @@ class ActivationContext {
         LOGGER.fine(()-> "Computing delta memory from [" + bufferedCount + "] actions");
         // 1. Wait for pending actions, if any
         return actions.sinkToSplitView(executor).thenCompose(typedActions -> {
+            // 2. Determine which memories are affected by the updates
+            Collection<ScopedUpdate> updates = scopeUpdates(typedActions);
+            this.cycle++;
+            if (!deferredActivations.isEmpty()) {
+                invalidateDeferredActivations(typedActions, updates);
+            }
+            if (!activationQueue.isEmpty()) {
+                for (WorkMemoryActionBuffer.SplitView view : typedActions) {
+                    for (DeltaMemoryAction.Delete delete : view.getDeletes()) {
+                        activationQueue.onDelete(delete.getHandle());
+                    }
+                }
+                for (ScopedUpdate update : updates) {
+                    activationQueue.onUpdate(update.getDelete().getHandle(), update.affected, cycle);
+                }
+            }
 
             // Then process the two tasks in sequence:
-            // 2.1. Handle delete actions
-            // 2.2. Handle insert actions and collect the delta status along the way
-            return processDeleteActions(typedActions)
+            // 3.1. Handle delete actions
+            // 3.2. Handle insert actions and collect the delta status along the way
+            return processDeleteActions(typedActions, updates)
                     .thenCompose(
-                            unused -> processDeltaStatus(typedActions)
+                            unused -> processDeltaStatus(typedActions, updates)
                     );
         });
     }
 
+    /**
+     * Resolves the scope of each update. An update needs to be propagated only to those alpha-memories
+     * whose conditions, or conditions of the attached fact groups, read at least one of the changed fields.
+     * In other memories, the fact's old field values identifier will be replaced with the new one
+     * when the memories are committed. As those memories don't read the changed fields, the fact
+     * belongs to the same of them before and after the update.
+     *
+     * @param typedActions the buffered actions
+     * @return updates along with their scopes
+     */
+    private Collection<ScopedUpdate> scopeUpdates(Collection<WorkMemoryActionBuffer.SplitView> typedActions) {
+        Collection<ScopedUpdate> result = new LinkedList<>();
+        for (WorkMemoryActionBuffer.SplitView view : typedActions) {
+            ActiveType type = view.getType();
+            TypeMemory typeMemory = memory.getTypeMemory(type.getId());
+            for (WorkMemoryActionBuffer.Update update : view.getUpdates()) {
+                FactFieldValues previous = typeMemory.readFieldValues(update.getDelete().getFactWrapper().getFieldValuesId());
+                Mask<ActiveField> changedFields = previous == null ? null : type.changedFields(previous, update.getInsert().getValues());
+                Mask<AlphaAddress> affected = Mask.alphaAddressMask();
+                Mask<AlphaAddress> unaffected = Mask.alphaAddressMask();
+                type.forEachAlphaAddress(alphaAddress -> {
+                    if (changedFields == null || fieldsReadBy(type, alphaAddress).intersects(changedFields)) {
+                        affected.set(alphaAddress);
+                    } else {
+                        unaffected.set(alphaAddress);
+                    }
+                });
+                Collection<AlphaAddress> unaffectedMatches = unaffected.cardinality() == 0 ?
+                        Collections.emptyList()
+                        :
+                        session.matchingAlphaLocations(type, update.getInsert().getValues(), unaffected);
+                result.add(new ScopedUpdate(type, update, affected, unaffectedMatches));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Builds the agenda out of the rules affected by the current delta memories and the rules
+     * with deferred activations. The resulting list preserves the order of the session's rules.
+     *
+     * @param status the delta status
+     * @return the agenda
+     */
+    List<SessionRule> buildAgenda(Status status) {
+        if (deferredActivations.isEmpty()) {
+            return status.getAgenda();
+        } else {
+            List<SessionRule> agenda = new ArrayList<>(status.agenda.size() + deferredActivations.size());
+            for (SessionRule rule : rules) {
+                if (status.affectedRules.contains(rule) || deferredActivations.containsKey(rule)) {
+                    agenda.add(rule);
+                }
+            }
+            return agenda;
+        }
+    }
+
+    /**
+     * Retains the rule's delta activations for the next agenda.
+     *
+     * @param rule   the rule that won't be executed on the current agenda
+     * @param status the current delta status
+     */
+    void deferActivations(SessionRule rule, Status status) {
+        if (status.affectedRules.contains(rule)) {
+            List<DefaultFactHandle[][]> activations = rule.deltaActivations();
+            if (!activations.isEmpty()) {
+                deferredActivations.computeIfAbsent(rule, k -> new LinkedList<>()).addAll(activations);
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the rule's deferred activations.
+     *
+     * @param rule the rule
+     * @return deferred activations, or an empty list if there are none
+     */
+    List<DefaultFactHandle[][]> takeDeferredActivations(SessionRule rule) {
+        List<DefaultFactHandle[][]> activations = deferredActivations.remove(rule);
+        return activations == null ? Collections.emptyList() : activations;
+    }
+
+    /**
+     * Materializes delta activations of the affected rules and adds them to the activation queue.
+     *
+     * @param status the current delta status
+     * @return the activation queue
+     */
+    ActivationQueue enqueueActivations(Status status) {
+        for (int rank = 0; rank < rules.size(); rank++) {
+            SessionRule rule = rules.get(rank);
+            if (status.affectedRules.contains(rule)) {
+                activationQueue.add(rule, rank, cycle, rule.deltaActivations());
+            }
+        }
+        return activationQueue;
+    }
+
+    List<SessionRule> getRules() {
+        return rules;
+    }
+
+    boolean hasDeltaActivations(SessionRule rule, Status status) {
+        return status.affectedRules.contains(rule);
+    }
+
+    /**
+     * Removes deferred activations whose facts are deleted, or updated in a way that affects
+     * the corresponding alpha-memories. If such updated facts still match the rules, they will
+     * appear in the delta memories again.
+     */
+    private void invalidateDeferredActivations(Collection<WorkMemoryActionBuffer.SplitView> typedActions, Collection<ScopedUpdate> updates) {
+        Set<DefaultFactHandle> deleted = new HashSet<>();
+        for (WorkMemoryActionBuffer.SplitView view : typedActions) {
+            for (DeltaMemoryAction.Delete delete : view.getDeletes()) {
+                deleted.add(delete.getHandle());
+            }
+        }
+        Map<DefaultFactHandle, Mask<AlphaAddress>> updated = new HashMap<>();
+        for (ScopedUpdate update : updates) {
+            updated.put(update.getDelete().getHandle(), update.affected);
+        }
+
+        if (!deleted.isEmpty() || !updated.isEmpty()) {
+            Iterator<Map.Entry<SessionRule, List<DefaultFactHandle[][]>>> it = deferredActivations.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<SessionRule, List<DefaultFactHandle[][]>> entry = it.next();
+                SessionFactGroup[] groups = entry.getKey().getLhs().getFactGroups();
+                List<DefaultFactHandle[][]> activations = entry.getValue();
+                activations.removeIf(activation -> isInvalidated(groups, activation, deleted, updated));
+                if (activations.isEmpty()) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private static boolean isInvalidated(SessionFactGroup[] groups, DefaultFactHandle[][] activation, Set<DefaultFactHandle> deleted, Map<DefaultFactHandle, Mask<AlphaAddress>> updated) {
+        for (int i = 0; i < activation.length; i++) {
+            SessionFactType[] factTypes = groups[i].getFactTypes();
+            for (int j = 0; j < activation[i].length; j++) {
+                DefaultFactHandle handle = activation[i][j];
+                if (deleted.contains(handle)) {
+                    return true;
+                }
+                Mask<AlphaAddress> affected = updated.get(handle);
+                if (affected != null && affected.get(factTypes[j].getAlphaAddress())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Mask<ActiveField> fieldsReadBy(ActiveType type, AlphaAddress alphaAddress) {
+        if (fieldsByAlphaAddress == null) {
+            Map<AlphaAddress, Mask<ActiveField>> map = new HashMap<>();
+            for (SessionRule rule : rules) {
+                for (SessionFactGroup group : rule.getLhs().getFactGroups()) {
+                    for (SessionFactType factType : group.getFactTypes()) {
+                        AlphaAddress address = factType.getAlphaAddress();
+                        map.computeIfAbsent(address, k -> session.alphaConditionFields(factType.type(), k));
+                    }
+                    group.forEachReadField((address, field) -> map.get(address).set(field));
+                }
+            }
+            this.fieldsByAlphaAddress = map;
+        }
+        Mask<ActiveField> fields = fieldsByAlphaAddress.get(alphaAddress);
+        // Alpha-memories that are no longer used by the rules
+        return fields == null ? session.alphaConditionFields(type, alphaAddress) : fields;
+    }
+
 
-    private CompletableFuture<Void> processDeleteActions(Collection<WorkMemoryActionBuffer.SplitView> typedActions) {
+    private CompletableFuture<Void> processDeleteActions(Collection<WorkMemoryActionBuffer.SplitView> typedActions, Collection<ScopedUpdate> updates) {
         if(typedActions.isEmpty()) {
             return CompletableFuture.completedFuture(null);
         } else {
@@ -60,34 +266,68 @@ class ActivationContext {
             for(WorkMemoryActionBuffer.SplitView view : typedActions) {
                 ActiveType type = view.getType();
                 Collection<DeltaMemoryAction.Delete> deleteOps = view.getDeletes();
+                if (deleteOps.isEmpty()) {
+                    continue;
+                }
                 TypeMemory typeMemory = memory.getTypeMemory(type.getId());
 
+                // All delete ops of the same type share the same destinations, so each
+                // destination receives the type's deletes as a single batch
+                List<FactHolder> factHolders = new ArrayList<>(deleteOps.size());
                 for (DeltaMemoryAction.Delete op : deleteOps) {
-                    DefaultFactHandle handle = op.getHandle();
-                    FactHolder factHolder = op.getFactWrapper();
+                    factHolders.add(op.getFactWrapper());
 
                     // a) handling non-applied delete ops
                     if(op.applyToMemory()) {
-                        nonAppliedDeletes.add(typeMemory, handle);
+                        nonAppliedDeletes.add(typeMemory, op.getHandle());
+                    }
+                }
+
+                // b) splitting by alpha memory
+                type.forEachAlphaAddress(alphaAddress -> deletesByAlphaMemory.addAll(memory.getAlphaMemory(alphaAddress), factHolders));
+
+                // c) split by fact groups
+                for (SessionRule rule : rules) {
+                    for (SessionFactGroup group : rule.getLhs().getFactGroups()) {
+                        if (!group.isPlain() && group.getTypeMask().get(type)) {
+                            deletesByFactGroups.addAll(group, factHolders);
+                        }
+                    }
+                }
+            }
+
+            // The same steps for updates, limited to the affected alpha-memories
+            final Map<DefaultFactHandle, Mask<AlphaAddress>> updateScopes = new HashMap<>();
+            for (ScopedUpdate update : updates) {
+                DeltaMemoryAction.Delete op = update.getDelete();
+                DefaultFactHandle handle = op.getHandle();
+                FactHolder factHolder = op.getFactWrapper();
+                updateScopes.put(handle, update.affected);
+
+                if(op.applyToMemory()) {
+                    nonAppliedDeletes.add(memory.getTypeMemory(update.type.getId()), handle);
+                }
+
+                update.type.forEachAlphaAddress(alphaAddress -> {
+                    if (update.affected.get(alphaAddress)) {
+                        deletesByAlphaMemory.add(memory.getAlphaMemory(alphaAddress), factHolder);
                     }
+                });
 
-                    // b) splitting by alpha memory
-                    type.forEachAlphaAddress(alphaAddress -> {
-                        TypeAlphaMemory alphaMemory = memory.getAlphaMemory(alphaAddress);
-                        deletesByAlphaMemory.add(alphaMemory, factHolder);
-                    });
-
-                    // c) split by fact groups
-                    for (SessionRule rule : rules) {
-                        for (SessionFactGroup group : rule.getLhs().getFactGroups()) {
-                            if (!group.isPlain() && group.getTypeMask().get(type)) {
-                                deletesByFactGroups.add(group, factHolder);
-                            }
+                for (SessionRule rule : rules) {
+                    for (SessionFactGroup group : rule.getLhs().getFactGroups()) {
+                        if (!group.isPlain() && group.getAlphaAddressMask().intersects(update.affected)) {
+                            deletesByFactGroups.add(group, factHolder);
                         }
                     }
                 }
             }
 
+            final BiPredicate<FactHolder, FactType> deleteScope = (factHolder, factType) -> {
+                Mask<AlphaAddress> affected = updateScopes.get(factHolder.getHandle());
+                return affected == null || affected.get(factType.getAlphaAddress());
+            };
+
 
             // Turn the collected data into futures
             final Collection<CompletableFuture<Void>> deleteFutures = new ArrayList<>();
@@ -102,14 +342,14 @@ class ActivationContext {
             );
 
             deletesByFactGroups.forEach(
-                    (group, ops) -> deleteFutures.add(group.processDeleteDeltaActions(ops))
+                    (group, ops) -> deleteFutures.add(group.processDeleteDeltaActions(ops, deleteScope))
             );
 
             return CommonUtils.completeAll(deleteFutures);
         }
     }
 
-    private CompletableFuture<Status> processDeltaStatus(Collection<WorkMemoryActionBuffer.SplitView> typedActions) {
+    private CompletableFuture<Status> processDeltaStatus(Collection<WorkMemoryActionBuffer.SplitView> typedActions, Collection<ScopedUpdate> updates) {
         if(typedActions.isEmpty()) {
             return CompletableFuture.completedFuture(null);
         } else {
@@ -147,6 +387,29 @@ class ActivationContext {
                         nonAppliedByTypeMemory.add(insert.getHandle().getType(), factHolder);
                     }
                 }
+
+                // Updates that haven't changed field values only need their new fact references to be saved
+                for (DeltaMemoryAction.Insert replacement : view.getReplacements()) {
+                    nonAppliedByTypeMemory.add(replacement.getHandle().getType(), replacement.getFactWrapper());
+                }
+            }
+
+            // Updates are inserted only into the affected alpha memories, the rest will be
+            // substituted on commit
+            for (ScopedUpdate update : updates) {
+                DeltaMemoryAction.Insert insert = update.getInsert();
+                FactHolder factHolder = insert.getFactWrapper();
+                for (AlphaAddress matchingAlpha : session.matchingAlphaLocations(update.type, insert.getValues(), update.affected)) {
+                    insertsByAlphaLocation.add(matchingAlpha, factHolder);
+                }
+
+                if(insert.applyToMemory()) {
+                    nonAppliedByTypeMemory.add(insert.getHandle().getType(), factHolder);
+                }
+
+                if (update.affected.cardinality() < update.type.getKnownAlphaLocations().size()) {
+                    result.addSubstitution(update);
+                }
             }
             final List<CompletableFuture<Void>> insertFutures = new LinkedList<>();
 
@@ -190,17 +453,23 @@ class ActivationContext {
 
             // 5. As computing fact groups (Rete graphs) will eventually require data from each graph's
             //    leaf nodes (which are alpha memories of each fact type in the group), we need to process
-            //    the alpha tasks first
+            //    the alpha tasks first. Large condition graphs are computed on the service's executor
+            //    even if the cycle is executed inline.
+            int affectedNodes = 0;
+            for (SessionFactGroup group : result.affectedFactGroups) {
+                affectedNodes += group.conditionNodeCount();
+            }
             return CommonUtils.completeAll(insertFutures)
                     .thenComposeAsync(
                             unused -> {
                                 // 5. Now computing the condition fact groups ()
-                                return CommonUtils.completeAll(
+                                return SessionFactGroup.buildDeltas(
                                         result.affectedFactGroups,
-                                        group -> group.buildDeltas(DeltaMemoryMode.DEFAULT)
+                                        DeltaMemoryMode.DEFAULT,
+                                        executor
                                 ).thenApply(unused1 -> result);
                             },
-                            executor
+                            executor.forWorkload(affectedNodes)
                     );
         }
     }
@@ -217,7 +486,64 @@ class ActivationContext {
         for (TypeAlphaMemory alphaMemory : status.affectedAlphaBuckets) {
             commitFutures.add(alphaMemory.commit(executor));
         }
-        return CommonUtils.completeAll(commitFutures);
+        CompletableFuture<Void> commits = CommonUtils.completeAll(commitFutures);
+        if (status.substitutions.isEmpty()) {
+            return commits;
+        } else {
+            // 3. Replacing field value identifiers of the updated facts in unaffected memories
+            return commits.thenCompose(unused -> substituteValueIds(status.substitutions));
+        }
+    }
+
+    private CompletableFuture<Void> substituteValueIds(Collection<ScopedUpdate> updates) {
+        // 1. Moving the updated facts in the alpha memories
+        final Map<AlphaAddress, ValueIdSubstitution> substitutions = new HashMap<>();
+        for (ScopedUpdate update : updates) {
+            DefaultFactHandle handle = update.getInsert().getHandle();
+            long oldValuesId = update.getDelete().getFactWrapper().getFieldValuesId();
+            long newValuesId = update.getInsert().getFactWrapper().getFieldValuesId();
+            for (AlphaAddress alphaAddress : update.unaffectedMatches) {
+                TypeAlphaMemory alphaMemory = memory.getAlphaMemory(alphaAddress);
+                boolean newValuesKnown = hasValues(alphaMemory, newValuesId);
+                alphaMemory.delete(oldValuesId, handle);
+                alphaMemory.insert(newValuesId, handle);
+                boolean oldValuesInUse = hasValues(alphaMemory, oldValuesId);
+
+                // Condition memories must follow the same changes
+                ValueIdSubstitution substitution = substitutions.computeIfAbsent(alphaAddress, k -> new ValueIdSubstitution());
+                if (!newValuesKnown) {
+                    substitution.copy(oldValuesId, newValuesId);
+                }
+                if (!oldValuesInUse) {
+                    substitution.remove(oldValuesId);
+                }
+            }
+        }
+
+        if (substitutions.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        } else {
+            LOGGER.fine(() -> "Substituting field value identifiers in alpha memories: " + substitutions.keySet());
+            Mask<AlphaAddress> substitutedAddresses = Mask.alphaAddressMask().set(substitutions.keySet());
+            final List<CompletableFuture<Void>> futures = new LinkedList<>();
+            for (AlphaAddress alphaAddress : substitutions.keySet()) {
+                futures.add(memory.getAlphaMemory(alphaAddress).commit(executor));
+            }
+
+            // 2. Updating the condition memories
+            for (SessionRule rule : rules) {
+                for (SessionFactGroup group : rule.getLhs().getFactGroups()) {
+                    if (!group.isPlain() && group.getAlphaAddressMask().intersects(substitutedAddresses)) {
+                        futures.add(group.substituteValueIds(substitutions::get));
+                    }
+                }
+            }
+            return CommonUtils.completeAll(futures);
+        }
+    }
+
+    private static boolean hasValues(TypeAlphaMemory alphaMemory, long valuesId) {
+        return alphaMemory.valueIterator(MemoryScope.MAIN, valuesId).hasNext() || alphaMemory.valueIterator(MemoryScope.DELTA, valuesId).hasNext();
     }
 
     CompletableFuture<Void> handleNonAppliedInserts(TypeMemory typeMemory, Collection<FactHolder> facts) {
@@ -265,8 +591,10 @@ class ActivationContext {
 
     static class Status {
         final List<SessionRule> agenda = new LinkedList<>();
+        final Set<SessionRule> affectedRules = new HashSet<>();
         final List<SessionFactGroup> affectedFactGroups = new LinkedList<>();
         final List<TypeAlphaMemory> affectedAlphaBuckets = new LinkedList<>();
+        final List<ScopedUpdate> substitutions = new LinkedList<>();
 
         List<SessionRule> getAgenda() {
             return agenda;
@@ -274,6 +602,7 @@ class ActivationContext {
 
         void addAffectedRule(SessionRule sessionRule) {
             agenda.add(sessionRule);
+            affectedRules.add(sessionRule);
         }
 
         void addAffectedFactGroup(SessionFactGroup sessionFactGroup) {
@@ -283,5 +612,37 @@ class ActivationContext {
         void addAffectedAlphaBucket(TypeAlphaMemory typeAlphaMemory) {
             affectedAlphaBuckets.add(typeAlphaMemory);
         }
+
+        void addSubstitution(ScopedUpdate update) {
+            substitutions.add(update);
+        }
+    }
+
+    /**
+     * An update along with the alpha addresses it must be propagated to.
+     */
+    static class ScopedUpdate {
+        final ActiveType type;
+        final WorkMemoryActionBuffer.Update update;
+        final Mask<AlphaAddress> affected;
+        /**
+         * Unaffected alpha-memories the fact belongs to, before and after the update
+         */
+        final Collection<AlphaAddress> unaffectedMatches;
+
+        ScopedUpdate(ActiveType type, WorkMemoryActionBuffer.Update update, Mask<AlphaAddress> affected, Collection<AlphaAddress> unaffectedMatches) {
+            this.type = type;
+            this.update = update;
+            this.affected = affected;
+            this.unaffectedMatches = unaffectedMatches;
+        }
+
+        DeltaMemoryAction.Delete getDelete() {
+            return update.getDelete();
+        }
+
+        DeltaMemoryAction.Insert getInsert() {
+            return update.getInsert();
+        }
     }
 }
@@ -0,0 +1,188 @@
+package org.evrete.runtime;
+
+import java.util.*;
+
+/**
+ * <p>
+ * Priority queue of rule activations used by the {@link org.evrete.api.ActivationMode#PRIORITY} mode.
+ * An activation is a combination of a rule and the fact handles it matched. Activations are ordered by
+ * their rules' rank (the position of the rule in the session's sorted rule list), then by recency, so that
+ * activations created by later memory changes come first. Activations of the same fire cycle are ordered
+ * by the recency of their facts, i.e. activations that match the most recently inserted facts come first,
+ * and then by their creation order.
+ * </p>
+ * <p>
+ * Memory changes don't update the queue. Instead, the queue keeps track of deleted and updated fact handles,
+ * and activations referencing them are dropped when they reach the head of the queue.
+ * </p>
+ */
+class ActivationQueue {
+    private static final Comparator<Activation> ORDER = Comparator
+            .comparingInt((Activation a) -> a.rank)
+            .thenComparing(a -> a.cycle, Comparator.reverseOrder())
+            .thenComparing(a -> a.recency, Comparator.reverseOrder())
+            .thenComparingLong(a -> a.sequence);
+
+    private final PriorityQueue<Activation> queue = new PriorityQueue<>(ORDER);
+    private final Map<SessionRule, Integer> queuedPerRule = new HashMap<>();
+    private final Set<DefaultFactHandle> deleted = new HashSet<>();
+    private final MapOfList<DefaultFactHandle, UpdateEvent> updates = new MapOfList<>();
+    private long sequence;
+
+    boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    /**
+     * Adds the rule's activations to the queue.
+     *
+     * @param rule        the rule
+     * @param rank        the rule's position in the session's sorted rule list
+     * @param cycle       the fire cycle the activations were created in
+     * @param activations fact handles grouped by the rule's fact groups
+     */
+    void add(SessionRule rule, int rank, int cycle, Collection<DefaultFactHandle[][]> activations) {
+        if (!activations.isEmpty()) {
+            for (DefaultFactHandle[][] handles : activations) {
+                queue.add(new Activation(rule, rank, cycle, sequence++, handles));
+            }
+            queuedPerRule.merge(rule, activations.size(), Integer::sum);
+        }
+    }
+
+    /**
+     * Registers a deleted fact handle, activations referencing it will be dropped.
+     *
+     * @param handle the deleted handle
+     */
+    void onDelete(DefaultFactHandle handle) {
+        if (!queue.isEmpty()) {
+            deleted.add(handle);
+        }
+    }
+
+    /**
+     * Registers a fact update, activations that were created before the update and that reference the fact
+     * via one of the affected alpha-memories will be dropped.
+     *
+     * @param handle   the updated handle
+     * @param affected the alpha-memories affected by the update
+     * @param cycle    the fire cycle of the update
+     */
+    void onUpdate(DefaultFactHandle handle, Mask<AlphaAddress> affected, int cycle) {
+        if (!queue.isEmpty()) {
+            updates.add(handle, new UpdateEvent(cycle, affected));
+        }
+    }
+
+    /**
+     * Returns the rules that have queued activations, in the order of the provided rule list.
+     *
+     * @param rules the session's rules
+     * @return rules with queued activations
+     */
+    List<SessionRule> queuedRules(List<SessionRule> rules) {
+        List<SessionRule> result = new ArrayList<>(queuedPerRule.size());
+        for (SessionRule rule : rules) {
+            if (queuedPerRule.containsKey(rule)) {
+                result.add(rule);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves and removes the next valid activation.
+     *
+     * @return the next activation or {@code null} if the queue is empty
+     */
+    Activation poll() {
+        Activation activation;
+        while ((activation = queue.poll()) != null) {
+            queuedPerRule.computeIfPresent(activation.rule, (rule, count) -> count == 1 ? null : count - 1);
+            if (isValid(activation)) {
+                break;
+            }
+        }
+
+        if (queue.isEmpty()) {
+            // No activations to check, the history can be discarded
+            deleted.clear();
+            updates.clear();
+        }
+        return activation;
+    }
+
+    void clear() {
+        queue.clear();
+        queuedPerRule.clear();
+        deleted.clear();
+        updates.clear();
+    }
+
+    private boolean isValid(Activation activation) {
+        SessionFactGroup[] groups = activation.rule.getLhs().getFactGroups();
+        DefaultFactHandle[][] handles = activation.handles;
+        for (int i = 0; i < handles.length; i++) {
+            SessionFactType[] factTypes = groups[i].getFactTypes();
+            for (int j = 0; j < handles[i].length; j++) {
+                DefaultFactHandle handle = handles[i][j];
+                if (deleted.contains(handle)) {
+                    return false;
+                }
+                List<UpdateEvent> events = updates.get(handle);
+                if (events != null) {
+                    AlphaAddress alphaAddress = factTypes[j].getAlphaAddress();
+                    for (UpdateEvent event : events) {
+                        if (event.cycle > activation.cycle && event.affected.get(alphaAddress)) {
+                            return false;
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    static class Activation {
+        final SessionRule rule;
+        final DefaultFactHandle[][] handles;
+        private final int rank;
+        private final int cycle;
+        private final long sequence;
+        private final long recency;
+
+        Activation(SessionRule rule, int rank, int cycle, long sequence, DefaultFactHandle[][] handles) {
+            this.rule = rule;
+            this.rank = rank;
+            this.cycle = cycle;
+            this.sequence = sequence;
+            this.handles = handles;
+            this.recency = recency(handles);
+        }
+
+        /**
+         * Fact handle identifiers are assigned in insertion order, the most recent fact
+         * of an activation therefore has the largest identifier.
+         */
+        private static long recency(DefaultFactHandle[][] handles) {
+            long recency = Long.MIN_VALUE;
+            for (DefaultFactHandle[] group : handles) {
+                for (DefaultFactHandle handle : group) {
+                    recency = Math.max(recency, handle.getId());
+                }
+            }
+            return recency;
+        }
+    }
+
+    private static class UpdateEvent {
+        final int cycle;
+        final Mask<AlphaAddress> affected;
+
+        UpdateEvent(int cycle, Mask<AlphaAddress> affected) {
+            this.cycle = cycle;
+            this.affected = affected;
+        }
+    }
+}
@@ -50,6 +50,19 @@ public class ActiveEvaluatorGenerator extends IndexingArrayMap<ActiveEvaluatorGe
         replace((DefaultEvaluatorHandle) handle, newPredicate);
     }
 
+    /**
+     * Atomically replaces the condition if it is still the expected one, so that concurrent
+     * replacements made by the user aren't overwritten.
+     *
+     * @param handle       the handle of an existing condition
+     * @param expected     the condition that is expected to be current
+     * @param newPredicate the new condition
+     * @return {@code true} if the condition has been replaced
+     */
+    public boolean replacePredicate(EvaluatorHandle handle, ValuesPredicate expected, ValuesPredicate newPredicate) {
+        return get((DefaultEvaluatorHandle) handle, false).replacePredicate(expected, newPredicate);
+    }
+
     /**
      * <p>
      * Registers new condition and returns its handle.
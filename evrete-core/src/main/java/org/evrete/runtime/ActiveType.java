@@ -13,6 +13,7 @@ import java.io.Serializable;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
@@ -96,6 +97,28 @@ public class ActiveType implements Copyable<ActiveType> {
         return new FactFieldValues(values);
     }
 
+    /**
+     * Compares two sets of field values of this type and returns a mask of the fields that differ.
+     *
+     * @param previous the previous values of a fact
+     * @param current  the current values of the same fact
+     * @return mask of the changed fields or {@code null} if the values were read using different sets of fields
+     */
+    Mask<ActiveField> changedFields(FactFieldValues previous, FactFieldValues current) {
+        if (previous.size() != current.size() || current.size() != activeFields.size()) {
+            return null;
+        } else {
+            Mask<ActiveField> changed = Mask.activeFieldMask();
+            activeFields.forEachValue(activeField -> {
+                int idx = activeField.valueIndex();
+                if (!Objects.equals(previous.valueAt(idx), current.valueAt(idx))) {
+                    changed.set(activeField);
+                }
+            });
+            return changed;
+        }
+    }
+
     ActiveField getCreateActiveField(TypeField field) {
         return this.activeFields.getOrCreateEntry(field).getValue();
     }
@@ -108,6 +131,10 @@ public class ActiveType implements Copyable<ActiveType> {
         return activeFields.size();
     }
 
+    void forEachField(Consumer<ActiveField> action) {
+        this.activeFields.forEachValue(action);
+    }
+
     void forEachAlphaCondition(Consumer<AlphaConditionHandle> action) {
         this.alphaConditionIndexer.forEachValue(action);
     }
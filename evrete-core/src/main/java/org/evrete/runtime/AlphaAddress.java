@@ -24,7 +24,7 @@ public class AlphaAddress extends PreHashed implements Indexed {
         this.typeAlphaConditions = typeAlphaConditions;
     }
 
-    private Mask<AlphaConditionHandle> getMask() {
+    Mask<AlphaConditionHandle> getMask() {
         return typeAlphaConditions.getMask();
     }
 
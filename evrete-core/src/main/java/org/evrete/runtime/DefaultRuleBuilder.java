@@ -3,17 +3,22 @@ package org.evrete.runtime;
 import org.evrete.api.FactBuilder;
 import org.evrete.api.NamedType;
 import org.evrete.api.RhsContext;
+import org.evrete.api.RuleParameter;
 import org.evrete.api.RuntimeContext;
 import org.evrete.api.annotations.NonNull;
 import org.evrete.api.builders.RuleBuilder;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.function.Consumer;
 
 class DefaultRuleBuilder<C extends RuntimeContext<C>> extends AbstractRule implements RuleBuilder<C> {
     private final DefaultLhsBuilder<C> lhsBuilder;
 
     private final DefaultRuleSetBuilder<C> ruleSetBuilder;
+    private final Map<String, RuleParameter> parameters = new LinkedHashMap<>();
 
 
     DefaultRuleBuilder(DefaultRuleSetBuilder<C> ruleSetBuilder, String name) {
@@ -65,6 +70,19 @@ class DefaultRuleBuilder<C extends RuntimeContext<C>> extends AbstractRule imple
         return this;
     }
 
+    @Override
+    public <T> DefaultRuleBuilder<C> parameter(String name, Class<T> type, T value) {
+        RuleParameter parameter = new RuleParameter(name, type, value);
+        if (parameters.putIfAbsent(name, parameter) != null) {
+            throw new IllegalArgumentException("Parameter '" + name + "' is already declared");
+        }
+        return this;
+    }
+
+    Collection<RuleParameter> getParameters() {
+        return new ArrayList<>(parameters.values());
+    }
+
     //@Override
     @NonNull
     public NamedType resolve(@NonNull String var) {
@@ -1,6 +1,7 @@
 package org.evrete.runtime;
 
 import org.evrete.api.RuleLiteralData;
+import org.evrete.api.RuleParameter;
 import org.evrete.api.annotations.NonNull;
 
 import java.util.Collection;
@@ -11,6 +12,7 @@ class DefaultRuleLiteralData implements RuleLiteralData<DefaultRuleBuilder<?>, D
     private final Collection<DefaultConditionManager.Literal> conditions;
 
     private final String rhs;
+    private final Collection<RuleParameter> parameters;
 
     public DefaultRuleLiteralData(DefaultRuleBuilder<?> ruleBuilder) {
         this.ruleBuilder = ruleBuilder;
@@ -21,6 +23,9 @@ class DefaultRuleLiteralData implements RuleLiteralData<DefaultRuleBuilder<?>, D
 
         // Get RHS
         this.rhs = ruleBuilder.literalRhs();
+
+        // Get parameters
+        this.parameters = ruleBuilder.getParameters();
     }
 
     boolean nonEmpty() {
@@ -43,4 +48,10 @@ class DefaultRuleLiteralData implements RuleLiteralData<DefaultRuleBuilder<?>, D
     public String rhs() {
         return rhs;
     }
+
+    @NonNull
+    @Override
+    public Collection<RuleParameter> parameters() {
+        return parameters;
+    }
 }
@@ -0,0 +1,73 @@
+package org.evrete.runtime;
+
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Session-level executor of fire cycle tasks. By default, tasks are passed to the service's executor.
+ * </p>
+ * <p>
+ * Small fire cycles spend more time on thread handoffs than on the actual work. For such cycles, the session
+ * switches the firing thread to the inline mode, and tasks submitted from that thread are executed right away,
+ * so that the whole cycle completes on the calling thread. Tasks that end up on other threads, for example
+ * because they depend on a pending memory allocation, are still passed to the service's executor.
+ * </p>
+ */
+class FireCycleExecutor implements Executor {
+    private final Executor delegate;
+    private final int inlineThreshold;
+    private final ThreadLocal<Boolean> inline = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    /**
+     * @param delegate        the service's executor
+     * @param inlineThreshold the maximum workload (buffered actions or affected condition nodes) that is
+     *                        executed inline, zero or negative values disable the inline mode
+     */
+    FireCycleExecutor(Executor delegate, int inlineThreshold) {
+        this.delegate = delegate;
+        this.inlineThreshold = inlineThreshold;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (inline.get()) {
+            command.run();
+        } else {
+            delegate.execute(command);
+        }
+    }
+
+    boolean isInlineWorkload(int workload) {
+        return workload <= inlineThreshold;
+    }
+
+    /**
+     * Returns this executor if the workload may be executed inline, or the service's executor otherwise.
+     *
+     * @param workload the number of tasks or nodes to process
+     * @return executor for the workload
+     */
+    Executor forWorkload(int workload) {
+        return isInlineWorkload(workload) ? this : delegate;
+    }
+
+    /**
+     * Calls the action with the current thread's inline mode set to the provided value. The previous
+     * mode is restored afterward.
+     *
+     * @param inlineMode whether tasks submitted by the action from the current thread are executed inline
+     * @param action     the action
+     * @param <T>        result type
+     * @return the action's result
+     */
+    <T> T call(boolean inlineMode, Supplier<T> action) {
+        Boolean previous = inline.get();
+        inline.set(inlineMode);
+        try {
+            return action.get();
+        } finally {
+            inline.set(previous);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.evrete.runtime;
 
 import org.evrete.api.*;
+import org.evrete.runtime.compiler.TieredPredicate;
 import org.evrete.runtime.evaluation.DefaultEvaluatorHandle;
 
 import java.util.*;
@@ -11,12 +12,18 @@ import java.util.function.Consumer;
  * a data structure that will be used by sessions to allocate Rete-specific memory elements.
  */
 public final class KnowledgeRule extends AbstractActiveRule<KnowledgeFactGroup, KnowledgeLhs, AbstractRuntime<?, ?>> implements RuleDescriptor {
+    private final KnowledgeSnapshot.RuleRecipe recipe;
 
-    private KnowledgeRule(AbstractRuntime<?, ?> runtime, DefaultRuleBuilder<?> other, int salience, KnowledgeLhs knowledgeLhs) {
+    private KnowledgeRule(AbstractRuntime<?, ?> runtime, DefaultRuleBuilder<?> other, int salience, KnowledgeLhs knowledgeLhs, KnowledgeSnapshot.RuleRecipe recipe) {
         super(runtime, other, salience, knowledgeLhs);
+        this.recipe = recipe;
     }
 
-    static KnowledgeRule buildRule(AbstractRuntime<?, ?> runtime, DefaultRuleBuilder<?> rule, RuleBuilderActiveConditions lhsConditions, int salience) {
+    KnowledgeSnapshot.RuleRecipe getRecipe() {
+        return recipe;
+    }
+
+    static KnowledgeRule buildRule(AbstractRuntime<?, ?> runtime, DefaultRuleBuilder<?> rule, RuleBuilderActiveConditions lhsConditions, int salience, KnowledgeSnapshot.RuleRecipe recipe) {
         // 1. Prepare fact declaration descriptors
         Collection<DefaultLhsBuilder.Fact> factDeclarations = rule.getLhs().rawValues();
         List<FactType> factTypes = new ArrayList<>(factDeclarations.size());
@@ -40,7 +47,7 @@ public final class KnowledgeRule extends AbstractActiveRule<KnowledgeFactGroup,
 
         KnowledgeLhs knowledgeLhs = KnowledgeLhs.factory(factTypes, lhsConditions);
 
-        return new KnowledgeRule(runtime, rule, salience, knowledgeLhs);
+        return new KnowledgeRule(runtime, rule, salience, knowledgeLhs, recipe);
     }
 
 
@@ -106,6 +113,12 @@ public final class KnowledgeRule extends AbstractActiveRule<KnowledgeFactGroup,
                         // 1. Registering the compiled predicate
                         LhsField.Array<String, ActiveField> descriptor = runtime.toActiveFields(compiled.resolvedFields());
                         DefaultEvaluatorHandle handle = evalCtx.addEvaluator(compiled.getPredicate(), compiled.getSource().getComplexity(), descriptor);
+                        if (compiled.getPredicate() instanceof TieredPredicate) {
+                            // Sessions share the tiered predicate and are upgraded along with it,
+                            // this context can switch to the compiled predicate directly
+                            TieredPredicate<?> tiered = (TieredPredicate<?>) compiled.getPredicate();
+                            tiered.compiled().thenAccept(compiledPredicate -> evalCtx.replacePredicate(handle, tiered, compiledPredicate));
+                        }
                         // 2. Complete the future
                         compiled.getSource().getHandle().complete(handle);
                         // 3. Now we have everything to know about the literal condition
@@ -134,7 +147,8 @@ public final class KnowledgeRule extends AbstractActiveRule<KnowledgeFactGroup,
 
 
             // Build the descriptor and append it to the result
-            KnowledgeRule descriptor = buildRule(runtime, ruleBuilder, ruleConditions, salience);
+            KnowledgeSnapshot.RuleRecipe recipe = new KnowledgeSnapshot.RuleRecipe(ruleBuilder, literalRhs);
+            KnowledgeRule descriptor = buildRule(runtime, ruleBuilder, ruleConditions, salience, recipe);
             descriptors.add(descriptor);
 
             currentRuleCount++;
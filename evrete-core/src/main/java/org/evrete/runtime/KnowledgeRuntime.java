@@ -3,8 +3,12 @@ package org.evrete.runtime;
 import org.evrete.KnowledgeService;
 import org.evrete.api.*;
 import org.evrete.api.events.KnowledgeCreatedEvent;
+import org.evrete.api.spi.SourceCompilerProvider;
 import org.evrete.runtime.events.KnowledgeCreatedEventImpl;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -14,13 +18,46 @@ public class KnowledgeRuntime extends AbstractRuntime<RuleDescriptor, Knowledge>
     private final WeakHashMap<RuleSession<?>, Object> sessions = new WeakHashMap<>();
     private final Object VALUE = new Object();
     private final SearchList<KnowledgeRule> ruleDescriptors = new SearchList<>();
+    private final KnowledgeSnapshot.CompiledClasses compiledClasses;
 
     public KnowledgeRuntime(KnowledgeService service, String name) {
+        this(service, name, new KnowledgeSnapshot.CompiledClasses(service));
+    }
+
+    KnowledgeRuntime(KnowledgeService service, String name, KnowledgeSnapshot.CompiledClasses compiledClasses) {
         super(service, name);
+        this.compiledClasses = compiledClasses;
         // Publish the created event
         broadcast(KnowledgeCreatedEvent.class, new KnowledgeCreatedEventImpl(getContextCreateStartTime(), this));
     }
 
+    /**
+     * Reads a knowledge instance from a snapshot
+     *
+     * @param service the knowledge service
+     * @param in      the snapshot's input stream
+     * @return a new knowledge instance
+     * @throws IOException if the snapshot can not be read
+     * @see #writeSnapshot(OutputStream)
+     */
+    public static Knowledge readSnapshot(KnowledgeService service, InputStream in) throws IOException {
+        return KnowledgeSnapshot.read(service, in);
+    }
+
+    @Override
+    public void writeSnapshot(OutputStream out) throws IOException {
+        KnowledgeSnapshot.write(this, out);
+    }
+
+    KnowledgeSnapshot.CompiledClasses getCompiledClasses() {
+        return compiledClasses;
+    }
+
+    @Override
+    SourceCompilerProvider sourceCompilerProvider() {
+        return compiledClasses;
+    }
+
     @Override
     void addRuleDescriptors(List<KnowledgeRule> descriptors) {
         if(!descriptors.isEmpty()) {
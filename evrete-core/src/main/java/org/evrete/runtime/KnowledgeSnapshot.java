@@ -0,0 +1,652 @@
+package org.evrete.runtime;
+
+import org.evrete.Configuration;
+import org.evrete.KnowledgeService;
+import org.evrete.api.*;
+import org.evrete.api.builders.RuleSetBuilder;
+import org.evrete.api.spi.SourceCompiler;
+import org.evrete.api.spi.SourceCompilerProvider;
+import org.evrete.util.ClassSourceUtils;
+import org.evrete.util.CompilationException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Binary snapshots of {@link KnowledgeRuntime} instances. A snapshot holds everything that is needed to
+ * build the same knowledge again: its configuration, imports, types, and rules, along with the bytecode
+ * of the classes compiled from the rules' literal conditions and actions. Reading a snapshot replays the
+ * build against these classes, so the Java compiler is never invoked.
+ * </p>
+ * <p>
+ * Java objects can't be stored, so only rules that consist of literal conditions and literal actions
+ * can be written. Types are restored by their names and Java classes, so rules may only use fields that
+ * are resolved from the Java classes, not those declared with functions. Snapshots are meant to be read
+ * by the same version of the application and the library that wrote them.
+ * </p>
+ */
+final class KnowledgeSnapshot {
+    private static final int MAGIC = 0x45565253;
+    private static final int FORMAT_VERSION = 1;
+
+    private KnowledgeSnapshot() {
+    }
+
+    static void write(KnowledgeRuntime knowledge, OutputStream out) throws IOException {
+        if (!knowledge.hasDefaultRuleComparator()) {
+            throw new IllegalStateException("Knowledge with a custom rule comparator can not be written to a snapshot");
+        }
+        // Validating the rules before anything is written
+        List<KnowledgeRule> rules = knowledge.getRuleDescriptors();
+        for (KnowledgeRule rule : rules) {
+            String error = rule.getRecipe().validate(rule);
+            if (error != null) {
+                throw new IllegalStateException("Rule '" + rule.getName() + "' can not be written to a snapshot: " + error);
+            }
+        }
+        validateFields(knowledge);
+
+        // The snapshot is buffered, so that nothing is written if a property can't be stored
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+        DataOutputStream dos = new DataOutputStream(buffer);
+        dos.writeInt(MAGIC);
+        dos.writeInt(FORMAT_VERSION);
+        writeNullableString(dos, knowledge.getName());
+        dos.writeInt(knowledge.unnamedRuleCount());
+
+        // Configuration and environment
+        Configuration configuration = knowledge.getConfiguration();
+        Set<String> configurationKeys = configuration.stringPropertyNames();
+        dos.writeInt(configurationKeys.size());
+        for (String key : configurationKeys) {
+            writeString(dos, key);
+            writeString(dos, configuration.getProperty(key));
+        }
+        writeStrings(dos, knowledge.getImports().get());
+        writeEnvironment(dos, knowledge, "knowledge");
+        writeString(dos, knowledge.getAgendaMode().name());
+        writeString(dos, knowledge.getActivationManagerFactory().getName());
+
+        // Types
+        Collection<Type<?>> types = knowledge.getTypeResolver().getKnownTypes();
+        dos.writeInt(types.size());
+        for (Type<?> type : types) {
+            writeString(dos, type.getName());
+            writeString(dos, type.getJavaClass().getName());
+        }
+
+        // Rules
+        dos.writeInt(rules.size());
+        for (KnowledgeRule rule : rules) {
+            writeString(dos, rule.getName());
+            dos.writeInt(rule.getSalience());
+            writeEnvironment(dos, rule, "rule '" + rule.getName() + "'");
+            rule.getRecipe().write(dos);
+        }
+
+        // Compiled classes
+        knowledge.getCompiledClasses().write(dos);
+        dos.flush();
+        buffer.writeTo(out);
+    }
+
+    /**
+     * Checks that the fields used by the rules can be resolved on types that are restored by their names
+     * and Java classes, i.e. that none of them has been declared with a function.
+     */
+    private static void validateFields(KnowledgeRuntime knowledge) {
+        TypeResolver restored = knowledge.getService().getTypeResolverProvider().instance(knowledge.getClassLoader());
+        knowledge.activeTypes().forEach(activeType -> {
+            Type<?> type = activeType.getValue();
+            Type<?> restoredType = restored.getOrDeclare(type.getName(), type.getJavaClass());
+            activeType.forEachField(field -> {
+                String error = null;
+                try {
+                    if (restoredType.getField(field.getName()).getValueType() != field.getValueType()) {
+                        error = "its value type differs from the one of the Java class";
+                    }
+                } catch (IllegalArgumentException e) {
+                    error = "it is not a field or a getter of " + type.getJavaClass().getName();
+                }
+                if (error != null) {
+                    throw new IllegalStateException("Field '" + field.getName() + "' of type '" + type.getName() + "' can not be written to a snapshot, " + error);
+                }
+            });
+        });
+    }
+
+    static KnowledgeRuntime read(KnowledgeService service, InputStream in) throws IOException {
+        DataInputStream dis = new DataInputStream(new BufferedInputStream(in));
+        if (dis.readInt() != MAGIC) {
+            throw new IOException("Not a knowledge snapshot");
+        }
+        int version = dis.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot format version " + version);
+        }
+
+        String name = readNullableString(dis);
+        int unnamedRuleCount = dis.readInt();
+
+        // Reading everything upfront, the compiled classes come last
+        Map<String, String> configuration = new LinkedHashMap<>();
+        int configurationSize = dis.readInt();
+        for (int i = 0; i < configurationSize; i++) {
+            configuration.put(readString(dis), readString(dis));
+        }
+        List<String> imports = readStrings(dis);
+        Map<String, Object> environment = readEnvironment(dis);
+        ActivationMode activationMode = ActivationMode.valueOf(readString(dis));
+        String activationManager = readString(dis);
+
+        Map<String, String> types = new LinkedHashMap<>();
+        int typeCount = dis.readInt();
+        for (int i = 0; i < typeCount; i++) {
+            types.put(readString(dis), readString(dis));
+        }
+
+        int ruleCount = dis.readInt();
+        List<StoredRule> rules = new ArrayList<>(ruleCount);
+        for (int i = 0; i < ruleCount; i++) {
+            rules.add(StoredRule.read(dis));
+        }
+
+        CompiledClasses compiledClasses = CompiledClasses.read(dis, service);
+
+        // Replaying the build
+        KnowledgeRuntime knowledge = new KnowledgeRuntime(service, name, compiledClasses);
+        for (Map.Entry<String, String> entry : configuration.entrySet()) {
+            knowledge.getConfiguration().setProperty(entry.getKey(), entry.getValue());
+        }
+        for (String imp : imports) {
+            knowledge.addImport(imp);
+        }
+        for (Map.Entry<String, Object> entry : environment.entrySet()) {
+            knowledge.set(entry.getKey(), entry.getValue());
+        }
+        knowledge.setActivationMode(activationMode);
+        knowledge.setActivationManagerFactory(activationManager);
+
+        TypeResolver typeResolver = knowledge.getTypeResolver();
+        for (Map.Entry<String, String> entry : types.entrySet()) {
+            typeResolver.getOrDeclare(entry.getKey(), entry.getValue());
+        }
+
+        if (!rules.isEmpty()) {
+            RuleSetBuilder<Knowledge> builder = knowledge.builder();
+            for (StoredRule rule : rules) {
+                rule.appendTo(builder, knowledge.getClassLoader());
+            }
+            builder.build();
+        }
+        knowledge.unnamedRuleCount(unnamedRuleCount);
+        return knowledge;
+    }
+
+    private static void writeEnvironment(DataOutputStream dos, Environment environment, String owner) throws IOException {
+        Collection<String> names = environment.getPropertyNames();
+        dos.writeInt(names.size());
+        for (String property : names) {
+            Object value = environment.get(property);
+            writeString(dos, property);
+            if (!writeValue(dos, value)) {
+                throw new IllegalStateException("Property '" + property + "' of " + owner + " can not be written to a snapshot, unsupported value type: " + value.getClass().getName());
+            }
+        }
+    }
+
+    private static Map<String, Object> readEnvironment(DataInputStream dis) throws IOException {
+        int size = dis.readInt();
+        Map<String, Object> result = new LinkedHashMap<>(size);
+        for (int i = 0; i < size; i++) {
+            result.put(readString(dis), readValue(dis));
+        }
+        return result;
+    }
+
+    /**
+     * Writes a value of a simple type, returns {@code false} and writes nothing if the type is not supported.
+     */
+    private static boolean writeValue(DataOutputStream dos, Object value) throws IOException {
+        if (value == null) {
+            dos.writeByte(0);
+        } else if (value instanceof String) {
+            dos.writeByte(1);
+            writeString(dos, (String) value);
+        } else if (value instanceof Boolean) {
+            dos.writeByte(2);
+            dos.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            dos.writeByte(3);
+            dos.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            dos.writeByte(4);
+            dos.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            dos.writeByte(5);
+            dos.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            dos.writeByte(6);
+            dos.writeFloat((Float) value);
+        } else if (value instanceof Short) {
+            dos.writeByte(7);
+            dos.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            dos.writeByte(8);
+            dos.writeByte((Byte) value);
+        } else if (value instanceof Character) {
+            dos.writeByte(9);
+            dos.writeChar((Character) value);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private static Object readValue(DataInputStream dis) throws IOException {
+        byte tag = dis.readByte();
+        switch (tag) {
+            case 0:
+                return null;
+            case 1:
+                return readString(dis);
+            case 2:
+                return dis.readBoolean();
+            case 3:
+                return dis.readInt();
+            case 4:
+                return dis.readLong();
+            case 5:
+                return dis.readDouble();
+            case 6:
+                return dis.readFloat();
+            case 7:
+                return dis.readShort();
+            case 8:
+                return dis.readByte();
+            case 9:
+                return dis.readChar();
+            default:
+                throw new IOException("Unknown value tag " + tag);
+        }
+    }
+
+    // Unlike DataOutput#writeUTF, there's no 64K limit, literal sources can be long
+    private static void writeString(DataOutputStream dos, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        dos.writeInt(bytes.length);
+        dos.write(bytes);
+    }
+
+    private static String readString(DataInputStream dis) throws IOException {
+        byte[] bytes = new byte[dis.readInt()];
+        dis.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeNullableString(DataOutputStream dos, String s) throws IOException {
+        dos.writeBoolean(s != null);
+        if (s != null) {
+            writeString(dos, s);
+        }
+    }
+
+    private static String readNullableString(DataInputStream dis) throws IOException {
+        return dis.readBoolean() ? readString(dis) : null;
+    }
+
+    private static void writeStrings(DataOutputStream dos, Collection<String> strings) throws IOException {
+        dos.writeInt(strings.size());
+        for (String s : strings) {
+            writeString(dos, s);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream dis) throws IOException {
+        int size = dis.readInt();
+        List<String> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(readString(dis));
+        }
+        return result;
+    }
+
+    private static Class<?> classForName(String name, ClassLoader classLoader) throws IOException {
+        switch (name) {
+            case "int":
+                return int.class;
+            case "long":
+                return long.class;
+            case "double":
+                return double.class;
+            case "float":
+                return float.class;
+            case "boolean":
+                return boolean.class;
+            case "char":
+                return char.class;
+            case "short":
+                return short.class;
+            case "byte":
+                return byte.class;
+            default:
+                try {
+                    return Class.forName(name, false, classLoader);
+                } catch (ClassNotFoundException e) {
+                    throw new IOException("Class not found: " + name, e);
+                }
+        }
+    }
+
+    /**
+     * The literal data of a rule as it was supplied to the rule builder. Rules with functional
+     * conditions or actions have no such representation, and the reason is kept instead.
+     */
+    static final class RuleRecipe {
+        private final String error;
+        private final Consumer<RhsContext> builtRhs;
+        private final List<String[]> facts = new ArrayList<>();
+        private final List<LiteralPredicate> conditions = new ArrayList<>();
+        private final List<RuleParameter> parameters = new ArrayList<>();
+        private final String literalRhs;
+
+        RuleRecipe(DefaultRuleBuilder<?> ruleBuilder, String literalRhs) {
+            this.literalRhs = literalRhs;
+            this.builtRhs = ruleBuilder.getRhs();
+            DefaultConditionManager conditionManager = ruleBuilder.getConditionManager();
+            if (!conditionManager.getEvaluators().isEmpty()) {
+                this.error = "the rule has functional conditions";
+            } else if (literalRhs == null && ruleBuilder.hasRhs()) {
+                this.error = "the rule has a functional action";
+            } else {
+                this.error = null;
+                for (DefaultLhsBuilder.Fact fact : ruleBuilder.getLhs().rawValues()) {
+                    facts.add(new String[]{fact.getVarName(), fact.getType().getName()});
+                }
+                this.conditions.addAll(conditionManager.getLiterals());
+                this.parameters.addAll(ruleBuilder.getParameters());
+            }
+        }
+
+        /**
+         * @return the reason why the rule can't be written, or {@code null} if it can
+         */
+        String validate(KnowledgeRule rule) {
+            if (error != null) {
+                return error;
+            } else if (rule.getRhs() != builtRhs) {
+                return "the action was changed after the rule had been built";
+            }
+            for (RuleParameter parameter : parameters) {
+                if (!parameter.getType().isPrimitive() && !writableType(parameter.getType())) {
+                    return "unsupported type of parameter '" + parameter.getName() + "': " + parameter.getType().getName();
+                }
+            }
+            return null;
+        }
+
+        private static boolean writableType(Class<?> type) {
+            return type == String.class || type == Boolean.class || type == Integer.class || type == Long.class
+                    || type == Double.class || type == Float.class || type == Short.class || type == Byte.class
+                    || type == Character.class;
+        }
+
+        void write(DataOutputStream dos) throws IOException {
+            dos.writeInt(facts.size());
+            for (String[] fact : facts) {
+                writeString(dos, fact[0]);
+                writeString(dos, fact[1]);
+            }
+            dos.writeInt(conditions.size());
+            for (LiteralPredicate condition : conditions) {
+                writeString(dos, condition.getSource());
+                dos.writeDouble(condition.getComplexity());
+            }
+            dos.writeInt(parameters.size());
+            for (RuleParameter parameter : parameters) {
+                writeString(dos, parameter.getName());
+                writeString(dos, parameter.getType().getName());
+                writeValue(dos, parameter.getValue());
+            }
+            writeNullableString(dos, literalRhs);
+        }
+    }
+
+    /**
+     * A rule as read from a snapshot
+     */
+    private static class StoredRule {
+        private final String name;
+        private final int salience;
+        private final Map<String, Object> environment;
+        private final List<String[]> facts;
+        private final List<LiteralPredicate> conditions;
+        private final List<Object[]> parameters;
+        private final String literalRhs;
+
+        private StoredRule(String name, int salience, Map<String, Object> environment, List<String[]> facts, List<LiteralPredicate> conditions, List<Object[]> parameters, String literalRhs) {
+            this.name = name;
+            this.salience = salience;
+            this.environment = environment;
+            this.facts = facts;
+            this.conditions = conditions;
+            this.parameters = parameters;
+            this.literalRhs = literalRhs;
+        }
+
+        static StoredRule read(DataInputStream dis) throws IOException {
+            String name = readString(dis);
+            int salience = dis.readInt();
+            Map<String, Object> environment = readEnvironment(dis);
+            int factCount = dis.readInt();
+            List<String[]> facts = new ArrayList<>(factCount);
+            for (int i = 0; i < factCount; i++) {
+                facts.add(new String[]{readString(dis), readString(dis)});
+            }
+            int conditionCount = dis.readInt();
+            List<LiteralPredicate> conditions = new ArrayList<>(conditionCount);
+            for (int i = 0; i < conditionCount; i++) {
+                conditions.add(LiteralPredicate.of(readString(dis), dis.readDouble()));
+            }
+            int parameterCount = dis.readInt();
+            List<Object[]> parameters = new ArrayList<>(parameterCount);
+            for (int i = 0; i < parameterCount; i++) {
+                parameters.add(new Object[]{readString(dis), readString(dis), readValue(dis)});
+            }
+            return new StoredRule(name, salience, environment, facts, conditions, parameters, readNullableString(dis));
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        void appendTo(RuleSetBuilder<Knowledge> builder, ClassLoader classLoader) throws IOException {
+            DefaultRuleBuilder<Knowledge> rule = (DefaultRuleBuilder<Knowledge>) builder.newRule(name);
+            rule.salience(salience);
+            for (Map.Entry<String, Object> entry : environment.entrySet()) {
+                rule.set(entry.getKey(), entry.getValue());
+            }
+            for (Object[] parameter : parameters) {
+                Class type = classForName((String) parameter[1], classLoader);
+                rule.parameter((String) parameter[0], type, parameter[2]);
+            }
+            for (String[] fact : facts) {
+                rule.getLhs().addFactDeclaration(fact[0], fact[1]);
+            }
+            for (LiteralPredicate condition : conditions) {
+                rule.getConditionManager().addCondition(condition.getSource(), condition.getComplexity());
+            }
+            if (literalRhs != null) {
+                rule.execute(literalRhs);
+            }
+        }
+    }
+
+    /**
+     * A source compiler provider that keeps track of the classes compiled for a knowledge instance,
+     * and serves classes of a snapshot instead of compiling their sources again. Classes are keyed by
+     * {@link ClassSourceUtils#key(SourceCompiler.ClassSource)}, so that sources are matched regardless
+     * of the class names they have been generated with.
+     */
+    static class CompiledClasses implements SourceCompilerProvider {
+        private final Map<String, Class<?>> compiled = new ConcurrentHashMap<>();
+        private final Map<String, String> snapshotClassNames;
+        private final SnapshotClassLoader snapshotClassLoader;
+        private final SourceCompilerProvider delegate;
+
+        CompiledClasses(KnowledgeService service) {
+            this(service, Collections.emptyMap(), null);
+        }
+
+        private CompiledClasses(KnowledgeService service, Map<String, String> snapshotClassNames, SnapshotClassLoader snapshotClassLoader) {
+            this.delegate = service.getSourceCompilerProvider();
+            this.snapshotClassNames = snapshotClassNames;
+            this.snapshotClassLoader = snapshotClassLoader;
+        }
+
+        @Override
+        public SourceCompiler instance(ClassLoader classLoader) {
+            return instance(classLoader, new Configuration());
+        }
+
+        @Override
+        public SourceCompiler instance(ClassLoader classLoader, Configuration configuration) {
+            return new SourceCompiler() {
+                @Override
+                public <S extends ClassSource> Collection<Result<S>> compile(Collection<S> sources) throws CompilationException {
+                    Collection<Result<S>> result = new ArrayList<>(sources.size());
+                    List<S> missing = new ArrayList<>(sources.size());
+                    Map<S, String> keys = new IdentityHashMap<>();
+                    for (S source : sources) {
+                        String key = ClassSourceUtils.key(source);
+                        keys.put(source, key);
+                        Class<?> precompiled = snapshotClass(key);
+                        if (precompiled == null) {
+                            missing.add(source);
+                        } else {
+                            result.add(new CompiledClass<>(source, precompiled));
+                        }
+                    }
+                    if (!missing.isEmpty()) {
+                        result.addAll(delegate.instance(classLoader, configuration).compile(missing));
+                    }
+                    for (Result<S> r : result) {
+                        compiled.put(keys.get(r.getSource()), r.getCompiledClass());
+                    }
+                    return result;
+                }
+            };
+        }
+
+        @Override
+        public int sortOrder() {
+            return delegate.sortOrder();
+        }
+
+        @Override
+        public void invalidateCaches() {
+            delegate.invalidateCaches();
+        }
+
+        private Class<?> snapshotClass(String key) {
+            String className = snapshotClassNames.get(key);
+            if (className == null) {
+                return null;
+            }
+            try {
+                return Class.forName(className, false, snapshotClassLoader);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("Snapshot class '" + className + "' can not be loaded", e);
+            }
+        }
+
+        void write(DataOutputStream dos) throws IOException {
+            Map<String, Class<?>> snapshot = new TreeMap<>(compiled);
+            dos.writeInt(snapshot.size());
+            for (Map.Entry<String, Class<?>> entry : snapshot.entrySet()) {
+                Class<?> compiledClass = entry.getValue();
+                Map<String, byte[]> bytecode = ClassSourceUtils.bytecode(compiledClass);
+                writeString(dos, entry.getKey());
+                writeString(dos, compiledClass.getName());
+                dos.writeInt(bytecode.size());
+                for (Map.Entry<String, byte[]> e : bytecode.entrySet()) {
+                    writeString(dos, e.getKey());
+                    dos.writeInt(e.getValue().length);
+                    dos.write(e.getValue());
+                }
+            }
+        }
+
+        static CompiledClasses read(DataInputStream dis, KnowledgeService service) throws IOException {
+            int size = dis.readInt();
+            Map<String, String> classNames = new HashMap<>(size);
+            Map<String, byte[]> definitions = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                classNames.put(readString(dis), readString(dis));
+                int count = dis.readInt();
+                for (int j = 0; j < count; j++) {
+                    String binaryName = readString(dis);
+                    byte[] bytes = new byte[dis.readInt()];
+                    dis.readFully(bytes);
+                    definitions.put(binaryName, bytes);
+                }
+            }
+            return new CompiledClasses(service, classNames, new SnapshotClassLoader(service.getClassLoader(), definitions));
+        }
+    }
+
+    private static class CompiledClass<S extends SourceCompiler.ClassSource> implements SourceCompiler.Result<S> {
+        private final S source;
+        private final Class<?> compiledClass;
+
+        CompiledClass(S source, Class<?> compiledClass) {
+            this.source = source;
+            this.compiledClass = compiledClass;
+        }
+
+        @Override
+        public S getSource() {
+            return source;
+        }
+
+        @Override
+        public Class<?> getCompiledClass() {
+            return compiledClass;
+        }
+    }
+
+    /**
+     * Defines classes of a snapshot on demand, and serves their bytecode as resources so that
+     * a knowledge read from a snapshot can be written again.
+     */
+    private static class SnapshotClassLoader extends ClassLoader {
+        private final Map<String, byte[]> definitions;
+
+        SnapshotClassLoader(ClassLoader parent, Map<String, byte[]> definitions) {
+            super(parent);
+            this.definitions = definitions;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = definitions.get(name);
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            } else {
+                return defineClass(name, bytes, 0, bytes.length);
+            }
+        }
+
+        @Override
+        public InputStream getResourceAsStream(String name) {
+            if (name.endsWith(".class")) {
+                byte[] bytes = definitions.get(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+                if (bytes != null) {
+                    return new ByteArrayInputStream(bytes);
+                }
+            }
+            return super.getResourceAsStream(name);
+        }
+    }
+}
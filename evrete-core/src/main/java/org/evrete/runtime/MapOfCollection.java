@@ -19,4 +19,8 @@ public class MapOfCollection<K, V, C extends Collection<V>> extends HashMap<K, C
         computeIfAbsent(k, collectionSupplier).add(v);
     }
 
+    public final void addAll(K k, Collection<? extends V> values) {
+        computeIfAbsent(k, collectionSupplier).addAll(values);
+    }
+
 }
@@ -109,6 +109,10 @@ public final class Mask<T> {
         return Mask.instance(AlphaAddress::getIndex);
     }
 
+    public static Mask<ActiveField> activeFieldMask() {
+        return Mask.instance(ActiveField::valueIndex);
+    }
+
     @Override
     public String toString() {
         return delegate.toString();
@@ -1,11 +1,18 @@
 package org.evrete.runtime;
 
 import org.evrete.api.spi.MemoryScope;
+import org.evrete.runtime.rete.ReteTaskGraph;
+import org.evrete.runtime.rete.ReteTaskScheduler;
+import org.evrete.runtime.rete.ValueIdSubstitution;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 
 /**
  * A session counterpart of the {@link KnowledgeFactGroup}. The goal here is to create them as fast as possible
@@ -18,7 +25,7 @@ abstract class SessionFactGroup extends KnowledgeFactGroup {
 
     protected SessionFactGroup(AbstractRuleSessionBase<?> runtime, KnowledgeFactGroup knowledgeFactGroup) {
         super(knowledgeFactGroup);
-        this.executor = runtime.getService().getExecutor();
+        this.executor = runtime.getFireCycleExecutor();
         FactType[] entryNodes = getEntryNodes();
         SessionMemory memory = runtime.getMemory();
         this.factTypes = new SessionFactType[entryNodes.length];
@@ -35,15 +42,64 @@ abstract class SessionFactGroup extends KnowledgeFactGroup {
 
     abstract void clearMemories();
 
-    abstract CompletableFuture<Void> processDeleteDeltaActions(Collection<FactHolder> deletes);
+    /**
+     * Deletes the provided facts from the group's memories.
+     *
+     * @param deletes the facts to delete
+     * @param scope   a filter that tells whether a fact must be deleted from the memories related to the given fact type
+     * @return the future result of the operation
+     */
+    abstract CompletableFuture<Void> processDeleteDeltaActions(Collection<FactHolder> deletes, BiPredicate<FactHolder, FactType> scope);
+
+    /**
+     * Replaces field value identifiers in the group's memories.
+     *
+     * @param substitutions substitutions by alpha address
+     * @return the future result of the operation
+     * @see ValueIdSubstitution
+     */
+    abstract CompletableFuture<Void> substituteValueIds(Function<AlphaAddress, ValueIdSubstitution> substitutions);
+
+    /**
+     * Reports the fields read by the group's inner (beta) conditions.
+     *
+     * @param consumer the consumer of the fields and the alpha addresses of the corresponding facts
+     */
+    abstract void forEachReadField(BiConsumer<AlphaAddress, ActiveField> consumer);
 
     protected abstract boolean isPlain();
 
+    /**
+     * @return the number of condition nodes in the group's graph
+     */
+    abstract int conditionNodeCount();
+
+    /**
+     * @return the task graph of the group's condition nodes, or {@code null} for plain groups
+     */
+    abstract ReteTaskGraph getTaskGraph();
+
     abstract Iterator<DefaultFactHandle[]> factHandles(MemoryScope scope);
 
     abstract CompletableFuture<Void> commitDeltas();
 
-    abstract CompletableFuture<Void> buildDeltas(DeltaMemoryMode mode);
+    /**
+     * Builds delta memories of the provided groups in a single scheduler run.
+     *
+     * @param groups   the fact groups
+     * @param mode     the delta memory mode
+     * @param executor the executor for the scheduler's workers
+     * @return the future completion of the operation
+     */
+    static CompletableFuture<Void> buildDeltas(Collection<SessionFactGroup> groups, DeltaMemoryMode mode, Executor executor) {
+        Collection<ReteTaskGraph> graphs = new ArrayList<>(groups.size());
+        for (SessionFactGroup group : groups) {
+            if (!group.isPlain()) {
+                graphs.add(group.getTaskGraph());
+            }
+        }
+        return ReteTaskScheduler.execute(graphs, mode, executor);
+    }
 
     public static SessionFactGroup factory(AbstractRuleSessionBase<?> runtime, KnowledgeFactGroup knowledgeFactGroup) {
         if (knowledgeFactGroup instanceof Plain) {
@@ -11,12 +11,14 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.logging.Logger;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 
 class SessionFactGroupBeta extends SessionFactGroup {
-    private static final Logger LOGGER = Logger.getLogger(SessionFactGroupBeta.class.getName());
     private final ReteGraph<ReteSessionNode, ReteSessionEntryNode, ReteSessionConditionNode> graph;
     private final DefaultFactHandle[] currentFactHandles;
+    private final ReteTaskGraph taskGraph;
 
     SessionFactGroupBeta(AbstractRuleSessionBase<?> runtime, Beta factGroup) {
         super(runtime, factGroup);
@@ -29,6 +31,7 @@ class SessionFactGroupBeta extends SessionFactGroup {
                 (conditionNode, sources) -> new ReteSessionConditionNode(runtime, sources, conditionNode),
                 entryNode -> new ReteSessionEntryNode(runtime, entryNode)
         );
+        this.taskGraph = new ReteTaskGraph(this.graph);
     }
 
     @Override
@@ -37,18 +40,46 @@ class SessionFactGroupBeta extends SessionFactGroup {
     }
 
     @Override
-    CompletableFuture<Void> processDeleteDeltaActions(Collection<FactHolder> factHolders) {
+    int conditionNodeCount() {
+        return taskGraph.size();
+    }
+
+    @Override
+    ReteTaskGraph getTaskGraph() {
+        return taskGraph;
+    }
+
+    @Override
+    CompletableFuture<Void> processDeleteDeltaActions(Collection<FactHolder> factHolders, BiPredicate<FactHolder, FactType> scope) {
         Collection<ReteSessionConditionNode> conditionNodes = new LinkedList<>();
         this.graph.forEachConditionNode(conditionNodes::add);
         return CommonUtils.completeAll(
                 conditionNodes,
                 node -> CompletableFuture.runAsync(
-                        () -> node.deleteAll(factHolders),
+                        () -> node.deleteAll(factHolders, scope),
                         executor
                 )
         );
     }
 
+    @Override
+    CompletableFuture<Void> substituteValueIds(Function<AlphaAddress, ValueIdSubstitution> substitutions) {
+        Collection<ReteSessionConditionNode> conditionNodes = new LinkedList<>();
+        this.graph.forEachConditionNode(conditionNodes::add);
+        return CommonUtils.completeAll(
+                conditionNodes,
+                node -> CompletableFuture.runAsync(
+                        () -> node.substituteValueIds(substitutions),
+                        executor
+                )
+        );
+    }
+
+    @Override
+    void forEachReadField(BiConsumer<AlphaAddress, ActiveField> consumer) {
+        this.graph.forEachConditionNode(node -> node.forEachReadField(consumer));
+    }
+
     @Override
     void clearMemories() {
         graph.forEachConditionNode(ReteSessionConditionNode::clearMemories);
@@ -58,12 +89,6 @@ class SessionFactGroupBeta extends SessionFactGroup {
         return graph;
     }
 
-    @Override
-    CompletableFuture<Void> buildDeltas(DeltaMemoryMode mode) {
-        LOGGER.fine(() -> "Starting to build delta memory for group " + FactType.toSimpleDebugString(this.factTypes) + " in mode: " + mode);
-        return graph.terminalNode().computeDeltaMemoryAsync(mode);
-    }
-
     @Override
     public CompletableFuture<Void> commitDeltas() {
         List<CompletableFuture<Void>> futures = new LinkedList<>();
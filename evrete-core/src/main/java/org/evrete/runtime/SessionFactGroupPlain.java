@@ -1,12 +1,17 @@
 package org.evrete.runtime;
 
 import org.evrete.api.spi.MemoryScope;
+import org.evrete.runtime.rete.ReteTaskGraph;
+import org.evrete.runtime.rete.ValueIdSubstitution;
 import org.evrete.util.CombinationIterator;
 import org.evrete.util.FlatMapIterator;
 
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 
 class SessionFactGroupPlain extends SessionFactGroup {
     private final DefaultFactHandle[] currentFactHandles;
@@ -23,6 +28,17 @@ class SessionFactGroupPlain extends SessionFactGroup {
         return true;
     }
 
+    @Override
+    int conditionNodeCount() {
+        return 0;
+    }
+
+    @Override
+    ReteTaskGraph getTaskGraph() {
+        // Plain fact groups have no condition nodes
+        return null;
+    }
+
     @Override
     CompletableFuture<Void> commitDeltas() {
         // Nothing to commit
@@ -35,17 +51,22 @@ class SessionFactGroupPlain extends SessionFactGroup {
     }
 
     @Override
-    CompletableFuture<Void> processDeleteDeltaActions(Collection<FactHolder> deletes) {
+    CompletableFuture<Void> processDeleteDeltaActions(Collection<FactHolder> deletes, BiPredicate<FactHolder, FactType> scope) {
         // Plain fact groups have no memory, skipping
         return CompletableFuture.completedFuture(null);
     }
 
     @Override
-    CompletableFuture<Void> buildDeltas(DeltaMemoryMode mode) {
-        // Nothing to compute
+    CompletableFuture<Void> substituteValueIds(Function<AlphaAddress, ValueIdSubstitution> substitutions) {
+        // Plain fact groups have no memory, skipping
         return CompletableFuture.completedFuture(null);
     }
 
+    @Override
+    void forEachReadField(BiConsumer<AlphaAddress, ActiveField> consumer) {
+        // Plain fact groups have no inner conditions
+    }
+
     @Override
     Iterator<DefaultFactHandle[]> factHandles(MemoryScope scope) {
         // 1.  For each entry node we need alternate scope combinations
@@ -1,9 +1,6 @@
 package org.evrete.runtime;
 
-import org.evrete.util.CommonUtils;
-
 import java.util.Arrays;
-import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 public class SessionLhs extends ActiveLhs<SessionFactGroup> {
@@ -12,10 +9,6 @@ public class SessionLhs extends ActiveLhs<SessionFactGroup> {
         super(SessionFactGroup.class, descriptor, mapper);
     }
 
-    CompletableFuture<Void> buildDeltas(DeltaMemoryMode mode) {
-        return CommonUtils.completeAll(getFactGroups(), g -> g.buildDeltas(mode));
-    }
-
     static SessionLhs factory(AbstractRuleSessionBase<?> runtime, KnowledgeLhs descriptor) {
         return new SessionLhs(descriptor, group -> SessionFactGroup.factory(runtime, group));
     }
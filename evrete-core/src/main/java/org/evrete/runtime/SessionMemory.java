@@ -52,11 +52,11 @@ public class SessionMemory implements MemoryStreaming {
         return typedMemories.values();
     }
 
-    private Stream<TypeMemory> memoryStream(String logicalType) {
+    Stream<TypeMemory> memoryStream(String logicalType) {
         return memoryStream().filter(typeMemory -> typeMemory.getLogicalType().equals(logicalType));
     }
 
-    private Stream<TypeMemory> memoryStream(Class<?> javaType) {
+    Stream<TypeMemory> memoryStream(Class<?> javaType) {
         return memoryStream()
                 .filter(memory -> javaType.isAssignableFrom(memory.getJavaType()));
     }
@@ -95,7 +95,7 @@ public class SessionMemory implements MemoryStreaming {
                 id -> CompletableFuture
                         .runAsync(
                                 () -> allocate(id, alphaAddresses),
-                                runtime.getService().getExecutor()
+                                runtime.getSessionExecutor()
                         )
         );
     }
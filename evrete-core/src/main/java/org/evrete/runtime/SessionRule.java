@@ -6,8 +6,12 @@ import org.evrete.api.spi.MemoryScope;
 import org.evrete.util.CombinationIterator;
 import org.evrete.util.MapFunction;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.logging.Logger;
 
@@ -49,6 +53,79 @@ public class SessionRule extends AbstractActiveRule<SessionFactGroup, SessionLhs
         return rhsContext.activationCount.get();
     }
 
+    /**
+     * Performs the RHS action on previously collected activations, see {@link #deltaActivations()}.
+     *
+     * @param activations               fact handles grouped by the rule's fact groups
+     * @param destinationForRuleActions the buffer for the actions generated by the RHS
+     * @return the number of RHS calls
+     */
+    final long callRhs(Collection<DefaultFactHandle[][]> activations, WorkMemoryActionBuffer destinationForRuleActions) {
+        return callRhs(activations, destinationForRuleActions, this.currentGroupedFacts);
+    }
+
+    /**
+     * Performs the RHS action on previously collected activations, see {@link #deltaActivations()}.
+     * Unlike {@link #callRhs(Collection, WorkMemoryActionBuffer)}, this method doesn't use the rule's
+     * shared state array, so that chunks of the rule's activations can be processed concurrently.
+     *
+     * @param activations               fact handles grouped by the rule's fact groups
+     * @param destinationForRuleActions the buffer for the actions generated by the RHS
+     * @return the number of RHS calls
+     */
+    final long callRhsConcurrently(Collection<DefaultFactHandle[][]> activations, WorkMemoryActionBuffer destinationForRuleActions) {
+        return callRhs(activations, destinationForRuleActions, new DefaultFactHandle[currentGroupedFacts.length][]);
+    }
+
+    private long callRhs(Collection<DefaultFactHandle[][]> activations, WorkMemoryActionBuffer destinationForRuleActions, DefaultFactHandle[][] state) {
+        LOGGER.fine(() -> "RHS START for [" + activations.size() + "] deferred activations of rule '" + this.getName() + "'");
+        final Consumer<RhsContext> ruleRhs = getRhs();
+        final RhsContextImpl rhsContext = new RhsContextImpl(this, state, this.factPositionMapping, getLhs().getFactGroups(), destinationForRuleActions);
+        for (DefaultFactHandle[][] activation : activations) {
+            System.arraycopy(activation, 0, state, 0, activation.length);
+            ruleRhs.accept(rhsContext.next());
+        }
+        LOGGER.fine(() -> "RHS END for rule '" + this.getName() + "'");
+        return rhsContext.activationCount.get();
+    }
+
+    /**
+     * Performs the RHS action on a single activation.
+     *
+     * @param activation                fact handles grouped by the rule's fact groups
+     * @param destinationForRuleActions the buffer for the actions generated by the RHS
+     * @return the number of RHS calls
+     */
+    final long callRhs(DefaultFactHandle[][] activation, WorkMemoryActionBuffer destinationForRuleActions) {
+        return callRhs(Collections.singletonList(activation), destinationForRuleActions);
+    }
+
+    /**
+     * Collects the fact handle combinations that {@link #callRhs(WorkMemoryActionBuffer)} would
+     * iterate over if called now. Used to retain activations once the delta memories are committed.
+     *
+     * @return copies of the rule's delta activations
+     */
+    final List<DefaultFactHandle[][]> deltaActivations() {
+        List<DefaultFactHandle[][]> result = new ArrayList<>();
+        SessionFactGroup[] groups = getLhs().getFactGroups();
+        Iterator<MemoryScope[]> scopesIterator = MemoryScope.states(MemoryScope.DELTA, new MemoryScope[groups.length]);
+        scopesIterator.forEachRemaining(scopes -> {
+            Iterator<DefaultFactHandle[][]> joinedFacts = new CombinationIterator<>(
+                    currentGroupedFacts,
+                    index -> groups[index].factHandles(scopes[index])
+            );
+            joinedFacts.forEachRemaining(state -> {
+                DefaultFactHandle[][] copy = new DefaultFactHandle[state.length][];
+                for (int i = 0; i < state.length; i++) {
+                    copy[i] = state[i].clone();
+                }
+                result.add(copy);
+            });
+        });
+        return result;
+    }
+
     private void callRhs(SessionFactGroup[] groups, MemoryScope[] scopes, Consumer<RhsContext> ruleRhs, RhsContextImpl rhsContext) {
         LOGGER.fine(() -> "RHS memory scopes for groups: " + Arrays.toString(scopes));
 
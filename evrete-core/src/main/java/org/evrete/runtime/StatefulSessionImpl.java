@@ -4,6 +4,7 @@ import org.evrete.api.FactHandle;
 import org.evrete.api.StatefulSession;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 public class StatefulSessionImpl extends AbstractRuleSession<StatefulSession> implements StatefulSession {
@@ -44,6 +45,11 @@ public class StatefulSessionImpl extends AbstractRuleSession<StatefulSession> im
         return this;
     }
 
+    @Override
+    public CompletableFuture<StatefulSession> fireAsync() {
+        return fireAsyncInner().thenApply(unused -> this);
+    }
+
     @Override
     public void clear() {
         clearInner();
@@ -4,6 +4,7 @@ import org.evrete.api.FactHandle;
 import org.evrete.api.StatelessSession;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 class StatelessSessionImpl extends AbstractRuleSession<StatelessSession> implements StatelessSession {
@@ -19,6 +20,7 @@ class StatelessSessionImpl extends AbstractRuleSession<StatelessSession> impleme
 
     @Override
     public Void fire() {
+        _assertAcceptsActions();
         try {
             fireInner();
             return null;
@@ -27,6 +29,15 @@ class StatelessSessionImpl extends AbstractRuleSession<StatelessSession> impleme
         }
     }
 
+    @Override
+    public CompletableFuture<Void> fireAsync() {
+        // The session is closed once the fire completes, facts inserted from now on would never be processed.
+        // Inserts that are in progress are buffered before this call returns.
+        rejectActions();
+        return fireAsyncInner()
+                .whenComplete((unused, throwable) -> closeInner());
+    }
+
     @Override
     public Stream<Map.Entry<FactHandle, Object>> streamFactEntries() {
         fireInner();
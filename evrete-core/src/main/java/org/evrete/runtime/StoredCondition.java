@@ -34,6 +34,15 @@ public class StoredCondition extends LhsCondition<ValuesPredicate, String, Activ
         this.setCondition(predicate);
     }
 
+    public synchronized boolean replacePredicate(ValuesPredicate expected, ValuesPredicate predicate) {
+        if (getCondition() == expected) {
+            this.setCondition(predicate);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
     public synchronized Events.Publisher<ConditionEvaluationEvent> getCreatePublisher(Executor executor) {
         if(publisher == null) {
             publisher = new BroadcastingPublisher<>(executor);
@@ -1,13 +1,14 @@
 package org.evrete.runtime;
 
 import org.evrete.collections.LongKeyMap;
+import org.evrete.util.CommonUtils;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
 
 /**
- * Contains a buffer of memory actions per fact handle. This buffer is used in two ways:
+ * Contains a buffer of memory actions. This buffer is used in two ways:
  * <ul>
  *   <li>
  *     Each session has its own {@link WorkMemoryActionBuffer} for registering changes resulting
@@ -29,56 +30,142 @@ import java.util.concurrent.ExecutorService;
  * As the engine's memory structures do not support any update operations, it is this buffer's responsibility to
  * convert update operations into a valid combination of a delete operation and an insert operation.
  * </p>
+ * <p>
+ * Actions are stored in per-type, append-only arrays, along with primitive arrays of their fact handle
+ * and field values identifiers. Only handles that have been deleted can be subject to more than one action
+ * (an update is a delete followed by an insert), so a per-handle side table is built for them when
+ * the buffer is split into views, by scanning the identifier arrays only. Types without delete actions
+ * are passed to their views as-is, without copying.
+ * </p>
+ * <p>
+ * An update that leaves the fact's field values unchanged is resolved into a simple replacement
+ * of the fact reference and is not propagated to the memories. Other updates of existing facts are reported
+ * separately, so that the engine could limit their propagation to the memories that depend on the changed fields.
+ * </p>
  */
 class WorkMemoryActionBuffer {
     static final WorkMemoryActionBuffer EMPTY = new WorkMemoryActionBuffer();
-    private final LongKeyMap<State> actionsPerFactHandle;
+    private Map<ActiveType, TypeActions> actionsPerType = new HashMap<>();
+    private volatile int actionCount;
 
-    private WorkMemoryActionBuffer(LongKeyMap<State> actionsPerFactHandle) {
-        this.actionsPerFactHandle = actionsPerFactHandle;
+    synchronized void clear() {
+        this.actionsPerType = new HashMap<>();
+        this.actionCount = 0;
     }
 
-    public WorkMemoryActionBuffer() {
-        this(new LongKeyMap<>());
+    synchronized void addInsert(DeltaMemoryAction.Insert insertOp) {
+        typeActions(insertOp.getType()).addInsert(insertOp);
+        this.actionCount++;
     }
 
-    void clear() {
-        this.actionsPerFactHandle.clear();
+    /**
+     * Stores chunks of new insert operations of the same type.
+     *
+     * @param type   the type of the inserted facts
+     * @param chunks insert operations, each referencing a newly created fact handle
+     */
+    synchronized void addInserts(ActiveType type, Collection<? extends Collection<DeltaMemoryAction.Insert>> chunks) {
+        int total = 0;
+        for (Collection<DeltaMemoryAction.Insert> chunk : chunks) {
+            total += chunk.size();
+        }
+        if (total > 0) {
+            TypeActions destination = typeActions(type);
+            destination.ensureInsertCapacity(destination.insertCount + total);
+            for (Collection<DeltaMemoryAction.Insert> chunk : chunks) {
+                for (DeltaMemoryAction.Insert insert : chunk) {
+                    destination.addInsert(insert);
+                }
+            }
+            this.actionCount += total;
+        }
     }
 
-    void addInsert(DeltaMemoryAction.Insert insertOp) {
-        this.actionsPerFactHandle.computeIfAbsent(insertOp.getHandle().getId(), ()->new State(insertOp.getType())).applyInsert(insertOp);
+    synchronized void addDelete(DeltaMemoryAction.Delete deleteOp) {
+        typeActions(deleteOp.getType()).addDelete(deleteOp);
+        this.actionCount++;
     }
 
-    void addDelete(DeltaMemoryAction.Delete deleteOp) {
-        this.actionsPerFactHandle.computeIfAbsent(deleteOp.getHandle().getId(), () -> new State(deleteOp.getType())).applyDelete(deleteOp);
+    /**
+     * Stores chunks of delete operations of the same type.
+     *
+     * @param type   the type of the deleted facts
+     * @param chunks delete operations, each referencing a distinct fact handle
+     */
+    synchronized void addDeletes(ActiveType type, Collection<? extends Collection<DeltaMemoryAction.Delete>> chunks) {
+        TypeActions destination = typeActions(type);
+        for (Collection<DeltaMemoryAction.Delete> chunk : chunks) {
+            for (DeltaMemoryAction.Delete delete : chunk) {
+                destination.addDelete(delete);
+                this.actionCount++;
+            }
+        }
     }
 
-    // TODO the executor isn't actually used
-    CompletableFuture<Collection<SplitView>> sinkToSplitView(ExecutorService executor) {
-        return CompletableFuture.supplyAsync(this::sinkToSplitViewSync, executor);
-
+    /**
+     * Stores chunks of update operations of the same type. Each update is stored as a delete
+     * operation followed by an insert operation.
+     *
+     * @param type   the type of the updated facts
+     * @param chunks update operations, each referencing a distinct fact handle
+     */
+    synchronized void addUpdates(ActiveType type, Collection<? extends Collection<Update>> chunks) {
+        TypeActions destination = typeActions(type);
+        for (Collection<Update> chunk : chunks) {
+            for (Update update : chunk) {
+                destination.addDelete(update.getDelete());
+                destination.addInsert(update.getInsert());
+                this.actionCount += 2;
+            }
+        }
     }
 
+    /**
+     * Appends the actions of another buffer, preserving their order within each type.
+     *
+     * @param other the buffer to append
+     */
+    synchronized void append(WorkMemoryActionBuffer other) {
+        synchronized (other) {
+            other.actionsPerType.forEach((type, actions) -> typeActions(type).appendAll(actions));
+            this.actionCount += other.actionCount;
+        }
+    }
 
-    private Collection<SplitView> sinkToSplitViewSync() {
-        Map<ActiveType, SplitView> map = new HashMap<>();
-
-        actionsPerFactHandle.forEach(state -> {
+    private TypeActions typeActions(ActiveType type) {
+        return actionsPerType.computeIfAbsent(type, TypeActions::new);
+    }
 
-            SplitView splitView = map.computeIfAbsent(state.type, SplitView::new);
+    /**
+     * Detaches the buffered actions and converts them into per-type views. Types that need
+     * per-handle resolution are processed in parallel using the provided executor.
+     *
+     * @param executor the executor for types with delete actions
+     * @return future views of the buffered actions
+     */
+    CompletableFuture<Collection<SplitView>> sinkToSplitView(Executor executor) {
+        final Collection<TypeActions> detached;
+        synchronized (this) {
+            detached = this.actionsPerType.values();
+            this.clear();
+        }
 
-            // 2. Apply the computed states to the resulting view
-            if (state.lastInsert != null) {
-                splitView.add(state.lastInsert);
+        List<CompletableFuture<SplitView>> futures = new ArrayList<>(detached.size());
+        for (TypeActions actions : detached) {
+            if (actions.deleteCount == 0) {
+                futures.add(CompletableFuture.completedFuture(actions.toSplitView()));
+            } else {
+                futures.add(CompletableFuture.supplyAsync(actions::toSplitView, executor));
             }
-            if (state.firstDelete != null) {
-                splitView.add(state.firstDelete);
+        }
+
+        return CommonUtils.completeAll(futures).thenApply(unused -> {
+            Collection<SplitView> result = new ArrayList<>(futures.size());
+            for (CompletableFuture<SplitView> future : futures) {
+                result.add(future.join());
             }
+            return result;
         });
-
-        this.clear();
-        return map.values();
     }
 
     public boolean hasData() {
@@ -86,30 +173,28 @@ class WorkMemoryActionBuffer {
     }
 
     public int bufferedActionCount() {
-        return this.actionsPerFactHandle.size();
+        return this.actionCount;
     }
 
     static class SplitView {
         private final ActiveType type;
-        private final Collection<DeltaMemoryAction.Insert> inserts = new LinkedList<>();
-        private final Collection<DeltaMemoryAction.Delete> deletes = new LinkedList<>();
+        private final Collection<DeltaMemoryAction.Insert> inserts;
+        private final Collection<DeltaMemoryAction.Delete> deletes;
+        private final Collection<DeltaMemoryAction.Insert> replacements;
+        private final Collection<Update> updates;
 
-        public SplitView(ActiveType type) {
+        SplitView(ActiveType type, Collection<DeltaMemoryAction.Insert> inserts, Collection<DeltaMemoryAction.Delete> deletes, Collection<DeltaMemoryAction.Insert> replacements, Collection<Update> updates) {
             this.type = type;
+            this.inserts = inserts;
+            this.deletes = deletes;
+            this.replacements = replacements;
+            this.updates = updates;
         }
 
         public ActiveType getType() {
             return type;
         }
 
-        void add(DeltaMemoryAction.Insert action) {
-            this.inserts.add(action);
-        }
-
-        void add(DeltaMemoryAction.Delete action) {
-            this.deletes.add(action);
-        }
-
         public Collection<DeltaMemoryAction.Insert> getInserts() {
             return inserts;
         }
@@ -117,42 +202,213 @@ class WorkMemoryActionBuffer {
         public Collection<DeltaMemoryAction.Delete> getDeletes() {
             return deletes;
         }
-    }
 
-    static class State {
         /**
-         * Last insert with related to the fact handle.
-         * The latest insert contains the most recent data
+         * Returns non-applied updates that haven't changed the facts' field values. Such updates
+         * are not propagated, the new fact references only need to be saved in the type memory.
+         *
+         * @return insert operations of the unchanged facts
          */
-        DeltaMemoryAction.Insert lastInsert;
+        public Collection<DeltaMemoryAction.Insert> getReplacements() {
+            return replacements;
+        }
+
         /**
-         * First delete with related to the fact handle
+         * Returns updates of existing facts that have changed their field values. Updates are not
+         * included in {@link #getDeletes()} and {@link #getInserts()}, so that the engine could limit
+         * their propagation to the memories that depend on the changed fields.
+         *
+         * @return update operations
          */
-        DeltaMemoryAction.Delete firstDelete;
+        public Collection<Update> getUpdates() {
+            return updates;
+        }
+    }
+
+    /**
+     * A resolved update of an existing fact, i.e. a delete operation referencing the values known
+     * to the memories, and an insert operation carrying the new values.
+     */
+    static class Update {
+        private final DeltaMemoryAction.Delete delete;
+        private final DeltaMemoryAction.Insert insert;
+
+        Update(DeltaMemoryAction.Delete delete, DeltaMemoryAction.Insert insert) {
+            this.delete = delete;
+            this.insert = insert;
+        }
 
+        DeltaMemoryAction.Delete getDelete() {
+            return delete;
+        }
+
+        DeltaMemoryAction.Insert getInsert() {
+            return insert;
+        }
+    }
+
+    /**
+     * Append-only storage of a single type's actions. The actions themselves are kept because the memories
+     * need their facts and field values, the identifiers are copied to primitive arrays for resolving
+     * per-handle states.
+     */
+    private static class TypeActions {
+        private static final int INITIAL_CAPACITY = 16;
         final ActiveType type;
+        DeltaMemoryAction.Insert[] inserts = new DeltaMemoryAction.Insert[INITIAL_CAPACITY];
+        long[] insertHandleIds = new long[INITIAL_CAPACITY];
+        long[] insertValuesIds = new long[INITIAL_CAPACITY];
+        int insertCount;
+        DeltaMemoryAction.Delete[] deletes;
+        long[] deleteHandleIds;
+        /**
+         * For each delete, the number of inserts buffered before it. This allows us to restore
+         * the order of actions without storing per-action sequence numbers.
+         */
+        int[] insertsBeforeDelete;
+        int deleteCount;
 
-        State(ActiveType type) {
+        TypeActions(ActiveType type) {
             this.type = type;
         }
 
-        private void applyInsert(DeltaMemoryAction.Insert action) {
-            this.lastInsert = Objects.requireNonNull(action);
+        void addInsert(DeltaMemoryAction.Insert insert) {
+            if (insertCount == inserts.length) {
+                ensureInsertCapacity(insertCount + 1);
+            }
+            inserts[insertCount] = insert;
+            insertHandleIds[insertCount] = insert.getHandle().getId();
+            insertValuesIds[insertCount] = insert.getFactWrapper().getFieldValuesId();
+            insertCount++;
+        }
+
+        void ensureInsertCapacity(int capacity) {
+            if (capacity > inserts.length) {
+                int newCapacity = Math.max(capacity, inserts.length * 2);
+                inserts = Arrays.copyOf(inserts, newCapacity);
+                insertHandleIds = Arrays.copyOf(insertHandleIds, newCapacity);
+                insertValuesIds = Arrays.copyOf(insertValuesIds, newCapacity);
+            }
         }
 
+        void addDelete(DeltaMemoryAction.Delete delete) {
+            if (deletes == null) {
+                deletes = new DeltaMemoryAction.Delete[INITIAL_CAPACITY];
+                deleteHandleIds = new long[INITIAL_CAPACITY];
+                insertsBeforeDelete = new int[INITIAL_CAPACITY];
+            } else if (deleteCount == deletes.length) {
+                deletes = Arrays.copyOf(deletes, deleteCount * 2);
+                deleteHandleIds = Arrays.copyOf(deleteHandleIds, deleteCount * 2);
+                insertsBeforeDelete = Arrays.copyOf(insertsBeforeDelete, deleteCount * 2);
+            }
+            deletes[deleteCount] = delete;
+            deleteHandleIds[deleteCount] = delete.getHandle().getId();
+            insertsBeforeDelete[deleteCount] = insertCount;
+            deleteCount++;
+        }
 
-        private void applyDelete(DeltaMemoryAction.Delete action) {
-            if (firstDelete == null) {
-                this.firstDelete = Objects.requireNonNull(action);
+        void appendAll(TypeActions other) {
+            int insertIndex = 0;
+            for (int i = 0; i < other.deleteCount; i++) {
+                while (insertIndex < other.insertsBeforeDelete[i]) {
+                    addInsert(other.inserts[insertIndex++]);
+                }
+                addDelete(other.deletes[i]);
+            }
+            while (insertIndex < other.insertCount) {
+                addInsert(other.inserts[insertIndex++]);
             }
         }
 
-        @Override
-        public String toString() {
-            return "{" +
-                    "lastInsert=" + lastInsert +
-                    ", firstDelete=" + firstDelete +
-                    '}';
+        SplitView toSplitView() {
+            if (deleteCount == 0) {
+                // Each insert references its own handle, the array can be used as-is
+                return new SplitView(type, Arrays.asList(inserts).subList(0, insertCount), Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+            }
+
+            // 1. Building the side table for the deleted handles
+            LongKeyMap<HandleState> states = new LongKeyMap<>(false);
+            for (int i = 0; i < deleteCount; i++) {
+                long handleId = deleteHandleIds[i];
+                HandleState state = states.get(handleId);
+                if (state == null) {
+                    states.put(handleId, new HandleState(deletes[i], insertsBeforeDelete[i]));
+                } else {
+                    state.lastDeleteMark = insertsBeforeDelete[i];
+                }
+            }
+
+            // 2. Locating the last insert of each deleted handle
+            for (int i = 0; i < insertCount; i++) {
+                HandleState state = states.get(insertHandleIds[i]);
+                if (state != null) {
+                    state.lastInsert = i;
+                    if (i < state.firstDeleteMark) {
+                        // The handle was inserted before it was deleted, so it's a new fact
+                        // that hasn't reached the memories yet. There's nothing to delete.
+                        state.newFact = true;
+                    }
+                }
+            }
+
+            // 3. Collecting the resulting actions
+            List<DeltaMemoryAction.Insert> resultInserts = new ArrayList<>(insertCount);
+            List<DeltaMemoryAction.Insert> replacements = new LinkedList<>();
+            List<Update> updates = new LinkedList<>();
+            for (int i = 0; i < insertCount; i++) {
+                DeltaMemoryAction.Insert insert = inserts[i];
+                HandleState state = states.get(insertHandleIds[i]);
+                if (state == null) {
+                    resultInserts.add(insert);
+                } else if (i == state.lastInsert && i >= state.lastDeleteMark) {
+                    if (state.newFact) {
+                        resultInserts.add(insert);
+                    } else if (insertValuesIds[i] == state.firstDeleteValuesId) {
+                        // The fact has been updated, but its field values haven't changed. The memories
+                        // remain valid, only the fact reference needs to be replaced.
+                        state.unchanged = true;
+                        if (insert.applyToMemory()) {
+                            replacements.add(insert);
+                        }
+                    } else {
+                        state.updated = true;
+                        updates.add(new Update(state.firstDelete, insert));
+                    }
+                }
+            }
+
+            List<DeltaMemoryAction.Delete> resultDeletes = new ArrayList<>(states.size());
+            for (HandleState state : states) {
+                if (!state.newFact && !state.unchanged && !state.updated) {
+                    resultDeletes.add(state.firstDelete);
+                }
+            }
+
+            return new SplitView(type, resultInserts, resultDeletes, replacements, updates);
+        }
+    }
+
+    private static class HandleState {
+        /**
+         * First delete related to the fact handle, it references the values known to the memories
+         */
+        final DeltaMemoryAction.Delete firstDelete;
+        final long firstDeleteValuesId;
+        final int firstDeleteMark;
+        int lastDeleteMark;
+        /**
+         * Index of the last insert related to the fact handle, the latest insert contains the most recent data
+         */
+        int lastInsert = -1;
+        boolean newFact;
+        boolean unchanged;
+        boolean updated;
+
+        HandleState(DeltaMemoryAction.Delete firstDelete, int insertsBefore) {
+            this.firstDelete = firstDelete;
+            this.firstDeleteValuesId = firstDelete.getFactWrapper().getFieldValuesId();
+            this.firstDeleteMark = insertsBefore;
+            this.lastDeleteMark = insertsBefore;
         }
     }
 }
@@ -0,0 +1,108 @@
+package org.evrete.runtime.compiler;
+
+import org.evrete.api.*;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Base class for predicates built from literal conditions, whether they are compiled or interpreted.
+ * Two such predicates are equal if they have the same source, the same signature, and the same
+ * values of the rule parameters they refer to.
+ *
+ * @param <C> the literal condition type
+ */
+abstract class AbstractLiteralPredicate<C extends LiteralPredicate> implements ValuesPredicate {
+    static final RuleParameter[] NO_PARAMETERS = new RuleParameter[0];
+    final LhsField.Array<String, TypeField> resolvedFields;
+    final C source;
+    // The referenced rule parameters
+    final RuleParameter[] parameters;
+
+    AbstractLiteralPredicate(LhsField.Array<String, TypeField> resolvedFields, C source) {
+        this(resolvedFields, source, NO_PARAMETERS);
+    }
+
+    AbstractLiteralPredicate(LhsField.Array<String, TypeField> resolvedFields, C source, RuleParameter[] parameters) {
+        this.resolvedFields = resolvedFields;
+        this.source = source;
+        this.parameters = parameters;
+    }
+
+    // Two conditions are considered equal if they have the same Java source and the same signature
+    private static boolean sameCondition(AbstractLiteralPredicate<?> p1, AbstractLiteralPredicate<?> p2) {
+        if(Objects.equals(p1.source.getSource(), p2.source.getSource()) && sameParameters(p1.parameters, p2.parameters)) {
+            if(p1.resolvedFields.length() == p2.resolvedFields.length()) {
+                for(int i = 0; i < p1.resolvedFields.length(); i++) {
+                    TypeField f1 = p1.resolvedFields.get(i).field();
+                    TypeField f2 = p2.resolvedFields.get(i).field();
+                    String name1 = f1.getName();
+                    String name2 = f2.getName();
+                    Class<?> valueType1 = f1.getValueType();
+                    Class<?> valueType2 = f2.getValueType();
+                    Class<?> declaringType1 = f1.getDeclaringType().getJavaClass();
+                    Class<?> declaringType2 = f2.getDeclaringType().getJavaClass();
+                    if(!Objects.equals(name1, name2)) {
+                        return false;
+                    }
+                    if(!Objects.equals(valueType1, valueType2)) {
+                        return false;
+                    }
+                    if(!Objects.equals(declaringType1, declaringType2)) {
+                        return false;
+                    }
+                }
+                return true;
+            } else {
+                return false;
+            }
+        } else {
+            return false;
+        }
+    }
+
+    // Primitive values are compared by value, references by identity, as conditions would do
+    private static boolean sameParameters(RuleParameter[] p1, RuleParameter[] p2) {
+        if (p1.length != p2.length) {
+            return false;
+        }
+        for (int i = 0; i < p1.length; i++) {
+            if (p1[i].getType() != p2[i].getType() || !p1[i].getName().equals(p2[i].getName())) {
+                return false;
+            }
+            Object v1 = p1[i].getValue();
+            Object v2 = p2[i].getValue();
+            if (p1[i].getType().isPrimitive() ? !v1.equals(v2) : v1 != v2) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    IllegalStateException evaluationException(IntToValue values, Throwable cause) {
+        Object[] args = new Object[resolvedFields.length()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = values.apply(i);
+        }
+        String params = parameters.length == 0 ? "" : ", parameters: " + Arrays.toString(parameters);
+        return new IllegalStateException("Evaluation exception at " + source + ", fields: " + resolvedFields + params + ", post-exception values:" + Arrays.toString(args), cause);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AbstractLiteralPredicate)) return false;
+        AbstractLiteralPredicate<?> predicate = (AbstractLiteralPredicate<?>) o;
+        return sameCondition(this, predicate);
+    }
+
+    @Override
+    public int hashCode() {
+        return source.getSource().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return source.toString();
+    }
+}
@@ -0,0 +1,824 @@
+package org.evrete.runtime.compiler;
+
+import org.evrete.api.*;
+import org.evrete.util.CommonUtils;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * A parser and tree interpreter for simple literal conditions like {@code $a.i > 5} or
+ * {@code $a.id == $b.ref && !$b.flag}. Such conditions are turned into predicates directly,
+ * without generating and compiling Java sources.
+ * </p>
+ * <p>
+ * The supported subset consists of field references, rule parameters, numeric, boolean, string and {@code null} literals,
+ * arithmetic ({@code + - * / %}), comparison and boolean ({@code && || !}) operators, and parentheses.
+ * Within that subset, the interpreter follows Java's typing rules, including binary numeric promotion,
+ * unboxing and reference equality. Everything else, like method calls, casts, string concatenation or
+ * the ternary operator, is left to the Java compiler.
+ * </p>
+ */
+final class ConditionInterpreter {
+    private static final Pattern REFERENCE_PATTERN = Pattern.compile("\\$[a-zA-Z0-9]+(\\.[_a-zA-Z][_a-zA-Z0-9]*)*");
+    private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("[_a-zA-Z][_a-zA-Z0-9]*");
+    private static final Pattern NUMBER_PATTERN = Pattern.compile("(\\d+\\.?\\d*|\\.\\d+)([eE][+-]?\\d+)?[fFdDlL]?");
+    private static final String[] OPERATORS = {"||", "&&", "==", "!=", "<=", ">=", "<", ">", "+", "-", "*", "/", "%", "!", "(", ")"};
+    private static final String QUOTES = "'\"`";
+
+    private final Rule rule;
+    private final String expression;
+    private final Map<String, RuleParameter> parameters;
+    private final Set<RuleParameter> referencedParameters = new HashSet<>();
+    private final List<LhsField<String, String>> references = new ArrayList<>();
+    private final List<LhsField<String, TypeField>> resolvedFields = new ArrayList<>();
+    private int pos;
+
+    private ConditionInterpreter(Rule rule, String expression, Collection<RuleParameter> parameters) {
+        this.rule = rule;
+        this.expression = expression;
+        this.parameters = new HashMap<>();
+        for (RuleParameter parameter : parameters) {
+            this.parameters.put(parameter.getName(), parameter);
+        }
+    }
+
+    /**
+     * Tries to build an interpreted version of the given condition.
+     *
+     * @param rule       the rule to resolve field references against
+     * @param source     the literal condition
+     * @param parameters the rule's parameters
+     * @param <C>        the literal condition type
+     * @return interpreted condition, or {@code null} if the condition is outside the supported subset
+     */
+    static <C extends LiteralPredicate> CompiledPredicate<C> tryInterpret(Rule rule, C source, Collection<RuleParameter> parameters) {
+        ConditionInterpreter interpreter = new ConditionInterpreter(rule, source.getSource(), parameters);
+        BoolEval eval;
+        try {
+            eval = interpreter.parse();
+        } catch (Unsupported e) {
+            return null;
+        }
+
+        // Referenced parameters in the order of declaration
+        List<RuleParameter> referenced = new ArrayList<>(interpreter.referencedParameters.size());
+        for (RuleParameter parameter : parameters) {
+            if (interpreter.referencedParameters.contains(parameter)) {
+                referenced.add(parameter);
+            }
+        }
+        return new InterpretedCondition<>(new LhsField.Array<>(interpreter.resolvedFields), source, referenced.toArray(AbstractLiteralPredicate.NO_PARAMETERS), eval);
+    }
+
+    private BoolEval parse() {
+        Node node = parseOr();
+        skipWhitespaces();
+        if (pos < expression.length()) {
+            throw Unsupported.INSTANCE;
+        }
+        return asBoolean(node);
+    }
+
+    private Node parseOr() {
+        Node left = parseAnd();
+        while (nextOperator("||")) {
+            BoolEval l = asBoolean(left);
+            BoolEval r = asBoolean(parseAnd());
+            left = new Node(boolean.class, (BoolEval) v -> l.eval(v) || r.eval(v));
+        }
+        return left;
+    }
+
+    private Node parseAnd() {
+        Node left = parseEquality();
+        while (nextOperator("&&")) {
+            BoolEval l = asBoolean(left);
+            BoolEval r = asBoolean(parseEquality());
+            left = new Node(boolean.class, (BoolEval) v -> l.eval(v) && r.eval(v));
+        }
+        return left;
+    }
+
+    private Node parseEquality() {
+        Node left = parseRelational();
+        while (true) {
+            if (nextOperator("==")) {
+                left = equality(left, parseRelational(), false);
+            } else if (nextOperator("!=")) {
+                left = equality(left, parseRelational(), true);
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private Node parseRelational() {
+        Node left = parseAdditive();
+        while (true) {
+            String op;
+            if (nextOperator("<=")) {
+                op = "<=";
+            } else if (nextOperator(">=")) {
+                op = ">=";
+            } else if (nextOperator("<")) {
+                op = "<";
+            } else if (nextOperator(">")) {
+                op = ">";
+            } else {
+                return left;
+            }
+            left = relational(op, left, parseAdditive());
+        }
+    }
+
+    private Node parseAdditive() {
+        Node left = parseMultiplicative();
+        while (true) {
+            char op;
+            if (nextOperator("+")) {
+                op = '+';
+            } else if (nextOperator("-")) {
+                op = '-';
+            } else {
+                return left;
+            }
+            left = arithmetic(op, left, parseMultiplicative());
+        }
+    }
+
+    private Node parseMultiplicative() {
+        Node left = parseUnary();
+        while (true) {
+            char op;
+            if (nextOperator("*")) {
+                op = '*';
+            } else if (nextOperator("/")) {
+                op = '/';
+            } else if (nextOperator("%")) {
+                op = '%';
+            } else {
+                return left;
+            }
+            left = arithmetic(op, left, parseUnary());
+        }
+    }
+
+    private Node parseUnary() {
+        if (nextOperator("!")) {
+            BoolEval e = asBoolean(parseUnary());
+            return new Node(boolean.class, (BoolEval) v -> !e.eval(v));
+        } else if (nextOperator("-")) {
+            Node n = unbox(parseUnary());
+            if (n.type == int.class) {
+                IntEval e = (IntEval) n.eval;
+                return new Node(int.class, (IntEval) v -> -e.eval(v));
+            } else if (n.type == long.class) {
+                LongEval e = (LongEval) n.eval;
+                return new Node(long.class, (LongEval) v -> -e.eval(v));
+            } else if (n.type == float.class) {
+                FloatEval e = (FloatEval) n.eval;
+                return new Node(float.class, (FloatEval) v -> -e.eval(v));
+            } else if (n.type == double.class) {
+                DoubleEval e = (DoubleEval) n.eval;
+                return new Node(double.class, (DoubleEval) v -> -e.eval(v));
+            } else {
+                throw Unsupported.INSTANCE;
+            }
+        } else if (nextOperator("+")) {
+            Node n = unbox(parseUnary());
+            if (numericKind(n.type) == null) {
+                throw Unsupported.INSTANCE;
+            }
+            return n;
+        } else {
+            return parsePrimary();
+        }
+    }
+
+    private Node parsePrimary() {
+        skipWhitespaces();
+        if (pos >= expression.length()) {
+            throw Unsupported.INSTANCE;
+        }
+        char c = expression.charAt(pos);
+        if (nextOperator("(")) {
+            Node n = parseOr();
+            if (!nextOperator(")")) {
+                throw Unsupported.INSTANCE;
+            }
+            return n;
+        } else if (c == '$') {
+            return parseReference();
+        } else if (Character.isDigit(c) || c == '.') {
+            return parseNumber();
+        } else if (QUOTES.indexOf(c) >= 0) {
+            return parseString(c);
+        } else {
+            String identifier = match(IDENTIFIER_PATTERN);
+            switch (identifier) {
+                case "true":
+                    return new Node(boolean.class, (BoolEval) v -> true);
+                case "false":
+                    return new Node(boolean.class, (BoolEval) v -> false);
+                case "null":
+                    return new Node(null, (RefEval) v -> null);
+                default:
+                    return parseParameter(identifier);
+            }
+        }
+    }
+
+    private Node parseParameter(String identifier) {
+        RuleParameter parameter = parameters.get(identifier);
+        if (parameter == null) {
+            // Local variables, constants, static calls, etc.
+            throw Unsupported.INSTANCE;
+        }
+        skipWhitespaces();
+        if (pos < expression.length() && "(.[".indexOf(expression.charAt(pos)) >= 0) {
+            // Method calls and array access
+            throw Unsupported.INSTANCE;
+        }
+        referencedParameters.add(parameter);
+        return constantNode(parameter.getType(), parameter.getValue());
+    }
+
+    private Node parseReference() {
+        String matched = match(REFERENCE_PATTERN);
+        skipWhitespaces();
+        if (pos < expression.length() && "(.[".indexOf(expression.charAt(pos)) >= 0) {
+            // Method calls and array access
+            throw Unsupported.INSTANCE;
+        }
+
+        LhsField<String, String> reference = LhsField.parseDottedVariable(matched);
+        int index = references.indexOf(reference);
+        if (index < 0) {
+            index = references.size();
+            references.add(reference);
+            resolvedFields.add(CommonUtils.toTypeField(reference, rule));
+        }
+        return fieldNode(resolvedFields.get(index).field().getValueType(), index);
+    }
+
+    private Node parseNumber() {
+        String literal = match(NUMBER_PATTERN);
+        char last = literal.charAt(literal.length() - 1);
+        boolean decimal = literal.indexOf('.') >= 0 || literal.indexOf('e') >= 0 || literal.indexOf('E') >= 0;
+        try {
+            switch (last) {
+                case 'l':
+                case 'L':
+                    if (decimal) {
+                        throw Unsupported.INSTANCE;
+                    }
+                    long longValue = Long.parseLong(integerDigits(literal.substring(0, literal.length() - 1)));
+                    return new Node(long.class, (LongEval) v -> longValue);
+                case 'f':
+                case 'F':
+                    float floatValue = Float.parseFloat(literal);
+                    assertRepresentable(floatValue, literal);
+                    return new Node(float.class, (FloatEval) v -> floatValue);
+                case 'd':
+                case 'D':
+                    double doubleValue = Double.parseDouble(literal);
+                    assertRepresentable(doubleValue, literal);
+                    return new Node(double.class, (DoubleEval) v -> doubleValue);
+                default:
+                    if (decimal) {
+                        double value = Double.parseDouble(literal);
+                        assertRepresentable(value, literal);
+                        return new Node(double.class, (DoubleEval) v -> value);
+                    } else {
+                        int intValue = Integer.parseInt(integerDigits(literal));
+                        return new Node(int.class, (IntEval) v -> intValue);
+                    }
+            }
+        } catch (NumberFormatException e) {
+            // Out of range
+            throw Unsupported.INSTANCE;
+        }
+    }
+
+    private Node parseString(char quote) {
+        int end = expression.indexOf(quote, pos + 1);
+        if (end < 0) {
+            throw Unsupported.INSTANCE;
+        }
+        String value = expression.substring(pos + 1, end);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '\n' || c == '\r' || QUOTES.indexOf(c) >= 0) {
+                // Escapes and nested quotes are left to the compiler
+                throw Unsupported.INSTANCE;
+            }
+        }
+        pos = end + 1;
+        // Java string literals are interned
+        String constant = value.intern();
+        return new Node(String.class, (RefEval) v -> constant);
+    }
+
+    private String match(Pattern pattern) {
+        Matcher m = pattern.matcher(expression).region(pos, expression.length());
+        if (!m.lookingAt()) {
+            throw Unsupported.INSTANCE;
+        }
+        pos = m.end();
+        if (pos < expression.length()) {
+            char next = expression.charAt(pos);
+            if (Character.isJavaIdentifierPart(next)) {
+                // Like hex literals or identifiers containing '$'
+                throw Unsupported.INSTANCE;
+            }
+        }
+        return m.group();
+    }
+
+    private boolean nextOperator(String operator) {
+        skipWhitespaces();
+        if (!expression.startsWith(operator, pos)) {
+            return false;
+        }
+        // Making sure a longer operator doesn't start with the given one, like '<' and '<='
+        for (String op : OPERATORS) {
+            if (op.length() > operator.length() && op.startsWith(operator) && expression.startsWith(op, pos)) {
+                return false;
+            }
+        }
+        int end = pos + operator.length();
+        if (end < expression.length() && "+-*/%".contains(operator)) {
+            char next = expression.charAt(end);
+            if (next == '=' || (next == operator.charAt(0) && next != '*' && next != '%')) {
+                // Compound assignments, increments, decrements and comments
+                throw Unsupported.INSTANCE;
+            }
+        }
+        pos = end;
+        return true;
+    }
+
+    private void skipWhitespaces() {
+        while (pos < expression.length() && Character.isWhitespace(expression.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private static String integerDigits(String literal) {
+        if (literal.length() > 1 && literal.charAt(0) == '0') {
+            // Octal literals
+            throw Unsupported.INSTANCE;
+        }
+        return literal;
+    }
+
+    private static void assertRepresentable(double value, String literal) {
+        if (Double.isInfinite(value)) {
+            throw Unsupported.INSTANCE;
+        }
+        if (value == 0.0) {
+            // Non-zero literals that round to zero are compile errors
+            String mantissa = literal.split("[eE]")[0];
+            for (int i = 0; i < mantissa.length(); i++) {
+                char c = mantissa.charAt(i);
+                if (c >= '1' && c <= '9') {
+                    throw Unsupported.INSTANCE;
+                }
+            }
+        }
+    }
+
+    private static Node fieldNode(Class<?> type, int index) {
+        if (type == boolean.class) {
+            return new Node(boolean.class, (BoolEval) v -> (Boolean) v.apply(index));
+        } else if (type == int.class || type == short.class || type == byte.class) {
+            return new Node(int.class, (IntEval) v -> ((Number) v.apply(index)).intValue());
+        } else if (type == char.class) {
+            return new Node(int.class, (IntEval) v -> (Character) v.apply(index));
+        } else if (type == long.class) {
+            return new Node(long.class, (LongEval) v -> (Long) v.apply(index));
+        } else if (type == float.class) {
+            return new Node(float.class, (FloatEval) v -> (Float) v.apply(index));
+        } else if (type == double.class) {
+            return new Node(double.class, (DoubleEval) v -> (Double) v.apply(index));
+        } else {
+            return new Node(type, (RefEval) v -> v.apply(index));
+        }
+    }
+
+    private static Node constantNode(Class<?> type, Object value) {
+        if (type == boolean.class) {
+            boolean b = (Boolean) value;
+            return new Node(boolean.class, (BoolEval) v -> b);
+        } else if (type == int.class || type == short.class || type == byte.class) {
+            int i = ((Number) value).intValue();
+            return new Node(int.class, (IntEval) v -> i);
+        } else if (type == char.class) {
+            int c = (Character) value;
+            return new Node(int.class, (IntEval) v -> c);
+        } else if (type == long.class) {
+            long l = (Long) value;
+            return new Node(long.class, (LongEval) v -> l);
+        } else if (type == float.class) {
+            float f = (Float) value;
+            return new Node(float.class, (FloatEval) v -> f);
+        } else if (type == double.class) {
+            double d = (Double) value;
+            return new Node(double.class, (DoubleEval) v -> d);
+        } else {
+            return new Node(type, (RefEval) v -> value);
+        }
+    }
+
+    /**
+     * Converts boxed values to primitives, or returns the argument if it's not a boxed type
+     */
+    private static Node unbox(Node n) {
+        Class<?> type = n.type;
+        if (type == null || type.isPrimitive()) {
+            return n;
+        }
+        RefEval e = (RefEval) n.eval;
+        if (type == Boolean.class) {
+            return new Node(boolean.class, (BoolEval) v -> (Boolean) e.eval(v));
+        } else if (type == Integer.class || type == Short.class || type == Byte.class) {
+            return new Node(int.class, (IntEval) v -> ((Number) e.eval(v)).intValue());
+        } else if (type == Character.class) {
+            return new Node(int.class, (IntEval) v -> (Character) e.eval(v));
+        } else if (type == Long.class) {
+            return new Node(long.class, (LongEval) v -> (Long) e.eval(v));
+        } else if (type == Float.class) {
+            return new Node(float.class, (FloatEval) v -> (Float) e.eval(v));
+        } else if (type == Double.class) {
+            return new Node(double.class, (DoubleEval) v -> (Double) e.eval(v));
+        } else {
+            return n;
+        }
+    }
+
+    /**
+     * @return the promoted numeric type of the argument, or {@code null} if the type isn't numeric
+     */
+    private static Class<?> numericKind(Class<?> type) {
+        if (type == int.class || type == Integer.class || type == short.class || type == Short.class || type == byte.class || type == Byte.class || type == char.class || type == Character.class) {
+            return int.class;
+        } else if (type == long.class || type == Long.class) {
+            return long.class;
+        } else if (type == float.class || type == Float.class) {
+            return float.class;
+        } else if (type == double.class || type == Double.class) {
+            return double.class;
+        } else {
+            return null;
+        }
+    }
+
+    private static boolean isBoolean(Class<?> type) {
+        return type == boolean.class || type == Boolean.class;
+    }
+
+    private static boolean isPrimitive(Node n) {
+        return n.type != null && n.type.isPrimitive();
+    }
+
+    /**
+     * Binary numeric promotion
+     */
+    private static Class<?> promote(Node left, Node right) {
+        Class<?> l = numericKind(left.type);
+        Class<?> r = numericKind(right.type);
+        if (l == null || r == null) {
+            throw Unsupported.INSTANCE;
+        } else if (l == double.class || r == double.class) {
+            return double.class;
+        } else if (l == float.class || r == float.class) {
+            return float.class;
+        } else if (l == long.class || r == long.class) {
+            return long.class;
+        } else {
+            return int.class;
+        }
+    }
+
+    private static BoolEval asBoolean(Node n) {
+        Node unboxed = unbox(n);
+        if (unboxed.type != boolean.class) {
+            throw Unsupported.INSTANCE;
+        }
+        return (BoolEval) unboxed.eval;
+    }
+
+    private static IntEval asInt(Node n) {
+        Node unboxed = unbox(n);
+        if (unboxed.type == int.class) {
+            return (IntEval) unboxed.eval;
+        } else {
+            throw Unsupported.INSTANCE;
+        }
+    }
+
+    private static LongEval asLong(Node n) {
+        Node unboxed = unbox(n);
+        if (unboxed.type == long.class) {
+            return (LongEval) unboxed.eval;
+        } else {
+            IntEval e = asInt(unboxed);
+            return e::eval;
+        }
+    }
+
+    private static FloatEval asFloat(Node n) {
+        Node unboxed = unbox(n);
+        if (unboxed.type == float.class) {
+            return (FloatEval) unboxed.eval;
+        } else {
+            LongEval e = asLong(unboxed);
+            return e::eval;
+        }
+    }
+
+    private static DoubleEval asDouble(Node n) {
+        Node unboxed = unbox(n);
+        if (unboxed.type == double.class) {
+            return (DoubleEval) unboxed.eval;
+        } else if (unboxed.type == float.class) {
+            FloatEval e = (FloatEval) unboxed.eval;
+            return e::eval;
+        } else {
+            LongEval e = asLong(unboxed);
+            return e::eval;
+        }
+    }
+
+    private static Node arithmetic(char op, Node left, Node right) {
+        Class<?> type = promote(left, right);
+        if (type == int.class) {
+            IntEval l = asInt(left), r = asInt(right);
+            switch (op) {
+                case '+':
+                    return new Node(type, (IntEval) v -> l.eval(v) + r.eval(v));
+                case '-':
+                    return new Node(type, (IntEval) v -> l.eval(v) - r.eval(v));
+                case '*':
+                    return new Node(type, (IntEval) v -> l.eval(v) * r.eval(v));
+                case '/':
+                    return new Node(type, (IntEval) v -> l.eval(v) / r.eval(v));
+                default:
+                    return new Node(type, (IntEval) v -> l.eval(v) % r.eval(v));
+            }
+        } else if (type == long.class) {
+            LongEval l = asLong(left), r = asLong(right);
+            switch (op) {
+                case '+':
+                    return new Node(type, (LongEval) v -> l.eval(v) + r.eval(v));
+                case '-':
+                    return new Node(type, (LongEval) v -> l.eval(v) - r.eval(v));
+                case '*':
+                    return new Node(type, (LongEval) v -> l.eval(v) * r.eval(v));
+                case '/':
+                    return new Node(type, (LongEval) v -> l.eval(v) / r.eval(v));
+                default:
+                    return new Node(type, (LongEval) v -> l.eval(v) % r.eval(v));
+            }
+        } else if (type == float.class) {
+            FloatEval l = asFloat(left), r = asFloat(right);
+            switch (op) {
+                case '+':
+                    return new Node(type, (FloatEval) v -> l.eval(v) + r.eval(v));
+                case '-':
+                    return new Node(type, (FloatEval) v -> l.eval(v) - r.eval(v));
+                case '*':
+                    return new Node(type, (FloatEval) v -> l.eval(v) * r.eval(v));
+                case '/':
+                    return new Node(type, (FloatEval) v -> l.eval(v) / r.eval(v));
+                default:
+                    return new Node(type, (FloatEval) v -> l.eval(v) % r.eval(v));
+            }
+        } else {
+            DoubleEval l = asDouble(left), r = asDouble(right);
+            switch (op) {
+                case '+':
+                    return new Node(type, (DoubleEval) v -> l.eval(v) + r.eval(v));
+                case '-':
+                    return new Node(type, (DoubleEval) v -> l.eval(v) - r.eval(v));
+                case '*':
+                    return new Node(type, (DoubleEval) v -> l.eval(v) * r.eval(v));
+                case '/':
+                    return new Node(type, (DoubleEval) v -> l.eval(v) / r.eval(v));
+                default:
+                    return new Node(type, (DoubleEval) v -> l.eval(v) % r.eval(v));
+            }
+        }
+    }
+
+    private static Node relational(String op, Node left, Node right) {
+        Class<?> type = promote(left, right);
+        BoolEval result;
+        if (type == int.class) {
+            IntEval l = asInt(left), r = asInt(right);
+            switch (op) {
+                case "<":
+                    result = v -> l.eval(v) < r.eval(v);
+                    break;
+                case "<=":
+                    result = v -> l.eval(v) <= r.eval(v);
+                    break;
+                case ">":
+                    result = v -> l.eval(v) > r.eval(v);
+                    break;
+                default:
+                    result = v -> l.eval(v) >= r.eval(v);
+            }
+        } else if (type == long.class) {
+            LongEval l = asLong(left), r = asLong(right);
+            switch (op) {
+                case "<":
+                    result = v -> l.eval(v) < r.eval(v);
+                    break;
+                case "<=":
+                    result = v -> l.eval(v) <= r.eval(v);
+                    break;
+                case ">":
+                    result = v -> l.eval(v) > r.eval(v);
+                    break;
+                default:
+                    result = v -> l.eval(v) >= r.eval(v);
+            }
+        } else if (type == float.class) {
+            FloatEval l = asFloat(left), r = asFloat(right);
+            switch (op) {
+                case "<":
+                    result = v -> l.eval(v) < r.eval(v);
+                    break;
+                case "<=":
+                    result = v -> l.eval(v) <= r.eval(v);
+                    break;
+                case ">":
+                    result = v -> l.eval(v) > r.eval(v);
+                    break;
+                default:
+                    result = v -> l.eval(v) >= r.eval(v);
+            }
+        } else {
+            DoubleEval l = asDouble(left), r = asDouble(right);
+            switch (op) {
+                case "<":
+                    result = v -> l.eval(v) < r.eval(v);
+                    break;
+                case "<=":
+                    result = v -> l.eval(v) <= r.eval(v);
+                    break;
+                case ">":
+                    result = v -> l.eval(v) > r.eval(v);
+                    break;
+                default:
+                    result = v -> l.eval(v) >= r.eval(v);
+            }
+        }
+        return new Node(boolean.class, result);
+    }
+
+    private static Node equality(Node left, Node right, boolean negate) {
+        BoolEval result;
+        boolean primitive = isPrimitive(left) || isPrimitive(right);
+        if (primitive && numericKind(left.type) != null && numericKind(right.type) != null) {
+            // Numeric equality
+            Class<?> type = promote(left, right);
+            if (type == int.class) {
+                IntEval l = asInt(left), r = asInt(right);
+                result = v -> l.eval(v) == r.eval(v);
+            } else if (type == long.class) {
+                LongEval l = asLong(left), r = asLong(right);
+                result = v -> l.eval(v) == r.eval(v);
+            } else if (type == float.class) {
+                FloatEval l = asFloat(left), r = asFloat(right);
+                result = v -> l.eval(v) == r.eval(v);
+            } else {
+                DoubleEval l = asDouble(left), r = asDouble(right);
+                result = v -> l.eval(v) == r.eval(v);
+            }
+        } else if (primitive && isBoolean(left.type) && isBoolean(right.type)) {
+            // Boolean equality
+            BoolEval l = asBoolean(left), r = asBoolean(right);
+            result = v -> l.eval(v) == r.eval(v);
+        } else if (!primitive && castable(left.type, right.type)) {
+            // Reference equality
+            RefEval l = (RefEval) left.eval, r = (RefEval) right.eval;
+            result = v -> l.eval(v) == r.eval(v);
+        } else {
+            throw Unsupported.INSTANCE;
+        }
+
+        if (negate) {
+            BoolEval e = result;
+            return new Node(boolean.class, (BoolEval) v -> !e.eval(v));
+        } else {
+            return new Node(boolean.class, result);
+        }
+    }
+
+    private static boolean castable(Class<?> t1, Class<?> t2) {
+        // A conservative subset of Java's casting rules, the rest is left to the compiler
+        return t1 == null || t2 == null || t1.isAssignableFrom(t2) || t2.isAssignableFrom(t1);
+    }
+
+    private static final class Node {
+        // Static type of the expression, null for the null literal
+        final Class<?> type;
+        // Evaluator matching the type
+        final Object eval;
+
+        Node(Class<?> type, Object eval) {
+            this.type = type;
+            this.eval = eval;
+        }
+    }
+
+    @FunctionalInterface
+    interface BoolEval {
+        boolean eval(IntToValue values);
+    }
+
+    @FunctionalInterface
+    private interface IntEval {
+        int eval(IntToValue values);
+    }
+
+    @FunctionalInterface
+    private interface LongEval {
+        long eval(IntToValue values);
+    }
+
+    @FunctionalInterface
+    private interface FloatEval {
+        float eval(IntToValue values);
+    }
+
+    @FunctionalInterface
+    private interface DoubleEval {
+        double eval(IntToValue values);
+    }
+
+    @FunctionalInterface
+    private interface RefEval {
+        Object eval(IntToValue values);
+    }
+
+    private static final class Unsupported extends RuntimeException {
+        private static final long serialVersionUID = 2510469211283702384L;
+        static final Unsupported INSTANCE = new Unsupported();
+
+        private Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static class InterpretedCondition<C extends LiteralPredicate> implements CompiledPredicate<C> {
+        private final InterpretedPredicate<C> predicate;
+
+        InterpretedCondition(LhsField.Array<String, TypeField> resolvedFields, C source, RuleParameter[] parameters, BoolEval eval) {
+            this.predicate = new InterpretedPredicate<>(resolvedFields, source, parameters, eval);
+        }
+
+        @Override
+        public C getSource() {
+            return predicate.source;
+        }
+
+        @Override
+        public ValuesPredicate getPredicate() {
+            return predicate;
+        }
+
+        @Override
+        public LhsField.Array<String, TypeField> resolvedFields() {
+            return predicate.resolvedFields;
+        }
+
+        @Override
+        public String toString() {
+            return getSource().toString();
+        }
+    }
+
+    private static class InterpretedPredicate<C extends LiteralPredicate> extends AbstractLiteralPredicate<C> {
+        private final BoolEval eval;
+
+        InterpretedPredicate(LhsField.Array<String, TypeField> resolvedFields, C source, RuleParameter[] parameters, BoolEval eval) {
+            super(resolvedFields, source, parameters);
+            this.eval = eval;
+        }
+
+        @Override
+        public boolean test(IntToValue values) {
+            try {
+                return eval.eval(values);
+            } catch (RuntimeException e) {
+                throw evaluationException(values, e);
+            }
+        }
+    }
+}
@@ -19,7 +19,8 @@ class ConditionStringTerm {
     ConditionStringTerm(int start, int end, LhsField<String, String> ref, AtomicInteger fieldCounter) {
         this.start = start;
         this.end = end;
-        this.varName = "var" + fieldCounter.incrementAndGet();
+        // Rule parameters can't contain '$', so they never clash with these names
+        this.varName = "var$" + fieldCounter.incrementAndGet();
         this.ref = ref;
     }
 
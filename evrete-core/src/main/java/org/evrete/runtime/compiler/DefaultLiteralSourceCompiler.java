@@ -4,28 +4,50 @@ import org.evrete.Configuration;
 import org.evrete.api.*;
 import org.evrete.api.annotations.NonNull;
 import org.evrete.api.spi.SourceCompiler;
+import org.evrete.api.spi.SourceCompilerProvider;
 import org.evrete.spi.minimal.AbstractLiteralRhs;
 import org.evrete.util.BaseRuleClass;
+import org.evrete.util.ClassSourceUtils;
 import org.evrete.util.CommonUtils;
 import org.evrete.util.CompilationException;
 
 import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static org.evrete.Configuration.*;
 
 public class DefaultLiteralSourceCompiler  {
+    private static final Logger LOGGER = Logger.getLogger(DefaultLiteralSourceCompiler.class.getName());
     private static final String TAB = "  ";
     private static final String RHS_CLASS_NAME = "Rhs";
-    private static final String RHS_INSTANCE_VAR = "ACTION";
 
-    private static final AtomicLong classCounter = new AtomicLong();
     static final String CLASS_PACKAGE = DefaultLiteralSourceCompiler.class.getPackage().getName() + ".compiled";
 
+    private final SourceCompilerProvider compilerProvider;
+
+    /**
+     * Creates a compiler that uses the source compiler provider of the context's service.
+     */
+    public DefaultLiteralSourceCompiler() {
+        this(null);
+    }
+
+    /**
+     * @param compilerProvider the provider of Java source compilers, or {@code null} to use the one of the context's service
+     */
+    public DefaultLiteralSourceCompiler(SourceCompilerProvider compilerProvider) {
+        this.compilerProvider = compilerProvider;
+    }
+
     public <S extends RuleLiteralData<R, C>, R extends Rule, C extends LiteralPredicate> Collection<RuleCompiledSources<S, R, C>> compile(RuntimeContext<?> context, ClassLoader classLoader, Collection<S> sources) throws CompilationException {
         // Return if there's nothing to compile
         if (sources.isEmpty()) {
@@ -39,93 +61,383 @@ public class DefaultLiteralSourceCompiler  {
             throw new IllegalStateException("Literal conditions and actions were explicitly disabled in the configuration");
         }
 
+        boolean interpret = configuration.getAsBoolean(LITERAL_INTERPRETER, LITERAL_INTERPRETER_DEFAULT);
+        boolean tiered = interpret && configuration.getAsBoolean(TIERED_COMPILATION, TIERED_COMPILATION_DEFAULT);
+        return compile(context, classLoader, sources, interpret, tiered);
+    }
 
+    private <S extends RuleLiteralData<R, C>, R extends Rule, C extends LiteralPredicate> Collection<RuleCompiledSources<S, R, C>> compile(RuntimeContext<?> context, ClassLoader classLoader, Collection<S> sources, boolean interpret, boolean tiered) throws CompilationException {
+        Configuration configuration = context.getConfiguration();
         String stripFlag = configuration.getProperty(SPI_LHS_STRIP_WHITESPACES);
+        // By default, literals are compiled with stripped whitespaces, and failed units are retried as-is
+        boolean stripWhitespaces = stripFlag == null || Boolean.parseBoolean(stripFlag);
+        boolean retryAsIs = stripFlag == null;
+
+        // Sources are created and packed upfront so that classes don't depend on the order of shard execution
+        Collection<RuleCompiledSources<S, R, C>> result = new ArrayList<>(sources.size());
+        List<RuleSource<S, R, C>> javaSources = new ArrayList<>(sources.size());
+        List<RuleSource<S, R, C>> tieredSources = new ArrayList<>();
+        // Rules that differ only in their parameter values are compiled once, see RuleSource#templateKey()
+        Map<String, RuleSource<S, R, C>> templates = new HashMap<>();
+        Map<RuleSource<S, R, C>, RuleSource<S, R, C>> templateInstances = new LinkedHashMap<>();
+        for (S source : sources) {
+            RuleSource<S, R, C> ruleSource = new RuleSource<>(source, context, stripWhitespaces, interpret, tiered);
+            if (ruleSource.requiresCompilation()) {
+                RuleSource<S, R, C> template = templates.putIfAbsent(ruleSource.templateKey(), ruleSource);
+                if (template == null) {
+                    javaSources.add(ruleSource);
+                } else {
+                    templateInstances.put(ruleSource, template);
+                }
+            } else {
+                // All the conditions are interpreted, and there's no literal RHS
+                result.add(new RuleCompiledSourcesImpl<>(null, -1, ruleSource, null));
+            }
+            if (tiered && !ruleSource.interpretedConditions.isEmpty()) {
+                tieredSources.add(ruleSource);
+            }
+        }
+
+        if (!javaSources.isEmpty()) {
+            compileJavaSources(context, classLoader, javaSources, retryAsIs, result);
+        }
+
+        if (!templateInstances.isEmpty()) {
+            // Instantiating the compiled classes for the rest of the rules
+            Map<S, RuleCompiledSourcesImpl<S, R, C>> compiledTemplates = new IdentityHashMap<>();
+            for (RuleCompiledSources<S, R, C> compiled : result) {
+                compiledTemplates.put(compiled.getSources(), (RuleCompiledSourcesImpl<S, R, C>) compiled);
+            }
+            for (Map.Entry<RuleSource<S, R, C>, RuleSource<S, R, C>> entry : templateInstances.entrySet()) {
+                RuleCompiledSourcesImpl<S, R, C> template = compiledTemplates.get(entry.getValue().delegate);
+                result.add(new RuleCompiledSourcesImpl<>(template.ruleClass, template.ruleIndex, entry.getKey(), template.classJavaSource));
+            }
+        }
+
+        if (!tieredSources.isEmpty()) {
+            // The interpreted conditions are now ready to use, compiling them in the background
+            scheduleUpgrade(context, classLoader, tieredSources);
+        }
+        return result;
+    }
+
+    private <S extends RuleLiteralData<R, C>, R extends Rule, C extends LiteralPredicate> void compileJavaSources(RuntimeContext<?> context, ClassLoader classLoader, List<RuleSource<S, R, C>> javaSources, boolean retryAsIs, Collection<RuleCompiledSources<S, R, C>> result) throws CompilationException {
+        Configuration configuration = context.getConfiguration();
+
+        int packSize = Math.max(1, configuration.getAsInteger(COMPILER_PACK_SIZE, COMPILER_PACK_SIZE_DEFAULT));
+        // The shard size is given in rules
+        int shardSize = configuration.getAsInteger(COMPILER_SHARD_SIZE, COMPILER_SHARD_SIZE_DEFAULT);
+        List<List<RulePack<S, R, C>>> shards = shards(pack(javaSources, packSize), shardSize / packSize);
+        List<ShardResult<S, R, C>> shardResults = new ArrayList<>(shards.size());
+        if (shards.size() == 1) {
+            shardResults.add(compileShard(context, classLoader, shards.get(0), retryAsIs));
+        } else {
+            // The first shard is compiled by the calling thread
+            List<CompletableFuture<ShardResult<S, R, C>>> futures = new ArrayList<>(shards.size() - 1);
+            for (int i = 1; i < shards.size(); i++) {
+                List<RulePack<S, R, C>> shard = shards.get(i);
+                futures.add(CompletableFuture.supplyAsync(() -> compileShard(context, classLoader, shard, retryAsIs), context.getService().getExecutor()));
+            }
+            shardResults.add(compileShard(context, classLoader, shards.get(0), retryAsIs));
+            for (CompletableFuture<ShardResult<S, R, C>> future : futures) {
+                shardResults.add(future.join());
+            }
+        }
+
+        // Merging the results and reporting errors of all failed rules at once
+        List<String> otherErrors = new LinkedList<>();
+        Map<SourceCompiler.ClassSource, List<String>> errorSources = new IdentityHashMap<>();
+        for (ShardResult<S, R, C> shardResult : shardResults) {
+            result.addAll(shardResult.compiled);
+            for (CompilationException e : shardResult.errors) {
+                otherErrors.addAll(e.getOtherErrors());
+                for (SourceCompiler.ClassSource errorSource : e.getErrorSources()) {
+                    errorSources.put(errorSource, e.getErrorMessage(errorSource));
+                }
+            }
+        }
+
+        if (!otherErrors.isEmpty() || !errorSources.isEmpty()) {
+            throw new CompilationException(otherErrors, errorSources);
+        }
+    }
 
-        if (stripFlag == null) {
+    /**
+     * Compiles the interpreted conditions of the given sources in the service's background executor, and
+     * upgrades their {@link TieredPredicate} instances once done. The main executor isn't used so that
+     * the compilation's own tasks don't wait behind it. Conditions remain interpreted if the service
+     * is shut down before the compilation completes.
+     */
+    @SuppressWarnings("unchecked")
+    private <S extends RuleLiteralData<R, C>, R extends Rule, C extends LiteralPredicate> void scheduleUpgrade(RuntimeContext<?> context, ClassLoader classLoader, List<RuleSource<S, R, C>> tieredSources) {
+        Map<LiteralPredicate, TieredPredicate<C>> predicates = new IdentityHashMap<>();
+        List<UpgradeData<R, C>> upgradeData = new ArrayList<>(tieredSources.size());
+        for (RuleSource<S, R, C> source : tieredSources) {
+            for (Map.Entry<LiteralPredicate, CompiledPredicate<C>> entry : source.interpretedConditions.entrySet()) {
+                predicates.put(entry.getKey(), (TieredPredicate<C>) entry.getValue().getPredicate());
+            }
+            upgradeData.add(new UpgradeData<>(source.delegate.getRule(), source.interpretedConditions.values(), source.delegate.parameters()));
+        }
+
+        Runnable upgrade = () -> {
             try {
-                // Try compiling with stripped whitespaces
-                return compile(context, classLoader, sources, true);
-            } catch (CompilationException e) {
-                // Compile literals as-is
-                return compile(context, classLoader, sources, false);
+                for (RuleCompiledSources<UpgradeData<R, C>, R, C> compiled : compile(context, classLoader, upgradeData, false, false)) {
+                    for (CompiledPredicate<C> condition : compiled.conditions()) {
+                        predicates.remove(condition.getSource()).upgrade(condition.getPredicate());
+                    }
+                }
+            } catch (Throwable t) {
+                LOGGER.log(Level.WARNING, t, () -> "Background compilation failed, " + predicates.size() + " condition(s) will remain interpreted");
+            } finally {
+                for (TieredPredicate<C> predicate : predicates.values()) {
+                    predicate.fail(new IllegalStateException("Condition not compiled: " + predicate));
+                }
+            }
+        };
+        try {
+            context.getService().getBackgroundExecutor().execute(upgrade);
+        } catch (RejectedExecutionException e) {
+            for (TieredPredicate<C> predicate : predicates.values()) {
+                predicate.fail(e);
+            }
+        }
+    }
+
+    /**
+     * Packs the sources into classes of at most the given number of rules, preserving their order.
+     * Rules with different base classes can't share a class.
+     */
+    private static <S extends RuleLiteralData<R, C>, R extends Rule, C extends LiteralPredicate> List<RulePack<S, R, C>> pack(List<RuleSource<S, R, C>> sources, int packSize) {
+        List<RulePack<S, R, C>> result = new ArrayList<>(sources.size() / packSize + 1);
+        Map<String, List<RuleSource<S, R, C>>> open = new LinkedHashMap<>();
+        for (RuleSource<S, R, C> source : sources) {
+            List<RuleSource<S, R, C>> current = open.computeIfAbsent(source.baseClassName, k -> new ArrayList<>(packSize));
+            current.add(source);
+            if (current.size() == packSize) {
+                result.add(new RulePack<>(current));
+                open.remove(source.baseClassName);
             }
+        }
+        for (List<RuleSource<S, R, C>> rest : open.values()) {
+            result.add(new RulePack<>(rest));
+        }
+        return result;
+    }
+
+    /**
+     * Splits the sources into at most as many shards as there are available processors, each shard
+     * having at least the given number of sources.
+     */
+    private static <T> List<List<T>> shards(List<T> sources, int minShardSize) {
+        int maxShards = sources.size() / Math.max(1, minShardSize);
+        int shardCount = Math.max(1, Math.min(maxShards, Runtime.getRuntime().availableProcessors()));
+        if (shardCount == 1) {
+            return Collections.singletonList(sources);
         } else {
-            return compile(context, classLoader, sources, Boolean.parseBoolean(stripFlag));
+            List<List<T>> shards = new ArrayList<>(shardCount);
+            int from = 0;
+            for (int i = 0; i < shardCount; i++) {
+                int to = (int) ((long) sources.size() * (i + 1) / shardCount);
+                shards.add(sources.subList(from, to));
+                from = to;
+            }
+            return shards;
+        }
+    }
+
+    /**
+     * Compiles a shard. If compilation fails, the failed packs are split into single rules, so that errors
+     * are reported per rule, while the rest of the shard is compiled again unchanged. If the sources were
+     * compiled with stripped whitespaces, the split rules are recompiled as-is.
+     */
+    private <S extends RuleLiteralData<R, C>, R extends Rule, C extends LiteralPredicate> ShardResult<S, R, C> compileShard(RuntimeContext<?> context, ClassLoader classLoader, List<RulePack<S, R, C>> shard, boolean retryAsIs) {
+        ShardResult<S, R, C> result = new ShardResult<>();
+        compileIsolated(context, classLoader, shard, retryAsIs, result);
+        return result;
+    }
+
+    private <S extends RuleLiteralData<R, C>, R extends Rule, C extends LiteralPredicate> void compileIsolated(RuntimeContext<?> context, ClassLoader classLoader, List<RulePack<S, R, C>> packs, boolean retryAsIs, ShardResult<S, R, C> result) {
+        try {
+            result.compiled.addAll(compileSources(context, classLoader, packs));
+        } catch (CompilationException e) {
+            Collection<SourceCompiler.ClassSource> failed = e.getErrorSources();
+            List<RulePack<S, R, C>> passed = new ArrayList<>(packs.size());
+            List<RulePack<S, R, C>> failedPacks = new ArrayList<>(failed.size());
+            for (RulePack<S, R, C> pack : packs) {
+                if (failed.contains(pack)) {
+                    failedPacks.add(pack);
+                } else {
+                    passed.add(pack);
+                }
+            }
+
+            if (failedPacks.isEmpty()) {
+                // Errors can't be attributed to a subset of packs, retrying all of them
+                failedPacks = packs;
+                passed = Collections.emptyList();
+            }
+
+            boolean packed = failedPacks.stream().anyMatch(pack -> pack.sources.size() > 1);
+            if (!retryAsIs && !packed) {
+                result.errors.add(e);
+                return;
+            }
+
+            if (!passed.isEmpty()) {
+                compileIsolated(context, classLoader, passed, retryAsIs, result);
+            }
+
+            List<RulePack<S, R, C>> singleRules = new ArrayList<>();
+            for (RulePack<S, R, C> pack : failedPacks) {
+                for (RuleSource<S, R, C> source : pack.sources) {
+                    singleRules.add(new RulePack<>(Collections.singletonList(retryAsIs ? source.withWhitespaces(context) : source)));
+                }
+            }
+            compileIsolated(context, classLoader, singleRules, false, result);
+        }
+    }
+
+    private <S extends RuleLiteralData<R, C>, R extends Rule, C extends LiteralPredicate> Collection<RuleCompiledSources<S, R, C>> compileSources(RuntimeContext<?> context, ClassLoader classLoader, Collection<RulePack<S, R, C>> packs) throws CompilationException {
+        SourceCompilerProvider provider = compilerProvider == null ? context.getService().getSourceCompilerProvider() : compilerProvider;
+        SourceCompiler compiler = provider.instance(classLoader, context.getConfiguration());
+
+        Collection<SourceCompiler.Result<RulePack<S, R, C>>> compiled = compiler.compile(packs);
+
+        Collection<RuleCompiledSources<S, R, C>> result = new ArrayList<>();
+        for (SourceCompiler.Result<RulePack<S, R, C>> compiledSource : compiled) {
+            Class<?> packClass = compiledSource.getCompiledClass();
+            RulePack<S, R, C> pack = compiledSource.getSource();
+            for (int i = 0; i < pack.sources.size(); i++) {
+                result.add(new RuleCompiledSourcesImpl<>(packClass, i, pack.sources.get(i), pack.javaSource));
+            }
         }
+        return result;
     }
 
-    private <S extends RuleLiteralData<R, C>, R extends Rule, C extends LiteralPredicate> Collection<RuleCompiledSources<S, R, C>> compile(RuntimeContext<?> context, ClassLoader classLoader, Collection<S> sources, boolean stripWhitespaces) throws CompilationException {
-        SourceCompiler compiler = context.getService().getSourceCompilerProvider().instance(classLoader);
+    /**
+     * Interpreted conditions of a rule that need to be compiled in the background
+     */
+    private static class UpgradeData<R extends Rule, C extends LiteralPredicate> implements RuleLiteralData<R, C> {
+        private final R rule;
+        private final Collection<C> conditions;
+        private final Collection<RuleParameter> parameters;
 
-        Collection<RuleSource<S, R, C>> javaSources = sources.stream()
-                .map(o -> new RuleSource<>(o, context, stripWhitespaces))
-                .collect(Collectors.toList());
+        UpgradeData(R rule, Collection<CompiledPredicate<C>> interpreted, Collection<RuleParameter> parameters) {
+            this.rule = rule;
+            this.parameters = parameters;
+            this.conditions = new ArrayList<>(interpreted.size());
+            for (CompiledPredicate<C> predicate : interpreted) {
+                this.conditions.add(predicate.getSource());
+            }
+        }
 
-        Collection<SourceCompiler.Result<RuleSource<S, R, C>>> result = compiler.compile(javaSources);
+        @NonNull
+        @Override
+        public R getRule() {
+            return rule;
+        }
 
-        return result
-                .stream()
-                .map(compiledSource -> {
-                    Class<?> ruleClass = compiledSource.getCompiledClass();
-                    return new RuleCompiledSourcesImpl<>(ruleClass, compiledSource.getSource(), compiledSource.getSource().javaSource);
-                })
-                .collect(Collectors.toList());
+        @NonNull
+        @Override
+        public Collection<C> conditions() {
+            return conditions;
+        }
+
+        @Override
+        public String rhs() {
+            return null;
+        }
+
+        @NonNull
+        @Override
+        public Collection<RuleParameter> parameters() {
+            return parameters;
+        }
     }
 
-    public static class RuleSource<S extends RuleLiteralData<R, C>, R extends Rule, C extends LiteralPredicate> implements SourceCompiler.ClassSource {
-        private final String className;
-        private final String classSimpleName;
+    private static class ShardResult<S extends RuleLiteralData<R, C>, R extends Rule, C extends LiteralPredicate> {
+        final Collection<RuleCompiledSources<S, R, C>> compiled = new ArrayList<>();
+        final Collection<CompilationException> errors = new ArrayList<>();
+    }
 
+    public static class RuleSource<S extends RuleLiteralData<R, C>, R extends Rule, C extends LiteralPredicate> {
         private final S delegate;
         private final Imports imports;
         private final RhsSource rhsSource;
+        private final String baseClassName;
 
-        private final String javaSource;
         private final Collection<ConditionSource<C>> conditionSources;
+        private final Map<LiteralPredicate, CompiledPredicate<C>> interpretedConditions;
+
+        RuleSource(S delegate, RuntimeContext<?> context, boolean stripWhitespaces, boolean interpret, boolean tiered) {
+            this(delegate, context, stripWhitespaces, interpret ? interpret(delegate, tiered) : Collections.emptyMap());
+        }
 
-        RuleSource(S delegate, RuntimeContext<?> context, boolean stripWhitespaces) {
+        private RuleSource(S delegate, RuntimeContext<?> context, boolean stripWhitespaces, Map<LiteralPredicate, CompiledPredicate<C>> interpretedConditions) {
             this.delegate = delegate;
             this.imports = context.getImports();
-            this.classSimpleName = "Rule" + classCounter.incrementAndGet();
-            this.className = CLASS_PACKAGE + "." + classSimpleName;
+            this.interpretedConditions = interpretedConditions;
+            this.baseClassName = delegate.getRule().get(RULE_BASE_CLASS, BaseRuleClass.class.getCanonicalName());
+
+            String rhs = delegate.rhs();
+            this.rhsSource = rhs == null ? null : new RhsSource(delegate.getRule(), rhs, delegate.parameters());
 
             AtomicInteger conditionCounter = new AtomicInteger();
             this.conditionSources = delegate.conditions()
                     .stream()
-                    .map(s -> new ConditionSource<>(delegate.getRule(), "condition" + conditionCounter.incrementAndGet(), this.classSimpleName, s, stripWhitespaces))
+                    .filter(s -> !interpretedConditions.containsKey(s))
+                    .map(s -> new ConditionSource<>(delegate.getRule(), conditionCounter.incrementAndGet(), s, stripWhitespaces, delegate.parameters()))
                     .collect(Collectors.toList());
+        }
 
-            String rhs = delegate.rhs();
-            this.rhsSource = rhs == null ? null : new RhsSource(delegate.getRule(), rhs);
-            this.javaSource = this.buildSource();
+        private static <C extends LiteralPredicate> Map<LiteralPredicate, CompiledPredicate<C>> interpret(RuleLiteralData<?, C> delegate, boolean tiered) {
+            Map<LiteralPredicate, CompiledPredicate<C>> result = new IdentityHashMap<>();
+            for (C condition : delegate.conditions()) {
+                CompiledPredicate<C> interpreted = ConditionInterpreter.tryInterpret(delegate.getRule(), condition, delegate.parameters());
+                if (interpreted != null) {
+                    result.put(condition, tiered ? TieredPredicate.of(interpreted) : interpreted);
+                }
+            }
+            return result;
         }
 
-        private String buildSource() {
-            StringBuilder sb = new StringBuilder(4096);
-            // Class header
-            appendHeader(sb);
+        boolean requiresCompilation() {
+            return !conditionSources.isEmpty() || rhsSource != null;
+        }
 
-            // Class RHS body
-            if (this.rhsSource != null) {
-                this.rhsSource.appendClassVar(sb);
+        /**
+         * Generated members don't depend on the rule's name or on its pack, and parameter values are bound
+         * at runtime, so rules with equal keys can share the compiled members.
+         *
+         * @return the rule's base class and Java members, as if the rule was the first one in its pack
+         */
+        String templateKey() {
+            StringBuilder sb = new StringBuilder(2048);
+            sb.append(baseClassName).append("\n");
+            appendMembers(sb, 0);
+            if (rhsSource != null) {
+                rhsSource.appendMethods(sb, 0);
             }
+            return sb.toString();
+        }
 
+        private void appendMembers(StringBuilder sb, int ruleIndex) {
             // Class conditions declarations
             for (ConditionSource<C> source : this.conditionSources) {
                 sb.append(TAB);
-                source.appendDeclaration(sb);
+                source.appendDeclaration(sb, ruleIndex);
             }
 
             // Class conditions definitions
             if (!this.conditionSources.isEmpty()) {
                 sb.append("\n").append(TAB).append("static {\n");
+                sb.append(TAB).append(TAB).append("java.lang.invoke.MethodHandles.Lookup lookup = java.lang.invoke.MethodHandles.lookup();\n");
                 sb.append(TAB).append(TAB).append("try {\n");
                 for (ConditionSource<C> source : this.conditionSources) {
                     sb.append(TAB);
                     sb.append(TAB);
                     sb.append(TAB);
-                    source.appendDefinition(sb);
+                    source.appendDefinition(sb, ruleIndex);
                 }
                 sb.append(TAB).append(TAB).append("} catch (Exception e) {\n");
                 sb.append(TAB).append(TAB).append(TAB).append("throw new IllegalStateException(e);\n");
@@ -135,51 +447,160 @@ public class DefaultLiteralSourceCompiler  {
 
             // Class conditions methods
             for (ConditionSource<C> source : this.conditionSources) {
-                source.appendHandleMethod(sb);
-                source.appendInnerMethod(sb);
+                source.appendHandleMethod(sb, ruleIndex);
+                source.appendInnerMethod(sb, ruleIndex);
                 sb.append("\n");
             }
+        }
 
-            // Class RHS body
-            if (this.rhsSource != null) {
-                this.rhsSource.appendClassBody(sb);
-            }
-
-            // Class footer
-            appendFooter(sb);
-            return sb.toString();
+        /**
+         * @param context the runtime context
+         * @return a new source of the same rule, with whitespaces in conditions retained
+         */
+        RuleSource<S, R, C> withWhitespaces(RuntimeContext<?> context) {
+            return new RuleSource<>(delegate, context, false, interpretedConditions);
         }
 
         @Override
-        public String binaryName() {
-            return className;
+        public String toString() {
+            return "'" + delegate.getRule().getName() + "'";
         }
+    }
 
-        @Override
-        public String getSource() {
-            return javaSource;
+    /**
+     * A single generated class that holds the conditions and actions of several rules with the same base class.
+     * Packing reduces the number of classes that have to be compiled, loaded, and verified. Members of each rule
+     * are prefixed with the rule's index in the pack, and a single {@code Rhs} class dispatches to the rules'
+     * actions by that index.
+     */
+    static class RulePack<S extends RuleLiteralData<R, C>, R extends Rule, C extends LiteralPredicate> implements SourceCompiler.ClassSource {
+        private final String className;
+        private final String classSimpleName;
+        final List<RuleSource<S, R, C>> sources;
+        final String javaSource;
+
+        RulePack(List<RuleSource<S, R, C>> sources) {
+            this.sources = sources;
+            // Class names are derived from the sources, so that they don't depend on the order of compilation
+            String template = buildSource();
+            this.classSimpleName = "Rules" + ClassSourceUtils.sha256(template).substring(0, 32);
+            this.className = CLASS_PACKAGE + "." + classSimpleName;
+            // The placeholder is replaced in the class header only, rule literals must stay intact
+            int namePos = template.indexOf(ClassSourceUtils.CLASS_NAME_PLACEHOLDER);
+            this.javaSource = template.substring(0, namePos) + classSimpleName + template.substring(namePos + ClassSourceUtils.CLASS_NAME_PLACEHOLDER.length());
+        }
+
+        private String buildSource() {
+            StringBuilder sb = new StringBuilder(4096 * sources.size());
+            // Class header
+            appendHeader(sb);
+
+            // Rule members
+            boolean hasRhs = false;
+            for (int i = 0; i < sources.size(); i++) {
+                RuleSource<S, R, C> source = sources.get(i);
+                source.appendMembers(sb, i);
+                hasRhs |= source.rhsSource != null;
+            }
+
+            // Class RHS body
+            if (hasRhs) {
+                appendRhsClass(sb);
+            }
+
+            // Class footer
+            sb.append("\n}\n");
+            return sb.toString();
         }
 
         private void appendHeader(StringBuilder target) {
             // Declare package
             target.append("package ").append(CLASS_PACKAGE).append(";\n\n");
 
-            // Declare imports
-            imports.asJavaImportStatements(target);
+            // Declare imports, they are the same for all the rules of a context
+            sources.get(0).imports.asJavaImportStatements(target);
 
             // Declare class
-            String baseClassName = delegate.getRule().get(RULE_BASE_CLASS, BaseRuleClass.class.getCanonicalName());
-
             target.append("public final class ")
-                    .append(classSimpleName)
+                    .append(ClassSourceUtils.CLASS_NAME_PLACEHOLDER)
                     .append(" extends ")
-                    .append(baseClassName)
+                    .append(sources.get(0).baseClassName)
                     .append(" {\n");
+        }
+
+        private void appendRhsClass(StringBuilder target) {
+            target
+                    .append("\n")
+                    .append(TAB)
+                    .append("public static class " + RHS_CLASS_NAME + " extends ")
+                    .append(AbstractLiteralRhs.class.getName())
+                    .append(" {\n\n")
+                    .append(TAB).append(TAB)
+                    .append("private final int rule;\n")
+                    .append(TAB).append(TAB)
+                    .append("private final Object[] parameters;\n\n")
+                    .append(TAB).append(TAB)
+                    .append("public " + RHS_CLASS_NAME + "(int rule, Object[] parameters) {\n")
+                    .append(TAB).append(TAB).append(TAB)
+                    .append("this.rule = rule;\n")
+                    .append(TAB).append(TAB).append(TAB)
+                    .append("this.parameters = parameters;\n")
+                    .append(TAB).append(TAB)
+                    .append("}\n\n")
+                    .append(TAB).append(TAB)
+                    .append("@Override\n")
+                    .append(TAB).append(TAB)
+                    .append("protected final void doRhs() {\n")
+                    .append(TAB).append(TAB).append(TAB)
+                    .append("switch (rule) {\n")
+            ;
+
+            for (int i = 0; i < sources.size(); i++) {
+                if (sources.get(i).rhsSource != null) {
+                    target
+                            .append(TAB).append(TAB).append(TAB).append(TAB)
+                            .append("case ").append(i).append(":\n")
+                            .append(TAB).append(TAB).append(TAB).append(TAB).append(TAB)
+                            .append("rhs").append(i).append("();\n")
+                            .append(TAB).append(TAB).append(TAB).append(TAB).append(TAB)
+                            .append("break;\n");
+                }
+            }
 
+            target
+                    .append(TAB).append(TAB).append(TAB).append(TAB)
+                    .append("default:\n")
+                    .append(TAB).append(TAB).append(TAB).append(TAB).append(TAB)
+                    .append("throw new IllegalStateException(\"No RHS for rule index \" + rule);\n")
+                    .append(TAB).append(TAB).append(TAB)
+                    .append("}\n")
+                    .append(TAB).append(TAB)
+                    .append("}\n\n");
+
+            for (int i = 0; i < sources.size(); i++) {
+                RhsSource rhsSource = sources.get(i).rhsSource;
+                if (rhsSource != null) {
+                    rhsSource.appendMethods(target, i);
+                }
+            }
+
+            // end of the class
+            target.append(TAB).append("}");
         }
 
-        private void appendFooter(StringBuilder target) {
-            target.append("\n}\n");
+        @Override
+        public String binaryName() {
+            return className;
+        }
+
+        @Override
+        public String getSource() {
+            return javaSource;
+        }
+
+        @Override
+        public String toString() {
+            return "{rules=" + sources + ", class='" + className + "'}";
         }
     }
 
@@ -187,7 +608,7 @@ public class DefaultLiteralSourceCompiler  {
         private static final String DECLARATION_TEMPLATE =
                 "public static final java.lang.invoke.MethodHandle %s;\n";
         private static final String DEFINITION_TEMPLATE =
-                "%s = java.lang.invoke.MethodHandles.lookup().findStatic(%s.class, \"%s\", java.lang.invoke.MethodType.methodType(boolean.class, %s));\n";
+                "%s = lookup.findStatic(lookup.lookupClass(), \"%s\", java.lang.invoke.MethodType.methodType(boolean.class, %s));\n";
         private static final String INNER_METHOD_TEMPLATE = "\n" +
                 "  private static boolean %sInner(%s) {\n" +
                 "    return %s;\n" +
@@ -198,19 +619,18 @@ public class DefaultLiteralSourceCompiler  {
                 "  }\n";
 
         final C source;
-        final String methodName;
-        final String handleName;
-        final String className;
+        // The condition's index within the rule
+        final int index;
+        // The referenced rule parameters
+        final RuleParameter[] parameters;
         private final String replaced;
         private final StringJoiner methodArgs;
         private final StringJoiner argCasts;
         private final LhsField.Array<String, TypeField> resolvedFields;
 
-        public ConditionSource(Rule rule, String name, String className, C source, boolean stripWhitespaces) {
-            this.className = className;
+        public ConditionSource(Rule rule, int index, C source, boolean stripWhitespaces, Collection<RuleParameter> parameters) {
             this.source = source;
-            this.methodName = name;
-            this.handleName = name.toUpperCase() + "_HANDLE";
+            this.index = index;
             StringLiteralEncoder encoder = StringLiteralEncoder.of(source.getSource(), stripWhitespaces);
 
             final List<ConditionStringTerm> terms = ConditionStringTerm.resolveTerms(encoder.getEncoded());
@@ -255,24 +675,59 @@ public class DefaultLiteralSourceCompiler  {
                 }
             }
 
+            // Referenced parameters are passed after the fields
+            List<RuleParameter> referenced = new ArrayList<>(parameters.size());
+            for (RuleParameter parameter : parameters) {
+                if (references(encodedExpression, parameter.getName())) {
+                    String canonicalType = parameter.getType().getCanonicalName();
+                    argCasts.add("(" + canonicalType + ") parameters[" + referenced.size() + "]");
+                    methodArgs.add(canonicalType + " " + parameter.getName());
+                    referenced.add(parameter);
+                }
+            }
+            this.parameters = referenced.toArray(AbstractLiteralPredicate.NO_PARAMETERS);
+
             this.replaced = encoder.unwrapLiterals(encodedExpression);
             this.resolvedFields = new LhsField.Array<>(descriptorBuilder);
         }
 
-        void appendDeclaration(StringBuilder target) {
-            target.append(String.format(DECLARATION_TEMPLATE, handleName));
+        private static boolean references(String encodedExpression, String parameter) {
+            // Excluding field and method names, and encoded string literals
+            return Pattern.compile("(?<![\\w$.{])" + Pattern.quote(parameter) + "(?![\\w$])").matcher(encodedExpression).find();
+        }
+
+        private String methodName(int ruleIndex) {
+            return "rule" + ruleIndex + "Condition" + index;
+        }
+
+        String handleName(int ruleIndex) {
+            return "RULE" + ruleIndex + "_CONDITION" + index + "_HANDLE";
+        }
+
+        private String handleArgs() {
+            String values = IntToValue.class.getName() + " values";
+            return parameters.length == 0 ? values : values + ", Object[] parameters";
         }
 
-        void appendHandleMethod(StringBuilder target) {
-            target.append(String.format(HANDLE_METHOD_TEMPLATE, methodName, IntToValue.class.getName() + " values", methodName, argCasts));
+        void appendDeclaration(StringBuilder target, int ruleIndex) {
+            target.append(String.format(DECLARATION_TEMPLATE, handleName(ruleIndex)));
         }
 
-        void appendInnerMethod(StringBuilder target) {
-            target.append(String.format(INNER_METHOD_TEMPLATE, methodName, methodArgs, replaced));
+        void appendHandleMethod(StringBuilder target, int ruleIndex) {
+            String methodName = methodName(ruleIndex);
+            target.append(String.format(HANDLE_METHOD_TEMPLATE, methodName, handleArgs(), methodName, argCasts));
         }
 
-        void appendDefinition(StringBuilder target) {
-            target.append(String.format(DEFINITION_TEMPLATE, handleName, className, methodName, IntToValue.class.getName() + ".class"));
+        void appendInnerMethod(StringBuilder target, int ruleIndex) {
+            target.append(String.format(INNER_METHOD_TEMPLATE, methodName(ruleIndex), methodArgs, replaced));
+        }
+
+        void appendDefinition(StringBuilder target, int ruleIndex) {
+            String argTypes = IntToValue.class.getName() + ".class";
+            if (parameters.length > 0) {
+                argTypes += ", Object[].class";
+            }
+            target.append(String.format(DEFINITION_TEMPLATE, handleName(ruleIndex), methodName(ruleIndex), argTypes));
         }
     }
 
@@ -282,7 +737,7 @@ public class DefaultLiteralSourceCompiler  {
         final StringJoiner methodArgs;
         final StringJoiner args;
 
-        RhsSource(Rule rule, @NonNull String rhs) {
+        RhsSource(Rule rule, @NonNull String rhs, Collection<RuleParameter> parameters) {
             this.rule = rule;
             this.rhs = rhs;
             this.methodArgs = new StringJoiner(", ");
@@ -291,28 +746,20 @@ public class DefaultLiteralSourceCompiler  {
                 methodArgs.add(t.getType().getJavaClass().getCanonicalName() + " " + t.getVarName());
                 args.add(t.getVarName());
             }
+            // Parameters are passed after the facts, each rule has its own RHS instance with the values
+            int index = 0;
+            for (RuleParameter parameter : parameters) {
+                String canonicalType = parameter.getType().getCanonicalName();
+                methodArgs.add(canonicalType + " " + parameter.getName());
+                args.add("(" + canonicalType + ") this.parameters[" + (index++) + "]");
+            }
         }
 
-        void appendClassVar(StringBuilder target) {
-            target
-                    .append(TAB)
-                    .append("public static final " + RHS_CLASS_NAME + " ")
-                    .append(RHS_INSTANCE_VAR + " = new " + RHS_CLASS_NAME + "();")
-                    .append("\n")
-            ;
-        }
-
-        void appendClassBody(StringBuilder target) {
-            target
-                    .append("\n")
-                    .append(TAB)
-                    .append("public static class " + RHS_CLASS_NAME + " extends ")
-                    .append(AbstractLiteralRhs.class.getName())
-                    .append(" {\n\n")
-                    .append(TAB).append(TAB)
-                    .append("@Override\n")
-                    .append(TAB).append(TAB)
-                    .append("protected final void doRhs() {\n")
+        void appendMethods(StringBuilder target, int ruleIndex) {
+            target.append(TAB).append(TAB)
+                    .append("private void rhs")
+                    .append(ruleIndex)
+                    .append("() {\n")
             ;
 
             // Assign vars
@@ -330,7 +777,9 @@ public class DefaultLiteralSourceCompiler  {
             // Inner method call
             target
                     .append(TAB).append(TAB).append(TAB)
-                    .append("this.doRhs(")
+                    .append("this.doRhs")
+                    .append(ruleIndex)
+                    .append("(")
                     .append(this.args)
                     .append(");\n")
                     .append(TAB).append(TAB)
@@ -339,7 +788,9 @@ public class DefaultLiteralSourceCompiler  {
 
             // Inner method declaration
             target.append(TAB).append(TAB)
-                    .append("private void doRhs(")
+                    .append("private void doRhs")
+                    .append(ruleIndex)
+                    .append("(")
                     .append(this.methodArgs)
                     .append(") {\n")
             ;
@@ -355,11 +806,8 @@ public class DefaultLiteralSourceCompiler  {
                         .append("\n");
             }
 
-            // end of the class
             target.append(TAB).append(TAB)
-                    .append("}\n")
-                    .append(TAB)
-                    .append("}")
+                    .append("}\n\n")
             ;
         }
     }
@@ -369,10 +817,20 @@ public class DefaultLiteralSourceCompiler  {
         private final RuleSource<S, R, C> source;
         private final Collection<CompiledPredicate<C>> conditions;
         private final Consumer<RhsContext> rhs;
+        private final Class<?> ruleClass;
+        private final int ruleIndex;
         private final String classJavaSource;
 
-        public RuleCompiledSourcesImpl(Class<?> ruleClass, RuleSource<S, R, C> source, String classJavaSource) {
+        /**
+         * @param ruleClass       the compiled class, or {@code null} if the rule required no compilation
+         * @param ruleIndex       the rule's index in the compiled class, or {@code -1} if the rule required no compilation
+         * @param source          the rule's source
+         * @param classJavaSource the compiled class' Java source, or {@code null} if the rule required no compilation
+         */
+        public RuleCompiledSourcesImpl(Class<?> ruleClass, int ruleIndex, RuleSource<S, R, C> source, String classJavaSource) {
             this.source = source;
+            this.ruleClass = ruleClass;
+            this.ruleIndex = ruleIndex;
             this.classJavaSource = classJavaSource;
 
             Map<LiteralPredicate, ConditionSource<C>> compiledConditions = new IdentityHashMap<>();
@@ -384,12 +842,17 @@ public class DefaultLiteralSourceCompiler  {
             this.conditions = new ArrayList<>(originalConditions.size());
 
             for (C condition : originalConditions) {
+                CompiledPredicate<C> interpreted = source.interpretedConditions.get(condition);
+                if (interpreted != null) {
+                    this.conditions.add(interpreted);
+                    continue;
+                }
                 ConditionSource<C> compiled = compiledConditions.get(condition);
                 if (compiled == null) {
                     throw new IllegalStateException("Condition not found or not compiled");
                 } else {
                     assert compiled.source.equals(condition);
-                    this.conditions.add(new CompiledPredicateImpl<>(compiled, ruleClass));
+                    this.conditions.add(new CompiledPredicateImpl<>(compiled, ruleClass, ruleIndex));
                 }
             }
 
@@ -397,16 +860,26 @@ public class DefaultLiteralSourceCompiler  {
             if (source.delegate.rhs() == null) {
                 this.rhs = null;
             } else {
-                this.rhs = fromClass(ruleClass);
+                this.rhs = newInstance(ruleClass, ruleIndex, parameterValues(source.delegate.parameters()));
             }
         }
 
+        private static Object[] parameterValues(Collection<RuleParameter> parameters) {
+            Object[] values = new Object[parameters.size()];
+            int i = 0;
+            for (RuleParameter parameter : parameters) {
+                values[i++] = parameter.getValue();
+            }
+            return values;
+        }
+
         @SuppressWarnings("unchecked")
-        private static Consumer<RhsContext> fromClass(Class<?> ruleClass) {
+        private static Consumer<RhsContext> newInstance(Class<?> ruleClass, int ruleIndex, Object[] parameters) {
             try {
-                return (Consumer<RhsContext>) ruleClass.getDeclaredField(RHS_INSTANCE_VAR).get(null);
-            } catch (IllegalAccessException | NoSuchFieldException e) {
-                throw new IllegalStateException("RHS source provided but not compiled");
+                Class<?> rhsClass = Class.forName(ruleClass.getName() + "$" + RHS_CLASS_NAME, true, ruleClass.getClassLoader());
+                return (Consumer<RhsContext>) rhsClass.getConstructor(int.class, Object[].class).newInstance(ruleIndex, parameters);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("RHS source provided but not compiled", e);
             }
         }
 
@@ -436,10 +909,15 @@ public class DefaultLiteralSourceCompiler  {
         private final ConditionSource<C> compiled;
         private final PredicateImpl<C> delegate;
 
-        public CompiledPredicateImpl(ConditionSource<C> compiled, Class<?> ruleClass) {
+        public CompiledPredicateImpl(ConditionSource<C> compiled, Class<?> ruleClass, int ruleIndex) {
             this.compiled = compiled;
             C source = compiled.source;
-            this.delegate = new PredicateImpl<>(getHandle(ruleClass, compiled.handleName), compiled.resolvedFields, source);
+            MethodHandle handle = getHandle(ruleClass, compiled.handleName(ruleIndex));
+            if (compiled.parameters.length > 0) {
+                // Binding the parameter values
+                handle = MethodHandles.insertArguments(handle, 1, (Object) RuleCompiledSourcesImpl.parameterValues(Arrays.asList(compiled.parameters)));
+            }
+            this.delegate = new PredicateImpl<>(handle, compiled.resolvedFields, source, compiled.parameters);
         }
 
 
@@ -471,65 +949,12 @@ public class DefaultLiteralSourceCompiler  {
             }
         }
 
-        static class PredicateImpl<C extends LiteralPredicate> implements ValuesPredicate {
+        static class PredicateImpl<C extends LiteralPredicate> extends AbstractLiteralPredicate<C> {
             private final MethodHandle handle;
-            private final LhsField.Array<String, TypeField> resolvedFields;
-            private final C source;
 
-            PredicateImpl(MethodHandle handle, LhsField.Array<String, TypeField> resolvedFields, C source) {
+            PredicateImpl(MethodHandle handle, LhsField.Array<String, TypeField> resolvedFields, C source, RuleParameter[] parameters) {
+                super(resolvedFields, source, parameters);
                 this.handle = handle;
-                this.resolvedFields = resolvedFields;
-                this.source = source;
-            }
-
-            // Two conditions are considered equal if they have the same Java source and the same signature
-            private static boolean sameCondition(PredicateImpl<?> p1, PredicateImpl<?> p2) {
-                if(Objects.equals(p1.source.getSource(), p2.source.getSource())) {
-                    if(p1.resolvedFields.length() == p2.resolvedFields.length()) {
-                        for(int i = 0; i < p1.resolvedFields.length(); i++) {
-                            TypeField f1 = p1.resolvedFields.get(i).field();
-                            TypeField f2 = p2.resolvedFields.get(i).field();
-                            String name1 = f1.getName();
-                            String name2 = f2.getName();
-                            Class<?> valueType1 = f1.getValueType();
-                            Class<?> valueType2 = f2.getValueType();
-                            Class<?> declaringType1 = f1.getDeclaringType().getJavaClass();
-                            Class<?> declaringType2 = f2.getDeclaringType().getJavaClass();
-                            if(!Objects.equals(name1, name2)) {
-                                return false;
-                            }
-                            if(!Objects.equals(valueType1, valueType2)) {
-                                return false;
-                            }
-                            if(!Objects.equals(declaringType1, declaringType2)) {
-                                return false;
-                            }
-                        }
-                        return true;
-                    } else {
-                        return false;
-                    }
-                } else {
-                    return false;
-                }
-            }
-
-            @Override
-            public boolean equals(Object o) {
-                if (this == o) return true;
-                if (o == null || getClass() != o.getClass()) return false;
-                PredicateImpl<?> predicate = (PredicateImpl<?>) o;
-                return sameCondition(this, predicate);
-            }
-
-            @Override
-            public int hashCode() {
-                return source.getSource().hashCode();
-            }
-
-            @Override
-            public String toString() {
-                return source.toString();
             }
 
             @Override
@@ -537,11 +962,7 @@ public class DefaultLiteralSourceCompiler  {
                 try {
                     return (boolean) handle.invokeExact(values);
                 } catch (Throwable t) {
-                    Object[] args = new Object[resolvedFields.length()];
-                    for (int i = 0; i < args.length; i++) {
-                        args[i] = values.apply(i);
-                    }
-                    throw new IllegalStateException("Evaluation exception at " + source + ", fields: " + resolvedFields + ", post-exception values:" + Arrays.toString(args), t);
+                    throw evaluationException(values, t);
                 }
             }
         }
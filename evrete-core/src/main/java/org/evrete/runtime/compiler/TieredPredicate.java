@@ -0,0 +1,82 @@
+package org.evrete.runtime.compiler;
+
+import org.evrete.api.*;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>
+ * A literal condition that starts as an interpreted predicate and switches to its compiled version
+ * once the latter is built in the background.
+ * </p>
+ * <p>
+ * Sessions share this instance with their parent context, so the upgrade reaches sessions that already
+ * exist. Contexts that have registered the condition may also swap this instance for the compiled
+ * predicate, see {@link #compiled()}.
+ * </p>
+ *
+ * @param <C> the literal condition type
+ */
+public final class TieredPredicate<C extends LiteralPredicate> extends AbstractLiteralPredicate<C> {
+    private final CompletableFuture<ValuesPredicate> compiled = new CompletableFuture<>();
+    private volatile ValuesPredicate delegate;
+
+    private TieredPredicate(CompiledPredicate<C> interpreted) {
+        super(interpreted.resolvedFields(), interpreted.getSource(), ((AbstractLiteralPredicate<?>) interpreted.getPredicate()).parameters);
+        this.delegate = interpreted.getPredicate();
+    }
+
+    static <C extends LiteralPredicate> CompiledPredicate<C> of(CompiledPredicate<C> interpreted) {
+        return new Condition<>(new TieredPredicate<>(interpreted));
+    }
+
+    /**
+     * @return a future that completes with the compiled predicate, or completes exceptionally if the
+     * condition can not be compiled, in which case this predicate stays interpreted.
+     */
+    public CompletableFuture<ValuesPredicate> compiled() {
+        return compiled;
+    }
+
+    void upgrade(ValuesPredicate compiledPredicate) {
+        this.delegate = compiledPredicate;
+        this.compiled.complete(compiledPredicate);
+    }
+
+    void fail(Throwable cause) {
+        this.compiled.completeExceptionally(cause);
+    }
+
+    @Override
+    public boolean test(IntToValue values) {
+        return delegate.test(values);
+    }
+
+    private static class Condition<C extends LiteralPredicate> implements CompiledPredicate<C> {
+        private final TieredPredicate<C> predicate;
+
+        Condition(TieredPredicate<C> predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        public C getSource() {
+            return predicate.source;
+        }
+
+        @Override
+        public ValuesPredicate getPredicate() {
+            return predicate;
+        }
+
+        @Override
+        public LhsField.Array<String, TypeField> resolvedFields() {
+            return predicate.resolvedFields;
+        }
+
+        @Override
+        public String toString() {
+            return getSource().toString();
+        }
+    }
+}
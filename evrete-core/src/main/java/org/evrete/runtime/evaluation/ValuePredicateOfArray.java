@@ -5,24 +5,28 @@ import org.evrete.api.ValuesPredicate;
 
 import java.util.function.Predicate;
 
+/**
+ * Adapts a {@link Predicate} of an object array to the {@link ValuesPredicate} interface. Instances are
+ * shared by all sessions of a knowledge and may be evaluated concurrently, so each evaluation
+ * fills its own argument array instead of locking a shared one.
+ */
 public class ValuePredicateOfArray implements ValuesPredicate {
     private final Predicate<Object[]> predicate;
-    private final Object[] sharedValues;
+    private final int arraySize;
 
     public ValuePredicateOfArray(Predicate<Object[]> predicate, int arraySize) {
         this.predicate = predicate;
-        this.sharedValues = new Object[arraySize];
+        this.arraySize = arraySize;
     }
 
 
     @Override
     public boolean test(IntToValue values) {
-        synchronized (sharedValues) {
-            for (int i = 0; i < sharedValues.length; i++) {
-                sharedValues[i] = values.apply(i);
-            }
-            return predicate.test(sharedValues);
+        Object[] args = new Object[arraySize];
+        for (int i = 0; i < arraySize; i++) {
+            args[i] = values.apply(i);
         }
+        return predicate.test(args);
     }
 
 
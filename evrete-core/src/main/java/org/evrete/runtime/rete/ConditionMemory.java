@@ -5,9 +5,7 @@ import org.evrete.api.annotations.NonNull;
 import org.evrete.api.spi.MemoryScope;
 import org.evrete.runtime.PreHashed;
 
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.Set;
+import java.util.*;
 import java.util.function.Predicate;
 
 public class ConditionMemory implements ReteMemory<ConditionMemory.MemoryEntry> {
@@ -19,6 +17,27 @@ public class ConditionMemory implements ReteMemory<ConditionMemory.MemoryEntry>
         this.delta.delete(predicate);
     }
 
+    /**
+     * Applies the substitution to the entries of the main memory at the given position.
+     *
+     * @param index        the position of the identifiers within memory entries
+     * @param substitution the substitution to apply
+     */
+    void substitute(int index, ValueIdSubstitution substitution) {
+        List<MemoryEntry> copies = new LinkedList<>();
+        Iterator<MemoryEntry> iterator = main.iterator();
+        while (iterator.hasNext()) {
+            MemoryEntry entry = iterator.next();
+            for (Long target : substitution.copyTargets(entry.scopedValueIds[index].getValueId())) {
+                copies.add(entry.withValueId(index, target));
+            }
+        }
+        this.main.delete(entry -> substitution.isRemoved(entry.scopedValueIds[index].getValueId()));
+        for (MemoryEntry copy : copies) {
+            this.main.add(copy);
+        }
+    }
+
     void saveNewEntry(MemoryScope destination, MemoryEntry entry) {
         if (destination == MemoryScope.DELTA) {
             delta.add(entry);
@@ -113,6 +132,12 @@ public class ConditionMemory implements ReteMemory<ConditionMemory.MemoryEntry>
             return new MemoryEntry(newKeys);
         }
 
+        MemoryEntry withValueId(int index, long valueId) {
+            ScopedValueId[] newKeys = scopedValueIds.clone();
+            newKeys[index] = new ScopedValueId(valueId, scopedValueIds[index].scope);
+            return new MemoryEntry(newKeys);
+        }
+
         static MemoryEntry fromEntryNode(long values, MemoryScope scope) {
             return new MemoryEntry(new ScopedValueId(values, scope));
         }
@@ -1,16 +1,18 @@
 package org.evrete.runtime.rete;
 
 import org.evrete.api.IntToValue;
+import org.evrete.api.LhsField;
 import org.evrete.api.spi.MemoryScope;
 import org.evrete.runtime.*;
 import org.evrete.runtime.evaluation.DefaultEvaluatorHandle;
 import org.evrete.util.CombinationIterator;
-import org.evrete.util.CommonUtils;
 import org.evrete.util.FlatMapIterator;
 import org.evrete.util.MappingIterator;
 
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 import java.util.function.IntFunction;
 import java.util.function.ObjIntConsumer;
 import java.util.logging.Logger;
@@ -26,6 +28,7 @@ public class ReteSessionConditionNode extends ReteSessionNode {
     private final ResolvedEvaluator evaluator;
     private final ConditionMemory betaMemory;
     private final TypeMemory[] nodeTypeMemories;
+    private final ReteKnowledgeEvaluator knowledgeEvaluator;
 
 
     public ReteSessionConditionNode(AbstractRuleSessionBase<?> session, ReteSessionNode[] sourceNodes, ReteKnowledgeConditionNode knowledgeConditionNode) {
@@ -43,7 +46,8 @@ public class ReteSessionConditionNode extends ReteSessionNode {
         }
 
         this.betaMemory = new ConditionMemory();
-        this.evaluator = new ResolvedEvaluator(session, knowledgeConditionNode.getEvaluator());
+        this.knowledgeEvaluator = knowledgeConditionNode.getEvaluator();
+        this.evaluator = new ResolvedEvaluator(session, knowledgeEvaluator);
 
     }
 
@@ -52,38 +56,31 @@ public class ReteSessionConditionNode extends ReteSessionNode {
         return FactType.toSimpleDebugString(this.getNodeFactTypes());
     }
 
-    @Override
-    public CompletableFuture<Void> computeDeltaMemoryAsync(DeltaMemoryMode mode) {
-        LOGGER.fine(()->"Node " + this.debugName() + " is requesting delta memories from sources: " + debugName(sourceNodes));
-
-        // To compute this node's delta memory, we need the node's source nodes
-        // to compute their deltas first.
-        return CommonUtils.completeAll(
-                        sourceNodes,
-                        sourceNode -> sourceNode.computeDeltaMemoryAsync(mode)
-                )
-                .thenRunAsync(
-                        () -> this.computeDeltaLocally(mode),
-                        getExecutor()
-                );
-    }
-
     public ConditionMemory getBetaMemory() {
         return betaMemory;
     }
 
-    public void deleteAll(Collection<FactHolder> factHolders) {
-        betaMemory.deleteAll(ConditionMemory.DeletePredicate.ofMultipleOR(createDeletePredicates(factHolders)));
+    /**
+     * Deletes memory entries that reference the provided facts.
+     *
+     * @param factHolders the facts to delete
+     * @param scope       a filter that tells whether a fact must be deleted from the given position of this node
+     */
+    public void deleteAll(Collection<FactHolder> factHolders, BiPredicate<FactHolder, FactType> scope) {
+        betaMemory.deleteAll(ConditionMemory.DeletePredicate.ofMultipleOR(createDeletePredicates(factHolders, scope)));
     }
 
-    private Collection<ConditionMemory.DeletePredicate> createDeletePredicates(Collection<FactHolder> factHolders) {
+    private Collection<ConditionMemory.DeletePredicate> createDeletePredicates(Collection<FactHolder> factHolders, BiPredicate<FactHolder, FactType> scope) {
+        FactType[] nodeFactTypes = getNodeFactTypes();
         MapOfSet<Integer, Long> mapping = new MapOfSet<>();
         for (FactHolder factHolder : factHolders) {
             ActiveType.Idx type = factHolder.getHandle().getType();
             // Get local fact type indices
             Collection<Integer> indicesForType = nodeIndices(type);
             for (Integer index : indicesForType) {
-                mapping.add(index, factHolder.getFieldValuesId());
+                if (scope.test(factHolder, nodeFactTypes[index])) {
+                    mapping.add(index, factHolder.getFieldValuesId());
+                }
             }
         }
 
@@ -96,6 +93,38 @@ public class ReteSessionConditionNode extends ReteSessionNode {
     }
 
 
+    /**
+     * Replaces field value identifiers in this node's main memory.
+     *
+     * @param substitutions substitutions by alpha address, the function returns {@code null}
+     *                      for the addresses with no substitutions
+     */
+    public void substituteValueIds(Function<AlphaAddress, ValueIdSubstitution> substitutions) {
+        FactType[] nodeFactTypes = getNodeFactTypes();
+        for (int i = 0; i < nodeFactTypes.length; i++) {
+            ValueIdSubstitution substitution = substitutions.apply(nodeFactTypes[i].getAlphaAddress());
+            if (substitution != null) {
+                betaMemory.substitute(i, substitution);
+            }
+        }
+    }
+
+    /**
+     * Reports the fields that this node's conditions read, along with the alpha addresses
+     * of the corresponding facts.
+     *
+     * @param consumer the consumer of the fields
+     */
+    public void forEachReadField(BiConsumer<AlphaAddress, ActiveField> consumer) {
+        for (ReteKnowledgeEvaluator.Component component : knowledgeEvaluator.getComponents()) {
+            LhsField.Array<FactType, ActiveField> descriptor = component.getDelegate().getDescriptor();
+            for (int i = 0; i < descriptor.length(); i++) {
+                LhsField<FactType, ActiveField> field = descriptor.get(i);
+                consumer.accept(field.fact().getAlphaAddress(), field.field());
+            }
+        }
+    }
+
     void computeDeltaLocally(DeltaMemoryMode mode) {
         // Initial step - updating conditions (they might've been changed)
         this.evaluator.refreshConditions();
@@ -5,7 +5,6 @@ import org.evrete.runtime.*;
 import org.evrete.util.MappingIterator;
 
 import java.util.Iterator;
-import java.util.concurrent.CompletableFuture;
 
 public class ReteSessionEntryNode extends ReteSessionNode {
     private final SessionMemory memory;
@@ -31,13 +30,6 @@ public class ReteSessionEntryNode extends ReteSessionNode {
         return memory.getAlphaMemory(this.alphaAddress);
     }
 
-    @Override
-    public CompletableFuture<Void> computeDeltaMemoryAsync(DeltaMemoryMode mode) {
-        // Entry nodes do not contain inner memories, they're attached directly to alpha memories
-        // (which are computed at a different stage).
-        return CompletableFuture.completedFuture(null);
-    }
-
     @Override
     Iterator<ConditionMemory.MemoryEntry> iterator(MemoryScope scope) {
         return new MappingIterator<>(
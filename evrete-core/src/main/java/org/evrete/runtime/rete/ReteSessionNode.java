@@ -8,17 +8,15 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.StringJoiner;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
 
 public abstract class ReteSessionNode extends ReteNode<ReteSessionNode> {
     public static final ReteSessionNode[] EMPTY_ARRAY = new ReteSessionNode[0];
-    private final AbstractRuntime<?,?> runtime;
+    private final AbstractRuleSessionBase<?> runtime;
     private final FactType[] nodeFactTypes;
     private final int[][] nodeFactTypesMapping;
     private final MapOfList<ActiveType.Idx, Integer> typeToIndices;
 
-    public ReteSessionNode(AbstractRuntime<?,?> runtime, ReteKnowledgeNode parent, ReteSessionNode[] sourceNodes) {
+    public ReteSessionNode(AbstractRuleSessionBase<?> runtime, ReteKnowledgeNode parent, ReteSessionNode[] sourceNodes) {
         super(sourceNodes);
         this.runtime = runtime;
         this.nodeFactTypes = parent.getNodeFactTypes();
@@ -48,15 +46,10 @@ public abstract class ReteSessionNode extends ReteNode<ReteSessionNode> {
         return nodeFactTypesMapping[sourceIndex][inSourceIndex];
     }
 
-    protected ExecutorService getExecutor() {
-        return runtime.getService().getExecutor();
-    }
-
     protected StoredCondition getActiveEvaluator(DefaultEvaluatorHandle handle) {
         return runtime.getEvaluatorsContext().get(handle, false);
     }
 
-    public abstract CompletableFuture<Void> computeDeltaMemoryAsync(DeltaMemoryMode mode);
 
     abstract Iterator<ConditionMemory.MemoryEntry> iterator(MemoryScope scope);
 
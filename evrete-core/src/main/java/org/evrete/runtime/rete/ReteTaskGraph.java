@@ -0,0 +1,105 @@
+package org.evrete.runtime.rete;
+
+import java.util.*;
+
+/**
+ * <p>
+ * A static, level-ordered view of a condition graph's nodes, computed once when the graph is deployed.
+ * Each condition node becomes a task that depends on the node's condition source nodes, and the tasks
+ * are ordered by their level so that sources always precede their consumers. Nodes that are reachable
+ * from more than one consumer are included only once.
+ * </p>
+ * <p>
+ * The task graph holds no state of its own, delta computations are executed by the {@link ReteTaskScheduler}.
+ * </p>
+ */
+public final class ReteTaskGraph {
+    private static final int[] EMPTY_INT_ARRAY = new int[0];
+    final ReteSessionConditionNode[] nodes;
+    /**
+     * Indices of each node's consumers
+     */
+    final int[][] consumers;
+    /**
+     * The number of condition source nodes each node depends on
+     */
+    final int[] dependencies;
+
+    public ReteTaskGraph(ReteGraph<ReteSessionNode, ReteSessionEntryNode, ReteSessionConditionNode> graph) {
+        // 1. Computing node levels, entry nodes have level zero
+        Map<ReteSessionConditionNode, Integer> levels = new IdentityHashMap<>();
+        computeLevel(graph.terminalNode(), levels);
+
+        // 2. Ordering the nodes by level
+        List<ReteSessionConditionNode> ordered = new ArrayList<>(levels.keySet());
+        ordered.sort(Comparator.comparingInt(levels::get));
+        this.nodes = ordered.toArray(new ReteSessionConditionNode[0]);
+
+        Map<ReteSessionConditionNode, Integer> indices = new IdentityHashMap<>();
+        for (int i = 0; i < nodes.length; i++) {
+            indices.put(nodes[i], i);
+        }
+
+        // 3. Building dependencies and reverse (consumer) links
+        this.dependencies = new int[nodes.length];
+        List<List<Integer>> consumerLists = new ArrayList<>(nodes.length);
+        for (int i = 0; i < nodes.length; i++) {
+            consumerLists.add(new ArrayList<>(1));
+        }
+        for (int i = 0; i < nodes.length; i++) {
+            Set<ReteSessionNode> distinctSources = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (ReteSessionNode source : nodes[i].sourceNodes()) {
+                if (source.isConditionNode() && distinctSources.add(source)) {
+                    dependencies[i]++;
+                    consumerLists.get(indices.get((ReteSessionConditionNode) source)).add(i);
+                }
+            }
+        }
+
+        this.consumers = new int[nodes.length][];
+        for (int i = 0; i < nodes.length; i++) {
+            List<Integer> list = consumerLists.get(i);
+            if (list.isEmpty()) {
+                this.consumers[i] = EMPTY_INT_ARRAY;
+            } else {
+                this.consumers[i] = list.stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+    }
+
+    private static int computeLevel(ReteSessionNode node, Map<ReteSessionConditionNode, Integer> levels) {
+        if (!node.isConditionNode()) {
+            return 0;
+        } else {
+            ReteSessionConditionNode conditionNode = (ReteSessionConditionNode) node;
+            Integer known = levels.get(conditionNode);
+            if (known != null) {
+                return known;
+            } else {
+                int level = 0;
+                for (ReteSessionNode source : node.sourceNodes()) {
+                    level = Math.max(level, computeLevel(source, levels));
+                }
+                level++;
+                levels.put(conditionNode, level);
+                return level;
+            }
+        }
+    }
+
+    /**
+     * @return the number of tasks (condition nodes) in the graph
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for (ReteSessionConditionNode node : nodes) {
+            joiner.add(node.debugName());
+        }
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,177 @@
+package org.evrete.runtime.rete;
+
+import org.evrete.runtime.DeltaMemoryMode;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * Computes delta memories of one or more {@link ReteTaskGraph}s. The scheduler keeps a stack of ready tasks,
+ * which are nodes whose condition sources have already been computed, and a small number of workers that take
+ * tasks from the stack until it's empty. Completing a task decrements the pending counters of the node's consumers
+ * and pushes the consumers that have no pending sources left. Extra workers are started only when more tasks are
+ * ready than there are workers to process them.
+ * </p>
+ * <p>
+ * Unlike chaining a future per node, a scheduler run allocates only a few flat arrays, and each node
+ * is computed exactly once.
+ * </p>
+ */
+public final class ReteTaskScheduler {
+    private static final Logger LOGGER = Logger.getLogger(ReteTaskScheduler.class.getName());
+    private static final int MAX_WORKERS = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private final ReteSessionConditionNode[] nodes;
+    private final int[][] consumers;
+    /**
+     * Each node's graph offset, consumer indices are local to their graphs
+     */
+    private final int[] offsets;
+    private final int[] pending;
+    private final int[] ready;
+    private final DeltaMemoryMode mode;
+    private final Executor executor;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private int readyCount;
+    private int remaining;
+    private int workers;
+    private boolean failed;
+
+    private ReteTaskScheduler(Collection<ReteTaskGraph> graphs, int total, DeltaMemoryMode mode, Executor executor) {
+        this.mode = mode;
+        this.executor = executor;
+        this.nodes = new ReteSessionConditionNode[total];
+        this.consumers = new int[total][];
+        this.offsets = new int[total];
+        this.pending = new int[total];
+        this.ready = new int[total];
+        this.remaining = total;
+
+        // Flattening the graphs
+        int offset = 0;
+        for (ReteTaskGraph graph : graphs) {
+            for (int i = 0; i < graph.nodes.length; i++) {
+                int index = offset + i;
+                this.nodes[index] = graph.nodes[i];
+                this.pending[index] = graph.dependencies[i];
+                this.consumers[index] = graph.consumers[i];
+                this.offsets[index] = offset;
+                if (graph.dependencies[i] == 0) {
+                    this.ready[readyCount++] = index;
+                }
+            }
+            offset += graph.nodes.length;
+        }
+    }
+
+    /**
+     * Computes delta memories of the provided graphs.
+     *
+     * @param graphs   the task graphs
+     * @param mode     the delta memory mode
+     * @param executor the executor for the workers
+     * @return the future completion of the computation
+     */
+    public static CompletableFuture<Void> execute(Collection<ReteTaskGraph> graphs, DeltaMemoryMode mode, Executor executor) {
+        int total = 0;
+        for (ReteTaskGraph graph : graphs) {
+            total += graph.size();
+        }
+        if (total == 0) {
+            return CompletableFuture.completedFuture(null);
+        } else {
+            LOGGER.fine(() -> "Computing delta memories of condition graphs " + graphs + " in mode: " + mode);
+            return new ReteTaskScheduler(graphs, total, mode, executor).start();
+        }
+    }
+
+    private CompletableFuture<Void> start() {
+        int initialWorkers;
+        synchronized (this) {
+            initialWorkers = Math.min(readyCount, MAX_WORKERS);
+            this.workers = initialWorkers;
+        }
+        for (int i = 0; i < initialWorkers; i++) {
+            submitWorker();
+        }
+        return completion;
+    }
+
+    private void submitWorker() {
+        try {
+            executor.execute(this::work);
+        } catch (RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    private void work() {
+        int task = nextTask(-1);
+        while (task >= 0) {
+            try {
+                nodes[task].computeDeltaLocally(mode);
+            } catch (Throwable t) {
+                fail(t);
+                return;
+            }
+            task = nextTask(task);
+        }
+    }
+
+    /**
+     * Marks the completed task, if any, and takes the next ready task.
+     *
+     * @param completed the completed task or {@code -1}
+     * @return the next task or {@code -1} if the worker should stop
+     */
+    private int nextTask(int completed) {
+        boolean done = false;
+        int extraWorkers = 0;
+        int next;
+        synchronized (this) {
+            if (failed) {
+                return -1;
+            }
+            if (completed >= 0) {
+                int offset = offsets[completed];
+                for (int localIndex : consumers[completed]) {
+                    int consumer = offset + localIndex;
+                    if (--pending[consumer] == 0) {
+                        ready[readyCount++] = consumer;
+                    }
+                }
+                done = --remaining == 0;
+                // More than one ready task, starting extra workers if allowed
+                while (readyCount - extraWorkers > 1 && workers < MAX_WORKERS) {
+                    workers++;
+                    extraWorkers++;
+                }
+            }
+
+            if (readyCount > 0) {
+                next = ready[--readyCount];
+            } else {
+                workers--;
+                next = -1;
+            }
+        }
+
+        if (done) {
+            completion.complete(null);
+        }
+        for (int i = 0; i < extraWorkers; i++) {
+            submitWorker();
+        }
+        return next;
+    }
+
+    private void fail(Throwable t) {
+        synchronized (this) {
+            this.failed = true;
+            this.readyCount = 0;
+        }
+        completion.completeExceptionally(t);
+    }
+}
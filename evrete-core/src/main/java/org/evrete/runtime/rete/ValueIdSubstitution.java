@@ -0,0 +1,49 @@
+package org.evrete.runtime.rete;
+
+import java.util.*;
+
+/**
+ * Describes how field value identifiers of a single alpha memory should be replaced in condition
+ * memories. Substitutions are used when facts are updated, but their new values have no effect
+ * on the conditions: instead of re-evaluating the conditions, existing memory entries are
+ * copied with the new identifiers, and the entries with identifiers that are no longer in use are removed.
+ */
+public class ValueIdSubstitution {
+    private final Map<Long, List<Long>> copies = new HashMap<>();
+    private final Set<Long> removals = new HashSet<>();
+
+    /**
+     * Requests that each memory entry referencing the source identifier be copied with the target identifier
+     *
+     * @param source the existing identifier
+     * @param target the new identifier
+     */
+    public void copy(long source, long target) {
+        copies.computeIfAbsent(source, k -> new LinkedList<>()).add(target);
+    }
+
+    /**
+     * Requests that memory entries referencing the provided identifier be removed.
+     *
+     * @param id the identifier that is no longer in use
+     */
+    public void remove(long id) {
+        removals.add(id);
+    }
+
+    Collection<Long> copyTargets(long source) {
+        return copies.getOrDefault(source, Collections.emptyList());
+    }
+
+    boolean isRemoved(long id) {
+        return removals.contains(id);
+    }
+
+    @Override
+    public String toString() {
+        return "{" +
+                "copies=" + copies +
+                ", removals=" + removals +
+                '}';
+    }
+}
@@ -9,7 +9,18 @@ import java.util.Map;
 import java.util.stream.Stream;
 
 public class DefaultFactStorage<FH extends FactHandle, V> implements FactStorage<FH, V> {
-    private final Storage<FH, V> delegate = new Storage<>();
+    private final Storage<FH, V> delegate;
+
+    public DefaultFactStorage() {
+        this(true);
+    }
+
+    /**
+     * @param threadSafe whether the storage can be modified concurrently
+     */
+    public DefaultFactStorage(boolean threadSafe) {
+        this.delegate = threadSafe ? new SynchronizedStorage<>() : new Storage<>(false);
+    }
 
     @Override
     public void insert(FH factHandle, V value) {
@@ -38,13 +49,17 @@ public class DefaultFactStorage<FH extends FactHandle, V> implements FactStorage
 
     private static class Storage<FH extends FactHandle, V>  {
         //TODO size config option
-        private final LongKeyMap<MapEntryImpl<FH, V>> storage = new LongKeyMap<>();
+        private final LongKeyMap<MapEntryImpl<FH, V>> storage;
 
-        synchronized void insert(FH factHandle, V value) {
+        Storage(boolean threadSafe) {
+            this.storage = new LongKeyMap<>(threadSafe);
+        }
+
+        void insert(FH factHandle, V value) {
             storage.put(factHandle.getId(), new MapEntryImpl<>(factHandle, value));
         }
 
-        synchronized V remove(FH factHandle) {
+        V remove(FH factHandle) {
             MapEntryImpl<FH, V> found = storage.remove(factHandle.getId());
             return found == null ? null : found.getValue();
         }
@@ -54,8 +69,30 @@ public class DefaultFactStorage<FH extends FactHandle, V> implements FactStorage
             return found == null ? null : found.getValue();
         }
 
-        synchronized void clear() {
+        void clear() {
             this.storage.clear();
         }
     }
+
+    private static class SynchronizedStorage<FH extends FactHandle, V> extends Storage<FH, V> {
+
+        SynchronizedStorage() {
+            super(true);
+        }
+
+        @Override
+        synchronized void insert(FH factHandle, V value) {
+            super.insert(factHandle, value);
+        }
+
+        @Override
+        synchronized V remove(FH factHandle) {
+            return super.remove(factHandle);
+        }
+
+        @Override
+        synchronized void clear() {
+            super.clear();
+        }
+    }
 }
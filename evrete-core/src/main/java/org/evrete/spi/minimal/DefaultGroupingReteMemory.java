@@ -8,8 +8,26 @@ import java.util.*;
 import java.util.stream.Stream;
 
 public class DefaultGroupingReteMemory<V> implements GroupingReteMemory<V> {
-    private MemoryImpl<V> main = new MemoryImpl<>();
-    private MemoryImpl<V> delta = new MemoryImpl<>();
+    private final boolean threadSafe;
+    private MemoryImpl<V> main;
+    private MemoryImpl<V> delta;
+
+    public DefaultGroupingReteMemory() {
+        this(true);
+    }
+
+    /**
+     * @param threadSafe whether the memory can be modified concurrently
+     */
+    public DefaultGroupingReteMemory(boolean threadSafe) {
+        this.threadSafe = threadSafe;
+        this.main = newMemory();
+        this.delta = newMemory();
+    }
+
+    private MemoryImpl<V> newMemory() {
+        return threadSafe ? new SynchronizedMemoryImpl<>() : new MemoryImpl<>();
+    }
 
     MemoryImpl<V> getMain() {
         return main;
@@ -46,7 +64,7 @@ public class DefaultGroupingReteMemory<V> implements GroupingReteMemory<V> {
             });
 
             // Clearing the delta memory
-            this.delta = new MemoryImpl<>();
+            this.delta = newMemory();
         }
     }
 
@@ -116,18 +134,18 @@ public class DefaultGroupingReteMemory<V> implements GroupingReteMemory<V> {
         MemoryImpl() {
         }
 
-        private MemoryImpl(MemoryImpl<V> m) {
+        MemoryImpl(MemoryImpl<V> m) {
             super(m);
         }
 
-        synchronized void insert(long key, V value) {
+        void insert(long key, V value) {
             computeIfAbsent(
                     key,
                     k -> new ValueCollection<>()
             ).add(value);
         }
 
-        synchronized void delete(long key, V value) {
+        void delete(long key, V value) {
             ValueCollection<V> v = get(key);
             if(v != null) {
                 v.remove(value);
@@ -137,7 +155,7 @@ public class DefaultGroupingReteMemory<V> implements GroupingReteMemory<V> {
             }
         }
 
-        synchronized MemoryImpl<V> copy() {
+        MemoryImpl<V> copy() {
             return new MemoryImpl<>(this);
         }
 
@@ -203,4 +221,30 @@ public class DefaultGroupingReteMemory<V> implements GroupingReteMemory<V> {
             return delegate.toString();
         }
     }
+
+    static class SynchronizedMemoryImpl<V> extends MemoryImpl<V> {
+        private static final long serialVersionUID = 2761946402583183946L;
+
+        SynchronizedMemoryImpl() {
+        }
+
+        private SynchronizedMemoryImpl(MemoryImpl<V> m) {
+            super(m);
+        }
+
+        @Override
+        synchronized void insert(long key, V value) {
+            super.insert(key, value);
+        }
+
+        @Override
+        synchronized void delete(long key, V value) {
+            super.delete(key, value);
+        }
+
+        @Override
+        synchronized MemoryImpl<V> copy() {
+            return new SynchronizedMemoryImpl<>(this);
+        }
+    }
 }
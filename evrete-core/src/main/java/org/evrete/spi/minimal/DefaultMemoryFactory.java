@@ -7,19 +7,32 @@ import org.evrete.api.spi.MemoryFactory;
 import org.evrete.api.spi.ValueIndexer;
 
 public class DefaultMemoryFactory<FH extends FactHandle> implements MemoryFactory<FH> {
+    private final boolean threadSafe;
+
+    public DefaultMemoryFactory() {
+        this(true);
+    }
+
+    /**
+     * @param threadSafe whether the created memories can be modified concurrently. Thread-confined
+     *                   sessions use unsynchronized memories.
+     */
+    public DefaultMemoryFactory(boolean threadSafe) {
+        this.threadSafe = threadSafe;
+    }
 
     @Override
     public <V> FactStorage<FH, V> newFactStorage(Class<V> valueType) {
-        return new DefaultFactStorage<>();
+        return new DefaultFactStorage<>(threadSafe);
     }
 
     @Override
     public GroupingReteMemory<FH> newGroupedFactStorage(Class<FH> keyType) {
-        return new DefaultGroupingReteMemory<>();
+        return new DefaultGroupingReteMemory<>(threadSafe);
     }
 
     @Override
     public <T> ValueIndexer<T> newValueIndexed(Class<T> valueType) {
-        return new DefaultValueIndexer<>();
+        return new DefaultValueIndexer<>(threadSafe);
     }
 }
@@ -1,5 +1,6 @@
 package org.evrete.spi.minimal;
 
+import org.evrete.Configuration;
 import org.evrete.api.FactHandle;
 import org.evrete.api.RuntimeContext;
 import org.evrete.api.spi.MemoryFactory;
@@ -10,6 +11,7 @@ public class DefaultMemoryFactoryProvider extends LeastImportantServiceProvider
 
     @Override
     public <FH extends FactHandle> MemoryFactory<FH> instance(RuntimeContext<?> context, Class<FH> factHandleType) {
-        return new DefaultMemoryFactory<>();
+        boolean threadConfined = context.getConfiguration().getAsBoolean(Configuration.THREAD_CONFINED, Configuration.THREAD_CONFINED_DEFAULT);
+        return new DefaultMemoryFactory<>(!threadConfined);
     }
 }
@@ -1,14 +1,55 @@
 package org.evrete.spi.minimal;
 
+import org.evrete.Configuration;
 import org.evrete.api.spi.SourceCompiler;
 import org.evrete.api.spi.SourceCompilerProvider;
 import org.evrete.spi.minimal.compiler.DefaultSourceCompiler;
+import org.evrete.spi.minimal.compiler.JavaCompilerService;
 
+import java.nio.file.Paths;
+
+/**
+ * The default provider of source compilers. Compilers created by the same provider share
+ * the compiler state, see {@link JavaCompilerService}.
+ */
 public class DefaultSourceCompilerProvider implements SourceCompilerProvider {
+    private volatile JavaCompilerService service;
 
     @Override
     public SourceCompiler instance(ClassLoader classLoader) {
-        return new DefaultSourceCompiler(classLoader);
+        return new DefaultSourceCompiler(service(), classLoader, null);
+    }
+
+    @Override
+    public SourceCompiler instance(ClassLoader classLoader, Configuration configuration) {
+        String cacheDir = configuration.getProperty(Configuration.COMPILER_CACHE_DIR);
+        if (cacheDir == null || cacheDir.trim().isEmpty()) {
+            return new DefaultSourceCompiler(service(), classLoader, null);
+        } else {
+            return new DefaultSourceCompiler(service(), classLoader, Paths.get(cacheDir.trim()));
+        }
+    }
+
+    @Override
+    public void invalidateCaches() {
+        JavaCompilerService current = this.service;
+        if (current != null) {
+            current.invalidate();
+        }
+    }
+
+    private JavaCompilerService service() {
+        JavaCompilerService current = this.service;
+        if (current == null) {
+            synchronized (this) {
+                current = this.service;
+                if (current == null) {
+                    current = new JavaCompilerService();
+                    this.service = current;
+                }
+            }
+        }
+        return current;
     }
 
     @Override
@@ -6,6 +6,7 @@ import org.evrete.api.annotations.NonNull;
 import org.evrete.api.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 class DefaultTypeResolver implements TypeResolver {
@@ -13,8 +14,14 @@ class DefaultTypeResolver implements TypeResolver {
     private final Map<String, Type<?>> typeDeclarationMap = new HashMap<>();
     private final Map<Class<?>, Collection<Type<?>>> typesByJavaType = new HashMap<>();
 
-    private final Map<String, TypeCacheEntry> typeInheritanceCache = new HashMap<>();
     private final ClassLoader classLoader;
+    /**
+     * Lock-free per-class resolution cache. A new instance is assigned each time
+     * a type is declared, which effectively invalidates all previously resolved entries.
+     * Unlike a {@link ClassValue}, the map is owned by the resolver, so resolved types
+     * don't stay attached to the Java classes after the resolver is gone.
+     */
+    private volatile Map<Class<?>, TypeCacheEntry> resolutionCache = new ConcurrentHashMap<>();
 
     DefaultTypeResolver(ClassLoader classLoader) {
         this.classLoader = classLoader;
@@ -114,7 +121,7 @@ class DefaultTypeResolver implements TypeResolver {
                         type.getJavaClass(),
                         k -> new ArrayList<>())
                 .add(type);
-        typeInheritanceCache.clear();
+        this.resolutionCache = new ConcurrentHashMap<>();
         return type;
 
     }
@@ -155,34 +162,38 @@ class DefaultTypeResolver implements TypeResolver {
 
 
     @Override
-    @SuppressWarnings("unchecked")
     public <T> Type<T> resolve(Object o) {
         Objects.requireNonNull(o);
-        Class<?> javaType = o.getClass();
+        return resolveByJavaType(o.getClass());
+    }
 
-        Collection<Type<?>> associatedTypes = typesByJavaType.getOrDefault(javaType, Collections.emptySet());
-        if (associatedTypes.isEmpty()) {
-            String name = Type.logicalNameOf(javaType);
-            // There is no direct match, but there might be a registered super class that can be used instead
-            TypeCacheEntry cacheEntry = typeInheritanceCache.get(name);
-            if (cacheEntry == null) {
-                synchronized (this) {
-                    cacheEntry = typeInheritanceCache.get(name);
-                    if (cacheEntry == null) {
-                        cacheEntry = new TypeCacheEntry(findInSuperClasses(javaType));
-                        typeInheritanceCache.put(name, cacheEntry);
-                    }
-                }
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Type<T> resolveByJavaType(Class<?> javaType) {
+        Map<Class<?>, TypeCacheEntry> cache = this.resolutionCache;
+        TypeCacheEntry entry = cache.get(javaType);
+        if (entry == null) {
+            // Resolving outside the map's locks, a concurrent declaration replaces the whole map anyway
+            entry = resolveUncached(javaType);
+            TypeCacheEntry existing = cache.putIfAbsent(javaType, entry);
+            if (existing != null) {
+                entry = existing;
             }
-            return (TypeImpl<T>) cacheEntry.type;
+        }
+        return (Type<T>) entry.type;
+    }
 
-        } else {
-            if (associatedTypes.size() > 1) {
+    private synchronized TypeCacheEntry resolveUncached(Class<?> javaType) {
+        Collection<Type<?>> associatedTypes = typesByJavaType.getOrDefault(javaType, Collections.emptySet());
+        switch (associatedTypes.size()) {
+            case 0:
+                // There is no direct match, but there might be a registered super class that can be used instead
+                return new TypeCacheEntry(findInSuperClasses(javaType));
+            case 1:
+                return new TypeCacheEntry(associatedTypes.iterator().next());
+            default:
                 LOGGER.warning(()->"Ambiguous type declaration found, there are " + associatedTypes.size() + " types associated with the '" + javaType.getName() + "' Java type, returning <null>.");
-                return null;
-            } else {
-                return (Type<T>) associatedTypes.iterator().next();
-            }
+                return new TypeCacheEntry(null);
         }
     }
 
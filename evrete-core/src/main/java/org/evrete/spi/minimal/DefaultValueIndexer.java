@@ -5,14 +5,28 @@ import org.evrete.api.annotations.Nullable;
 import org.evrete.api.spi.ValueIndexer;
 import org.evrete.collections.LongKeyMap;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class DefaultValueIndexer<T> implements ValueIndexer<T> {
-    private final ConcurrentHashMap<T, Long> valueToLong = new ConcurrentHashMap<>();
-    private final LongKeyMap<T> longToValue = new LongKeyMap<>();
+    private final Map<T, Long> valueToLong;
+    private final LongKeyMap<T> longToValue;
     private final AtomicLong counter = new AtomicLong();
 
+    public DefaultValueIndexer() {
+        this(true);
+    }
+
+    /**
+     * @param threadSafe whether the indexer can be accessed concurrently
+     */
+    public DefaultValueIndexer(boolean threadSafe) {
+        this.valueToLong = threadSafe ? new ConcurrentHashMap<>() : new HashMap<>();
+        this.longToValue = new LongKeyMap<>(threadSafe);
+    }
+
     @Override
     public long getOrCreateId(@NonNull T value) {
         return valueToLong.computeIfAbsent(value, k -> {
@@ -59,7 +73,7 @@ public class DefaultValueIndexer<T> implements ValueIndexer<T> {
         this.counter.set(0);
     }
 
-    ConcurrentHashMap<T, Long> getValueToLong() {
+    Map<T, Long> getValueToLong() {
         return valueToLong;
     }
 
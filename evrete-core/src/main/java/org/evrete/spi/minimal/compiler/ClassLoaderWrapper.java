@@ -3,6 +3,8 @@ package org.evrete.spi.minimal.compiler;
 import javax.tools.JavaFileObject;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.*;
 import java.util.function.Consumer;
 
@@ -51,6 +53,20 @@ class ClassLoaderWrapper extends ClassLoader {
         }
     }
 
+    /**
+     * Wrappers don't add any resources of their own, so class path resources of this class loader are
+     * those of its closest ancestor that is not a wrapper.
+     *
+     * @return the closest ancestor that is not a wrapper, or the topmost wrapper if there is none
+     */
+    ClassLoader getClassPathLoader() {
+        ClassLoader current = this;
+        while (current instanceof ClassLoaderWrapper && current.getParent() != null) {
+            current = current.getParent();
+        }
+        return current;
+    }
+
     Collection<JavaFileObject> getLocallyDefinedClasses(String packageName) {
         return this.fileObjects.getOrDefault(packageName, Collections.emptyList());
     }
@@ -62,6 +78,20 @@ class ClassLoaderWrapper extends ClassLoader {
         this.fileObjects.computeIfAbsent(packageName, k -> new ArrayList<>()).add(new ClassPathJavaObject(defined, classBytes));
     }
 
+    /**
+     * Adds the names and bytecode of the locally defined classes to the digest
+     *
+     * @param digest the digest to update
+     */
+    void updateDigest(MessageDigest digest) {
+        List<String> names = new ArrayList<>(classDefinitions.keySet());
+        Collections.sort(names);
+        for (String name : names) {
+            digest.update(name.getBytes(StandardCharsets.UTF_8));
+            digest.update(classDefinitions.get(name));
+        }
+    }
+
     private String packageNameOf(String className) {
         int lastDot = className.lastIndexOf('.');
         return (lastDot == -1) ? null : className.substring(0, lastDot);
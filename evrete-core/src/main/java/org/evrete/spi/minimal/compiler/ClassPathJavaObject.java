@@ -9,18 +9,31 @@ import java.net.URI;
 class ClassPathJavaObject extends AbstractJavaObject {
     private final byte[] bytes;
 
+    private final String binaryName;
+    // Either the class or its simple name is known, index entries store names only to not retain class loaders
     private final Class<?> clazz;
+    private final String simpleName;
     private final URI uri;
 
     ClassPathJavaObject(Class<?> cl, byte[] bytes) {
+        this(cl.getName(), cl, null, bytes);
+    }
+
+    ClassPathJavaObject(String binaryName, String simpleName, byte[] bytes) {
+        this(binaryName, null, simpleName, bytes);
+    }
+
+    private ClassPathJavaObject(String binaryName, Class<?> clazz, String simpleName, byte[] bytes) {
         this.bytes = bytes;
-        this.clazz = cl;
-        this.uri = URI.create("class:///" + cl.getName().replaceAll("\\.", "/") + "." + Kind.CLASS.extension);
+        this.binaryName = binaryName;
+        this.clazz = clazz;
+        this.simpleName = simpleName;
+        this.uri = URI.create("class:///" + binaryName.replaceAll("\\.", "/") + "." + Kind.CLASS.extension);
     }
 
     @Override
     public boolean isNameCompatible(String simpleName, Kind kind) {
-        return kind.equals(getKind()) && simpleName.equals(this.clazz.getSimpleName());
+        return kind.equals(getKind()) && simpleName.equals(this.clazz == null ? this.simpleName : this.clazz.getSimpleName());
     }
 
     @Override
@@ -45,7 +58,7 @@ class ClassPathJavaObject extends AbstractJavaObject {
 
     @Override
     String getBinaryName() {
-        return clazz.getName();
+        return binaryName;
     }
 
     @Override
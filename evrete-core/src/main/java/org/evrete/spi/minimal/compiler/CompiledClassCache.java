@@ -0,0 +1,244 @@
+package org.evrete.spi.minimal.compiler;
+
+import org.evrete.api.spi.SourceCompiler;
+import org.evrete.util.ClassSourceUtils;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * Content-addressed on-disk storage of compiled classes. Each entry holds the bytecode of a single
+ * compilation unit, including its nested classes, and is keyed by a hash of the unit's Java source,
+ * the JDK version, and a fingerprint of the classpath that the source is compiled against.
+ * </p>
+ * <p>
+ * Rule classes are named after {@link ClassSourceUtils#key(SourceCompiler.ClassSource)} of their sources,
+ * so the keys don't depend on the order in which the classes have been generated.
+ * </p>
+ * <p>
+ * Entries are written to temporary files and then moved in place, so concurrent JVMs may share the same
+ * directory. Unreadable or corrupted entries are treated as cache misses.
+ * </p>
+ */
+class CompiledClassCache {
+    private static final Logger LOGGER = Logger.getLogger(CompiledClassCache.class.getName());
+    private static final String FILE_EXTENSION = ".classes";
+    private static final int FORMAT_VERSION = 1;
+    private static final Map<String, String> FILE_STAMPS = new ConcurrentHashMap<>();
+    private static final String ENVIRONMENT_FINGERPRINT = environmentFingerprint();
+
+    private final Path directory;
+
+    CompiledClassCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Computes the fingerprint of everything the sources are compiled against: the JDK, the class path,
+     * and the classes defined by the class loader and its ancestors. The fingerprint is computed once
+     * per compilation and then combined with the hash of each source.
+     *
+     * @param classLoader the class loader the sources are compiled against
+     * @return the fingerprint
+     */
+    String classPathFingerprint(ClassLoaderWrapper classLoader) {
+        MessageDigest digest = newDigest();
+        update(digest, ENVIRONMENT_FINGERPRINT);
+        classLoader.walk(wrapper -> wrapper.updateDigest(digest));
+        for (ClassLoader current = classLoader.getParent(); current != null; current = current.getParent()) {
+            if (current instanceof URLClassLoader) {
+                for (URL url : ((URLClassLoader) current).getURLs()) {
+                    update(digest, url.toString());
+                    update(digest, urlStamp(url));
+                }
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Computes the cache key of a compilation unit.
+     *
+     * @param classPathFingerprint the result of {@link #classPathFingerprint(ClassLoaderWrapper)}
+     * @param source               the compilation unit
+     * @return the cache key
+     */
+    String key(String classPathFingerprint, SourceCompiler.ClassSource source) {
+        MessageDigest digest = newDigest();
+        update(digest, classPathFingerprint);
+        update(digest, source.binaryName());
+        update(digest, ClassSourceUtils.key(source));
+        return toHex(digest.digest());
+    }
+
+    /**
+     * @param key the cache key
+     * @return the cached classes by their binary names, or {@code null} if there's no valid entry
+     */
+    Map<String, byte[]> load(String key) {
+        Path file = directory.resolve(key + FILE_EXTENSION);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            int count = in.readInt();
+            Map<String, byte[]> classes = new LinkedHashMap<>(count);
+            for (int i = 0; i < count; i++) {
+                String binaryName = in.readUTF();
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                classes.put(binaryName, bytes);
+            }
+            return classes;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, e, () -> "Ignoring unreadable compiled class cache entry " + file);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the compiled classes of a compilation unit. Failures are logged and otherwise ignored.
+     *
+     * @param key     the cache key
+     * @param classes the unit's classes by their binary names
+     */
+    void store(String key, Map<String, byte[]> classes) {
+        Path tmp = null;
+        try {
+            Files.createDirectories(directory);
+            tmp = Files.createTempFile(directory, key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(classes.size());
+                for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().length);
+                    out.write(entry.getValue());
+                }
+            }
+            Path file = directory.resolve(key + FILE_EXTENSION);
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, e, () -> "Unable to store compiled classes in " + directory);
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // Nothing to do
+                }
+            }
+        }
+    }
+
+    private static String environmentFingerprint() {
+        StringBuilder sb = new StringBuilder(1024);
+        sb.append(System.getProperty("java.version")).append('\n');
+        sb.append(System.getProperty("java.vendor")).append('\n');
+        for (String property : new String[]{"java.class.path", "jdk.module.path"}) {
+            String value = System.getProperty(property);
+            if (value != null) {
+                for (String entry : value.split(File.pathSeparator)) {
+                    if (!entry.isEmpty()) {
+                        sb.append(entry).append(':').append(fileStamp(Paths.get(entry))).append('\n');
+                    }
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String urlStamp(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return "n/a";
+        }
+        return FILE_STAMPS.computeIfAbsent(url.toString(), k -> {
+            try {
+                return fileStamp(Paths.get(url.toURI()));
+            } catch (URISyntaxException | RuntimeException e) {
+                return "n/a";
+            }
+        });
+    }
+
+    /**
+     * Fingerprints a class path entry. Directories are stamped by the relative paths, sizes, and
+     * modification times of all the files they contain, archives by their own size and modification time.
+     *
+     * @param path the class path entry
+     * @return the entry's stamp
+     */
+    static String fileStamp(Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attributes.isDirectory()) {
+                return stamp(attributes);
+            }
+            SortedMap<String, String> files = new TreeMap<>();
+            try (Stream<Path> tree = Files.walk(path)) {
+                tree.forEach(file -> {
+                    try {
+                        BasicFileAttributes fileAttributes = Files.readAttributes(file, BasicFileAttributes.class);
+                        if (fileAttributes.isRegularFile()) {
+                            files.put(path.relativize(file).toString(), stamp(fileAttributes));
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            MessageDigest digest = newDigest();
+            for (Map.Entry<String, String> entry : files.entrySet()) {
+                update(digest, entry.getKey());
+                update(digest, entry.getValue());
+            }
+            return toHex(digest.digest());
+        } catch (IOException | RuntimeException e) {
+            return "n/a";
+        }
+    }
+
+    private static String stamp(BasicFileAttributes attributes) {
+        return attributes.size() + "/" + attributes.lastModifiedTime().toMillis();
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
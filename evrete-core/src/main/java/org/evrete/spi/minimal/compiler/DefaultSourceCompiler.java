@@ -3,19 +3,36 @@ package org.evrete.spi.minimal.compiler;
 import org.evrete.util.CompilationException;
 
 import javax.tools.*;
-import java.io.IOException;
-import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.stream.Collectors;
 
 public class DefaultSourceCompiler implements org.evrete.api.spi.SourceCompiler {
-    private final static String COMPILER_PARAM_OPTION = "-parameters";
+    private final JavaCompilerService service;
     private final ClassLoaderWrapper classLoader;
-    private final JavaCompiler compiler;
+    private final CompiledClassCache cache;
 
     public DefaultSourceCompiler(ClassLoader classLoader) {
+        this(classLoader, null);
+    }
+
+    /**
+     * @param classLoader    the parent class loader of compiled classes
+     * @param cacheDirectory the directory of the compiled class cache, or {@code null} if caching is disabled
+     */
+    public DefaultSourceCompiler(ClassLoader classLoader, Path cacheDirectory) {
+        this(new JavaCompilerService(), classLoader, cacheDirectory);
+    }
+
+    /**
+     * @param service        the shared compiler state
+     * @param classLoader    the parent class loader of compiled classes
+     * @param cacheDirectory the directory of the compiled class cache, or {@code null} if caching is disabled
+     */
+    public DefaultSourceCompiler(JavaCompilerService service, ClassLoader classLoader, Path cacheDirectory) {
+        this.service = service;
         this.classLoader = new ClassLoaderWrapper(classLoader);
-        this.compiler = Objects.requireNonNull(ToolProvider.getSystemJavaCompiler(), "No Java compiler provided by this platform");
+        this.cache = cacheDirectory == null ? null : new CompiledClassCache(cacheDirectory);
     }
 
     @Override
@@ -24,90 +41,144 @@ public class DefaultSourceCompiler implements org.evrete.api.spi.SourceCompiler
         for (S s : sources) {
             sourcesByClassName.put(s.binaryName(), s);
         }
-        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
-        try (StandardJavaFileManager systemFm = compiler.getStandardFileManager(diagnostics, null, null)) {
 
-            Collection<JavaSourceObject> parsedSources = sources.stream().map(JavaSourceObject::new).collect(Collectors.toList());
+        Collection<String> binaryNames = new LinkedList<>();
+        Collection<S> toCompile = sources;
+        Map<String, String> cacheKeys = null;
+        if (cache != null) {
+            // Keys must be computed before any of the cached classes are defined
+            String classPathFingerprint = cache.classPathFingerprint(classLoader);
+            cacheKeys = new HashMap<>(sources.size());
+            for (S s : sources) {
+                cacheKeys.put(s.binaryName(), cache.key(classPathFingerprint, s));
+            }
 
-            try (InMemoryFileManager fm = new InMemoryFileManager(systemFm, classLoader)) {
-
-                // Does compiler support the "-parameters" option?
-                List<String> parameters = compiler.isSupportedOption(COMPILER_PARAM_OPTION) < 0 ?
-                        Collections.emptyList()
-                        :
-                        Collections.singletonList(COMPILER_PARAM_OPTION);
-
-
-                boolean success = compiler.getTask(
-                        null,
-                        fm,
-                        diagnostics,
-                        parameters,
-                        null,
-                        parsedSources
-                ).call();
-
-                if (success) {
-                    Collection<String> binaryNames = new LinkedList<>();
-                    for (DestinationClassObject compiled : fm.getOutput()) {
-                        classLoader.defineNewClass(compiled.getBinaryName(), compiled.getBytes());
-                        binaryNames.add(compiled.getBinaryName());
+            toCompile = new ArrayList<>(sources.size());
+            for (S s : sources) {
+                Map<String, byte[]> cached = cache.load(cacheKeys.get(s.binaryName()));
+                if (cached == null) {
+                    toCompile.add(s);
+                } else {
+                    for (Map.Entry<String, byte[]> entry : cached.entrySet()) {
+                        classLoader.defineNewClass(entry.getKey(), entry.getValue());
+                        binaryNames.add(entry.getKey());
                     }
+                }
+            }
+        }
 
-                    Collection<Class<?>> compiled = new ArrayList<>(binaryNames.size());
-                    for (String binaryName : binaryNames) {
-                        try {
-                            Class<?> cl = Class.forName(binaryName, false, classLoader);
-                            compiled.add(cl);
-                        } catch (ClassNotFoundException e) {
-                            throw new IllegalStateException("Class has been compiled, but can not be resolved", e);
-                        }
-                    }
+        if (!toCompile.isEmpty()) {
+            binaryNames.addAll(compileSources(toCompile, cacheKeys));
+        }
 
-                    return compiled.stream()
-                            .map(cl -> {
-                                String binaryName = cl.getName();
-                                final S source = sourcesByClassName.get(binaryName);
-                                if (source == null) {
-                                    return null;
-                                } else {
-                                    return new Result<S>() {
-                                        @Override
-                                        public S getSource() {
-                                            return source;
-                                        }
-
-                                        @Override
-                                        public Class<?> getCompiledClass() {
-                                            return cl;
-                                        }
-                                    };
-                                }
-                            })
-                            .filter(Objects::nonNull)
-                            .collect(Collectors.toList());
-                } else {
-                    List<String> otherErrors = new LinkedList<>();
-                    Map<ClassSource, List<String>> errorSources = new IdentityHashMap<>();
-                    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
-                        if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
-                            JavaFileObject errorSource = diagnostic.getSource();
-                            String err = diagnostic.toString();
-                            if (errorSource instanceof JavaSourceObject) {
-                                JavaSourceObject javaSource = (JavaSourceObject) errorSource;
-                                errorSources
-                                        .computeIfAbsent(javaSource.getSource(), k -> new ArrayList<>())
-                                        .add(err);
-                            } else {
-                                otherErrors.add(err);
+        Collection<Class<?>> compiled = new ArrayList<>(binaryNames.size());
+        for (String binaryName : binaryNames) {
+            try {
+                Class<?> cl = Class.forName(binaryName, false, classLoader);
+                compiled.add(cl);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("Class has been compiled, but can not be resolved", e);
+            }
+        }
+
+        return compiled.stream()
+                .map(cl -> {
+                    String binaryName = cl.getName();
+                    final S source = sourcesByClassName.get(binaryName);
+                    if (source == null) {
+                        return null;
+                    } else {
+                        return new Result<S>() {
+                            @Override
+                            public S getSource() {
+                                return source;
+                            }
+
+                            @Override
+                            public Class<?> getCompiledClass() {
+                                return cl;
                             }
+                        };
+                    }
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Compiles the sources with the Java compiler and defines the resulting classes.
+     *
+     * @param sources   the sources to compile
+     * @param cacheKeys cache keys by top-level class names, or {@code null} if caching is disabled
+     * @return binary names of the defined classes
+     * @throws CompilationException if compilation failed
+     */
+    private Collection<String> compileSources(Collection<? extends ClassSource> sources, Map<String, String> cacheKeys) throws CompilationException {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        // The borrowed file manager is returned to the pool rather than closed
+        StandardJavaFileManager systemFm = service.borrowFileManager();
+        try {
+            Collection<JavaSourceObject> parsedSources = sources.stream().map(JavaSourceObject::new).collect(Collectors.toList());
+
+            PackageExplorer packageIndex = service.packageIndex(classLoader.getClassPathLoader());
+            InMemoryFileManager fm = new InMemoryFileManager(systemFm, classLoader, packageIndex);
+            boolean success = service.getCompiler().getTask(
+                    null,
+                    fm,
+                    diagnostics,
+                    service.getOptions(),
+                    null,
+                    parsedSources
+            ).call();
+
+            if (success) {
+                Collection<String> binaryNames = new LinkedList<>();
+                Map<String, Map<String, byte[]>> classesByUnit = new HashMap<>();
+                for (DestinationClassObject compiled : fm.getOutput()) {
+                    classLoader.defineNewClass(compiled.getBinaryName(), compiled.getBytes());
+                    binaryNames.add(compiled.getBinaryName());
+                    classesByUnit
+                            .computeIfAbsent(topLevelName(compiled.getBinaryName()), k -> new LinkedHashMap<>())
+                            .put(compiled.getBinaryName(), compiled.getBytes());
+                }
+
+                // Sources with extra top-level classes can't be attributed, such batches are not cached
+                if (cacheKeys != null && cacheKeys.keySet().containsAll(classesByUnit.keySet())) {
+                    for (Map.Entry<String, Map<String, byte[]>> entry : classesByUnit.entrySet()) {
+                        String key = cacheKeys.get(entry.getKey());
+                        if (key != null) {
+                            cache.store(key, entry.getValue());
+                        }
+                    }
+                }
+                return binaryNames;
+            } else {
+                List<String> otherErrors = new LinkedList<>();
+                Map<ClassSource, List<String>> errorSources = new IdentityHashMap<>();
+                for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                    if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                        JavaFileObject errorSource = diagnostic.getSource();
+                        String err = diagnostic.toString();
+                        if (errorSource instanceof JavaSourceObject) {
+                            JavaSourceObject javaSource = (JavaSourceObject) errorSource;
+                            errorSources
+                                    .computeIfAbsent(javaSource.getSource(), k -> new ArrayList<>())
+                                    .add(err);
+                        } else {
+                            otherErrors.add(err);
                         }
                     }
-                    throw new CompilationException(otherErrors, errorSources);
                 }
+                throw new CompilationException(otherErrors, errorSources);
             }
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+        } finally {
+            service.returnFileManager(systemFm);
         }
     }
+
+    private static String topLevelName(String binaryName) {
+        int lastDot = binaryName.lastIndexOf('.');
+        int nested = binaryName.indexOf('$', lastDot + 1);
+        return nested < 0 ? binaryName : binaryName.substring(0, nested);
+    }
 }
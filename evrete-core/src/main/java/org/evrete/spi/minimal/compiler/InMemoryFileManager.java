@@ -17,10 +17,10 @@ final class InMemoryFileManager extends ForwardingJavaFileManager<JavaFileManage
 
     private final Collection<DestinationClassObject> output = new LinkedList<>();
 
-    InMemoryFileManager(JavaFileManager fileManager, ClassLoaderWrapper classLoader) {
+    InMemoryFileManager(JavaFileManager fileManager, ClassLoaderWrapper classLoader, PackageExplorer finder) {
         super(fileManager);
         this.classLoader = classLoader;
-        this.finder = new PackageExplorer(classLoader);
+        this.finder = finder;
     }
 
     Collection<DestinationClassObject> getOutput() {
@@ -56,7 +56,7 @@ final class InMemoryFileManager extends ForwardingJavaFileManager<JavaFileManage
 
         defaultFiles.iterator().forEachRemaining(result::add);
         result.addAll(classLoader.getDefinedClasses(packageName));
-        result.addAll(finder.find(packageName));
+        result.addAll(finder.find(classLoader.getClassPathLoader(), packageName));
         return result;
     }
 
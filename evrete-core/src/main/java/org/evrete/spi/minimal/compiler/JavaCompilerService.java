@@ -0,0 +1,96 @@
+package org.evrete.spi.minimal.compiler;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * Long-lived compiler state that can be shared by {@link DefaultSourceCompiler} instances: the system
+ * Java compiler and its options, a pool of standard file managers, and indexes of class path packages
+ * per class loader.
+ * </p>
+ * <p>
+ * Standard file managers cache opened archives and directory listings, and are expensive to create,
+ * but they are not thread-safe. Each compilation borrows a file manager from the pool and returns it
+ * once done. Package indexes are weakly keyed by class loaders and are dropped along with them.
+ * </p>
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ */
+public class JavaCompilerService {
+    private static final Logger LOGGER = Logger.getLogger(JavaCompilerService.class.getName());
+    private final static String COMPILER_PARAM_OPTION = "-parameters";
+    private final JavaCompiler compiler;
+    private final List<String> options;
+    private final Queue<StandardJavaFileManager> fileManagers = new ConcurrentLinkedQueue<>();
+    private final Map<ClassLoader, PackageExplorer> packageIndexes = new WeakHashMap<>();
+
+    public JavaCompilerService() {
+        this.compiler = Objects.requireNonNull(ToolProvider.getSystemJavaCompiler(), "No Java compiler provided by this platform");
+        // Does compiler support the "-parameters" option?
+        this.options = compiler.isSupportedOption(COMPILER_PARAM_OPTION) < 0 ?
+                Collections.emptyList()
+                :
+                Collections.singletonList(COMPILER_PARAM_OPTION);
+    }
+
+    JavaCompiler getCompiler() {
+        return compiler;
+    }
+
+    List<String> getOptions() {
+        return options;
+    }
+
+    StandardJavaFileManager borrowFileManager() {
+        StandardJavaFileManager fileManager = fileManagers.poll();
+        return fileManager == null ? compiler.getStandardFileManager(null, null, null) : fileManager;
+    }
+
+    void returnFileManager(StandardJavaFileManager fileManager) {
+        fileManagers.offer(fileManager);
+    }
+
+    int pooledFileManagers() {
+        return fileManagers.size();
+    }
+
+    /**
+     * @param classLoader the class loader
+     * @return the index of class path packages as seen by the given class loader
+     */
+    PackageExplorer packageIndex(ClassLoader classLoader) {
+        synchronized (packageIndexes) {
+            return packageIndexes.computeIfAbsent(classLoader, k -> new PackageExplorer());
+        }
+    }
+
+    /**
+     * Drops cached package indexes and pooled file managers. Compilations that are in progress
+     * are not affected. Call this method if the contents of the class path have changed.
+     */
+    public void invalidate() {
+        synchronized (packageIndexes) {
+            for (PackageExplorer index : packageIndexes.values()) {
+                index.invalidate();
+            }
+            packageIndexes.clear();
+        }
+
+        StandardJavaFileManager fileManager;
+        while ((fileManager = fileManagers.poll()) != null) {
+            try {
+                fileManager.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to close file manager", e);
+            }
+        }
+    }
+}
@@ -15,6 +15,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.spi.FileSystemProvider;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
@@ -23,16 +24,15 @@ import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
+/**
+ * An index of class path packages as seen by a class loader. The index is meant to outlive single
+ * compilations and is safe for concurrent use. It holds no references to the class loader itself,
+ * so it can be stored in maps weakly keyed by class loaders.
+ */
 class PackageExplorer {
     private static final String CLASS_FILE_EXTENSION = ".class";
     private static final String CLASS_MODULE_INFO = "module-info.class";
-    private final Map<String, Collection<JavaFileObject>> cache = new HashMap<>();
-
-    private final ClassLoaderWrapper classLoader;
-
-    public PackageExplorer(ClassLoaderWrapper classLoader) {
-        this.classLoader = classLoader;
-    }
+    private final Map<String, List<JavaFileObject>> cache = new ConcurrentHashMap<>();
 
     private static Path uriToPath(URI uri) {
         String scheme = uri.getScheme();
@@ -53,17 +53,7 @@ class PackageExplorer {
         throw new FileSystemNotFoundException("Provider \"" + scheme + "\" not installed");
     }
 
-    private Collection<JavaFileObject> listUnder(String packageName, URL packageFolderURL) {
-        String key = packageName + packageFolderURL;
-        Collection<JavaFileObject> cached = cache.get(key);
-        if (cached == null) {
-            cached = new LinkedList<>(listUnderUncached(packageName, packageFolderURL));
-            cache.put(key, cached);
-        }
-        return cached;
-    }
-
-    private Collection<JavaFileObject> listUnderUncached(String packageName, URL packageURL) {
+    private static Collection<JavaFileObject> listUnder(ClassLoader classLoader, String packageName, URL packageURL) {
         Collection<JavaFileObject> result;
 
 
@@ -77,7 +67,7 @@ class PackageExplorer {
 
         if (connection instanceof JarURLConnection) {
             // Read from JarURLConnection
-            return asUrlConnection((JarURLConnection) connection);
+            return asUrlConnection(classLoader, (JarURLConnection) connection);
         }
 
         // Try as a filesystem resource
@@ -89,7 +79,7 @@ class PackageExplorer {
             try (InputStream stream = connection.getInputStream()) {
                 if (stream instanceof ZipInputStream) {
                     ZipInputStream zis = (ZipInputStream) stream;
-                    result = asZipInputStream(packageName, zis);
+                    result = asZipInputStream(classLoader, packageName, zis);
                 }
             } catch (IOException e) {
                 throw new UncheckedIOException(e);
@@ -104,7 +94,7 @@ class PackageExplorer {
     }
 
     @Nullable
-    private Collection<JavaFileObject> asFileResource(String packageName, URL packageFolderURL) {
+    private static Collection<JavaFileObject> asFileResource(String packageName, URL packageFolderURL) {
         try (Stream<Path> stream = Files.walk(uriToPath(packageFolderURL.toURI()), 1)) {
             return stream
                     .filter(path -> path.getFileName().toString().endsWith(CLASS_FILE_EXTENSION))
@@ -124,7 +114,7 @@ class PackageExplorer {
     }
 
     @NonNull
-    private Collection<JavaFileObject> asUrlConnection(JarURLConnection jarConn) {
+    private static Collection<JavaFileObject> asUrlConnection(ClassLoader classLoader, JarURLConnection jarConn) {
         try {
 
             String rootEntryName = jarConn.getEntryName();
@@ -149,7 +139,7 @@ class PackageExplorer {
 
                         byte[] bytes = CommonUtils.bytes(jarFile, entry);
                         try {
-                            return new ClassPathJavaObject(Class.forName(fileName, false, classLoader), bytes);
+                            return new ClassPathJavaObject(fileName, Class.forName(fileName, false, classLoader).getSimpleName(), bytes);
                         } catch (ClassNotFoundException e) {
                             throw new RuntimeException(e);
                         }
@@ -159,7 +149,7 @@ class PackageExplorer {
         }
     }
 
-    private Collection<JavaFileObject> asZipInputStream(String packageName, ZipInputStream zis) {
+    private static Collection<JavaFileObject> asZipInputStream(ClassLoader classLoader, String packageName, ZipInputStream zis) {
         ZipEntry entry;
         Collection<JavaFileObject> result = new LinkedList<>();
         try {
@@ -172,7 +162,7 @@ class PackageExplorer {
 
 
                         byte[] bytes = CommonUtils.toByteArray(zis);
-                        ClassPathJavaObject compiledClass = new ClassPathJavaObject(Class.forName(className, false, classLoader), bytes);
+                        ClassPathJavaObject compiledClass = new ClassPathJavaObject(className, Class.forName(className, false, classLoader).getSimpleName(), bytes);
                         result.add(compiledClass);
                     }
                 }
@@ -186,14 +176,43 @@ class PackageExplorer {
 
     }
 
-    List<JavaFileObject> find(String packageName) throws IOException {
+    /**
+     * Lists classes of the given package. Results are cached until {@link #invalidate()} is called.
+     *
+     * @param classLoader the class loader this index belongs to
+     * @param packageName the package name
+     * @return class files of the package
+     * @throws IOException if the class loader's resources can not be read
+     */
+    List<JavaFileObject> find(ClassLoader classLoader, String packageName) throws IOException {
+        List<JavaFileObject> cached = cache.get(packageName);
+        if (cached == null) {
+            // Concurrent scans of the same package are harmless, the first result wins
+            List<JavaFileObject> found = Collections.unmodifiableList(findUncached(classLoader, packageName));
+            cached = cache.putIfAbsent(packageName, found);
+            if (cached == null) {
+                cached = found;
+            }
+        }
+        return cached;
+    }
+
+    boolean isIndexed(String packageName) {
+        return cache.containsKey(packageName);
+    }
+
+    void invalidate() {
+        cache.clear();
+    }
+
+    private static List<JavaFileObject> findUncached(ClassLoader classLoader, String packageName) throws IOException {
         String javaPackageName = packageName.replaceAll("\\.", "/");
         List<JavaFileObject> result = new ArrayList<>();
         Enumeration<URL> resources = classLoader.getResources(javaPackageName);
         while (resources.hasMoreElements()) {
             // one URL for each jar on the classpath that has the given package
             URL url = resources.nextElement();
-            result.addAll(listUnder(packageName, url));
+            result.addAll(listUnder(classLoader, packageName, url));
         }
         return result;
     }
@@ -2,7 +2,11 @@ package org.evrete.util;
 
 import org.evrete.api.*;
 
+import java.util.Collection;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collector;
 import java.util.stream.Stream;
 
@@ -48,6 +52,42 @@ public abstract class AbstractSessionWrapper<S extends RuleSession<S>> extends R
         return delegate.insert0(type, fact, resolveCollections);
     }
 
+    @Override
+    public <T> S insertAll(Class<T> type, Collection<? extends T> facts) {
+        delegate.insertAll(type, facts);
+        return self();
+    }
+
+    @Override
+    public S insertAll(Spliterator<?> facts) {
+        delegate.insertAll(facts);
+        return self();
+    }
+
+    @Override
+    public <T> S deleteAll(Class<T> type, Predicate<? super T> filter) {
+        delegate.deleteAll(type, filter);
+        return self();
+    }
+
+    @Override
+    public <T> S deleteAll(String type, Predicate<T> filter) {
+        delegate.deleteAll(type, filter);
+        return self();
+    }
+
+    @Override
+    public <T> S updateAll(Class<T> type, Function<? super T, ?> updater) {
+        delegate.updateAll(type, updater);
+        return self();
+    }
+
+    @Override
+    public <T> S updateAll(String type, Function<T, ?> updater) {
+        delegate.updateAll(type, updater);
+        return self();
+    }
+
     @Override
     public Stream<Map.Entry<FactHandle, Object>> streamFactEntries() {
         return delegate.streamFactEntries();
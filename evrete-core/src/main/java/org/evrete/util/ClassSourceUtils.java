@@ -0,0 +1,129 @@
+package org.evrete.util;
+
+import org.evrete.api.spi.SourceCompiler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Utility methods for identifying compiled sources and their bytecode regardless of the names
+ * their classes were generated with. Sources are identified by a hash where the package declaration
+ * and every occurrence of the class's own simple name are excluded.
+ */
+public final class ClassSourceUtils {
+    public static final String CLASS_NAME_PLACEHOLDER = "${class}";
+    private static final Pattern PACKAGE_PATTERN = Pattern.compile("^\\s*package\\s+[\\w.]+\\s*;", Pattern.MULTILINE);
+
+    private ClassSourceUtils() {
+    }
+
+    /**
+     * Returns the source without its package declaration, where the class's simple name is
+     * replaced with the {@link #CLASS_NAME_PLACEHOLDER}.
+     *
+     * @param source     the Java source
+     * @param simpleName the simple name of the source's top-level class
+     * @return normalized source
+     */
+    public static String normalize(String source, String simpleName) {
+        String body = PACKAGE_PATTERN.matcher(source).replaceFirst("");
+        return Pattern.compile("\\b" + Pattern.quote(simpleName) + "\\b")
+                .matcher(body.replace("\r\n", "\n"))
+                .replaceAll(Matcher.quoteReplacement(CLASS_NAME_PLACEHOLDER));
+    }
+
+    /**
+     * @param source     the Java source
+     * @param simpleName the simple name of the source's top-level class
+     * @return the hex-encoded SHA-256 hash of the {@link #normalize(String, String) normalized} source
+     */
+    public static String key(String source, String simpleName) {
+        return sha256(normalize(source, simpleName));
+    }
+
+    /**
+     * @param source the class source
+     * @return the hex-encoded SHA-256 hash of the {@link #normalize(String, String) normalized} source
+     */
+    public static String key(SourceCompiler.ClassSource source) {
+        return key(source.getSource(), simpleName(source.binaryName()));
+    }
+
+    /**
+     * Restores a {@link #normalize(String, String) normalized} source under a new class name.
+     *
+     * @param normalized  the normalized source
+     * @param packageName the package of the class
+     * @param simpleName  the new simple name of the class
+     * @return Java source
+     */
+    public static String rename(String normalized, String packageName, String simpleName) {
+        return "package " + packageName + ";\n" + normalized.replace(CLASS_NAME_PLACEHOLDER, simpleName);
+    }
+
+    public static String simpleName(String binaryName) {
+        return binaryName.substring(binaryName.lastIndexOf('.') + 1);
+    }
+
+    public static String sha256(String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads the bytecode of a compiled class, and of its nested and anonymous classes, from the class's loader.
+     *
+     * @param compiledClass the top-level class
+     * @return bytecode by binary class names
+     * @throws IOException           if the bytecode can not be read
+     * @throws IllegalStateException if the class loader doesn't provide the bytecode
+     */
+    public static Map<String, byte[]> bytecode(Class<?> compiledClass) throws IOException {
+        ClassLoader loader = compiledClass.getClassLoader();
+        Map<String, byte[]> result = new LinkedHashMap<>();
+        Deque<Class<?>> classes = new ArrayDeque<>();
+        classes.add(compiledClass);
+        while (!classes.isEmpty()) {
+            Class<?> current = classes.poll();
+            classes.addAll(Arrays.asList(current.getDeclaredClasses()));
+            String name = current.getName();
+            byte[] bytes = classBytes(loader, name);
+            if (bytes == null) {
+                throw new IllegalStateException("Bytecode of '" + name + "' is not available");
+            }
+            result.put(name, bytes);
+            // Anonymous classes are numbered sequentially
+            byte[] anonymous;
+            for (int i = 1; (anonymous = classBytes(loader, name + "$" + i)) != null; i++) {
+                result.put(name + "$" + i, anonymous);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param loader     the class loader
+     * @param binaryName the binary name of a class
+     * @return the class's bytecode, or {@code null} if the loader doesn't provide it
+     * @throws IOException if the bytecode can not be read
+     */
+    public static byte[] classBytes(ClassLoader loader, String binaryName) throws IOException {
+        try (InputStream is = loader.getResourceAsStream(binaryName.replace('.', '/') + ".class")) {
+            return is == null ? null : CommonUtils.toByteArrayChecked(is);
+        }
+    }
+}
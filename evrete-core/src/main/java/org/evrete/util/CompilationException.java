@@ -23,6 +23,7 @@ public class CompilationException extends Exception {
 
     public void log(Logger logger, Level level) {
         for(SourceCompiler.ClassSource s : getErrorSources()) {
+            logger.log(level, "Failed source: " + s);
             List<String> sourceErrors = getErrorMessage(s);
             for (String error : sourceErrors) {
                 logger.log(level, error);
@@ -35,6 +36,10 @@ public class CompilationException extends Exception {
         }
     }
 
+    public List<String> getOtherErrors() {
+        return otherErrors;
+    }
+
     public Collection<SourceCompiler.ClassSource> getErrorSources() {
         return errorSources.keySet();
     }
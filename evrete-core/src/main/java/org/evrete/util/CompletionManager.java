@@ -35,8 +35,21 @@ public class CompletionManager<K, T> {
                 newFuture = existing.thenCompose(t -> mappingFunction.apply(key));
             }
 
-            final CompletableFuture<T> chained = newFuture.whenComplete((t, throwable) -> completions.remove(key));
+            // The entry must be registered before the removal callback is attached: the new future
+            // may already be complete, in which case the callback is executed right away.
+            final CompletableFuture<T> chained = new CompletableFuture<>();
             this.completions.put(key, chained);
+            newFuture.whenComplete((t, throwable) -> {
+                synchronized (this.completions) {
+                    // Removing only this entry, not the ones enqueued after it
+                    this.completions.remove(key, chained);
+                }
+                if (throwable == null) {
+                    chained.complete(t);
+                } else {
+                    chained.completeExceptionally(throwable);
+                }
+            });
             return chained;
 
         }
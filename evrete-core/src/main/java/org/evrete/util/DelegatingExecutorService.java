@@ -2,6 +2,7 @@ package org.evrete.util;
 
 import org.evrete.api.annotations.NonNull;
 
+import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -14,6 +15,11 @@ import java.util.logging.Logger;
  * If a {@code null} {@code ExecutorService} is provided, the wrapper will create its own instance.
  * The {@code shutdown} and {@code shutdownNow} methods will only operate on the internally
  * created {@code ExecutorService}.
+ * <p>
+ * Internal instances are created by one of the factory methods: a fixed thread pool with a shared queue
+ * (the default), a work-stealing {@link ForkJoinPool} in async mode, or, on Java 21 and later,
+ * an executor that starts a new virtual thread for each task.
+ * </p>
  */
 public class DelegatingExecutorService implements ExecutorService {
     private static final Logger LOGGER = Logger.getLogger(DelegatingExecutorService.class.getName());
@@ -37,8 +43,76 @@ public class DelegatingExecutorService implements ExecutorService {
      * @param threads  number of thread to use
      */
     public DelegatingExecutorService(int threads, boolean daemonThreads) {
-        this.delegate = Executors.newFixedThreadPool(threads, new CustomThreadFactory(daemonThreads));
-        this.externallySupplied = false;
+        this(Executors.newFixedThreadPool(threads, new CustomThreadFactory(daemonThreads)), false);
+    }
+
+    private DelegatingExecutorService(ExecutorService delegate, boolean externallySupplied) {
+        this.delegate = delegate;
+        this.externallySupplied = externallySupplied;
+    }
+
+    /**
+     * Creates an internal fixed-size thread pool. Tasks are executed in the order they are submitted.
+     *
+     * @param threads       number of threads to use
+     * @param daemonThreads whether the pool's threads are daemon threads
+     * @return new executor
+     */
+    public static DelegatingExecutorService fixedThreadPool(int threads, boolean daemonThreads) {
+        return new DelegatingExecutorService(threads, daemonThreads);
+    }
+
+    /**
+     * Creates an internal {@link ForkJoinPool} in async (FIFO) mode. Each thread keeps its own queue
+     * of the tasks it submits and steals tasks from other threads when idle.
+     *
+     * @param parallelism   the pool's target parallelism level
+     * @param daemonThreads whether the pool's threads are daemon threads
+     * @return new executor
+     */
+    public static DelegatingExecutorService forkJoinPool(int parallelism, boolean daemonThreads) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism, new CustomForkJoinThreadFactory(daemonThreads), null, true);
+        return new DelegatingExecutorService(pool, false);
+    }
+
+    /**
+     * Creates an internal executor that runs each task in a new virtual thread. Virtual threads are
+     * well suited for blocking (I/O-bound) rule actions, as a blocked task doesn't occupy a platform thread.
+     * Virtual threads are always daemon threads.
+     *
+     * @return new executor
+     * @throws UnsupportedOperationException if virtual threads are not available in the current JVM
+     */
+    public static DelegatingExecutorService virtualThreads() {
+        ExecutorService executor;
+        try {
+            // Virtual threads are a Java 21 feature, the core module targets Java 11
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            executor = (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Unable to create a virtual thread executor", e);
+        }
+        return new DelegatingExecutorService(executor, false);
+    }
+
+    /**
+     * Returns the current load of the underlying executor. Queue depth and thread counts are
+     * reported by thread pools and fork/join pools, other executors report unknown values.
+     *
+     * @return executor metrics
+     */
+    public ExecutorMetrics getMetrics() {
+        if (delegate instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) delegate;
+            return new ExecutorMetrics(pool.getQueue().size(), pool.getActiveCount(), pool.getPoolSize());
+        } else if (delegate instanceof ForkJoinPool) {
+            ForkJoinPool pool = (ForkJoinPool) delegate;
+            return new ExecutorMetrics(pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount(), pool.getActiveThreadCount(), pool.getPoolSize());
+        } else {
+            return new ExecutorMetrics(-1L, -1, -1);
+        }
     }
 
     @Override
@@ -127,6 +201,24 @@ public class DelegatingExecutorService implements ExecutorService {
         delegate.execute(command);
     }
 
+    static class CustomForkJoinThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+        private static final String PREFIX = "evrete-fj-thread";
+        private final AtomicInteger threadCount = new AtomicInteger(0);
+        private final boolean daemonThreads;
+
+        CustomForkJoinThreadFactory(boolean daemonThreads) {
+            this.daemonThreads = daemonThreads;
+        }
+
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(String.format("%s-%d", PREFIX, threadCount.getAndIncrement()));
+            thread.setDaemon(daemonThreads);
+            return thread;
+        }
+    }
+
     static class CustomThreadFactory implements ThreadFactory {
         private static final String PREFIX = "evrete-thread";
         private final AtomicInteger threadCount = new AtomicInteger(0);
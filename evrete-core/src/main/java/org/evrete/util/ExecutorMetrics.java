@@ -0,0 +1,52 @@
+package org.evrete.util;
+
+/**
+ * A point-in-time snapshot of the service executor's load. Values that the underlying executor
+ * doesn't report are set to {@code -1}.
+ *
+ * @see DelegatingExecutorService#getMetrics()
+ */
+public final class ExecutorMetrics {
+    private final long queuedTaskCount;
+    private final int activeThreadCount;
+    private final int poolSize;
+
+    ExecutorMetrics(long queuedTaskCount, int activeThreadCount, int poolSize) {
+        this.queuedTaskCount = queuedTaskCount;
+        this.activeThreadCount = activeThreadCount;
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * Returns the number of tasks that have been submitted but not yet started. A growing value
+     * is a sign that the executor's threads are blocked or that the executor is undersized.
+     *
+     * @return the estimated queue depth or {@code -1} if unknown
+     */
+    public long getQueuedTaskCount() {
+        return queuedTaskCount;
+    }
+
+    /**
+     * @return the estimated number of threads that are executing tasks, or {@code -1} if unknown
+     */
+    public int getActiveThreadCount() {
+        return activeThreadCount;
+    }
+
+    /**
+     * @return the current number of threads in the pool, or {@code -1} if unknown
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    @Override
+    public String toString() {
+        return "{" +
+                "queuedTaskCount=" + queuedTaskCount +
+                ", activeThreadCount=" + activeThreadCount +
+                ", poolSize=" + poolSize +
+                '}';
+    }
+}
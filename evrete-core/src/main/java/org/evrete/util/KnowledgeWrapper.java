@@ -2,6 +2,8 @@ package org.evrete.util;
 
 import org.evrete.api.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Collection;
 
 /**
@@ -29,4 +31,9 @@ public abstract class KnowledgeWrapper extends RuntimeContextWrapper<Knowledge,
         return delegate.newStatelessSession();
     }
 
+    @Override
+    public void writeSnapshot(OutputStream out) throws IOException {
+        delegate.writeSnapshot(out);
+    }
+
 }
@@ -0,0 +1,192 @@
+package org.evrete;
+
+import org.evrete.api.*;
+import org.evrete.api.spi.SourceCompiler;
+import org.evrete.api.spi.SourceCompilerProvider;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.evrete.api.FactBuilder.fact;
+
+/**
+ * Tests writing knowledge snapshots and reading them without the Java compiler.
+ */
+public class KnowledgeSnapshotTests {
+    private static KnowledgeService service;
+    private static KnowledgeService noCompilerService;
+
+    @BeforeAll
+    static void setUpClass() {
+        service = new KnowledgeService();
+        noCompilerService = KnowledgeService.builder()
+                .withSourceCompilerProvider(NoCompilerProvider.class)
+                .build();
+    }
+
+    @AfterAll
+    static void shutDownClass() {
+        service.shutdown();
+        noCompilerService.shutdown();
+    }
+
+    @Test
+    void compiledRules() throws IOException {
+        testRoundTrip(false);
+    }
+
+    @Test
+    void interpretedRules() throws IOException {
+        testRoundTrip(true);
+    }
+
+    @Test
+    void unsupportedRules() {
+        Knowledge functionalCondition = service.newKnowledge();
+        functionalCondition
+                .builder()
+                .newRule()
+                .forEach("$i", Item.class)
+                .where((Object[] values) -> true, "$i.value")
+                .execute("System.out.println($i);")
+                .build();
+        Assertions.assertThrows(IllegalStateException.class, () -> functionalCondition.writeSnapshot(new ByteArrayOutputStream()));
+
+        Knowledge functionalRhs = service.newKnowledge();
+        functionalRhs
+                .builder()
+                .newRule()
+                .forEach("$i", Item.class)
+                .where("$i.value > 0")
+                .execute(ctx -> {
+                })
+                .build();
+        Assertions.assertThrows(IllegalStateException.class, () -> functionalRhs.writeSnapshot(new ByteArrayOutputStream()));
+
+        Knowledge functionalField = service.newKnowledge();
+        functionalField.getTypeResolver().getOrDeclare(Item.class).declareIntField("custom", item -> item.value * 2);
+        functionalField
+                .builder()
+                .newRule()
+                .forEach("$i", Item.class)
+                .where("$i.custom > 5")
+                .execute("$i.log.add(\"custom\");")
+                .build();
+        Assertions.assertThrows(IllegalStateException.class, () -> functionalField.writeSnapshot(new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void invalidData() {
+        Assertions.assertThrows(IOException.class, () -> service.readSnapshot(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6, 7, 8})));
+    }
+
+    private static void testRoundTrip(boolean interpret) throws IOException {
+        Knowledge knowledge = service.newKnowledge("snapshot");
+        knowledge.getConfiguration().setProperty(Configuration.LITERAL_INTERPRETER, String.valueOf(interpret));
+        knowledge.set("custom-property", 42);
+        knowledge
+                .builder()
+                .newRule("pairs")
+                .salience(10)
+                .set("rule-property", "abc")
+                .parameter("offset", int.class, 3)
+                .forEach(
+                        fact("$a", Item.class),
+                        fact("$b", Item.class)
+                )
+                .where("$a.value + offset == $b.value")
+                .where("$a.name != null && $a.name.length() > 0", 5.0)
+                .execute("$a.log.add(\"pair:\" + $b.value);")
+                .newRule()
+                .forEach("$i", Item.class)
+                .where("$i.value > 5")
+                .execute("$i.log.add(\"large\");")
+                .newRule()
+                .forEach("$i", Item.class)
+                .where("$i.value < 0")
+                .execute()
+                .build();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        knowledge.writeSnapshot(out);
+
+        Knowledge restored = noCompilerService.readSnapshot(new ByteArrayInputStream(out.toByteArray()));
+        Assertions.assertEquals("snapshot", restored.getName());
+        Assertions.assertEquals(Integer.valueOf(42), restored.get("custom-property"));
+        Assertions.assertEquals(String.valueOf(interpret), restored.getConfiguration().getProperty(Configuration.LITERAL_INTERPRETER));
+        Assertions.assertEquals(names(knowledge), names(restored));
+        RuleDescriptor pairs = restored.getRule("pairs");
+        Assertions.assertEquals(10, pairs.getSalience());
+        Assertions.assertEquals("abc", pairs.get("rule-property"));
+
+        Assertions.assertEquals(fire(knowledge), fire(restored));
+
+        // A restored knowledge can be written again, and accepts new rules
+        ByteArrayOutputStream again = new ByteArrayOutputStream();
+        restored.writeSnapshot(again);
+        Knowledge restoredAgain = noCompilerService.readSnapshot(new ByteArrayInputStream(again.toByteArray()));
+        Assertions.assertEquals(fire(knowledge), fire(restoredAgain));
+
+        restored.builder().newRule().forEach("$i", Item.class).execute().build();
+        Assertions.assertEquals(4, restored.getRules().size());
+    }
+
+    private static List<String> names(Knowledge knowledge) {
+        List<String> names = new ArrayList<>();
+        for (RuleDescriptor rule : knowledge.getRules()) {
+            names.add(rule.getName());
+        }
+        return names;
+    }
+
+    private static List<List<String>> fire(Knowledge knowledge) {
+        List<Item> items = new ArrayList<>();
+        for (int i = -2; i < 10; i++) {
+            items.add(new Item("item" + i, i));
+        }
+        try (StatefulSession session = knowledge.newStatefulSession()) {
+            session.insertAndFire(items);
+        }
+        List<List<String>> result = new ArrayList<>();
+        for (Item item : items) {
+            result.add(item.log);
+        }
+        return result;
+    }
+
+    public static class Item {
+        public final String name;
+        public final int value;
+        public final List<String> log = new ArrayList<>();
+
+        Item(String name, int value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+
+    public static class NoCompilerProvider implements SourceCompilerProvider {
+        @Override
+        public SourceCompiler instance(ClassLoader classLoader) {
+            return new SourceCompiler() {
+                @Override
+                public <S extends ClassSource> Collection<Result<S>> compile(Collection<S> sources) {
+                    throw new UnsupportedOperationException("Sources must be loaded from the snapshot: " + sources.size());
+                }
+            };
+        }
+
+        @Override
+        public int sortOrder() {
+            return 0;
+        }
+    }
+}
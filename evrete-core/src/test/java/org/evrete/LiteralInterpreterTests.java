@@ -0,0 +1,231 @@
+package org.evrete;
+
+import org.evrete.api.EvaluatorHandle;
+import org.evrete.api.Knowledge;
+import org.evrete.api.StatefulSession;
+import org.evrete.api.ValuesPredicate;
+import org.evrete.api.builders.LhsBuilder;
+import org.evrete.api.builders.RuleBuilder;
+import org.evrete.runtime.compiler.TieredPredicate;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.evrete.api.FactBuilder.fact;
+
+/**
+ * Compares the interpreted version of literal conditions with the compiled one, and tests the
+ * upgrade of interpreted conditions with tiered compilation.
+ */
+class LiteralInterpreterTests {
+    private static final String[] SINGLE_FACT_CONDITIONS = {
+            "$v.i > 5",
+            "$v.i>5&&$v.l<=30",
+            "$v.i + $v.s * 2 >= $v.l - 3",
+            "-$v.i < -5 || !($v.b)",
+            "$v.i / 3 == $v.i % 4",
+            "$v.d * 2.5 > $v.f + 1e1",
+            "$v.f / 3 == $v.f / 3.0f",
+            "$v.d != $v.d + 0.1 && $v.l * 1000000000L > 5000000000L",
+            "$v.c == 65 + $v.i",
+            "$v.boxed != null && $v.boxed > $v.i",
+            "$v.boxed == $v.other",
+            "$v.flag != null && $v.flag == true && $v.b",
+            "$v.str == \"abc\" || $v.str == 'xyz'",
+            "$v.str != null",
+            "$v.i * 1000000 * 1000 > 0",
+            "($v.i + 1) * ($v.l - 1) < 100 == $v.b",
+            // Outside the supported subset
+            "$v.str != null && $v.str.length() > 2",
+            "\"abc\".equals($v.str)",
+            "$v.i > Integer.valueOf(5)",
+            "(double) $v.i / 4 > 1.1"
+    };
+
+    private static KnowledgeService service;
+
+    @BeforeAll
+    static void setUpClass() {
+        service = new KnowledgeService();
+    }
+
+    @AfterAll
+    static void shutDownClass() {
+        service.shutdown();
+    }
+
+    @Test
+    void singleFactConditions() {
+        List<Values> facts = randomValues(new Random(17), 500);
+        for (String condition : SINGLE_FACT_CONDITIONS) {
+            int interpreted = countMatches(condition, facts, true);
+            int compiled = countMatches(condition, facts, false);
+            Assertions.assertEquals(compiled, interpreted, condition);
+        }
+    }
+
+    @Test
+    void joinConditions() {
+        List<Values> facts = randomValues(new Random(31), 60);
+        String[] conditions = {
+                "$a.i == $b.l",
+                "$a.i < $b.i && $a.boxed != $b.boxed",
+                "$a.d + $b.d > 15.0 || $a.str == $b.str"
+        };
+        for (String condition : conditions) {
+            int interpreted = countJoinMatches(condition, facts, true);
+            int compiled = countJoinMatches(condition, facts, false);
+            Assertions.assertEquals(compiled, interpreted, condition);
+        }
+    }
+
+    @Test
+    void evaluationExceptions() {
+        Knowledge knowledge = newKnowledge(true);
+        knowledge
+                .builder()
+                .newRule()
+                .forEach("$v", Values.class)
+                .where("$v.i / ($v.i - $v.i) > 0")
+                .execute()
+                .build();
+
+        try (StatefulSession session = knowledge.newStatefulSession()) {
+            Values v = new Values();
+            v.i = 1;
+            Assertions.assertThrows(RuntimeException.class, () -> session.insertAndFire(v));
+        }
+    }
+
+    @Test
+    void tieredCompilation() throws InterruptedException {
+        Knowledge knowledge = newKnowledge(true);
+        knowledge.getConfiguration().setProperty(Configuration.TIERED_COMPILATION, "true");
+
+        AtomicInteger counter = new AtomicInteger();
+        RuleBuilder<Knowledge> ruleBuilder = knowledge.builder().newRule();
+        LhsBuilder<Knowledge> lhsBuilder = ruleBuilder.forEach("$v", Values.class);
+        CompletableFuture<EvaluatorHandle> handleFuture = ruleBuilder.getConditionManager().addCondition("$v.i > 5");
+        lhsBuilder.execute(ctx -> counter.incrementAndGet()).build();
+        EvaluatorHandle handle = handleFuture.join();
+
+        try (StatefulSession session = knowledge.newStatefulSession()) {
+            ValuesPredicate sessionPredicate = session.getEvaluatorsContext().getPredicate(handle);
+
+            // Waiting for the upgrade
+            long deadline = System.currentTimeMillis() + 60_000L;
+            while (knowledge.getEvaluatorsContext().getPredicate(handle) instanceof TieredPredicate) {
+                Assertions.assertTrue(System.currentTimeMillis() < deadline, "Compiled predicate isn't ready");
+                Thread.sleep(50);
+            }
+            ValuesPredicate compiled = knowledge.getEvaluatorsContext().getPredicate(handle);
+            if (sessionPredicate instanceof TieredPredicate) {
+                // The session was created before the upgrade, and is upgraded along with the knowledge
+                Assertions.assertSame(compiled, ((TieredPredicate<?>) sessionPredicate).compiled().join());
+            }
+
+            List<Values> facts = randomValues(new Random(5), 100);
+            session.insertAndFire(facts);
+            Assertions.assertEquals(countMatches("$v.i > 5", facts, false), counter.get());
+        }
+    }
+
+    @Test
+    void tieredCompilationAfterShutdown() {
+        KnowledgeService stopped = new KnowledgeService();
+        Knowledge knowledge = stopped.newKnowledge();
+        knowledge.getConfiguration().setProperty(Configuration.LITERAL_INTERPRETER, "true");
+        knowledge.getConfiguration().setProperty(Configuration.TIERED_COMPILATION, "true");
+        stopped.shutdown();
+
+        AtomicInteger counter = new AtomicInteger();
+        RuleBuilder<Knowledge> ruleBuilder = knowledge.builder().newRule();
+        LhsBuilder<Knowledge> lhsBuilder = ruleBuilder.forEach("$v", Values.class);
+        CompletableFuture<EvaluatorHandle> handleFuture = ruleBuilder.getConditionManager().addCondition("$v.i > 5");
+        lhsBuilder.execute(ctx -> counter.incrementAndGet()).build();
+
+        // The upgrade is rejected, the condition remains interpreted
+        ValuesPredicate predicate = knowledge.getEvaluatorsContext().getPredicate(handleFuture.join());
+        Assertions.assertTrue(predicate instanceof TieredPredicate);
+        Assertions.assertTrue(((TieredPredicate<?>) predicate).compiled().isCompletedExceptionally());
+    }
+
+    private static Knowledge newKnowledge(boolean interpret) {
+        Knowledge knowledge = service.newKnowledge();
+        knowledge.getConfiguration().setProperty(Configuration.LITERAL_INTERPRETER, String.valueOf(interpret));
+        return knowledge;
+    }
+
+    private static int countMatches(String condition, List<Values> facts, boolean interpret) {
+        AtomicInteger counter = new AtomicInteger();
+        newKnowledge(interpret)
+                .builder()
+                .newRule()
+                .forEach("$v", Values.class)
+                .where(condition)
+                .execute(ctx -> counter.incrementAndGet())
+                .build()
+                .newStatelessSession()
+                .insertAndFire(facts.toArray());
+        return counter.get();
+    }
+
+    private static int countJoinMatches(String condition, List<Values> facts, boolean interpret) {
+        AtomicInteger counter = new AtomicInteger();
+        newKnowledge(interpret)
+                .builder()
+                .newRule()
+                .forEach(
+                        fact("$a", Values.class),
+                        fact("$b", Values.class)
+                )
+                .where(condition)
+                .execute(ctx -> counter.incrementAndGet())
+                .build()
+                .newStatelessSession()
+                .insertAndFire(facts.toArray());
+        return counter.get();
+    }
+
+    private static List<Values> randomValues(Random random, int count) {
+        String[] strings = {"abc", "xyz", new String("abc"), null};
+        List<Values> result = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            Values v = new Values();
+            v.i = random.nextInt(20) - 5;
+            v.l = random.nextInt(40);
+            v.s = (short) random.nextInt(10);
+            v.c = (char) ('A' + random.nextInt(20));
+            v.d = random.nextDouble() * 10;
+            v.f = random.nextFloat() * 10;
+            v.b = random.nextBoolean();
+            v.flag = random.nextInt(3) == 0 ? null : random.nextBoolean();
+            v.boxed = random.nextInt(4) == 0 ? null : random.nextInt(20);
+            v.other = random.nextBoolean() ? v.boxed : Integer.valueOf(random.nextInt(20));
+            v.str = strings[random.nextInt(strings.length)];
+            result.add(v);
+        }
+        return result;
+    }
+
+    public static class Values {
+        public int i;
+        public long l;
+        public short s;
+        public char c;
+        public double d;
+        public float f;
+        public boolean b;
+        public Boolean flag;
+        public Integer boxed;
+        public Integer other;
+        public String str;
+    }
+}
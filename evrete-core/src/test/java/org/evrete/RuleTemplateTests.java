@@ -0,0 +1,190 @@
+package org.evrete;
+
+import org.evrete.api.*;
+import org.evrete.api.builders.RuleBuilder;
+import org.evrete.api.builders.RuleSetBuilder;
+import org.evrete.runtime.compiler.TieredPredicate;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tests rules that share their literal sources and differ only in parameter values.
+ */
+public class RuleTemplateTests {
+    private static KnowledgeService service;
+
+    @BeforeAll
+    static void setUpClass() {
+        service = new KnowledgeService();
+    }
+
+    @AfterAll
+    static void shutDownClass() {
+        service.shutdown();
+    }
+
+    @Test
+    void interpretedConditions() {
+        testThresholds("$c.age >= minAge && $c.age < maxAge", true);
+    }
+
+    @Test
+    void compiledConditions() {
+        testThresholds("$c.age >= minAge && $c.age < maxAge", false);
+        // Outside the interpreter's subset
+        testThresholds("Integer.compare($c.age, minAge) >= 0 && $c.age < maxAge", true);
+    }
+
+    @Test
+    void sharedClasses() {
+        Knowledge knowledge = service.newKnowledge();
+        knowledge.getConfiguration().setProperty(Configuration.LITERAL_INTERPRETER, "false");
+        RuleSetBuilder<Knowledge> builder = knowledge.builder();
+        List<CompletableFuture<EvaluatorHandle>> handles = new ArrayList<>();
+        String[] codes = new String[10];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = "code" + i;
+        }
+        for (int i = 0; i < 50; i++) {
+            RuleBuilder<Knowledge> rule = builder
+                    .newRule("rule " + i)
+                    .parameter("code", String.class, codes[i % codes.length]);
+            handles.add(rule.getConditionManager().addCondition("$c.code.equals(code)"));
+            rule
+                    .forEach("$c", Customer.class)
+                    .execute("$c.matches.add(code);");
+        }
+        builder.build();
+
+        // One class for all the rules
+        Set<Class<?>> rhsClasses = new HashSet<>();
+        for (RuleDescriptor rule : knowledge.getRules()) {
+            rhsClasses.add(rule.getRhs().getClass());
+        }
+        Assertions.assertEquals(1, rhsClasses.size());
+
+        // Conditions with the same parameter values share evaluators (reference values are compared by identity)
+        Set<EvaluatorHandle> distinct = new HashSet<>();
+        for (CompletableFuture<EvaluatorHandle> handle : handles) {
+            distinct.add(handle.join());
+        }
+        Assertions.assertEquals(10, distinct.size());
+
+        Customer customer = new Customer(0, "code3");
+        try (StatefulSession session = knowledge.newStatefulSession()) {
+            session.insertAndFire(customer);
+        }
+        Assertions.assertEquals(5, customer.matches.size());
+        for (String match : customer.matches) {
+            Assertions.assertEquals("code3", match);
+        }
+    }
+
+    @Test
+    void tieredCompilation() throws InterruptedException {
+        Knowledge knowledge = service.newKnowledge();
+        knowledge.getConfiguration().setProperty(Configuration.TIERED_COMPILATION, "true");
+        RuleSetBuilder<Knowledge> builder = knowledge.builder();
+        List<CompletableFuture<EvaluatorHandle>> handles = new ArrayList<>();
+        Map<Integer, Integer> counts = new ConcurrentHashMap<>();
+        for (int i = 0; i < 3; i++) {
+            int threshold = i * 10;
+            RuleBuilder<Knowledge> rule = builder
+                    .newRule()
+                    .parameter("minAge", int.class, threshold);
+            handles.add(rule.getConditionManager().addCondition("$c.age >= minAge"));
+            rule
+                    .forEach("$c", Customer.class)
+                    .execute(ctx -> counts.merge(threshold, 1, Integer::sum));
+        }
+        builder.build();
+
+        long deadline = System.currentTimeMillis() + 60_000L;
+        for (CompletableFuture<EvaluatorHandle> handle : handles) {
+            while (knowledge.getEvaluatorsContext().getPredicate(handle.join()) instanceof TieredPredicate) {
+                Assertions.assertTrue(System.currentTimeMillis() < deadline, "Compiled predicate isn't ready");
+                Thread.sleep(50);
+            }
+        }
+
+        try (StatefulSession session = knowledge.newStatefulSession()) {
+            for (int age = 0; age < 30; age++) {
+                session.insert(new Customer(age, null));
+            }
+            session.fire();
+        }
+        Assertions.assertEquals(30, counts.get(0).intValue());
+        Assertions.assertEquals(20, counts.get(10).intValue());
+        Assertions.assertEquals(10, counts.get(20).intValue());
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void invalidParameters() {
+        RuleBuilder<Knowledge> rule = service.newKnowledge().builder().newRule();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> rule.parameter("$min", int.class, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> rule.parameter("1min", int.class, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> rule.parameter("min", int.class, null));
+        Object text = "text";
+        Assertions.assertThrows(IllegalArgumentException.class, () -> rule.parameter("min", Object.class, text).parameter("min", Object.class, text));
+        Class rawType = Integer.class;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> rule.parameter("other", rawType, text));
+    }
+
+    private static void testThresholds(String condition, boolean interpret) {
+        Knowledge knowledge = service.newKnowledge();
+        knowledge.getConfiguration().setProperty(Configuration.LITERAL_INTERPRETER, String.valueOf(interpret));
+        RuleSetBuilder<Knowledge> builder = knowledge.builder();
+        for (int i = 0; i < 20; i++) {
+            builder
+                    .newRule("rule " + i)
+                    .parameter("minAge", int.class, i * 5)
+                    .parameter("maxAge", Integer.class, i * 5 + 5)
+                    .parameter("group", String.class, "group" + i)
+                    .forEach("$c", Customer.class)
+                    .where(condition)
+                    .execute("$c.matches.add(group + \":\" + minAge);");
+        }
+        builder.build();
+
+        List<Customer> customers = new ArrayList<>();
+        for (int age = 0; age < 120; age++) {
+            customers.add(new Customer(age, null));
+        }
+        knowledge.newStatelessSession().insertAndFire(customers.toArray());
+
+        for (Customer customer : customers) {
+            if (customer.age < 100) {
+                int group = customer.age / 5;
+                Assertions.assertEquals(Collections.singletonList("group" + group + ":" + group * 5), customer.matches, condition);
+            } else {
+                Assertions.assertTrue(customer.matches.isEmpty(), condition);
+            }
+        }
+    }
+
+    public static class Customer {
+        public final int age;
+        public final String code;
+        public final List<String> matches = new ArrayList<>();
+
+        Customer(int age, String code) {
+            this.age = age;
+            this.code = code;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public String getCode() {
+            return code;
+        }
+    }
+}
@@ -184,6 +184,26 @@ class LongKeyMapTest {
         }
     }
 
+    @Test
+    void unsynchronizedMap() {
+        LongKeyMap<String> unsynchronized = new LongKeyMap<>(false);
+        Map<Long, String> reference = new HashMap<>();
+        int range = 2048;
+        for (int i = 0; i < 4096; i++) {
+            putRandom(range, unsynchronized, reference);
+            putRandom(range, unsynchronized, reference);
+            deleteRandom(range, unsynchronized, reference);
+        }
+        assertSameData(unsynchronized, reference);
+
+        // Copies retain the data
+        LongKeyMap<String> copy = new LongKeyMap<>(unsynchronized);
+        assertSameData(copy, reference);
+        unsynchronized.clear();
+        assertSameData(copy, reference);
+        assertEquals(0, unsynchronized.size());
+    }
+
 
     @Test
     void streamsAndIterators() {
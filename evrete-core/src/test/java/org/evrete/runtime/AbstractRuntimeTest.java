@@ -2,15 +2,16 @@ package org.evrete.runtime;
 
 import org.evrete.Configuration;
 import org.evrete.KnowledgeService;
-import org.evrete.api.Knowledge;
-import org.evrete.api.RuleCompiledSources;
+import org.evrete.api.*;
 import org.evrete.api.annotations.RuleElement;
+import org.evrete.api.builders.RuleSetBuilder;
+import org.evrete.api.spi.SourceCompiler;
 import org.evrete.runtime.compiler.DefaultLiteralSourceCompiler;
 import org.evrete.util.CompilationException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
-import java.util.Collection;
+import java.util.*;
 
 import static org.evrete.Configuration.RULE_BASE_CLASS;
 
@@ -58,6 +59,199 @@ public class AbstractRuntimeTest {
         }
     }
 
+    @Test
+    void compileRulesetInShards() throws CompilationException {
+        Configuration configuration = new Configuration();
+        configuration.setProperty(Configuration.COMPILER_SHARD_SIZE, "1");
+        configuration.setProperty(Configuration.COMPILER_PACK_SIZE, "2");
+        // Making sure the simple conditions below are compiled rather than interpreted
+        configuration.setProperty(Configuration.LITERAL_INTERPRETER, "false");
+        KnowledgeService service = new KnowledgeService(configuration);
+        KnowledgeRuntime knowledge = (KnowledgeRuntime) service.newKnowledge();
+
+        DefaultRuleSetBuilder<Knowledge> builder = (DefaultRuleSetBuilder<Knowledge>) knowledge.builder();
+        int ruleCount = 8;
+        for (int i = 0; i < ruleCount; i++) {
+            builder
+                    .newRule("rule " + i)
+                    .forEach("$i", TypeInteger.class)
+                    .where("$i.value < " + i)
+                    .execute(ctx -> {
+                    });
+        }
+        // This condition can only be compiled with its whitespaces retained
+        builder
+                .newRule("rule with whitespaces")
+                .forEach("$i", TypeInteger.class)
+                .where("$i.value < new java.lang.StringBuilder(\"abc\").length()")
+                .execute(ctx -> {
+                });
+
+        assert knowledge.compileRuleset(builder).size() == ruleCount + 1;
+        service.shutdown();
+    }
+
+    @Test
+    void compileRulesetInPacks() throws CompilationException {
+        Configuration configuration = new Configuration();
+        configuration.setProperty(Configuration.COMPILER_PACK_SIZE, "8");
+        configuration.setProperty(Configuration.LITERAL_INTERPRETER, "false");
+        KnowledgeService service = new KnowledgeService(configuration);
+        Knowledge knowledge = service.newKnowledge();
+
+        int ruleCount = 20;
+        RuleSetBuilder<Knowledge> builder = knowledge.builder();
+        for (int i = 0; i < ruleCount; i++) {
+            builder
+                    .newRule("rule " + i)
+                    .forEach("$i", TypeInteger.class)
+                    .where("$i.value < " + i)
+                    .execute(AbstractRuntimeTest.class.getName() + ".FIRED.add(" + i + ");");
+        }
+        builder.build();
+
+        Set<Class<?>> ruleClasses = new HashSet<>();
+        for (RuleDescriptor rule : knowledge.getRules()) {
+            ruleClasses.add(((KnowledgeRule) rule).getRhs().getClass());
+        }
+        // Three packs of at most eight rules, each with a single RHS class
+        Assertions.assertEquals(3, ruleClasses.size());
+
+        FIRED.clear();
+        TypeInteger fact = new TypeInteger();
+        fact.value = 10;
+        try (StatefulSession session = knowledge.newStatefulSession()) {
+            session.insertAndFire(fact);
+        }
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 11; i < ruleCount; i++) {
+            expected.add(i);
+        }
+        Assertions.assertEquals(expected, new HashSet<>(FIRED));
+        service.shutdown();
+    }
+
+    @Test
+    void compiledClassLoaders() throws ClassNotFoundException {
+        KnowledgeService service = new KnowledgeService();
+        Knowledge knowledge1 = service.newKnowledge();
+        Knowledge knowledge2 = service.newKnowledge();
+        Class<?> rhs1 = compiledRhsClass(knowledge1, 1);
+        Class<?> rhs2 = compiledRhsClass(knowledge2, 2);
+        ClassLoader loader1 = rhs1.getClassLoader();
+        ClassLoader loader2 = rhs2.getClassLoader();
+
+        // Generated classes are defined by class loaders of their own, which are referenced
+        // only by the compiled rules and delegate to their knowledge's class loader
+        Assertions.assertNotSame(loader1, loader2);
+        Assertions.assertNotSame(knowledge1.getClassLoader(), loader1);
+        Assertions.assertNotSame(knowledge2.getClassLoader(), loader2);
+        assert isAncestor(knowledge1.getClassLoader(), loader1);
+        assert isAncestor(knowledge2.getClassLoader(), loader2);
+
+        // Neither the knowledge's class loader nor the other knowledge's loader can see the classes
+        Assertions.assertSame(rhs1, Class.forName(rhs1.getName(), false, loader1));
+        Assertions.assertThrows(ClassNotFoundException.class, () -> Class.forName(rhs1.getName(), false, knowledge1.getClassLoader()));
+        Assertions.assertThrows(ClassNotFoundException.class, () -> Class.forName(rhs1.getName(), false, loader2));
+        Assertions.assertThrows(ClassNotFoundException.class, () -> Class.forName(rhs2.getName(), false, loader1));
+        service.shutdown();
+    }
+
+    private static Class<?> compiledRhsClass(Knowledge knowledge, int limit) {
+        knowledge
+                .builder()
+                .newRule()
+                .forEach("$i", TypeInteger.class)
+                .where("$i.value > " + limit)
+                .execute(AbstractRuntimeTest.class.getName() + ".FIRED.add(" + limit + ");")
+                .build();
+        Collection<RuleDescriptor> rules = knowledge.getRules();
+        Assertions.assertEquals(1, rules.size());
+        return ((KnowledgeRule) rules.iterator().next()).getRhs().getClass();
+    }
+
+    private static boolean isAncestor(ClassLoader ancestor, ClassLoader loader) {
+        for (ClassLoader current = loader; current != null; current = current.getParent()) {
+            if (current == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    void compileRulesetInterpreted() throws CompilationException {
+        KnowledgeService service = new KnowledgeService();
+        KnowledgeRuntime knowledge = (KnowledgeRuntime) service.newKnowledge();
+
+        DefaultRuleSetBuilder<Knowledge> builder = (DefaultRuleSetBuilder<Knowledge>) knowledge.builder();
+        builder
+                .newRule("interpreted")
+                .forEach("$i", TypeInteger.class)
+                .where("$i.value < 100 && $i.value != 50")
+                .execute(ctx -> {
+                })
+                .newRule("partially interpreted")
+                .forEach("$i", TypeInteger.class)
+                .where("$i.value < 100")
+                .where("$i.positive()")
+                .execute(ctx -> {
+                });
+
+        Collection<RuleCompiledSources<DefaultRuleLiteralData, DefaultRuleBuilder<?>, DefaultConditionManager.Literal>> sources;
+        sources = knowledge.compileRuleset(builder);
+        assert sources.size() == 2;
+        for (RuleCompiledSources<DefaultRuleLiteralData, DefaultRuleBuilder<?>, DefaultConditionManager.Literal> source : sources) {
+            DefaultLiteralSourceCompiler.RuleCompiledSourcesImpl<DefaultRuleLiteralData, DefaultRuleBuilder<?>, DefaultConditionManager.Literal> impl = (DefaultLiteralSourceCompiler.RuleCompiledSourcesImpl<DefaultRuleLiteralData, DefaultRuleBuilder<?>, DefaultConditionManager.Literal>) source;
+            String javaSource = impl.getClassJavaSource();
+            if (source.getSources().getRule().getName().equals("interpreted")) {
+                Assertions.assertNull(javaSource);
+                Assertions.assertEquals(1, source.conditions().size());
+            } else {
+                Assertions.assertTrue(javaSource.contains("positive()"));
+                Assertions.assertFalse(javaSource.contains("<100"));
+                Assertions.assertEquals(2, source.conditions().size());
+            }
+        }
+        service.shutdown();
+    }
+
+    @Test
+    void compileRulesetErrorsPerRule() {
+        Configuration configuration = new Configuration();
+        configuration.setProperty(Configuration.COMPILER_SHARD_SIZE, "1");
+        KnowledgeService service = new KnowledgeService(configuration);
+        KnowledgeRuntime knowledge = (KnowledgeRuntime) service.newKnowledge();
+
+        DefaultRuleSetBuilder<Knowledge> builder = (DefaultRuleSetBuilder<Knowledge>) knowledge.builder();
+        for (int i = 0; i < 4; i++) {
+            builder
+                    .newRule("rule " + i)
+                    .forEach("$i", TypeInteger.class)
+                    .where("$i.value < " + i)
+                    .execute(ctx -> {
+                    });
+        }
+        builder
+                .newRule("invalid 1")
+                .forEach("$i", TypeInteger.class)
+                .where("$i.value < unknownVariable1")
+                .execute(ctx -> {
+                })
+                .newRule("invalid 2")
+                .forEach("$i", TypeInteger.class)
+                .where("$i.value < unknownVariable2")
+                .execute(ctx -> {
+                });
+
+        CompilationException e = Assertions.assertThrows(CompilationException.class, () -> knowledge.compileRuleset(builder));
+        Assertions.assertEquals(2, e.getErrorSources().size());
+        for (SourceCompiler.ClassSource source : e.getErrorSources()) {
+            assert source.toString().contains("invalid");
+        }
+        service.shutdown();
+    }
+
     @Test
     void testCompilationDisabledFlagOn1() {
         Configuration configuration = new Configuration();
@@ -133,6 +327,8 @@ public class AbstractRuntimeTest {
     }
 
 
+    public static final List<Integer> FIRED = Collections.synchronizedList(new ArrayList<>());
+
     public static class TypeInteger {
         public int value;
 
@@ -0,0 +1,127 @@
+package org.evrete.runtime;
+
+import org.evrete.KnowledgeService;
+import org.evrete.api.ActivationMode;
+import org.evrete.api.Knowledge;
+import org.evrete.api.StatefulSession;
+import org.evrete.classes.TypeA;
+import org.evrete.classes.TypeB;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class PriorityModeTests {
+    private static KnowledgeService service;
+    private Knowledge knowledge;
+
+    @BeforeAll
+    static void setUpClass() {
+        service = new KnowledgeService();
+    }
+
+    @AfterAll
+    static void shutDownClass() {
+        service.shutdown();
+    }
+
+    @BeforeEach
+    void init() {
+        knowledge = service.newKnowledge();
+    }
+
+    private StatefulSession newSession() {
+        return knowledge.newStatefulSession().setActivationMode(ActivationMode.PRIORITY);
+    }
+
+    @Test
+    void preemption() {
+        AtomicInteger lowCounter = new AtomicInteger();
+        AtomicInteger highCounter = new AtomicInteger();
+
+        knowledge
+                .builder()
+                .newRule("low")
+                .salience(1)
+                .forEach("$a", TypeA.class)
+                .execute(ctx -> {
+                    lowCounter.incrementAndGet();
+                    ctx.insert(new TypeB());
+                })
+                .newRule("high")
+                .salience(10)
+                .forEach("$a", TypeA.class, "$b", TypeB.class)
+                .execute(ctx -> {
+                    highCounter.incrementAndGet();
+                    TypeA a = ctx.get("$a");
+                    ctx.delete(a);
+                })
+                .build();
+
+        try (StatefulSession s = newSession()) {
+            for (int i = 0; i < 5; i++) {
+                s.insert(new TypeA());
+            }
+            s.fire();
+
+            // The first activation of the 'low' rule enables the 'high' rule, which pre-empts
+            // the remaining activations and deletes their facts
+            assert lowCounter.get() == 1 : "Actual: " + lowCounter.get();
+            assert highCounter.get() == 5 : "Actual: " + highCounter.get();
+            assert s.streamFacts(TypeA.class).count() == 0;
+            assert s.streamFacts(TypeB.class).count() == 1;
+        }
+    }
+
+    @Test
+    void recentFactsFirst() {
+        List<Integer> executed = new ArrayList<>();
+        knowledge
+                .builder()
+                .newRule()
+                .forEach("$i", Integer.class)
+                .execute(ctx -> executed.add(ctx.get("$i")))
+                .build();
+
+        try (StatefulSession s = newSession()) {
+            s.insert(1, 2, 3);
+            s.fire();
+            Assertions.assertEquals(Arrays.asList(3, 2, 1), executed);
+
+            executed.clear();
+            s.insert(4, 5);
+            s.fire();
+            Assertions.assertEquals(Arrays.asList(5, 4), executed);
+        }
+    }
+
+    @Test
+    void actionsAppliedPerActivation() {
+        AtomicInteger counter = new AtomicInteger();
+        knowledge
+                .builder()
+                .newRule("pairs")
+                .forEach("$a", Integer.class, "$b", Integer.class)
+                .where("$a < $b")
+                .execute(ctx -> {
+                    counter.incrementAndGet();
+                    Integer a = ctx.get("$a");
+                    Integer b = ctx.get("$b");
+                    ctx.delete(a);
+                    ctx.delete(b);
+                })
+                .build();
+
+        try (StatefulSession s = newSession()) {
+            s.insert(1, 2, 3, 4);
+            s.fire();
+
+            // Each activation deletes its facts before the next one is executed, so the remaining
+            // activations that share a fact with an executed one are skipped
+            assert counter.get() == 2 : "Actual: " + counter.get();
+            assert s.streamFacts(Integer.class).count() == 0;
+        }
+    }
+}
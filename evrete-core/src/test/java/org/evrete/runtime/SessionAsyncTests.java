@@ -2,18 +2,24 @@ package org.evrete.runtime;
 
 import org.evrete.Configuration;
 import org.evrete.KnowledgeService;
+import org.evrete.api.ActivationMode;
 import org.evrete.api.FactHandle;
 import org.evrete.api.Knowledge;
 import org.evrete.api.StatefulSession;
+import org.evrete.api.StatelessSession;
 import org.evrete.classes.TypeA;
 import org.evrete.helper.TestUtils;
 import org.evrete.util.DelayedExecutorService;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import java.time.Instant;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -115,6 +121,201 @@ class SessionAsyncTests {
     }
 
 
+    @Test
+    void fireAsyncDoesNotBlock() throws InterruptedException {
+        AtomicInteger counter = new AtomicInteger();
+        CountDownLatch fireStarted = new CountDownLatch(1);
+        CountDownLatch releaseFire = new CountDownLatch(1);
+        knowledge
+                .builder()
+                .newRule()
+                .forEach("$n", Integer.class)
+                .execute(ctx -> {
+                    fireStarted.countDown();
+                    await(releaseFire);
+                    counter.incrementAndGet();
+                })
+                .build();
+
+        try (StatefulSession session = newSession()) {
+            for (int i = 0; i < 100; i++) {
+                session.insert(i);
+            }
+
+            long t0 = Instant.now().toEpochMilli();
+            CompletableFuture<StatefulSession> first = session.fireAsync();
+            long t1 = Instant.now().toEpochMilli();
+            assert t1 - t0 < DELAY_MS / 10;
+
+            // Facts inserted while the first fire is running are processed by either of the fires
+            assert fireStarted.await(DELAY_MS * 10, TimeUnit.MILLISECONDS);
+            for (int i = 100; i < 200; i++) {
+                session.insert(i);
+            }
+            CompletableFuture<StatefulSession> second = session.fireAsync();
+            assert !first.isDone();
+            assert !second.isDone();
+            releaseFire.countDown();
+
+            Assertions.assertSame(session, second.join());
+            assert first.isDone();
+            assert counter.get() == 200 : "Actual: " + counter.get();
+        }
+    }
+
+    @Test
+    void statelessFireAsyncKeepsAcceptedInserts() throws InterruptedException {
+        KnowledgeService realService = new KnowledgeService();
+        try {
+            Knowledge k = realService.newKnowledge();
+            AtomicInteger counter = new AtomicInteger();
+            k.builder()
+                    .newRule()
+                    .forEach("$n", Integer.class)
+                    .execute(ctx -> counter.incrementAndGet())
+                    .build();
+
+            for (int attempt = 0; attempt < 50; attempt++) {
+                counter.set(0);
+                StatelessSession session = k.newStatelessSession();
+                AtomicInteger accepted = new AtomicInteger();
+                CountDownLatch insertsStarted = new CountDownLatch(1);
+                Thread inserter = new Thread(() -> {
+                    try {
+                        for (int i = 0; ; i++) {
+                            session.insert(i);
+                            accepted.incrementAndGet();
+                            insertsStarted.countDown();
+                        }
+                    } catch (IllegalStateException e) {
+                        // The session doesn't accept actions anymore
+                    }
+                });
+                inserter.start();
+                assert insertsStarted.await(DELAY_MS, TimeUnit.MILLISECONDS);
+                session.fireAsync().join();
+                inserter.join();
+                assert counter.get() == accepted.get() : "Processed " + counter.get() + " of " + accepted.get();
+            }
+        } finally {
+            realService.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void statelessFireAsyncRejectsInserts() {
+        AtomicInteger counter = new AtomicInteger();
+        knowledge
+                .builder()
+                .newRule()
+                .forEach("$n", Integer.class)
+                .execute(ctx -> counter.incrementAndGet())
+                .build();
+
+        StatelessSession session = knowledge.newStatelessSession();
+        for (int i = 0; i < 100; i++) {
+            session.insert(i);
+        }
+
+        CompletableFuture<Void> future = session.fireAsync();
+        assert !future.isDone();
+        // The session is closed on completion, so facts inserted during the fire would be lost
+        Assertions.assertThrows(IllegalStateException.class, () -> session.insert(100));
+        Assertions.assertThrows(IllegalStateException.class, () -> session.insertAll(Collections.singletonList(101).spliterator()));
+        Assertions.assertThrows(IllegalStateException.class, session::fireAsync);
+
+        future.join();
+        assert counter.get() == 100 : "Actual: " + counter.get();
+        Assertions.assertThrows(IllegalStateException.class, () -> session.insert(102));
+    }
+
+    @Test
+    void smallFireCyclesRunInline() {
+        AtomicInteger counter = new AtomicInteger();
+        knowledge
+                .builder()
+                .newRule()
+                .forEach("$a", TypeA.class, "$n", Integer.class)
+                .where("$a.i == $n")
+                .execute(ctx -> counter.incrementAndGet())
+                .build();
+
+        try (StatefulSession session = newSession()) {
+            // The first fire allocates memories using the service's executor
+            session.insertAndFire(new TypeA(0), 0);
+            assert counter.get() == 1;
+
+            session.insert(new TypeA(1));
+            session.insert(1);
+            long t0 = Instant.now().toEpochMilli();
+            session.fire();
+            long t1 = Instant.now().toEpochMilli();
+            assert counter.get() == 2 : "Actual: " + counter.get();
+            assert t1 - t0 < DELAY_MS / 2 : "Fire took " + (t1 - t0) + "ms";
+        }
+
+        // Disabling the inline mode
+        knowledge.getConfiguration().setProperty(Configuration.INLINE_FIRE_THRESHOLD, "0");
+        try (StatefulSession session = newSession()) {
+            session.insertAndFire(new TypeA(0), 0);
+            session.insert(new TypeA(0));
+            long t0 = Instant.now().toEpochMilli();
+            session.fire();
+            long t1 = Instant.now().toEpochMilli();
+            assert counter.get() == 4 : "Actual: " + counter.get();
+            assert t1 - t0 >= DELAY_MS : "Fire took " + (t1 - t0) + "ms";
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ActivationMode.class)
+    void threadConfinedSession(ActivationMode mode) {
+        AtomicInteger counter = new AtomicInteger();
+        Thread caller = Thread.currentThread();
+        Set<Thread> rhsThreads = Collections.synchronizedSet(new HashSet<>());
+        knowledge
+                .builder()
+                .newRule()
+                .forEach("$a", TypeA.class, "$n", Integer.class)
+                .where("$a.i == $n")
+                .execute(ctx -> {
+                    rhsThreads.add(Thread.currentThread());
+                    counter.incrementAndGet();
+                })
+                .build();
+
+        knowledge.getConfiguration().setProperty(Configuration.THREAD_CONFINED, "true");
+        // Disabling the inline mode, so that every task would otherwise be passed to the delayed executor
+        knowledge.getConfiguration().setProperty(Configuration.INLINE_FIRE_THRESHOLD, "0");
+        try (StatefulSession session = newSession().setActivationMode(mode)) {
+            long t0 = Instant.now().toEpochMilli();
+            for (int i = 0; i < 100; i++) {
+                session.insert(new TypeA(i));
+                session.insert(i);
+            }
+            session.fire();
+            session.insert(new TypeA(100));
+            session.insert(100);
+            CompletableFuture<StatefulSession> future = session.fireAsync();
+            long t1 = Instant.now().toEpochMilli();
+
+            assert future.isDone();
+            Assertions.assertSame(session, future.join());
+            assert counter.get() == 101 : "Actual: " + counter.get();
+            Assertions.assertEquals(Collections.singleton(caller), rhsThreads);
+            assert t1 - t0 < DELAY_MS / 2 : "Fire took " + (t1 - t0) + "ms";
+        }
+    }
+
     @Test
     void testDelayedExecutor() {
         long delayMs = 200;
@@ -1,7 +1,9 @@
 package org.evrete.runtime;
 
+import org.evrete.Configuration;
 import org.evrete.KnowledgeService;
 import org.evrete.api.*;
+import org.evrete.api.builders.RuleSetBuilder;
 import org.evrete.classes.TypeA;
 import org.evrete.classes.TypeB;
 import org.evrete.classes.TypeC;
@@ -12,8 +14,8 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 
-import java.util.Collection;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -902,5 +904,374 @@ class SessionUpdateDeleteTests {
             assert counter.get() == 1;
       }
     }
-}
 
+    @ParameterizedTest
+    @EnumSource(ActivationMode.class)
+    void unchangedFieldValuesUpdate(ActivationMode mode) {
+        AtomicInteger counter = new AtomicInteger();
+        AtomicInteger rhsUpdates = new AtomicInteger();
+
+        knowledge
+                .builder()
+                .newRule("rule 1")
+                .forEach("$a", TypeA.class)
+                .where("$a.i > 0")
+                .execute(
+                        ctx -> {
+                            TypeA a = ctx.get("$a");
+                            counter.incrementAndGet();
+                            // The 'l' field is not read by any condition
+                            if (rhsUpdates.incrementAndGet() < 10) {
+                                a.setL(a.getL() + 1);
+                                ctx.update(a);
+                            }
+                        }
+                )
+                .build();
+
+        try (StatefulSession session = knowledge.newStatefulSession(mode)) {
+            TypeA a = new TypeA();
+            a.setI(1);
+            FactHandle handle = session.insert(a);
+            session.fire();
+            assert counter.get() == 1 : "Actual: " + counter.get();
+
+            // External updates of fields unknown to the conditions are not propagated
+            TypeA replacement = new TypeA();
+            replacement.setI(1);
+            replacement.setL(100L);
+            session.update(handle, replacement);
+            session.fire();
+            assert counter.get() == 1 : "Actual: " + counter.get();
+            assert session.getFact(handle) == replacement;
+
+            // Changes of a known field are propagated as usual
+            replacement.setI(2);
+            session.update(handle, replacement);
+            session.fire();
+            assert counter.get() == 2 : "Actual: " + counter.get();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ActivationMode.class)
+    void propertyReactiveUpdates(ActivationMode mode) {
+        AtomicInteger counterI = new AtomicInteger();
+        AtomicInteger counterL = new AtomicInteger();
+        AtomicInteger counterJoin = new AtomicInteger();
+        AtomicReference<TypeA> joined = new AtomicReference<>();
+
+        knowledge
+                .builder()
+                .newRule("rule i")
+                .forEach("$a", TypeA.class)
+                .where("$a.i > 0")
+                .execute(ctx -> counterI.incrementAndGet())
+                .newRule("rule l")
+                .forEach("$a", TypeA.class)
+                .where("$a.l > 0")
+                .execute(ctx -> counterL.incrementAndGet())
+                .newRule("rule join")
+                .forEach("$a", TypeA.class, "$b", TypeB.class)
+                .where("$a.i == $b.i")
+                .execute(ctx -> {
+                    counterJoin.incrementAndGet();
+                    joined.set(ctx.get("$a"));
+                })
+                .build();
+
+        try (StatefulSession session = knowledge.newStatefulSession(mode)) {
+            TypeA a = new TypeA();
+            a.setI(1);
+            a.setL(1L);
+            TypeB b1 = new TypeB();
+            b1.setI(1);
+            FactHandle handle = session.insert(a);
+            session.insert(b1);
+            session.fire();
+            assert counterI.get() == 1 : "Actual: " + counterI.get();
+            assert counterL.get() == 1 : "Actual: " + counterL.get();
+            assert counterJoin.get() == 1 : "Actual: " + counterJoin.get();
+
+            // Only the rules reading the 'l' field must be affected
+            TypeA update1 = new TypeA();
+            update1.setI(1);
+            update1.setL(5L);
+            session.update(handle, update1);
+            session.fire();
+            assert counterI.get() == 1 : "Actual: " + counterI.get();
+            assert counterL.get() == 2 : "Actual: " + counterL.get();
+            assert counterJoin.get() == 1 : "Actual: " + counterJoin.get();
+
+            // Existing join matches must remain valid and reference the updated fact
+            TypeB b2 = new TypeB();
+            b2.setI(1);
+            session.insert(b2);
+            session.fire();
+            assert counterJoin.get() == 2 : "Actual: " + counterJoin.get();
+            assert joined.get() == update1;
+
+            // Changing the 'i' field affects the other two rules
+            TypeA update2 = new TypeA();
+            update2.setI(2);
+            update2.setL(5L);
+            session.update(handle, update2);
+            session.fire();
+            assert counterI.get() == 2 : "Actual: " + counterI.get();
+            assert counterL.get() == 2 : "Actual: " + counterL.get();
+            assert counterJoin.get() == 2 : "Actual: " + counterJoin.get();
+
+            TypeB b3 = new TypeB();
+            b3.setI(2);
+            session.insert(b3);
+            session.fire();
+            assert counterJoin.get() == 3 : "Actual: " + counterJoin.get();
+            assert joined.get() == update2;
+            assert session.getFact(handle) == update2;
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ActivationMode.class)
+    void propertyReactiveSharedValues(ActivationMode mode) {
+        AtomicInteger positive = new AtomicInteger();
+        AtomicInteger joined = new AtomicInteger();
+        int count = 5_000;
+
+        knowledge
+                .builder()
+                .newRule("positive")
+                .forEach("$a", TypeA.class)
+                .where("$a.i > 0")
+                .execute(ctx -> positive.incrementAndGet())
+                .newRule("join")
+                .forEach("$a", TypeA.class, "$b", TypeB.class)
+                .where("$a.i == $b.i")
+                .execute(ctx -> joined.incrementAndGet())
+                .build();
+
+        try (StatefulSession session = knowledge.newStatefulSession(mode)) {
+            // Facts share the same 'i' values
+            for (int i = 0; i < count; i++) {
+                TypeA a = new TypeA();
+                a.setI(i % 2);
+                session.insert(a);
+            }
+            session.fire();
+            assert positive.get() == count / 2 : "Actual: " + positive.get();
+
+            // Changing a field that no rule reads
+            session.updateAll(TypeA.class, a -> {
+                TypeA copy = new TypeA();
+                copy.setI(a.getI());
+                copy.setL(a.getL() + 1);
+                return copy;
+            });
+            session.fire();
+            assert positive.get() == count / 2 : "Actual: " + positive.get();
+
+            TypeB b = new TypeB();
+            b.setI(1);
+            session.insert(b);
+            session.fire();
+            assert joined.get() == count / 2 : "Actual: " + joined.get();
+            assert session.streamFacts(TypeA.class).allMatch(a -> a.getL() == 1L);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ActivationMode.class)
+    void bulkDeleteAndUpdate(ActivationMode mode) {
+        AtomicInteger positive = new AtomicInteger();
+        AtomicInteger joined = new AtomicInteger();
+        int count = 10_000;
+
+        knowledge
+                .builder()
+                .newRule("positive")
+                .forEach("$a", TypeA.class)
+                .where("$a.i > 0")
+                .execute(ctx -> positive.incrementAndGet())
+                .newRule("join")
+                .forEach("$a", TypeA.class, "$b", TypeB.class)
+                .where("$a.i == $b.i")
+                .execute(ctx -> joined.incrementAndGet())
+                .build();
+
+        try (StatefulSession session = knowledge.newStatefulSession(mode)) {
+            for (int i = 0; i < count; i++) {
+                TypeA a = new TypeA();
+                a.setI(i);
+                session.insert(a);
+            }
+            TypeB b = new TypeB();
+            b.setI(2);
+            session.insert(b);
+            session.fire();
+            assert positive.get() == count - 1 : "Actual: " + positive.get();
+            assert joined.get() == 1 : "Actual: " + joined.get();
+
+            // Deleting even numbers
+            session.deleteAll(TypeA.class, a -> a.getI() % 2 == 0);
+            session.fire();
+            assert session.streamFacts(TypeA.class).count() == count / 2;
+            assert session.streamFacts(TypeA.class).allMatch(a -> a.getI() % 2 == 1);
+            assert positive.get() == count - 1 : "Actual: " + positive.get();
+
+            // Odd numbers become even, only the new '2' must be joined
+            positive.set(0);
+            session.updateAll(TypeA.class, a -> {
+                a.setI(a.getI() + 1);
+                return a;
+            });
+            session.fire();
+            assert positive.get() == count / 2 : "Actual: " + positive.get();
+            assert joined.get() == 2 : "Actual: " + joined.get();
+
+            // Updates that leave the field values unchanged, and skipped updates
+            positive.set(0);
+            session.<TypeA>updateAll(TypeA.class.getName(), a -> a.getI() > 100 ? null : a);
+            session.fire();
+            assert positive.get() == 0 : "Actual: " + positive.get();
+
+            session.<TypeA>deleteAll(TypeA.class.getName(), a -> true);
+            session.fire();
+            assert session.streamFacts(TypeA.class).count() == 0;
+            assert session.streamFacts(TypeB.class).count() == 1;
+        }
+    }
+
+    @Test
+    void deferredActivationsDefaultMode() {
+        Set<Integer> secondRuleFacts = ConcurrentHashMap.newKeySet();
+        AtomicInteger secondRuleCounter = new AtomicInteger();
+
+        knowledge
+                .builder()
+                .newRule("first")
+                .salience(10)
+                .forEach("$a", TypeA.class)
+                .where("$a.i > 0")
+                .execute(ctx -> {
+                    TypeA a = ctx.get("$a");
+                    TypeB b = new TypeB();
+                    b.setI(a.getI());
+                    ctx.insert(b);
+                })
+                .newRule("delete")
+                .salience(5)
+                .forEach("$a", TypeA.class, "$b", TypeB.class)
+                .where("$a.i == $b.i", "$b.i == 2")
+                .execute(ctx -> {
+                    TypeA a = ctx.get("$a");
+                    ctx.delete(a);
+                })
+                .newRule("second")
+                .salience(1)
+                .forEach("$a", TypeA.class)
+                .execute(ctx -> {
+                    TypeA a = ctx.get("$a");
+                    secondRuleCounter.incrementAndGet();
+                    secondRuleFacts.add(a.getI());
+                })
+                .build();
+
+        try (StatefulSession s = knowledge.newStatefulSession().setActivationMode(ActivationMode.DEFAULT)) {
+            for (int i = 1; i <= 3; i++) {
+                TypeA a = new TypeA();
+                a.setI(i);
+                s.insert(a);
+            }
+            s.fire();
+
+            // The 'second' rule's activations must survive the subsequent agenda cycles,
+            // except for the one whose fact was deleted
+            assert secondRuleCounter.get() == 2 : "Actual: " + secondRuleCounter.get();
+            assert secondRuleFacts.equals(new HashSet<>(Arrays.asList(1, 3))) : "Actual: " + secondRuleFacts;
+            assert s.streamFacts(TypeA.class).count() == 2;
+            assert s.streamFacts(TypeB.class).count() == 3;
+        }
+    }
+
+    @Test
+    void parallelModeMergesRuleActions() {
+        int ruleCount = 4;
+        int factCount = 10;
+        AtomicInteger bCounter = new AtomicInteger();
+        RuleSetBuilder<Knowledge> builder = knowledge.builder();
+        for (int r = 0; r < ruleCount; r++) {
+            int ruleIndex = r;
+            builder = builder
+                    .newRule("insert " + r)
+                    .forEach("$a", TypeA.class)
+                    .execute(ctx -> {
+                        TypeA a = ctx.get("$a");
+                        TypeB b = new TypeB();
+                        b.setI(a.getI() * ruleCount + ruleIndex);
+                        ctx.insert(b);
+                    });
+        }
+        builder
+                .newRule("count")
+                .forEach("$b", TypeB.class)
+                .execute(ctx -> bCounter.incrementAndGet())
+                .build();
+
+        try (StatefulSession s = knowledge.newStatefulSession().setActivationMode(ActivationMode.PARALLEL)) {
+            for (int i = 0; i < factCount; i++) {
+                TypeA a = new TypeA();
+                a.setI(i);
+                s.insert(a);
+            }
+            s.fire();
+
+            assert bCounter.get() == ruleCount * factCount : "Actual: " + bCounter.get();
+            Set<Integer> values = new HashSet<>();
+            s.forEachFact(TypeB.class, b -> values.add(b.getI()));
+            assert values.size() == ruleCount * factCount;
+        }
+    }
+
+    @Test
+    void parallelModeSplitsRuleActivations() {
+        int factCount = 20;
+        knowledge.getConfiguration().setProperty(Configuration.PARALLEL_RHS_CHUNK_SIZE, "8");
+        Set<Integer> pairs = ConcurrentHashMap.newKeySet();
+        AtomicInteger cCounter = new AtomicInteger();
+        knowledge
+                .builder()
+                .newRule("pairs")
+                .forEach("$a", TypeA.class, "$b", TypeB.class)
+                .execute(ctx -> {
+                    TypeA a = ctx.get("$a");
+                    TypeB b = ctx.get("$b");
+                    TypeC c = new TypeC();
+                    c.setI(a.getI() * factCount + b.getI());
+                    pairs.add(c.getI());
+                    ctx.insert(c);
+                })
+                .newRule("count")
+                .forEach("$c", TypeC.class)
+                .execute(ctx -> cCounter.incrementAndGet())
+                .build();
+
+        try (StatefulSession s = knowledge.newStatefulSession().setActivationMode(ActivationMode.PARALLEL)) {
+            for (int i = 0; i < factCount; i++) {
+                TypeA a = new TypeA();
+                a.setI(i);
+                TypeB b = new TypeB();
+                b.setI(i);
+                s.insert(a, b);
+            }
+            s.fire();
+
+            // Every combination is processed exactly once, regardless of the chunks it belongs to
+            int expected = factCount * factCount;
+            assert pairs.size() == expected : "Actual: " + pairs.size();
+            assert cCounter.get() == expected : "Actual: " + cCounter.get();
+            Set<Integer> values = new HashSet<>();
+            s.forEachFact(TypeC.class, c -> values.add(c.getI()));
+            assert values.equals(pairs);
+        }
+    }
+}
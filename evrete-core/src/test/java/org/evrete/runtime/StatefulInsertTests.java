@@ -3,6 +3,7 @@ package org.evrete.runtime;
 import org.evrete.Configuration;
 import org.evrete.KnowledgeService;
 import org.evrete.api.ActivationMode;
+import org.evrete.api.FactHandle;
 import org.evrete.api.Knowledge;
 import org.evrete.api.RuntimeRule;
 import org.evrete.api.StatefulSession;
@@ -16,8 +17,12 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import static org.evrete.api.FactBuilder.fact;
 
@@ -108,7 +113,8 @@ class StatefulInsertTests {
     }
 
     @ParameterizedTest
-    @EnumSource(ActivationMode.class)
+    // RHS calls of the parallel mode have no defined order
+    @EnumSource(value = ActivationMode.class, names = "PARALLEL", mode = EnumSource.Mode.EXCLUDE)
     void basicRuleSortingOrder(ActivationMode mode) {
         RuleSetBuilder<Knowledge> ruleSetBuilder = knowledge.builder();
 
@@ -1686,5 +1692,201 @@ class StatefulInsertTests {
 
     }
 
+    @ParameterizedTest
+    @EnumSource(ActivationMode.class)
+    void bulkInsertTest(ActivationMode mode) {
+        AtomicInteger counterA = new AtomicInteger();
+        AtomicInteger counterB = new AtomicInteger();
+        knowledge.getConfiguration().setProperty(Configuration.BULK_INSERT_CHUNK_SIZE, "100");
+        knowledge
+                .builder()
+                .newRule()
+                .forEach("$a", TypeA.class)
+                .where("$a.i % 2 == 0")
+                .execute(ctx -> counterA.incrementAndGet())
+                .newRule()
+                .forEach("$b", TypeB.class)
+                .execute(ctx -> counterB.incrementAndGet())
+                .build();
+
+        int count = 1000;
+        List<TypeA> listA = new ArrayList<>(count);
+        List<Base> mixed = new ArrayList<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            TypeA a = new TypeA("a" + i);
+            a.setI(i);
+            listA.add(a);
+            TypeA a1 = new TypeA("a" + i);
+            a1.setI(i);
+            mixed.add(a1);
+            mixed.add(new TypeB("b" + i));
+        }
 
+        try (StatefulSession session = newSession(mode)) {
+            session.insertAll(TypeA.class, listA).fire();
+            assert counterA.get() == count / 2 : "Actual: " + counterA.get();
+            assert TestUtils.sessionFacts(session).size() == count;
+
+            counterA.set(0);
+            session.insertAll(mixed.spliterator());
+            // Bulk-inserted facts can be deleted before the session is fired
+            session.streamFactEntries(TypeB.class)
+                    .filter(entry -> entry.getValue().getId().equals("b0"))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList())
+                    .forEach(session::delete);
+            session.fire();
+            assert counterA.get() == count / 2 : "Actual: " + counterA.get();
+            assert counterB.get() == count - 1 : "Actual: " + counterB.get();
+            assert TestUtils.sessionFacts(session).size() == count * 3 - 1;
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ActivationMode.class)
+    void bufferedActionSequencesTest(ActivationMode mode) {
+        AtomicInteger counter = new AtomicInteger();
+        knowledge
+                .builder()
+                .newRule()
+                .forEach("$a", TypeA.class)
+                .where("$a.i > 0")
+                .execute(ctx -> counter.incrementAndGet())
+                .build();
+
+        try (StatefulSession session = newSession(mode)) {
+            TypeA existing1 = new TypeA("existing1");
+            existing1.setI(1);
+            TypeA existing2 = new TypeA("existing2");
+            existing2.setI(1);
+            FactHandle h1 = session.insert(existing1);
+            FactHandle h2 = session.insert(existing2);
+            session.fire();
+            assert counter.get() == 2;
+            counter.set(0);
+
+            // New fact, updated and then deleted before fire
+            TypeA a = new TypeA("a");
+            a.setI(1);
+            FactHandle ha = session.insert(a);
+            a.setI(2);
+            session.update(ha, a);
+            session.delete(ha);
+
+            // New fact, updated twice before fire
+            TypeA b = new TypeA("b");
+            b.setI(-1);
+            FactHandle hb = session.insert(b);
+            b.setI(3);
+            session.update(hb, b);
+            b.setI(4);
+            session.update(hb, b);
+
+            // Existing fact, updated and then deleted
+            existing1.setI(5);
+            session.update(h1, existing1);
+            session.delete(h1);
+
+            // Existing fact, updated twice
+            existing2.setI(6);
+            session.update(h2, existing2);
+            existing2.setI(7);
+            session.update(h2, existing2);
+
+            session.fire();
+            assert counter.get() == 2 : "Actual: " + counter.get();
+            assert TestUtils.sessionFacts(session).size() == 2;
+            assert session.getFact(ha) == null;
+            assert session.getFact(h1) == null;
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ActivationMode.class)
+    void multiLevelConditionGraph(ActivationMode mode) {
+        AtomicInteger counter = new AtomicInteger();
+        knowledge
+                .builder()
+                .newRule()
+                .forEach(
+                        "$a", TypeA.class,
+                        "$b", TypeB.class,
+                        "$c", TypeC.class,
+                        "$d", TypeD.class
+                )
+                .where("$a.i == $b.i")
+                .where("$c.i == $d.i")
+                .where("$b.i == $c.i")
+                .execute(ctx -> counter.incrementAndGet())
+                .build();
+
+        try (StatefulSession session = newSession(mode)) {
+            for (int i = 0; i < 10; i++) {
+                session.insert(new TypeA(i), new TypeB(i), new TypeC(i), typeD(i));
+            }
+            session.fire();
+            assert counter.get() == 10 : "Actual: " + counter.get();
+
+            // New deltas at every level of the graph
+            for (int i = 10; i < 20; i++) {
+                session.insert(new TypeA(i), new TypeB(i), new TypeC(i), typeD(i));
+            }
+            session.insert(typeD(0));
+            session.fire();
+            assert counter.get() == 21 : "Actual: " + counter.get();
+        }
+    }
+
+    private static TypeD typeD(int i) {
+        TypeD d = new TypeD();
+        d.setI(i);
+        return d;
+    }
+
+    @Test
+    void bulkInsertMultiThreaded() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        KnowledgeService multiThreaded = KnowledgeService.builder().withExecutor(executor).build();
+        try {
+            Knowledge kn = multiThreaded.newKnowledge();
+            kn.getConfiguration().setProperty(Configuration.BULK_INSERT_CHUNK_SIZE, "64");
+            Set<Thread> readingThreads = ConcurrentHashMap.newKeySet();
+            kn.getTypeResolver().getOrDeclare(TypeA.class).declareIntField("tracked", a -> {
+                readingThreads.add(Thread.currentThread());
+                return a.getI();
+            });
+            AtomicInteger counter = new AtomicInteger();
+            kn.builder()
+                    .newRule()
+                    .forEach("$a", TypeA.class)
+                    .where("$a.tracked % 2 == 0")
+                    .execute(ctx -> counter.incrementAndGet())
+                    .build();
+
+            int count = 10_000;
+            List<TypeA> facts = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                TypeA a = new TypeA("a" + i);
+                a.setI(i);
+                facts.add(a);
+            }
+
+            try (StatefulSession session = kn.newStatefulSession()) {
+                session.insertAll(TypeA.class, facts).fire();
+                assert counter.get() == count / 2 : "Actual: " + counter.get();
+                // Chunks are read by the calling thread and by the executor
+                assert readingThreads.size() > 1 : "Actual: " + readingThreads;
+
+                // Fact handles are assigned in the encounter order
+                List<TypeA> byHandle = session.<TypeA>streamFactEntries(TypeA.class)
+                        .sorted(Comparator.comparingLong(entry -> entry.getKey().getId()))
+                        .map(Map.Entry::getValue)
+                        .collect(Collectors.toList());
+                Assertions.assertEquals(facts, byHandle);
+            }
+        } finally {
+            multiThreaded.shutdown();
+            executor.shutdown();
+        }
+    }
 }
@@ -0,0 +1,50 @@
+package org.evrete.runtime.evaluation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class ValuePredicateOfArrayTest {
+
+    @Test
+    void concurrentEvaluation() throws Exception {
+        // Arguments must be equal to each other, the predicate checks that no other thread has modified them
+        ValuePredicateOfArray predicate = new ValuePredicateOfArray(args -> {
+            Object first = args[0];
+            Thread.yield();
+            for (Object arg : args) {
+                if (arg != first) {
+                    return false;
+                }
+            }
+            return true;
+        }, 4);
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        Integer value = i;
+                        if (!predicate.test(index -> value)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                Assertions.assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -10,9 +10,7 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 
 class TypeResolverTest {
     private static KnowledgeService service;
@@ -102,4 +100,26 @@ class TypeResolverTest {
         session.insertAndFire(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
         assert assertSet.size() == 5 && assertSet.containsAll(Arrays.asList(6, 7, 8, 9, 10));
     }
+
+    @Test
+    void testResolutionCacheInvalidation() {
+        DefaultTypeResolver resolver = new DefaultTypeResolver(Thread.currentThread().getContextClassLoader());
+        ArrayList<String> fact = new ArrayList<>();
+        assert resolver.resolve(fact) == null;
+
+        // Resolving via the super class
+        Type<?> listType = resolver.declare(List.class);
+        assert resolver.resolve(fact) == listType;
+
+        // The direct match must take precedence over the cached result
+        Type<?> arrayListType = resolver.declare(ArrayList.class);
+        assert resolver.resolve(fact) == arrayListType;
+
+        // Copies must not share the cache with the original
+        DefaultTypeResolver copy = resolver.copyOf();
+        assert copy.resolve(fact) != null;
+        Type<?> altType = resolver.declare("alternative", ArrayList.class);
+        assert resolver.resolve(fact) == null : "Ambiguous type resolution expected";
+        assert copy.resolve(fact) != null && copy.resolve(fact) != altType;
+    }
 }
@@ -0,0 +1,156 @@
+package org.evrete.spi.minimal.compiler;
+
+import org.evrete.Configuration;
+import org.evrete.KnowledgeService;
+import org.evrete.api.Knowledge;
+import org.evrete.api.spi.SourceCompiler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class CompiledClassCacheTest {
+    private static final String CLASS_NAME = "org.evrete.spi.minimal.compiler.cached.CachedClass";
+    private static final String SOURCE = "package org.evrete.spi.minimal.compiler.cached;\n" +
+            "public class CachedClass implements java.util.function.Supplier<String> {\n" +
+            "  public String get() { return Inner.VALUE; }\n" +
+            "  static class Inner { static final String VALUE = \"cached\"; }\n" +
+            "}\n";
+
+    private Path cacheDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        cacheDir = Files.createTempDirectory("evrete-class-cache");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(cacheDir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    @Test
+    void cacheHit() throws Exception {
+        Assertions.assertEquals("cached", compileAndGet());
+        List<Path> entries = cacheEntries();
+        Assertions.assertEquals(1, entries.size());
+
+        // A cache hit must not overwrite the entry
+        FileTime past = FileTime.fromMillis(0L);
+        Files.setLastModifiedTime(entries.get(0), past);
+        Assertions.assertEquals("cached", compileAndGet());
+        Assertions.assertEquals(entries, cacheEntries());
+        Assertions.assertEquals(past, Files.getLastModifiedTime(entries.get(0)));
+    }
+
+    @Test
+    void knowledgeRebuild() throws Exception {
+        // Each build has its own service, like separate runs of an application
+        Assertions.assertEquals(3, buildAndFire());
+        List<Path> entries = cacheEntries();
+        Assertions.assertFalse(entries.isEmpty());
+        FileTime past = FileTime.fromMillis(0L);
+        for (Path entry : entries) {
+            Files.setLastModifiedTime(entry, past);
+        }
+
+        // The second build must be served from the cache
+        Assertions.assertEquals(3, buildAndFire());
+        Assertions.assertEquals(entries, cacheEntries());
+        for (Path entry : entries) {
+            Assertions.assertEquals(past, Files.getLastModifiedTime(entry));
+        }
+    }
+
+    @Test
+    void directoryStamp() throws Exception {
+        Path dir = Files.createDirectories(cacheDir.resolve("classes"));
+        String empty = CompiledClassCache.fileStamp(dir);
+        Path file = Files.write(dir.resolve("A.class"), new byte[]{1});
+        String stamp = CompiledClassCache.fileStamp(dir);
+        Assertions.assertNotEquals(empty, stamp);
+
+        // Changes to the files must be detected even if the directory itself is untouched
+        FileTime dirTime = Files.getLastModifiedTime(dir);
+        Files.write(file, new byte[]{1, 2});
+        Files.setLastModifiedTime(dir, dirTime);
+        Assertions.assertNotEquals(stamp, CompiledClassCache.fileStamp(dir));
+    }
+
+    @Test
+    void corruptedEntry() throws Exception {
+        compileAndGet();
+        Path entry = cacheEntries().get(0);
+        Files.write(entry, new byte[]{1, 2, 3});
+
+        // Corrupted entries are recompiled and replaced
+        Assertions.assertEquals("cached", compileAndGet());
+        Assertions.assertTrue(Files.size(entry) > 3);
+    }
+
+    private int buildAndFire() {
+        KnowledgeService service = new KnowledgeService();
+        try {
+            Knowledge knowledge = service.newKnowledge();
+            knowledge.getConfiguration().setProperty(Configuration.LITERAL_INTERPRETER, "false");
+            knowledge.getConfiguration().setProperty(Configuration.COMPILER_CACHE_DIR, cacheDir.toString());
+            AtomicInteger counter = new AtomicInteger();
+            knowledge.builder()
+                    .newRule("positive")
+                    .forEach("$i", Integer.class)
+                    .where("$i.intValue() > 0")
+                    .execute(ctx -> counter.incrementAndGet())
+                    .newRule("even")
+                    .forEach("$i", Integer.class)
+                    .where("$i.intValue() % 2 == 0")
+                    .execute(ctx -> counter.incrementAndGet())
+                    .build();
+            knowledge.newStatelessSession().insertAndFire(-2, 1, 3);
+            return counter.get();
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private String compileAndGet() throws Exception {
+        DefaultSourceCompiler compiler = new DefaultSourceCompiler(getClass().getClassLoader(), cacheDir);
+        Collection<SourceCompiler.Result<SourceCompiler.ClassSource>> result = compiler.compile(Collections.singletonList(new SourceCompiler.ClassSource() {
+            @Override
+            public String binaryName() {
+                return CLASS_NAME;
+            }
+
+            @Override
+            public String getSource() {
+                return SOURCE;
+            }
+        }));
+        Assertions.assertEquals(1, result.size());
+        Class<?> compiled = result.iterator().next().getCompiledClass();
+        return ((Supplier<String>) compiled.getConstructor().newInstance()).get();
+    }
+
+    private List<Path> cacheEntries() throws IOException {
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.evrete.spi.minimal.compiler;
+
+import org.evrete.api.spi.SourceCompiler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+class JavaCompilerServiceTest {
+    private static final String PACKAGE = "org.evrete.spi.minimal.compiler.shared";
+
+    @Test
+    void sharedState() throws Exception {
+        JavaCompilerService service = new JavaCompilerService();
+        ClassLoader classLoader = getClass().getClassLoader();
+
+        Assertions.assertEquals("A", compileAndGet(new DefaultSourceCompiler(service, classLoader, null), "A"));
+        Assertions.assertEquals(1, service.pooledFileManagers());
+        Assertions.assertTrue(service.packageIndex(classLoader).isIndexed("org.evrete.api"));
+
+        // Another compiler reuses the file manager and the package index
+        Assertions.assertEquals("B", compileAndGet(new DefaultSourceCompiler(service, classLoader, null), "B"));
+        Assertions.assertEquals(1, service.pooledFileManagers());
+
+        service.invalidate();
+        Assertions.assertEquals(0, service.pooledFileManagers());
+        Assertions.assertFalse(service.packageIndex(classLoader).isIndexed("org.evrete.api"));
+        Assertions.assertEquals("C", compileAndGet(new DefaultSourceCompiler(service, classLoader, null), "C"));
+    }
+
+    @Test
+    void concurrentCompilations() throws Exception {
+        JavaCompilerService service = new JavaCompilerService();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                String name = "Concurrent" + i;
+                futures.add(executor.submit(() -> compileAndGet(new DefaultSourceCompiler(service, getClass().getClassLoader(), null), name)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                Assertions.assertEquals("Concurrent" + i, futures.get(i).get());
+            }
+            Assertions.assertTrue(service.pooledFileManagers() <= 4);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String compileAndGet(DefaultSourceCompiler compiler, String simpleName) throws Exception {
+        String source = "package " + PACKAGE + ";\n" +
+                "import org.evrete.api.*;\n" +
+                "public class " + simpleName + " implements java.util.function.Supplier<String> {\n" +
+                "  private final ValuesPredicate predicate = values -> true;\n" +
+                "  public String get() { return \"" + simpleName + "\"; }\n" +
+                "}\n";
+        Collection<SourceCompiler.Result<SourceCompiler.ClassSource>> result = compiler.compile(Collections.singletonList(new SourceCompiler.ClassSource() {
+            @Override
+            public String binaryName() {
+                return PACKAGE + "." + simpleName;
+            }
+
+            @Override
+            public String getSource() {
+                return source;
+            }
+        }));
+        Class<?> compiled = result.iterator().next().getCompiledClass();
+        return ((Supplier<String>) compiled.getConstructor().newInstance()).get();
+    }
+}
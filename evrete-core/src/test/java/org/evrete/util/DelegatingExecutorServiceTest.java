@@ -0,0 +1,120 @@
+package org.evrete.util;
+
+import org.evrete.Configuration;
+import org.evrete.KnowledgeService;
+import org.evrete.api.Knowledge;
+import org.evrete.api.StatefulSession;
+import org.evrete.runtime.AbstractKnowledgeService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+
+class DelegatingExecutorServiceTest {
+
+    @Test
+    void fixedStrategy() {
+        KnowledgeService service = newService(Configuration.EXECUTOR_STRATEGY_FIXED);
+        try {
+            assertPrimeNumbers(service);
+            ExecutorMetrics metrics = service.getExecutorMetrics();
+            assert metrics.getQueuedTaskCount() >= 0;
+            assert metrics.getPoolSize() > 0;
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void forkJoinStrategy() {
+        KnowledgeService service = newService(Configuration.EXECUTOR_STRATEGY_FORK_JOIN);
+        try {
+            assert service.getExecutor().submit(() -> Thread.currentThread() instanceof ForkJoinWorkerThread).get();
+            assertPrimeNumbers(service);
+            ExecutorMetrics metrics = service.getExecutorMetrics();
+            assert metrics.getQueuedTaskCount() >= 0;
+            assert metrics.getActiveThreadCount() >= 0;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void virtualThreadStrategy() {
+        // Falls back to the fixed thread pool on Java versions prior to 21
+        KnowledgeService service = newService(Configuration.EXECUTOR_STRATEGY_VIRTUAL);
+        try {
+            assertPrimeNumbers(service);
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void unknownStrategy() {
+        KnowledgeService service = newService("unknown");
+        try {
+            assertPrimeNumbers(service);
+            assert service.getExecutorMetrics().getPoolSize() > 0;
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void externalExecutorMetrics() {
+        try (DelayedExecutorService executor = new DelayedExecutorService(1, TimeUnit.MILLISECONDS)) {
+            ExecutorMetrics metrics = new DelegatingExecutorService(executor).getMetrics();
+            Assertions.assertEquals(-1L, metrics.getQueuedTaskCount());
+            Assertions.assertEquals(-1, metrics.getActiveThreadCount());
+            Assertions.assertEquals(-1, metrics.getPoolSize());
+        }
+    }
+
+    @Test
+    void plainExecutorServiceSubclass() {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            AbstractKnowledgeService service = new AbstractKnowledgeService(pool) {
+            };
+            Assertions.assertSame(pool, service.getExecutor());
+            Assertions.assertEquals(0L, service.getExecutorMetrics().getQueuedTaskCount());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static KnowledgeService newService(String strategy) {
+        Configuration configuration = new Configuration();
+        configuration.setProperty(Configuration.EXECUTOR_STRATEGY, strategy);
+        return new KnowledgeService(configuration);
+    }
+
+    private static void assertPrimeNumbers(KnowledgeService service) {
+        Knowledge knowledge = service
+                .newKnowledge()
+                .builder()
+                .newRule("prime numbers")
+                .forEach(
+                        "$i1", Integer.class,
+                        "$i2", Integer.class,
+                        "$i3", Integer.class
+                )
+                .where("$i1 * $i2 == $i3")
+                .execute(ctx -> ctx.deleteFact("$i3"))
+                .build();
+
+        try (StatefulSession session = knowledge.newStatefulSession()) {
+            for (int i = 2; i <= 100; i++) {
+                session.insert(i);
+            }
+            session.fire();
+            Assertions.assertEquals(25, session.streamFacts(Integer.class).count());
+        }
+    }
+}
@@ -3,9 +3,11 @@
  * turning Java classes, sources, or JAR archives into rules via simple annotations.
  */
 module org.evrete.dsl.java {
-    requires org.evrete.core;
+    requires transitive org.evrete.core;
     requires java.logging;
 
+    uses org.evrete.api.spi.SourceCompilerProvider;
+
     exports org.evrete.dsl.annotation;
     exports org.evrete.dsl;
 
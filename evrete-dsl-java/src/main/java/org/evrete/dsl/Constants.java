@@ -47,4 +47,30 @@ public interface Constants {
      */
     String PROP_RULESETS = "org.evrete.dsl.ruleset-names";
 
+    /**
+     * A property that specifies the output directory of build-time compiled rule classes.
+     * When set, the {@link PrecompiledSourceCompilerProvider} compiles sources with the Java compiler and
+     * stores the resulting classes and their descriptor in this directory.
+     *
+     * @see RulePrecompiler
+     */
+    String PROP_AOT_OUTPUT_DIR = "org.evrete.dsl.aot-output-dir";
+
+    /**
+     * A property that specifies the Java package of build-time compiled rule classes.
+     */
+    String PROP_AOT_PACKAGE = "org.evrete.dsl.aot-package";
+
+    /**
+     * The default Java package of build-time compiled rule classes.
+     */
+    String PROP_AOT_PACKAGE_DEFAULT = "evrete.precompiled";
+
+    /**
+     * A boolean property that defines whether the {@link PrecompiledSourceCompilerProvider} should fail
+     * on sources that have not been compiled at build time, instead of compiling them at runtime.
+     * The default value is <code>false</code>.
+     */
+    String PROP_AOT_STRICT = "org.evrete.dsl.aot-strict";
+
 }
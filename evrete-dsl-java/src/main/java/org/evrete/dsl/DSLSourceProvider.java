@@ -92,7 +92,7 @@ public class DSLSourceProvider extends AbstractDSLProvider {
 
     private <C extends RuntimeContext<C>> ResourceClasses createClassMetaFromSource(RuntimeContext<C> context, Collection<String> sources) {
         // Sources need to be compiled first
-        SourceCompiler sourceCompiler = context.getService().getSourceCompilerProvider().instance(context.getClassLoader());
+        SourceCompiler sourceCompiler = context.getService().getSourceCompilerProvider().instance(context.getClassLoader(), context.getConfiguration());
         List<SourceCompiler.ClassSource> compilationUnits = new ArrayList<>(sources.size());
         Map<SourceCompiler.ClassSource, Class<?>> map = new IdentityHashMap<>();
         for (String source : sources) {
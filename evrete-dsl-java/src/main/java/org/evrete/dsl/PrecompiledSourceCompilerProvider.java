@@ -0,0 +1,211 @@
+package org.evrete.dsl;
+
+import org.evrete.Configuration;
+import org.evrete.api.spi.SourceCompiler;
+import org.evrete.api.spi.SourceCompilerProvider;
+import org.evrete.util.ClassSourceUtils;
+import org.evrete.util.CompilationException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * A {@link SourceCompilerProvider} for ahead-of-time compiled rules. The provider isn't registered as a service
+ * and must be enabled explicitly, e.g. with {@link org.evrete.KnowledgeService.Builder#withSourceCompilerProvider(Class)}.
+ * </p>
+ * <p>
+ * At build time, with the {@link Constants#PROP_AOT_OUTPUT_DIR} property set, sources are compiled by the default
+ * Java compiler, and the resulting classes are stored in the output directory along with a descriptor. The output
+ * directory is expected to be packaged with the application, see {@link RulePrecompiler}.
+ * </p>
+ * <p>
+ * At runtime, sources are resolved via the descriptors that are visible to the context's class loader, and the
+ * corresponding classes are loaded without invoking the Java compiler. Sources that have not been compiled at build
+ * time are compiled as usual, unless the {@link Constants#PROP_AOT_STRICT} property is set.
+ * </p>
+ */
+public class PrecompiledSourceCompilerProvider implements SourceCompilerProvider {
+    private static final Logger LOGGER = Logger.getLogger(PrecompiledSourceCompilerProvider.class.getName());
+    // Kept for the provider's lifetime, so that runtime compilations share the compiler's state
+    private volatile SourceCompilerProvider javaCompilerProvider;
+
+    /**
+     * Default public constructor
+     */
+    public PrecompiledSourceCompilerProvider() {
+    }
+
+    @Override
+    public SourceCompiler instance(ClassLoader classLoader) {
+        return instance(classLoader, new Configuration());
+    }
+
+    @Override
+    public SourceCompiler instance(ClassLoader classLoader, Configuration configuration) {
+        String outputDir = configuration.getProperty(Constants.PROP_AOT_OUTPUT_DIR);
+        if (outputDir == null) {
+            return new Loader(this::javaCompilerProvider, classLoader, configuration);
+        } else {
+            String packageName = configuration.getProperty(Constants.PROP_AOT_PACKAGE, Constants.PROP_AOT_PACKAGE_DEFAULT);
+            return new Recorder(this::javaCompilerProvider, classLoader, configuration, Paths.get(outputDir), packageName);
+        }
+    }
+
+    @Override
+    public void invalidateCaches() {
+        SourceCompilerProvider current = this.javaCompilerProvider;
+        if (current != null) {
+            current.invalidateCaches();
+        }
+    }
+
+    private SourceCompilerProvider javaCompilerProvider() {
+        SourceCompilerProvider current = this.javaCompilerProvider;
+        if (current == null) {
+            synchronized (this) {
+                current = this.javaCompilerProvider;
+                if (current == null) {
+                    current = PrecompiledSources.javaCompilerProvider();
+                    this.javaCompilerProvider = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public int sortOrder() {
+        return 0;
+    }
+
+    /**
+     * Runtime compiler, loads build-time compiled classes
+     */
+    private static class Loader implements SourceCompiler {
+        private final Supplier<SourceCompilerProvider> javaCompilerProvider;
+        private final ClassLoader classLoader;
+        private final Configuration configuration;
+        private final boolean strict;
+
+        Loader(Supplier<SourceCompilerProvider> javaCompilerProvider, ClassLoader classLoader, Configuration configuration) {
+            this.javaCompilerProvider = javaCompilerProvider;
+            this.classLoader = classLoader;
+            this.configuration = configuration;
+            this.strict = configuration.getAsBoolean(Constants.PROP_AOT_STRICT, false);
+        }
+
+        @Override
+        public <S extends ClassSource> Collection<Result<S>> compile(Collection<S> sources) throws CompilationException {
+            Map<String, String> descriptors = PrecompiledSources.descriptors(classLoader);
+            Collection<Result<S>> result = new ArrayList<>(sources.size());
+            List<S> missing = new LinkedList<>();
+            for (S source : sources) {
+                String className = descriptors.get(PrecompiledSources.key(source));
+                Class<?> precompiled = null;
+                if (className != null) {
+                    try {
+                        precompiled = Class.forName(className, false, classLoader);
+                    } catch (ClassNotFoundException e) {
+                        LOGGER.warning(() -> "Precompiled class '" + className + "' is listed in a descriptor but can not be loaded");
+                    }
+                }
+
+                if (precompiled == null) {
+                    missing.add(source);
+                } else {
+                    result.add(new PrecompiledSources.CompiledClass<>(source, precompiled));
+                }
+            }
+
+            if (!missing.isEmpty()) {
+                if (strict) {
+                    throw new IllegalStateException("Sources have not been compiled at build time: " + missing);
+                } else {
+                    LOGGER.warning(() -> "Compiling " + missing.size() + " source(s) at runtime, consider updating the precompiled rules");
+                    result.addAll(javaCompilerProvider.get().instance(classLoader, configuration).compile(missing));
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Build-time compiler, stores compiled classes in the output directory
+     */
+    private static class Recorder implements SourceCompiler {
+        private final Supplier<SourceCompilerProvider> javaCompilerProvider;
+        private final ClassLoader classLoader;
+        private final Configuration configuration;
+        private final Path outputDir;
+        private final String packageName;
+
+        Recorder(Supplier<SourceCompilerProvider> javaCompilerProvider, ClassLoader classLoader, Configuration configuration, Path outputDir, String packageName) {
+            this.javaCompilerProvider = javaCompilerProvider;
+            this.classLoader = classLoader;
+            this.configuration = configuration;
+            this.outputDir = outputDir;
+            this.packageName = packageName;
+        }
+
+        @Override
+        public <S extends ClassSource> Collection<Result<S>> compile(Collection<S> sources) throws CompilationException {
+            // Sources are renamed, so that class names depend on sources only
+            Map<ClassSource, S> originals = new IdentityHashMap<>();
+            Map<ClassSource, String> keys = new IdentityHashMap<>();
+            List<ClassSource> renamed = new ArrayList<>(sources.size());
+            for (S source : sources) {
+                String key = PrecompiledSources.key(source);
+                ClassSource r = PrecompiledSources.renamed(source, key, packageName);
+                originals.put(r, source);
+                keys.put(r, key);
+                renamed.add(r);
+            }
+
+            SourceCompiler compiler = javaCompilerProvider.get().instance(classLoader, configuration);
+            Collection<Result<ClassSource>> compiled;
+            try {
+                compiled = compiler.compile(renamed);
+            } catch (CompilationException e) {
+                // Reporting errors against the original sources
+                Map<ClassSource, List<String>> errorSources = new IdentityHashMap<>();
+                for (ClassSource r : e.getErrorSources()) {
+                    S original = originals.get(r);
+                    errorSources.put(original == null ? r : original, e.getErrorMessage(r));
+                }
+                throw new CompilationException(e.getOtherErrors(), errorSources);
+            }
+
+            Collection<Result<S>> result = new ArrayList<>(compiled.size());
+            try {
+                for (Result<ClassSource> r : compiled) {
+                    Class<?> compiledClass = r.getCompiledClass();
+                    store(compiledClass);
+                    PrecompiledSources.register(outputDir, keys.get(r.getSource()), compiledClass.getName());
+                    result.add(new PrecompiledSources.CompiledClass<>(originals.get(r.getSource()), compiledClass));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return result;
+        }
+
+        private void store(Class<?> compiledClass) throws IOException {
+            for (Map.Entry<String, byte[]> entry : ClassSourceUtils.bytecode(compiledClass).entrySet()) {
+                write(entry.getKey(), entry.getValue());
+            }
+        }
+
+        private void write(String binaryName, byte[] bytes) throws IOException {
+            Path file = outputDir.resolve(binaryName.replace('.', '/') + ".class");
+            Files.createDirectories(file.getParent());
+            Files.write(file, bytes);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.evrete.dsl;
+
+import org.evrete.api.spi.SourceCompiler;
+import org.evrete.api.spi.SourceCompilerProvider;
+import org.evrete.util.ClassSourceUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Utility methods shared by the build-time and the runtime parts of the ahead-of-time compilation.
+ * Compilation units are identified by {@link ClassSourceUtils#key(SourceCompiler.ClassSource)}, so that
+ * the same rule source is matched regardless of the class name it has been generated with.
+ */
+final class PrecompiledSources {
+    static final String DESCRIPTOR = "META-INF/evrete/precompiled-rules.properties";
+    private static final Map<ClassLoader, Map<String, String>> DESCRIPTORS = new WeakHashMap<>();
+
+    private PrecompiledSources() {
+    }
+
+    static String key(SourceCompiler.ClassSource source) {
+        return ClassSourceUtils.key(source);
+    }
+
+    /**
+     * Creates a copy of the source with a class name derived from the source's key.
+     *
+     * @param source      the source
+     * @param key         the source's key
+     * @param packageName the package of the renamed class
+     * @return renamed source
+     */
+    static SourceCompiler.ClassSource renamed(SourceCompiler.ClassSource source, String key, String packageName) {
+        String simpleName = "Rule" + key.substring(0, 32);
+        String binaryName = packageName + "." + simpleName;
+        String renamed = ClassSourceUtils.rename(ClassSourceUtils.normalize(source.getSource(), ClassSourceUtils.simpleName(source.binaryName())), packageName, simpleName);
+        return new SourceCompiler.ClassSource() {
+            @Override
+            public String binaryName() {
+                return binaryName;
+            }
+
+            @Override
+            public String getSource() {
+                return renamed;
+            }
+
+            @Override
+            public String toString() {
+                return source.toString();
+            }
+        };
+    }
+
+    /**
+     * Reads and merges all the descriptors that are visible to the class loader.
+     *
+     * @param classLoader the class loader
+     * @return class names of precompiled sources by their keys
+     */
+    static Map<String, String> descriptors(ClassLoader classLoader) {
+        synchronized (DESCRIPTORS) {
+            Map<String, String> cached = DESCRIPTORS.get(classLoader);
+            if (cached == null) {
+                cached = new HashMap<>();
+                try {
+                    Enumeration<URL> urls = classLoader.getResources(DESCRIPTOR);
+                    while (urls.hasMoreElements()) {
+                        Properties properties = new Properties();
+                        try (InputStream is = urls.nextElement().openStream()) {
+                            properties.load(is);
+                        }
+                        for (String key : properties.stringPropertyNames()) {
+                            cached.putIfAbsent(key, properties.getProperty(key));
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException("Unable to read descriptors of precompiled rules", e);
+                }
+                DESCRIPTORS.put(classLoader, cached);
+            }
+            return cached;
+        }
+    }
+
+    /**
+     * Adds a compiled class to the descriptor in the output directory.
+     *
+     * @param outputDir the output directory
+     * @param key       the source's key
+     * @param className the compiled class's name
+     * @throws IOException if the descriptor can not be written
+     */
+    static void register(Path outputDir, String key, String className) throws IOException {
+        synchronized (DESCRIPTORS) {
+            Path file = outputDir.resolve(DESCRIPTOR);
+            Files.createDirectories(file.getParent());
+            Properties properties = new Properties();
+            if (Files.exists(file)) {
+                try (InputStream is = Files.newInputStream(file)) {
+                    properties.load(is);
+                }
+            }
+            properties.setProperty(key, className);
+            try (OutputStream os = Files.newOutputStream(file)) {
+                properties.store(os, "Evrete precompiled rule classes");
+            }
+        }
+    }
+
+    /**
+     * @return the highest priority source compiler provider other than the {@link PrecompiledSourceCompilerProvider}
+     */
+    static SourceCompilerProvider javaCompilerProvider() {
+        List<SourceCompilerProvider> providers = new ArrayList<>();
+        for (SourceCompilerProvider provider : ServiceLoader.load(SourceCompilerProvider.class)) {
+            if (!(provider instanceof PrecompiledSourceCompilerProvider)) {
+                providers.add(provider);
+            }
+        }
+        if (providers.isEmpty()) {
+            throw new IllegalStateException("Implementation missing: " + SourceCompilerProvider.class);
+        } else {
+            Collections.sort(providers);
+            return providers.get(0);
+        }
+    }
+
+    static final class CompiledClass<S extends SourceCompiler.ClassSource> implements SourceCompiler.Result<S> {
+        private final S source;
+        private final Class<?> compiledClass;
+
+        CompiledClass(S source, Class<?> compiledClass) {
+            this.source = source;
+            this.compiledClass = compiledClass;
+        }
+
+        @Override
+        public S getSource() {
+            return source;
+        }
+
+        @Override
+        public Class<?> getCompiledClass() {
+            return compiledClass;
+        }
+    }
+}
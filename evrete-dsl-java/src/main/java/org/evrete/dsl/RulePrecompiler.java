@@ -0,0 +1,80 @@
+package org.evrete.dsl;
+
+import org.evrete.Configuration;
+import org.evrete.KnowledgeService;
+import org.evrete.api.Knowledge;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>
+ * Build-time generator of rule classes. The generator imports the provided rule set classes, just like the
+ * {@link Constants#PROVIDER_JAVA_CLASS} provider does at runtime, and stores every class that is compiled along
+ * the way, such as literal conditions, in the output directory together with a descriptor. Once the output
+ * directory is on the application's classpath, the {@link PrecompiledSourceCompilerProvider} loads these classes
+ * instead of compiling the sources at runtime.
+ * </p>
+ * <p>
+ * The generator can be invoked from a build script, for example with a Gradle task:
+ * </p>
+ * <pre>
+ * tasks.register&lt;JavaExec&gt;("precompileRules") {
+ *     classpath = sourceSets.main.get().runtimeClasspath
+ *     mainClass.set("org.evrete.dsl.RulePrecompiler")
+ *     args(layout.buildDirectory.dir("precompiled").get().asFile, "com.example.MyRuleSet")
+ * }
+ * </pre>
+ */
+public final class RulePrecompiler {
+
+    private RulePrecompiler() {
+    }
+
+    /**
+     * Command line entry point.
+     *
+     * @param args the output directory, followed by rule set class names
+     * @throws Exception if the rules can not be compiled
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: RulePrecompiler <output directory> <rule set class>...");
+        }
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        List<Class<?>> ruleSets = new ArrayList<>(args.length - 1);
+        for (String className : Arrays.asList(args).subList(1, args.length)) {
+            ruleSets.add(Class.forName(className, false, classLoader));
+        }
+        precompile(new Configuration(), Paths.get(args[0]), ruleSets.toArray(new Class<?>[0]));
+    }
+
+    /**
+     * Compiles the rules of the provided rule set classes and stores the compiled classes in the output directory.
+     * The configuration must match the one used at runtime, as it affects the generated sources.
+     *
+     * @param configuration the configuration
+     * @param outputDir     the output directory
+     * @param ruleSets      the rule set classes
+     * @throws IOException if the rules can not be imported or stored
+     */
+    public static void precompile(Configuration configuration, Path outputDir, Class<?>... ruleSets) throws IOException {
+        Configuration conf = configuration.copyOf();
+        conf.setProperty(Constants.PROP_AOT_OUTPUT_DIR, outputDir.toAbsolutePath().toString());
+        KnowledgeService service = KnowledgeService.builder(conf)
+                .withSourceCompilerProvider(PrecompiledSourceCompilerProvider.class)
+                .build();
+        try {
+            for (Class<?> ruleSet : ruleSets) {
+                Knowledge knowledge = service.newKnowledge();
+                knowledge.importRules(Constants.PROVIDER_JAVA_CLASS, ruleSet);
+            }
+        } finally {
+            service.shutdown();
+        }
+    }
+}
@@ -3,22 +3,45 @@ package org.evrete.dsl;
 import org.evrete.api.IntToValue;
 import org.evrete.api.ValuesPredicate;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
 class WrappedConditionMethod extends WrappedCloneableMethod<WrappedConditionMethod> implements ValuesPredicate {
+    // (IntToValue, int)Object
+    private static final MethodHandle VALUE_GETTER;
+    // (IntToValue)boolean, or null if the method is not bound yet
+    private final MethodHandle invoker;
+
+    static {
+        try {
+            VALUE_GETTER = MethodHandles.publicLookup().findVirtual(IntToValue.class, "apply", MethodType.methodType(Object.class, int.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
     WrappedConditionMethod(WrappedMethod other) {
         super(other);
+        this.invoker = createInvoker();
     }
 
     WrappedConditionMethod(WrappedMethod other, Object bindInstance) {
         super(other, bindInstance);
+        this.invoker = createInvoker();
+    }
+
+    private MethodHandle createInvoker() {
+        return invocable() ? adapt(IntToValue.class, boolean.class, i -> MethodHandles.insertArguments(VALUE_GETTER, 1, i)) : null;
     }
 
     @Override
     public boolean test(IntToValue values) {
-        for (int i = 0; i < args.length; i++) {
-            this.args[i] = values.apply(i);
+        try {
+            return (boolean) invoker.invokeExact(values);
+        } catch (Throwable t) {
+            throw invocationException(t, values);
         }
-        return call();
     }
 
     @Override
@@ -3,26 +3,37 @@ package org.evrete.dsl;
 import org.evrete.api.annotations.NonNull;
 
 import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntFunction;
 
+/**
+ * A wrapper around a method handle of a rule set class. Subclasses don't invoke the handle with an array of
+ * arguments. Instead, they adapt it to an exact type that takes a single source of arguments, e.g. the
+ * condition's values, so that invocations neither allocate nor share mutable state.
+ */
 class WrappedMethod {
-    private final MethodHandle handle;
+    final MethodHandle handle;
     final boolean isStatic;
-    final Object[] args;
+    private final boolean bound;
     private final String methodName;
     final WrappedClass declaringClass;
 
-    WrappedMethod(WrappedClass declaringClass, MethodHandle handle, String methodName, boolean isStatic) {
+    private WrappedMethod(WrappedClass declaringClass, MethodHandle handle, String methodName, boolean isStatic, boolean bound) {
         this.declaringClass = declaringClass;
         this.handle = handle;
         this.isStatic = isStatic;
+        this.bound = bound;
         this.methodName = methodName;
-        int paramCount = handle.type().parameterCount();
-        this.args = new Object[paramCount];
+    }
+
+    WrappedMethod(WrappedClass declaringClass, MethodHandle handle, String methodName, boolean isStatic) {
+        this(declaringClass, handle, methodName, isStatic, false);
     }
 
     WrappedMethod(WrappedClass declaringClass, @NonNull Method delegate) {
@@ -30,33 +41,57 @@ class WrappedMethod {
     }
 
     WrappedMethod(WrappedMethod other, Object bindInstance) {
-        this(other.declaringClass, other.handle.bindTo(bindInstance), other.methodName, other.isStatic);
+        this(other.declaringClass, other.handle.bindTo(bindInstance), other.methodName, other.isStatic, true);
     }
 
     WrappedMethod(WrappedMethod other) {
-        this(other.declaringClass, other.handle, other.methodName, other.isStatic);
+        this(other.declaringClass, other.handle, other.methodName, other.isStatic, other.bound);
+    }
+
+    /**
+     * @return {@code true} if the handle takes no class instance, i.e. the method is static or bound
+     */
+    final boolean invocable() {
+        return isStatic || bound;
+    }
+
+    /**
+     * Adapts the handle to the {@code (argType)returnType} type, each of the method's arguments is
+     * computed from the single argument by the corresponding getter.
+     *
+     * @param argType    the type of the argument source
+     * @param returnType the return type of the adapted handle
+     * @param getters    handles that take the argument source, by the method's parameter index
+     * @return the adapted handle
+     */
+    final MethodHandle adapt(Class<?> argType, Class<?> returnType, IntFunction<MethodHandle> getters) {
+        MethodType type = handle.type();
+        MethodHandle[] filters = new MethodHandle[type.parameterCount()];
+        for (int i = 0; i < filters.length; i++) {
+            filters[i] = getters.apply(i).asType(MethodType.methodType(type.parameterType(i), argType));
+        }
+        MethodHandle filtered = MethodHandles.filterArguments(handle.asType(type.changeReturnType(returnType)), 0, filters);
+        // All the filtered arguments are taken from the same source
+        return MethodHandles.permuteArguments(filtered, MethodType.methodType(returnType, argType), new int[filters.length]);
     }
 
     final <V, R> Function<V, R> asFunction() {
-        return new Func<>();
+        return new Func<>(handle.asType(MethodType.methodType(Object.class, Object.class)));
     }
 
     final <R> Consumer<R> asVoidFunction() {
-        return new Cons<>();
+        return new Cons<>(handle.asType(MethodType.methodType(void.class, Object.class)));
     }
 
-    @SuppressWarnings("unchecked")
-    final <T> T call() {
-        try {
-            return (T) handle.invokeWithArguments(args);
-        } catch (Throwable t) {
-            String[] argTypes = new String[args.length];
-            for (int i = 0; i < argTypes.length; i++) {
-                Object arg = args[i];
-                argTypes[i] = arg == null ? null : arg.getClass().getName();
-            }
-            throw new RuntimeException("Method invocation exception at " + this + ", arguments: " + Arrays.toString(args) + " with types: " + Arrays.toString(argTypes), t);
+    final RuntimeException invocationException(Throwable t, IntFunction<Object> args) {
+        Object[] values = new Object[handle.type().parameterCount()];
+        String[] argTypes = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            Object arg = args.apply(i);
+            values[i] = arg;
+            argTypes[i] = arg == null ? null : arg.getClass().getName();
         }
+        return new RuntimeException("Method invocation exception at " + this + ", arguments: " + Arrays.toString(values) + " with types: " + Arrays.toString(argTypes), t);
     }
 
     @Override
@@ -70,10 +105,21 @@ class WrappedMethod {
     }
 
     private class Func<V, R> implements Function<V, R> {
+        // (Object)Object
+        private final MethodHandle invoker;
+
+        Func(MethodHandle invoker) {
+            this.invoker = invoker;
+        }
+
         @Override
+        @SuppressWarnings("unchecked")
         public R apply(V v) {
-            args[0] = v;
-            return call();
+            try {
+                return (R) (Object) invoker.invokeExact((Object) v);
+            } catch (Throwable t) {
+                throw invocationException(t, i -> v);
+            }
         }
 
         @Override
@@ -84,10 +130,20 @@ class WrappedMethod {
     }
 
     private class Cons<R> implements Consumer<R> {
+        // (Object)void
+        private final MethodHandle invoker;
+
+        Cons(MethodHandle invoker) {
+            this.invoker = invoker;
+        }
+
         @Override
         public void accept(R r) {
-            args[0] = r;
-            call();
+            try {
+                invoker.invokeExact((Object) r);
+            } catch (Throwable t) {
+                throw invocationException(t, i -> r);
+            }
         }
 
         @Override
@@ -2,6 +2,9 @@ package org.evrete.dsl;
 
 import org.evrete.api.RhsContext;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.ArrayList;
@@ -9,8 +12,20 @@ import java.util.List;
 import java.util.function.Consumer;
 
 class WrappedRhsMethod extends WrappedCloneableMethod<WrappedRhsMethod> implements Consumer<RhsContext> {
+    // (RhsContext, String)Object
+    private static final MethodHandle FACT_GETTER;
     final RuleMethod.FactDeclaration[] factDeclarations;
     private final int contextParamId;
+    // (RhsContext)void, or null if the method is not bound yet
+    private final MethodHandle invoker;
+
+    static {
+        try {
+            FACT_GETTER = MethodHandles.publicLookup().findVirtual(RhsContext.class, "getObject", MethodType.methodType(Object.class, String.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
     public WrappedRhsMethod(WrappedClass declaringClass, Method delegate) {
         super(declaringClass, delegate);
@@ -38,12 +53,28 @@ class WrappedRhsMethod extends WrappedCloneableMethod<WrappedRhsMethod> implemen
         }
         this.factDeclarations = rhsParameterList.toArray(RuleMethod.FactDeclaration.EMPTY);
         this.contextParamId = ctxIndex;
+        this.invoker = createInvoker();
     }
 
     public WrappedRhsMethod(WrappedRhsMethod other, Object bindInstance) {
         super(other, bindInstance);
         this.factDeclarations = other.factDeclarations;
         this.contextParamId = other.contextParamId;
+        this.invoker = createInvoker();
+    }
+
+    private MethodHandle createInvoker() {
+        if (!invocable()) {
+            return null;
+        }
+        MethodHandle[] getters = new MethodHandle[handle.type().parameterCount()];
+        for (RuleMethod.FactDeclaration p : factDeclarations) {
+            getters[p.position] = MethodHandles.insertArguments(FACT_GETTER, 1, p.name);
+        }
+        if (contextParamId >= 0) {
+            getters[contextParamId] = MethodHandles.identity(RhsContext.class);
+        }
+        return adapt(RhsContext.class, void.class, i -> getters[i]);
     }
 
     @Override
@@ -53,12 +84,19 @@ class WrappedRhsMethod extends WrappedCloneableMethod<WrappedRhsMethod> implemen
 
     @Override
     public void accept(RhsContext ctx) {
-        for (RuleMethod.FactDeclaration p : factDeclarations) {
-            this.args[p.position] = ctx.getObject(p.name);
+        try {
+            invoker.invokeExact(ctx);
+        } catch (Throwable t) {
+            throw invocationException(t, i -> i == contextParamId ? ctx : ctx.getObject(nameAt(i)));
         }
-        if (contextParamId >= 0) {
-            this.args[contextParamId] = ctx;
+    }
+
+    private String nameAt(int position) {
+        for (RuleMethod.FactDeclaration p : factDeclarations) {
+            if (p.position == position) {
+                return p.name;
+            }
         }
-        call();
+        throw new IllegalArgumentException("No fact at position " + position);
     }
 }
@@ -0,0 +1,100 @@
+package org.evrete.dsl;
+
+import org.evrete.Configuration;
+import org.evrete.KnowledgeService;
+import org.evrete.api.Knowledge;
+import org.evrete.api.StatefulSession;
+import org.evrete.dsl.rules.DeclarationRuleSet1;
+import org.evrete.dsl.rules.SampleRuleSet1Static;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class PrecompiledRulesTests {
+    private Path outputDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        outputDir = Files.createTempDirectory("evrete-precompiled");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(outputDir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    @Test
+    void precompiledRules() throws IOException {
+        // Simple conditions are interpreted by default, making sure they're compiled instead
+        Configuration precompilerConfiguration = new Configuration();
+        precompilerConfiguration.setProperty(Configuration.LITERAL_INTERPRETER, "false");
+        RulePrecompiler.precompile(precompilerConfiguration, outputDir, SampleRuleSet1Static.class);
+        assert Files.exists(outputDir.resolve(PrecompiledSources.DESCRIPTOR));
+        try (Stream<Path> files = Files.walk(outputDir)) {
+            List<Path> classFiles = files.filter(p -> p.toString().endsWith(".class")).collect(Collectors.toList());
+            assert !classFiles.isEmpty();
+        }
+
+        Configuration configuration = new Configuration();
+        configuration.setProperty(Constants.PROP_AOT_STRICT, "true");
+        configuration.setProperty(Configuration.LITERAL_INTERPRETER, "false");
+        KnowledgeService service = KnowledgeService.builder(configuration)
+                .withSourceCompilerProvider(PrecompiledSourceCompilerProvider.class)
+                .build();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{outputDir.toUri().toURL()}, getClass().getClassLoader())) {
+            service.setClassLoader(classLoader);
+
+            // Strict mode, the rules must be loaded without compilation
+            Knowledge knowledge = service.newKnowledge().importRules(Constants.PROVIDER_JAVA_CLASS, SampleRuleSet1Static.class);
+            try (StatefulSession session = knowledge.newStatefulSession()) {
+                for (int i = 2; i < 100; i++) {
+                    session.insert(i);
+                }
+                session.fire();
+                Assertions.assertEquals(25, session.streamFacts(Integer.class).count());
+            }
+
+            // Rules that haven't been precompiled
+            Assertions.assertThrows(
+                    IllegalStateException.class,
+                    () -> service.newKnowledge().importRules(Constants.PROVIDER_JAVA_CLASS, DeclarationRuleSet1.class)
+            );
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void runtimeFallback() throws IOException {
+        KnowledgeService service = KnowledgeService.builder()
+                .withSourceCompilerProvider(PrecompiledSourceCompilerProvider.class)
+                .build();
+        try {
+            Knowledge knowledge = service.newKnowledge().importRules(Constants.PROVIDER_JAVA_CLASS, SampleRuleSet1Static.class);
+            try (StatefulSession session = knowledge.newStatefulSession()) {
+                for (int i = 2; i < 100; i++) {
+                    session.insert(i);
+                }
+                session.fire();
+                Assertions.assertEquals(25, session.streamFacts(Integer.class).count());
+            }
+        } finally {
+            service.shutdown();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.evrete.dsl;
+
+import org.evrete.api.RhsContext;
+import org.evrete.dsl.annotation.Fact;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class WrappedMethodTest {
+
+    @Test
+    void concurrentConditionEvaluation() throws Exception {
+        WrappedConditionMethod predicate = condition("sameValues", Object.class, Object.class, Object.class);
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        Integer value = i;
+                        if (!predicate.test(index -> value)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                Assertions.assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void primitiveParameters() throws Exception {
+        WrappedConditionMethod predicate = condition("greater", int.class, long.class);
+        Object[] values = {5, 3L};
+        Assertions.assertTrue(predicate.test(i -> values[i]));
+        values[1] = 7L;
+        Assertions.assertFalse(predicate.test(i -> values[i]));
+
+        // Boxed values are unboxed, nulls can't be
+        values[0] = null;
+        Assertions.assertThrows(RuntimeException.class, () -> predicate.test(i -> values[i]));
+    }
+
+    @Test
+    void contextParameter() throws Exception {
+        Methods instance = new Methods();
+        Method method = Methods.class.getMethod("rhs", String.class, RhsContext.class, int.class);
+        WrappedRhsMethod rhs = new WrappedRhsMethod(wrappedClass(), method).bindTo(instance);
+
+        Map<String, Object> facts = new HashMap<>();
+        facts.put("$s", "abc");
+        facts.put("$i", 3);
+        RhsContext ctx = (RhsContext) Proxy.newProxyInstance(RhsContext.class.getClassLoader(), new Class<?>[]{RhsContext.class}, (proxy, m, args) -> {
+            if (m.getName().equals("getObject")) {
+                return facts.get((String) args[0]);
+            } else {
+                throw new UnsupportedOperationException(m.getName());
+            }
+        });
+
+        rhs.accept(ctx);
+        Assertions.assertSame(ctx, instance.ctx);
+        Assertions.assertEquals("abc3", instance.result);
+    }
+
+    private static WrappedConditionMethod condition(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        Method method = Methods.class.getMethod(name, parameterTypes);
+        return new WrappedConditionMethod(new WrappedMethod(wrappedClass(), method));
+    }
+
+    private static WrappedClass wrappedClass() {
+        return new WrappedClass(Methods.class, MethodHandles.publicLookup());
+    }
+
+    public static class Methods {
+        RhsContext ctx;
+        String result;
+
+        // Arguments must be equal to each other, the method checks that no other thread has modified them
+        public static boolean sameValues(Object a, Object b, Object c) {
+            Thread.yield();
+            return a == b && b == c;
+        }
+
+        public static boolean greater(int a, long b) {
+            return a > b;
+        }
+
+        public void rhs(@Fact("$s") String s, RhsContext ctx, @Fact("$i") int i) {
+            this.ctx = ctx;
+            this.result = s + i;
+        }
+    }
+}